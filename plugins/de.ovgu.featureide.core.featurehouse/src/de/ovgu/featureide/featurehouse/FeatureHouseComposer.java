@@ -28,7 +28,9 @@ import java.io.UnsupportedEncodingException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashSet;
@@ -80,8 +82,10 @@ import de.ovgu.featureide.core.fstmodel.FSTRole;
 import de.ovgu.featureide.core.signature.documentation.base.ADocumentationCommentParser;
 import de.ovgu.featureide.featurehouse.errorpropagation.ErrorPropagation;
 import de.ovgu.featureide.featurehouse.meta.FeatureIDEModelInfo;
+import de.ovgu.featureide.featurehouse.meta.MetaProductCache;
 import de.ovgu.featureide.featurehouse.meta.featuremodel.FeatureModelClassGenerator;
 import de.ovgu.featureide.featurehouse.model.FeatureHouseModelBuilder;
+import de.ovgu.featureide.featurehouse.model.FeatureNodeCache;
 import de.ovgu.featureide.featurehouse.signature.documentation.DocumentationCommentParser;
 import de.ovgu.featureide.fm.core.FMCorePlugin;
 import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
@@ -159,6 +163,10 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 
 	public FeatureHouseModelBuilder fhModelBuilder;
 
+	private final FeatureNodeCache fullFSTCache = new FeatureNodeCache();
+
+	private final MetaProductCache metaProductCache = new MetaProductCache();
+
 	private ErrorPropagation errorPropagation = null;
 
 	private final IParseErrorListener listener = createParseErrorListener();
@@ -414,7 +422,7 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 				buildDefaultMetaProduct(configPath, basePath, outputPath);
 			}
 		} else {
-			composer = new FSTGenComposer(false);
+			composer = new ParallelFSTGenComposer(FeatureHouseCorePlugin.getExecutor());
 			composer.addCompositionErrorListener(compositionErrorListener);
 			try {
 				composer.run(getArguments(configPath, basePath, outputPath, getContractParameter()));
@@ -611,9 +619,6 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 		FSTGenComposerExtension.key = IFeatureProject.META_THEOREM_PROVING.equals(featureProject.getMetaProductGeneration())
 			|| IFeatureProject.META_MODEL_CHECKING_BDD_JAVA_JML.equals(featureProject.getMetaProductGeneration())
 			|| IFeatureProject.META_VAREXJ.equals(featureProject.getMetaProductGeneration());
-		final FSTGenComposerExtension composerExtension = new FSTGenComposerExtension();
-		composer = composerExtension;
-		composerExtension.addCompositionErrorListener(compositionErrorListener);
 		final FeatureModelFormula formula = featureProject.getFeatureModelManager().getPersistentFormula();
 		final IFeatureModel featureModel = formula.getFeatureModel();
 		final Collection<String> featureOrderList = featureModel.getFeatureOrderList();
@@ -631,15 +636,120 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 			}
 		}
 
+		// the meta product does not depend on the current configuration, so only the classes whose fragments changed have to be composed again
+		final String contractParameter = getContractParameter();
+		final String key = featureProject.getMetaProductGeneration() + File.pathSeparator + basePath + File.pathSeparator + outputPath + File.pathSeparator
+			+ contractParameter + File.pathSeparator + Arrays.toString(features) + File.pathSeparator + MetaProductCache.hashFormula(formula);
+		List<String> changedClasses;
+		try {
+			changedClasses = metaProductCache.getChangedClasses(key, Paths.get(basePath), features);
+		} catch (final IOException e) {
+			LOGGER.logError(e);
+			metaProductCache.clear();
+			changedClasses = null;
+		}
+
+		if ((changedClasses != null) && metaProductCache.hasCachedClasses()) {
+			if (changedClasses.isEmpty() || buildChangedMetaProductClasses(configPath, basePath, outputPath, contractParameter, formula, features, changedClasses)) {
+				try {
+					metaProductCache.restore(Paths.get(outputPath));
+					final FSTGenComposerExtension restoredComposer = new FSTGenComposerExtension();
+					restoredComposer.setFstnodes(metaProductCache.getFSTNodes(features));
+					composer = restoredComposer;
+					return;
+				} catch (final IOException e) {
+					LOGGER.logError(e);
+				}
+			}
+		}
+
+		final ArrayList<FSTNode> fstnodes = composeMetaProduct(configPath, basePath, outputPath, contractParameter, formula, features, true);
+		if ((fstnodes != null) && (changedClasses != null)) {
+			try {
+				metaProductCache.update(changedClasses, Paths.get(basePath), Paths.get(basePath), Paths.get(outputPath), fstnodes);
+				return;
+			} catch (final IOException e) {
+				LOGGER.logError(e);
+			}
+		}
+		metaProductCache.clear();
+	}
+
+	/**
+	 * Composes only the given classes of the meta product. The fragments of these classes are copied to a temporary folder, which is used as source folder
+	 * of FeatureHouse.
+	 *
+	 * @return <code>true</code> if the classes were composed without errors
+	 */
+	private boolean buildChangedMetaProductClasses(final String configPath, final String basePath, final String outputPath, final String contractParameter,
+			final FeatureModelFormula formula, final String[] features, final List<String> changedClasses) {
+		Path tempFolder = null;
+		try {
+			tempFolder = Files.createTempDirectory("featureide-meta");
+			MetaProductCache.copyClasses(changedClasses, Paths.get(basePath), tempFolder, features);
+			// errors are reported by the complete composition, because the markers need the original files
+			final ArrayList<FSTNode> fstnodes = composeMetaProduct(configPath, tempFolder.toString(), outputPath, contractParameter, formula, features, false);
+			if (fstnodes == null) {
+				return false;
+			}
+			metaProductCache.update(changedClasses, Paths.get(basePath), tempFolder, Paths.get(outputPath), fstnodes);
+			fstnodes.clear();
+			return true;
+		} catch (final IOException e) {
+			LOGGER.logError(e);
+			return false;
+		} finally {
+			if (tempFolder != null) {
+				try {
+					MetaProductCache.delete(tempFolder);
+				} catch (final IOException e) {
+					LOGGER.logError(e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Composes the meta product of the given source folder.
+	 *
+	 * @param reportErrors <code>true</code> if composition errors should be shown as markers
+	 * @return The nodes of the FeatureHouse composer or <code>null</code> if errors occurred
+	 */
+	private ArrayList<FSTNode> composeMetaProduct(final String configPath, final String sourcePath, final String outputPath, final String contractParameter,
+			final FeatureModelFormula formula, final String[] features, boolean reportErrors) {
+		final FSTGenComposerExtension composerExtension = new FSTGenComposerExtension();
+		composer = composerExtension;
+		if (reportErrors) {
+			composerExtension.addCompositionErrorListener(compositionErrorListener);
+		}
+		final boolean[] errors = new boolean[1];
+		composerExtension.addCompositionErrorListener(new ICompositionErrorListener() {
+
+			@Override
+			public void parseErrorOccured(CompositionException e) {
+				errors[0] = true;
+			}
+		});
+		composerExtension.addParseErrorListener(new IParseErrorListener() {
+
+			@Override
+			public void parseErrorOccured(ParseException e) {
+				errors[0] = true;
+			}
+		});
 		try {
-			final String[] args = getArguments(configPath, basePath, outputPath, getContractParameter());
+			final String[] args = getArguments(configPath, sourcePath, outputPath, contractParameter);
 			final FeatureModelInfo modelInfo =
 				new FeatureIDEModelInfo(formula, !IFeatureProject.META_THEOREM_PROVING.equals(featureProject.getMetaProductGeneration()));
 			composerExtension.setModelInfo(modelInfo);
 			composerExtension.buildMetaProduct(args, features);
-		} catch (final TokenMgrError e) {} catch (final Error e) {
+		} catch (final TokenMgrError e) {
+			errors[0] = true;
+		} catch (final Error e) {
+			errors[0] = true;
 			LOGGER.logError(e);
 		}
+		return errors[0] ? null : composerExtension.getFstnodes();
 	}
 
 	private static String SPLModelChecker = "package verificationClasses;\r\n" + "import gov.nasa.jpf.jvm.Verify;\r\n" + "public class SPLModelChecker {\r\n"
@@ -872,26 +982,51 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 		fhModelBuilder.buildModel(composer.getFstnodes(), false);
 
 		// build the complete fst model
-		final FSTGenComposerExtension composerExtension = new FSTGenComposerExtension();
-		composer = composerExtension;
-		composerExtension.addParseErrorListener(listener);
+		fhModelBuilder.buildModel(buildFullFST(configPath, basePath, outputPath), true);
+	}
+
+	/**
+	 * Parses the files of all features for the complete fst model. Only features whose files changed since the last call are parsed again, the nodes of the
+	 * remaining features are taken from {@link #fullFSTCache}.
+	 *
+	 * @param configPath
+	 * @param basePath
+	 * @param outputPath
+	 * @return The nodes of all features in feature order
+	 */
+	private ArrayList<FSTNode> buildFullFST(final String configPath, final String basePath, final String outputPath) {
 		final List<String> featureOrder = featureProject.getFeatureModel().getFeatureOrderList();
-		final String[] features = new String[featureOrder.size()];
-		int i = 0;
-		for (final String f : featureOrder) {
-			features[i++] = f;
-		}
-		try {
-			composerExtension.buildFullFST(getArguments(configPath, basePath, outputPath, getContractParameter()), features);
-		} catch (final TokenMgrError e) {
-			createBuilderProblemMarker(getTokenMgrErrorLine(e.getMessage()), getTokenMgrErrorMessage(e.getMessage()));
-		} catch (final Error e) {
-			LOGGER.logError(e);
-		}
-		final ArrayList<FSTNode> fstnodes = composer.getFstnodes();
-		if (fstnodes != null) {
-			fhModelBuilder.buildModel(fstnodes, true);
+		final String contractParameter = getContractParameter();
+		final String[] changedFeatures = fullFSTCache.getChangedFeatures(basePath + File.pathSeparator + outputPath + File.pathSeparator + contractParameter,
+				basePath, featureOrder);
+		if (changedFeatures.length > 0) {
+			final FSTGenComposerExtension composerExtension = new FSTGenComposerExtension();
+			composer = composerExtension;
+			composerExtension.addParseErrorListener(listener);
+			final boolean[] parseErrors = new boolean[1];
+			composerExtension.addParseErrorListener(new IParseErrorListener() {
+
+				@Override
+				public void parseErrorOccured(ParseException e) {
+					parseErrors[0] = true;
+				}
+			});
+			try {
+				composerExtension.buildFullFST(getArguments(configPath, basePath, outputPath, contractParameter), changedFeatures);
+			} catch (final TokenMgrError e) {
+				parseErrors[0] = true;
+				createBuilderProblemMarker(getTokenMgrErrorLine(e.getMessage()), getTokenMgrErrorMessage(e.getMessage()));
+			} catch (final Error e) {
+				parseErrors[0] = true;
+				LOGGER.logError(e);
+			}
+			final ArrayList<FSTNode> fstnodes = composer.getFstnodes();
+			fullFSTCache.update(fstnodes, changedFeatures, (fstnodes != null) && !parseErrors[0]);
+			if (fstnodes != null) {
+				fstnodes.clear();
+			}
 		}
+		return fullFSTCache.getNodes(featureOrder);
 	}
 
 	/**
@@ -1026,37 +1161,14 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 			return;
 		}
 
-		final FSTGenComposerExtension composerExtension = new FSTGenComposerExtension();
-		composer = composerExtension;
-		composerExtension.addParseErrorListener(listener);
-
-		final List<String> featureOrderList = featureProject.getFeatureModel().getFeatureOrderList();
-		final String[] features = new String[featureOrderList.size()];
-		int i = 0;
-		for (final String f : featureOrderList) {
-			features[i++] = f;
-		}
-
-		try {
-			composerExtension.buildFullFST(getArguments(configPath, basePath, outputPath, getContractParameter()), features);
-		} catch (final TokenMgrError e) {
-			createBuilderProblemMarker(getTokenMgrErrorLine(e.getMessage()), getTokenMgrErrorMessage(e.getMessage()));
-		} catch (final Error e) {
-			LOGGER.logError(e);
-		}
-
-		final ArrayList<FSTNode> fstnodes = composer.getFstnodes();
-		if (fstnodes != null) {
-			fhModelBuilder.buildModel(fstnodes, false);
-			fstnodes.clear();
-		}
+		fhModelBuilder.buildModel(buildFullFST(configPath, basePath, outputPath), false);
 	}
 
 	@Override
 	public void buildConfiguration(IFolder folder, Configuration configuration, String congurationName) {
 		super.buildConfiguration(folder, configuration, congurationName);
 		final Path configurationFile = EclipseFileSystem.getPath(folder).resolve(congurationName + '.' + getConfigurationFormat().getSuffix());
-		final FSTGenComposer composer = new FSTGenComposer(false);
+		final FSTGenComposer composer = new ParallelFSTGenComposer(FeatureHouseCorePlugin.getExecutor());
 		composer.addParseErrorListener(createParseErrorListener());
 		composer.addCompositionErrorListener(createCompositionErrorListener());
 		final Path temporaryConfigrationFile = createTemporaryConfigrationFile(configurationFile);
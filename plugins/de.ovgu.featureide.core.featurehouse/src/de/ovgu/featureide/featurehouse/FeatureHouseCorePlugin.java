@@ -20,6 +20,12 @@
  */
 package de.ovgu.featureide.featurehouse;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.osgi.framework.BundleContext;
 
 import de.ovgu.featureide.core.CorePlugin;
@@ -41,6 +47,8 @@ public class FeatureHouseCorePlugin extends AbstractCorePlugin {
 
 	private static FeatureHouseCorePlugin plugin;
 
+	private static ThreadPoolExecutor executor = null;
+
 	@Override
 	public String getID() {
 		return PLUGIN_ID;
@@ -62,6 +70,12 @@ public class FeatureHouseCorePlugin extends AbstractCorePlugin {
 	 */
 	@Override
 	public void stop(BundleContext context) throws Exception {
+		synchronized (FeatureHouseCorePlugin.class) {
+			if (executor != null) {
+				executor.shutdownNow();
+				executor = null;
+			}
+		}
 		plugin = null;
 		super.stop(context);
 	}
@@ -70,4 +84,24 @@ public class FeatureHouseCorePlugin extends AbstractCorePlugin {
 		return plugin;
 	}
 
+	/**
+	 * Returns the executor that is shared by the composition and the error propagation of all FeatureHouse projects.<br> The workers are daemon threads that
+	 * terminate when they are idle.
+	 *
+	 * @return the shared executor
+	 */
+	public static synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			final int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+			final AtomicInteger threadNumber = new AtomicInteger();
+			executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), runnable -> {
+				final Thread thread = new Thread(runnable, "FeatureHouse Worker " + threadNumber.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+			executor.allowCoreThreadTimeOut(true);
+		}
+		return executor;
+	}
+
 }
@@ -0,0 +1,162 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.featurehouse;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import composer.CompositionException;
+import composer.FSTGenComposer;
+import composer.rules.CompositionError;
+import composer.rules.ConstructorConcatenation;
+import composer.rules.ExpansionOverriding;
+import composer.rules.FieldOverriding;
+import composer.rules.ImplementsListMerging;
+import composer.rules.ModifierListSpecialization;
+import composer.rules.Replacement;
+import composer.rules.StringConcatenation;
+import de.ovgu.cide.fstgen.ast.FSTNode;
+import de.ovgu.cide.fstgen.ast.FSTNonTerminal;
+import de.ovgu.cide.fstgen.ast.FSTTerminal;
+import de.ovgu.featureide.featurehouse.model.FHNodeTypes;
+
+/**
+ * Superimposes the feature structure trees like the {@link FSTGenComposer}, but composes independent classes concurrently.<br> Feature and folder nodes are
+ * composed on the calling thread. The composition of each file that is contained in more than one feature is submitted to the executor and a placeholder is
+ * inserted into the composed tree. After a feature has been superimposed, the placeholders are replaced by the composed files, so the resulting tree is the
+ * same as for a sequential composition.<br> Terminals whose composition rule uses shared state of FeatureHouse (e.g., the composition metadata used by
+ * <code>JavaMethodOverriding</code>) are composed one at a time.
+ */
+public class ParallelFSTGenComposer extends FSTGenComposer {
+
+	/**
+	 * Composition rules that only depend on the composed terminals.
+	 */
+	private static final Set<String> CONCURRENT_RULES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(Replacement.COMPOSITION_RULE_NAME,
+			StringConcatenation.COMPOSITION_RULE_NAME, ImplementsListMerging.COMPOSITION_RULE_NAME, ModifierListSpecialization.COMPOSITION_RULE_NAME,
+			FieldOverriding.COMPOSITION_RULE_NAME, ConstructorConcatenation.COMPOSITION_RULE_NAME, ExpansionOverriding.COMPOSITION_RULE_NAME,
+			CompositionError.COMPOSITION_RULE_NAME)));
+
+	private final ExecutorService executor;
+
+	private final Object ruleLock = new Object();
+
+	/**
+	 * The placeholders of the files that are composed concurrently. Only accessed by the thread calling {@link #run(String[])}.
+	 */
+	private final Map<FSTNonTerminal, Future<FSTNode>> placeholders = new LinkedHashMap<>();
+
+	/**
+	 * @param executor The executor that composes the files
+	 */
+	public ParallelFSTGenComposer(ExecutorService executor) {
+		super(false);
+		this.executor = executor;
+	}
+
+	@Override
+	public FSTNode compose(final FSTNode nodeA, final FSTNode nodeB, final FSTNonTerminal compParent) {
+		if (nodeA instanceof FSTTerminal) {
+			if (CONCURRENT_RULES.contains(((FSTTerminal) nodeA).getCompositionMechanism())) {
+				return super.compose(nodeA, nodeB, compParent);
+			}
+			synchronized (ruleLock) {
+				return super.compose(nodeA, nodeB, compParent);
+			}
+		}
+		if (isContainer(nodeA)) {
+			final FSTNode composed = super.compose(nodeA, nodeB, compParent);
+			if (compParent == null) {
+				replacePlaceholders();
+			}
+			return composed;
+		}
+		if ((compParent == null) || !isContainer(compParent) || !nodeA.compatibleWith(nodeB)) {
+			return super.compose(nodeA, nodeB, compParent);
+		}
+
+		final FSTNonTerminal placeholder = new FSTNonTerminal(nodeA.getType(), nodeA.getName());
+		placeholders.put(placeholder, executor.submit(() -> ParallelFSTGenComposer.super.compose(nodeA, nodeB, compParent)));
+		return placeholder;
+	}
+
+	@Override
+	public synchronized void fireCompositionErrorOccured(CompositionException e) {
+		super.fireCompositionErrorOccured(e);
+	}
+
+	private static boolean isContainer(FSTNode node) {
+		return FHNodeTypes.NODE_TYPE_FEATURE.equals(node.getType()) || FHNodeTypes.NODE_TYPE_FOLDER.equals(node.getType());
+	}
+
+	/**
+	 * Waits for the concurrently composed files and inserts them at the position of their placeholders.
+	 */
+	private void replacePlaceholders() {
+		try {
+			for (final Entry<FSTNonTerminal, Future<FSTNode>> entry : placeholders.entrySet()) {
+				final FSTNonTerminal placeholder = entry.getKey();
+				final FSTNode composed = getComposedNode(entry.getValue());
+				final FSTNonTerminal parent = placeholder.getParent();
+				final List<FSTNode> children = parent.getChildren();
+				for (int i = 0; i < children.size(); i++) {
+					if (children.get(i) == placeholder) {
+						children.set(i, composed);
+						composed.setParent(parent);
+						break;
+					}
+				}
+			}
+		} finally {
+			for (final Future<FSTNode> future : placeholders.values()) {
+				future.cancel(true);
+			}
+			placeholders.clear();
+		}
+	}
+
+	private static FSTNode getComposedNode(Future<FSTNode> future) {
+		try {
+			return future.get();
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new RuntimeException(cause);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		}
+	}
+
+}
@@ -27,12 +27,18 @@ import java.io.FileNotFoundException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.AbstractCollection;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Scanner;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IMarker;
@@ -150,7 +156,8 @@ public abstract class ErrorPropagation {
 	}
 
 	/**
-	 * Calls the corresponding propagation for all files at <code>composedFiles</code>.
+	 * Calls the corresponding propagation for all files at <code>composedFiles</code>.<br> The files are processed concurrently, because the composed
+	 * classes are independent of each other.
 	 */
 	protected void propagateMarkers(IProgressMonitor monitor) {
 		if (composedFiles.isEmpty()) {
@@ -162,15 +169,59 @@ public abstract class ErrorPropagation {
 		}
 		monitor.beginTask(PROPAGATE_MARKERS_FOR, IProgressMonitor.UNKNOWN);
 
-		IFile file;
-		while ((file = removeComposedFile()) != null) {
-			if (monitor.isCanceled()) {
-				composedFiles.clear();
-				break;
+		final IProgressMonitor progressMonitor = monitor;
+		final ExecutorService executor = FeatureHouseCorePlugin.getExecutor();
+		final List<Future<?>> futures = new ArrayList<>();
+		try {
+			// files can be added while the markers are propagated
+			while (!composedFiles.isEmpty()) {
+				final List<IFile> files = new ArrayList<>();
+				IFile file;
+				while ((file = removeComposedFile()) != null) {
+					files.add(file);
+				}
+				Collections.sort(files, new Comparator<IFile>() {
+
+					@Override
+					public int compare(IFile o1, IFile o2) {
+						return o1.getFullPath().toString().compareTo(o2.getFullPath().toString());
+					}
+				});
+
+				// each composed file belongs to exactly one class, so the markers of different files can be propagated independently
+				futures.clear();
+				for (final IFile composedFile : files) {
+					futures.add(executor.submit(new Runnable() {
+
+						@Override
+						public void run() {
+							if (!progressMonitor.isCanceled()) {
+								propagateMarkers(composedFile);
+							}
+						}
+					}));
+				}
+				for (int i = 0; i < files.size(); i++) {
+					progressMonitor.subTask(files.get(i).getName());
+					try {
+						futures.get(i).get();
+					} catch (final ExecutionException e) {
+						FeatureHouseCorePlugin.getDefault().logError(e.getCause());
+					} catch (final InterruptedException e) {
+						Thread.currentThread().interrupt();
+						progressMonitor.setCanceled(true);
+					}
+					progressMonitor.worked(1);
+				}
+				if (progressMonitor.isCanceled()) {
+					composedFiles.clear();
+					break;
+				}
+			}
+		} finally {
+			for (final Future<?> future : futures) {
+				future.cancel(false);
 			}
-			monitor.subTask(file.getName());
-			propagateMarkers(file);
-			monitor.worked(1);
 		}
 		monitor.done();
 	}
@@ -272,14 +272,7 @@ public class JavaErrorPropagation extends ErrorPropagation {
 			return null;
 		}
 
-		if (layerNames == null) {
-			final IFeatureModel model = project.getFeatureModel();
-			if (model.isFeatureOrderUserDefined()) {
-				layerNames = model.getFeatureOrderList();
-			} else {
-				layerNames = model.getFeatures().stream().map(IFeature::getName).collect(Collectors.toList());
-			}
-		}
+		initLayerNames(project);
 
 		final LinkedList<IFile> featureFiles = new LinkedList<IFile>();
 		final FSTModel fstModel = project.getFSTModel();
@@ -290,6 +283,20 @@ public class JavaErrorPropagation extends ErrorPropagation {
 		return featureFiles;
 	}
 
+	/**
+	 * Initializes the feature order once. Synchronized, because the markers of several files are propagated concurrently.
+	 */
+	private synchronized void initLayerNames(IFeatureProject project) {
+		if (layerNames == null) {
+			final IFeatureModel model = project.getFeatureModel();
+			if (model.isFeatureOrderUserDefined()) {
+				layerNames = model.getFeatureOrderList();
+			} else {
+				layerNames = model.getFeatures().stream().map(IFeature::getName).collect(Collectors.toList());
+			}
+		}
+	}
+
 	/**
 	 *
 	 * @param line The line to lock for
@@ -0,0 +1,351 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.featurehouse.meta;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import de.ovgu.cide.fstgen.ast.FSTNode;
+import de.ovgu.featureide.featurehouse.model.FHNodeTypes;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+
+/**
+ * Stores the composed classes of the meta product and the FeatureHouse nodes of their fragments per class.<br> Each class is identified by its path
+ * relative to the feature folders and is stored with a content hash of all its fragments (i.e., the files with this path in the folders of the composed
+ * features). Only classes whose hash changed have to be composed again. All classes are composed again if the key changes, which consists of the composition
+ * settings and a hash of the feature model formula.
+ */
+public class MetaProductCache implements FHNodeTypes {
+
+	private static final class CachedClass {
+
+		private final String hash;
+		private final byte[] composedFile;
+		private final Map<String, List<FSTNode>> featureNodes;
+
+		private CachedClass(String hash, byte[] composedFile, Map<String, List<FSTNode>> featureNodes) {
+			this.hash = hash;
+			this.composedFile = composedFile;
+			this.featureNodes = featureNodes;
+		}
+
+	}
+
+	private final Map<String, CachedClass> classes = new TreeMap<>();
+	private Map<String, String> pendingHashes = new HashMap<>();
+
+	private String key = null;
+
+	/**
+	 * @param formula The formula of the feature model
+	 * @return A hash of the content of the formula
+	 */
+	public static String hashFormula(FeatureModelFormula formula) {
+		final MessageDigest digest = createDigest();
+		digest.update(formula.getCNFNode().toString().getBytes(StandardCharsets.UTF_8));
+		return toHex(digest.digest());
+	}
+
+	/**
+	 * Returns the classes that must be composed again. Classes that are no longer contained in any feature are removed from the cache.
+	 *
+	 * @param key Identifies the composition settings and the feature model. If the key changes all classes are composed again.
+	 * @param sourcePath The source folder containing one folder per feature
+	 * @param features The composed features in composition order (<code>null</code> entries are ignored)
+	 * @return The paths of the changed classes relative to the feature folders
+	 * @throws IOException if a file could not be read
+	 */
+	public List<String> getChangedClasses(String key, Path sourcePath, String[] features) throws IOException {
+		if (!key.equals(this.key)) {
+			clear();
+			this.key = key;
+		}
+		pendingHashes = hashClasses(sourcePath, features);
+		classes.keySet().retainAll(pendingHashes.keySet());
+
+		final List<String> changedClasses = new ArrayList<>();
+		for (final Entry<String, String> entry : new TreeMap<>(pendingHashes).entrySet()) {
+			final CachedClass cachedClass = classes.get(entry.getKey());
+			if ((cachedClass == null) || !cachedClass.hash.equals(entry.getValue())) {
+				changedClasses.add(entry.getKey());
+			}
+		}
+		return changedClasses;
+	}
+
+	/**
+	 * @return <code>true</code> if at least one class is stored
+	 */
+	public boolean hasCachedClasses() {
+		return !classes.isEmpty();
+	}
+
+	/**
+	 * Copies the fragments of the given classes to the given folder, so that they can be composed without the unchanged classes.
+	 *
+	 * @param changedClasses The classes to copy
+	 * @param sourcePath The source folder containing one folder per feature
+	 * @param targetPath The target folder
+	 * @param features The composed features
+	 * @throws IOException if a file could not be copied
+	 */
+	public static void copyClasses(Collection<String> changedClasses, Path sourcePath, Path targetPath, String[] features) throws IOException {
+		for (final String feature : features) {
+			if (feature == null) {
+				continue;
+			}
+			final Path featureFolder = targetPath.resolve(feature);
+			Files.createDirectories(featureFolder);
+			for (final String changedClass : changedClasses) {
+				final Path file = sourcePath.resolve(feature).resolve(changedClass);
+				if (Files.isRegularFile(file)) {
+					final Path target = featureFolder.resolve(changedClass);
+					Files.createDirectories(target.getParent());
+					Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Stores the composed classes of the given composition.
+	 *
+	 * @param composedClasses The classes that were composed
+	 * @param sourcePath The source folder containing one folder per feature
+	 * @param composedSourcePath The source folder the classes were composed from (i.e., <code>sourcePath</code> or the target folder of
+	 *        {@link #copyClasses(Collection, Path, Path, String[])}). The file names of the nodes are changed to the corresponding files in
+	 *        <code>sourcePath</code>.
+	 * @param outputPath The output folder containing the composed classes
+	 * @param fstNodes The nodes of the FeatureHouse composer, which are necessary to build the fst model
+	 * @throws IOException if a composed class could not be read
+	 */
+	public void update(Collection<String> composedClasses, Path sourcePath, Path composedSourcePath, Path outputPath, List<FSTNode> fstNodes)
+			throws IOException {
+		final Map<String, Map<String, List<FSTNode>>> nodes = splitNodes(sourcePath, composedSourcePath, fstNodes);
+		for (final String composedClass : composedClasses) {
+			final String hash = pendingHashes.get(composedClass);
+			if (hash == null) {
+				continue;
+			}
+			final Path file = outputPath.resolve(composedClass);
+			final byte[] composedFile = Files.isRegularFile(file) ? Files.readAllBytes(file) : null;
+			final Map<String, List<FSTNode>> featureNodes = nodes.get(composedClass);
+			classes.put(composedClass, new CachedClass(hash, composedFile, featureNodes != null ? featureNodes : new HashMap<String, List<FSTNode>>()));
+		}
+	}
+
+	/**
+	 * Writes all stored classes to the given output folder.
+	 *
+	 * @param outputPath The output folder
+	 * @throws IOException if a class could not be written
+	 */
+	public void restore(Path outputPath) throws IOException {
+		for (final Entry<String, CachedClass> entry : classes.entrySet()) {
+			final byte[] composedFile = entry.getValue().composedFile;
+			if (composedFile != null) {
+				final Path file = outputPath.resolve(entry.getKey());
+				Files.createDirectories(file.getParent());
+				Files.write(file, composedFile);
+			}
+		}
+	}
+
+	/**
+	 * @param features The composed features in composition order
+	 * @return The nodes of all stored classes ordered by feature first and by class second
+	 */
+	public ArrayList<FSTNode> getFSTNodes(String[] features) {
+		final ArrayList<FSTNode> allNodes = new ArrayList<>();
+		for (final String feature : features) {
+			if (feature == null) {
+				continue;
+			}
+			for (final CachedClass cachedClass : classes.values()) {
+				final List<FSTNode> featureNodes = cachedClass.featureNodes.get(feature);
+				if (featureNodes != null) {
+					allNodes.addAll(featureNodes);
+				}
+			}
+		}
+		return allNodes;
+	}
+
+	public void clear() {
+		key = null;
+		classes.clear();
+		pendingHashes = new HashMap<>();
+	}
+
+	/**
+	 * Deletes the given folder and its content.
+	 *
+	 * @param folder The folder
+	 * @throws IOException if a file could not be deleted
+	 */
+	public static void delete(Path folder) throws IOException {
+		if (!Files.exists(folder)) {
+			return;
+		}
+		Files.walkFileTree(folder, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				Files.delete(file);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+				Files.delete(dir);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	/**
+	 * Groups the nodes by class and feature. The nodes of a class fragment start with a feature node, followed by a node containing the file name.
+	 */
+	private static Map<String, Map<String, List<FSTNode>>> splitNodes(Path sourcePath, Path composedSourcePath, List<FSTNode> fstNodes) {
+		final Map<String, Map<String, List<FSTNode>>> nodes = new HashMap<>();
+		FSTNode featureNode = null;
+		List<FSTNode> fragmentNodes = null;
+		for (final FSTNode node : fstNodes) {
+			if (NODE_TYPE_FEATURE.equals(node.getType())) {
+				featureNode = node;
+				fragmentNodes = null;
+			} else if (NODE_TYPE_CLASS.equals(node.getType()) && (featureNode != null)) {
+				final Path featureFolder = composedSourcePath.resolve(featureNode.getName());
+				final Path file = composedSourcePath.getFileSystem().getPath(node.getName());
+				if (file.startsWith(featureFolder)) {
+					final Path relativeFile = featureFolder.relativize(file);
+					node.setName(sourcePath.resolve(featureNode.getName()).resolve(relativeFile).toString());
+					Map<String, List<FSTNode>> featureNodes = nodes.get(getClassName(relativeFile));
+					if (featureNodes == null) {
+						featureNodes = new HashMap<>();
+						nodes.put(getClassName(relativeFile), featureNodes);
+					}
+					fragmentNodes = new ArrayList<>();
+					fragmentNodes.add(featureNode);
+					fragmentNodes.add(node);
+					featureNodes.put(featureNode.getName(), fragmentNodes);
+				} else {
+					fragmentNodes = null;
+				}
+			} else if (fragmentNodes != null) {
+				fragmentNodes.add(node);
+			}
+		}
+		return nodes;
+	}
+
+	/**
+	 * Computes the hash of each class from the content of its fragments in the folders of the given features.
+	 */
+	private static Map<String, String> hashClasses(Path sourcePath, String[] features) throws IOException {
+		final Map<String, List<Path>> fragments = new HashMap<>();
+		for (final String feature : features) {
+			if (feature == null) {
+				continue;
+			}
+			final Path featureFolder = sourcePath.resolve(feature);
+			if (!Files.isDirectory(featureFolder)) {
+				continue;
+			}
+			final TreeSet<Path> files = new TreeSet<>();
+			Files.walkFileTree(featureFolder, new SimpleFileVisitor<Path>() {
+
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+					files.add(file);
+					return FileVisitResult.CONTINUE;
+				}
+			});
+			for (final Path file : files) {
+				final String className = getClassName(featureFolder.relativize(file));
+				List<Path> classFragments = fragments.get(className);
+				if (classFragments == null) {
+					classFragments = new ArrayList<>();
+					fragments.put(className, classFragments);
+				}
+				classFragments.add(file);
+			}
+		}
+
+		final Map<String, String> hashes = new HashMap<>();
+		for (final Entry<String, List<Path>> entry : fragments.entrySet()) {
+			final MessageDigest digest = createDigest();
+			for (final Path file : entry.getValue()) {
+				digest.update(sourcePath.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+				digest.update((byte) 0);
+				digest.update(Files.readAllBytes(file));
+				digest.update((byte) 0);
+			}
+			hashes.put(entry.getKey(), toHex(digest.digest()));
+		}
+		return hashes;
+	}
+
+	private static String getClassName(Path relativeFile) {
+		final StringBuilder sb = new StringBuilder();
+		for (final Path name : relativeFile) {
+			if (sb.length() > 0) {
+				sb.append('/');
+			}
+			sb.append(name.toString());
+		}
+		return sb.toString();
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-1");
+		} catch (final NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		final StringBuilder sb = new StringBuilder();
+		for (final byte b : bytes) {
+			sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+			sb.append(Character.forDigit(b & 0xF, 16));
+		}
+		return sb.toString();
+	}
+
+}
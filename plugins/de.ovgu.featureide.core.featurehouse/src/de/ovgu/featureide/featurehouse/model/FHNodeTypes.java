@@ -30,6 +30,7 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.INVARIANT;
 public interface FHNodeTypes {
 
 	static final String NODE_TYPE_FEATURE = "Feature";
+	static final String NODE_TYPE_FOLDER = "Folder";
 	static final String NODE_TYPE_CLASS = "EOF Marker";
 	static final String NODE_COMPILATIONUNIT = "CompilationUnit";
 
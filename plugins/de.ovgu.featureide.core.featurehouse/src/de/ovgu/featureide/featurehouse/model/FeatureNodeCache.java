@@ -0,0 +1,165 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.featurehouse.model;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.ovgu.cide.fstgen.ast.FSTNode;
+
+/**
+ * Stores the parsed FeatureHouse nodes of the complete FST per feature, so that only features whose files changed have to be parsed again.<br> A feature is
+ * considered as changed if the paths, modification times, or sizes of the files in its folder differ from the last successful parse.
+ */
+public class FeatureNodeCache implements FHNodeTypes {
+
+	private final Map<String, List<FSTNode>> nodes = new HashMap<>();
+	private final Map<String, String> stamps = new HashMap<>();
+	private final Map<String, String> pendingStamps = new HashMap<>();
+
+	private String key = null;
+
+	/**
+	 * Returns the features that must be parsed again. Features that are no longer part of the feature order are removed from the cache.
+	 *
+	 * @param key Identifies the parse settings (e.g., the source path and the contract composition). If the key changes all features are parsed again.
+	 * @param sourcePath The source folder containing one folder per feature
+	 * @param featureOrder The current feature order
+	 * @return The names of the changed features in feature order
+	 */
+	public String[] getChangedFeatures(String key, String sourcePath, List<String> featureOrder) {
+		if (!key.equals(this.key)) {
+			clear();
+			this.key = key;
+		}
+		final Set<String> currentFeatures = new HashSet<>(featureOrder);
+		nodes.keySet().retainAll(currentFeatures);
+		stamps.keySet().retainAll(currentFeatures);
+		pendingStamps.clear();
+
+		final Path source = Paths.get(sourcePath);
+		final List<String> changedFeatures = new ArrayList<>();
+		for (final String feature : featureOrder) {
+			final String stamp = getStamp(source.resolve(feature));
+			if ((stamp == null) || !stamp.equals(stamps.get(feature)) || !nodes.containsKey(feature)) {
+				changedFeatures.add(feature);
+				pendingStamps.put(feature, stamp);
+			}
+		}
+		return changedFeatures.toArray(new String[0]);
+	}
+
+	/**
+	 * Replaces the nodes of the given features by the newly parsed nodes.
+	 *
+	 * @param parsedNodes The nodes of the FeatureHouse parser
+	 * @param parsedFeatures The features that were parsed
+	 * @param successful <code>false</code> if errors occurred during parsing. In this case the features are parsed again in the next build.
+	 */
+	public void update(List<FSTNode> parsedNodes, String[] parsedFeatures, boolean successful) {
+		final Map<String, List<FSTNode>> parsedFeatureNodes = new HashMap<>();
+		for (final String feature : parsedFeatures) {
+			parsedFeatureNodes.put(feature, new ArrayList<FSTNode>());
+		}
+		if (parsedNodes != null) {
+			List<FSTNode> featureNodes = null;
+			for (final FSTNode node : parsedNodes) {
+				if (NODE_TYPE_FEATURE.equals(node.getType())) {
+					featureNodes = parsedFeatureNodes.get(node.getName());
+				}
+				if (featureNodes != null) {
+					featureNodes.add(node);
+				}
+			}
+		}
+		nodes.putAll(parsedFeatureNodes);
+		for (final String feature : parsedFeatures) {
+			final String stamp = pendingStamps.get(feature);
+			if (successful && (stamp != null)) {
+				stamps.put(feature, stamp);
+			} else {
+				stamps.remove(feature);
+			}
+		}
+		pendingStamps.clear();
+	}
+
+	/**
+	 * @param featureOrder The current feature order
+	 * @return The nodes of all features in the given order
+	 */
+	public ArrayList<FSTNode> getNodes(List<String> featureOrder) {
+		final ArrayList<FSTNode> allNodes = new ArrayList<>();
+		for (final String feature : featureOrder) {
+			final List<FSTNode> featureNodes = nodes.get(feature);
+			if (featureNodes != null) {
+				allNodes.addAll(featureNodes);
+			}
+		}
+		return allNodes;
+	}
+
+	public void clear() {
+		nodes.clear();
+		stamps.clear();
+		pendingStamps.clear();
+		key = null;
+	}
+
+	/**
+	 * @return A fingerprint of all files in the given folder or <code>null</code> if the folder could not be read
+	 */
+	private static String getStamp(final Path folder) {
+		if (!Files.isDirectory(folder)) {
+			return "";
+		}
+		final long[] stamp = new long[2];
+		try {
+			Files.walkFileTree(folder, new SimpleFileVisitor<Path>() {
+
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+					long hash = folder.relativize(file).toString().hashCode();
+					hash = (31 * hash) + attrs.lastModifiedTime().toMillis();
+					hash = (31 * hash) + attrs.size();
+					stamp[0]++;
+					stamp[1] += hash * 0x9E3779B97F4A7C15L;
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		} catch (final IOException e) {
+			return null;
+		}
+		return stamp[0] + ":" + Long.toHexString(stamp[1]);
+	}
+
+}
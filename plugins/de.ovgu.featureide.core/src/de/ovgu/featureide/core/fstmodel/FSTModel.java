@@ -20,9 +20,10 @@
  */
 package de.ovgu.featureide.core.fstmodel;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
@@ -50,6 +51,11 @@ public class FSTModel {
 	private final IFeatureProject featureProject;
 	private FSTConfiguration configuration;
 
+	/**
+	 * Unmodifiable copy of the classes, which is created on demand and discarded whenever a class is added or removed.
+	 */
+	private volatile List<FSTClass> classList = null;
+
 	private ProjectSignatures projectSignatures = null;
 
 	public FSTModel(IFeatureProject featureProject) {
@@ -59,6 +65,7 @@ public class FSTModel {
 	public void reset() {
 		classes.clear();
 		features.clear();
+		classList = null;
 	}
 
 	@Nonnull
@@ -95,6 +102,7 @@ public class FSTModel {
 	public void addClass(final FSTClass c) {
 		if (!classes.containsKey(c.getName())) {
 			classes.put(c.getName(), c);
+			classList = null;
 		}
 	}
 
@@ -107,6 +115,7 @@ public class FSTModel {
 		if (c == null) {
 			c = new FSTClass(className);
 			classes.put(className, c);
+			classList = null;
 		}
 		final FSTFeature feature = addFeature(featureName);
 		role = new FSTRole(file, feature, c);
@@ -124,8 +133,16 @@ public class FSTModel {
 		return classes.get(className);
 	}
 
+	/**
+	 * @return An unmodifiable list of all classes. The list is shared between calls until the model changes.
+	 */
 	public List<FSTClass> getClasses() {
-		return new LinkedList<FSTClass>(classes.values());
+		List<FSTClass> list = classList;
+		if (list == null) {
+			list = Collections.unmodifiableList(new ArrayList<FSTClass>(classes.values()));
+			classList = list;
+		}
+		return list;
 	}
 
 	public IFeatureProject getFeatureProject() {
@@ -165,6 +182,7 @@ public class FSTModel {
 		if (c == null) {
 			c = new FSTClass(className);
 			classes.put(className, c);
+			classList = null;
 		}
 		final FSTFeature feature = addFeature(featureName);
 		final FSTArbitraryRole arbitraryRole = new FSTArbitraryRole(feature, c);
@@ -45,7 +45,6 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -63,6 +62,8 @@ import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IResourceChangeEvent;
 import org.eclipse.core.resources.IResourceChangeListener;
 import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
 import org.eclipse.core.resources.IncrementalProjectBuilder;
 import org.eclipse.core.resources.ProjectScope;
 import org.eclipse.core.resources.ResourcesPlugin;
@@ -99,22 +100,19 @@ import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent;
 import de.ovgu.featureide.fm.core.base.event.IEventListener;
-import de.ovgu.featureide.fm.core.base.impl.ConfigFormatManager;
 import de.ovgu.featureide.fm.core.base.impl.DefaultFeatureModelFactory;
 import de.ovgu.featureide.fm.core.base.impl.FMFormatManager;
 import de.ovgu.featureide.fm.core.base.impl.FeatureModel;
 import de.ovgu.featureide.fm.core.base.impl.MultiFeature;
 import de.ovgu.featureide.fm.core.base.impl.MultiFeatureModel;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
-import de.ovgu.featureide.fm.core.configuration.ConfigurationAnalyzer;
+import de.ovgu.featureide.fm.core.configuration.ConfigurationIndex;
+import de.ovgu.featureide.fm.core.configuration.ConfigurationValidator;
 import de.ovgu.featureide.fm.core.configuration.FeatureIDEFormat;
-import de.ovgu.featureide.fm.core.configuration.SelectableFeature;
-import de.ovgu.featureide.fm.core.configuration.Selection;
 import de.ovgu.featureide.fm.core.io.EclipseFileSystem;
 import de.ovgu.featureide.fm.core.io.FeatureOrderFormat;
 import de.ovgu.featureide.fm.core.io.IPersistentFormat;
 import de.ovgu.featureide.fm.core.io.Problem;
-import de.ovgu.featureide.fm.core.io.ProblemList;
 import de.ovgu.featureide.fm.core.io.manager.ConfigurationIO;
 import de.ovgu.featureide.fm.core.io.manager.ConfigurationManager;
 import de.ovgu.featureide.fm.core.io.manager.FeatureModelIO;
@@ -231,6 +229,8 @@ public class FeatureProject extends BuilderMarkerHandler implements IFeatureProj
 	private final JobToken syncModulesToken = LongRunningWrapper.createToken(JobStartingStrategy.WAIT_ONE);
 	private final JobToken checkConfigurationToken = LongRunningWrapper.createToken(JobStartingStrategy.CANCEL_WAIT_ONE);
 
+	private final ConfigurationValidator configurationValidator = new ConfigurationValidator();
+
 	private final LongRunningMethod<Boolean> syncModulesJob = new LongRunningMethod<Boolean>() {
 
 		@Override
@@ -277,12 +277,12 @@ public class FeatureProject extends BuilderMarkerHandler implements IFeatureProj
 			next(CALCULATE_CORE_AND_DEAD_FEATURES, workMonitor);
 			final List<String> concreteFeatures = getOptionalConcreteFeatures();
 			next(GET_SELECTION_MATRIX, workMonitor);
-			final boolean[][] selectionMatrix = getSelectionMatrix(concreteFeatures);
+			final ConfigurationIndex configurationIndex = getConfigurationIndex();
 			next(GET_FALSE_OPTIONAL_FEATURES, workMonitor);
-			final Collection<String> falseOptionalFeatures = getFalseOptionalConfigurationFeatures(selectionMatrix, concreteFeatures);
+			final Collection<String> falseOptionalFeatures = configurationIndex.getAlwaysSelectedFeatures(concreteFeatures);
 			next(GET_UNUSED_FEATURES, workMonitor);
 			workMonitor.checkCancel();
-			final Collection<String> deadFeatures = getUnusedConfigurationFeatures(selectionMatrix, concreteFeatures);
+			final Collection<String> deadFeatures = configurationIndex.getUnusedFeatures(concreteFeatures);
 			next("create marker: dead features", workMonitor);
 			if (!deadFeatures.isEmpty()) {
 				createConfigurationMarker(folder, MARKER_NEVER_SELECTED + deadFeatures.size() + (deadFeatures.size() > 1 ? " features are " : " feature is ")
@@ -1205,38 +1205,40 @@ public class FeatureProject extends BuilderMarkerHandler implements IFeatureProj
 				workMonitor.setRemainingWork(2);
 				final FeatureModelFormula f = featureModelManager.getPersistentFormula();
 
-				final Configuration config = new Configuration(f);
 				IMonitor<?> subTask = workMonitor.subTask(1);
-				subTask.setTaskName(DELETE_CONFIGURATION_MARKERS);
+				subTask.setTaskName(CHECK_VALIDITY_OF);
 				subTask.setRemainingWork(files.size());
-				for (final Path file : files) {
-					deleteConfigurationMarkers(EclipseFileSystem.getResource(file), IResource.DEPTH_ZERO);
-					subTask.step();
-				}
+				// only files that changed since the last check are validated again, the results of the other files are reused
+				final List<ConfigurationValidator.Result> results = configurationValidator.validate(f, files, subTask);
 				subTask.done();
+
 				subTask = workMonitor.subTask(1);
-				subTask.setRemainingWork(files.size());
-				// check validity
-				for (final Path file : files) {
-					subTask.setTaskName(CHECK_VALIDITY_OF + " - " + file.getFileName().toString());
-					final ProblemList lastProblems = SimpleFileHandler.load(file, config, ConfigFormatManager.getInstance());
-					final ConfigurationAnalyzer analyzer = new ConfigurationAnalyzer(f, config);
-					analyzer.update();
-					if (!analyzer.isValid()) {
-						String name = file.getFileName().toString();
-						final int extIndex = name.lastIndexOf('.');
-						if (extIndex > 0) {
-							name = name.substring(0, extIndex);
+				subTask.setTaskName(DELETE_CONFIGURATION_MARKERS);
+				// update all markers in one workspace operation
+				ResourcesPlugin.getWorkspace().run(new IWorkspaceRunnable() {
+
+					@Override
+					public void run(IProgressMonitor monitor) throws CoreException {
+						for (final ConfigurationValidator.Result result : results) {
+							final Path file = result.getFile();
+							final IResource resource = EclipseFileSystem.getResource(file);
+							deleteConfigurationMarkers(resource, IResource.DEPTH_ZERO);
+							if (!result.isValid()) {
+								String name = file.getFileName().toString();
+								final int extIndex = name.lastIndexOf('.');
+								if (extIndex > 0) {
+									name = name.substring(0, extIndex);
+								}
+								final String message = CONFIGURATION_ + name + IS_INVALID;
+								createConfigurationMarker(resource, message, 0, IMarker.SEVERITY_ERROR);
+							}
+							// create warnings (e.g., for features that are not available anymore)
+							for (final Problem warning : result.getProblems()) {
+								createConfigurationMarker(resource, warning.getMessage(), warning.getLine(), IMarker.SEVERITY_WARNING);
+							}
 						}
-						final String message = CONFIGURATION_ + name + IS_INVALID;
-						createConfigurationMarker(EclipseFileSystem.getResource(file), message, 0, IMarker.SEVERITY_ERROR);
-					}
-					// create warnings (e.g., for features that are not available anymore)
-					for (final Problem warning : lastProblems) {
-						createConfigurationMarker(EclipseFileSystem.getResource(file), warning.getMessage(), warning.getLine(), IMarker.SEVERITY_WARNING);
 					}
-					subTask.step();
-				}
+				}, null, IWorkspace.AVOID_UPDATE, null);
 				subTask.done();
 				workMonitor.done();
 				return true;
@@ -1255,64 +1257,21 @@ public class FeatureProject extends BuilderMarkerHandler implements IFeatureProj
 
 	@Override
 	public Collection<String> getFalseOptionalConfigurationFeatures() {
-		return getFalseOptionalConfigurationFeatures(getSelectionMatrix(), (List<String>) getOptionalConcreteFeatures());
-	}
-
-	public Collection<String> getFalseOptionalConfigurationFeatures(boolean[][] selections, final List<String> concreteFeatures) {
-		return checkValidSelections(selections, false, concreteFeatures);
+		return getConfigurationIndex().getAlwaysSelectedFeatures(getOptionalConcreteFeatures());
 	}
 
 	@Override
 	public Collection<String> getUnusedConfigurationFeatures() {
-		return getUnusedConfigurationFeatures(getSelectionMatrix(), (List<String>) getOptionalConcreteFeatures());
-	}
-
-	public Collection<String> getUnusedConfigurationFeatures(boolean[][] selections, final List<String> concreteFeatures) {
-		return checkValidSelections(selections, true, concreteFeatures);
+		return getConfigurationIndex().getUnusedFeatures(getOptionalConcreteFeatures());
 	}
 
-	private List<String> checkValidSelections(boolean[][] selections, boolean selectionState, final List<String> concreteFeatures) {
-		if (selections.length == 0) {
-			return Collections.emptyList();
-		}
-		final List<String> falseOptionalFeatures = new ArrayList<>();
-		columnLoop: for (int column = 0; column < concreteFeatures.size(); column++) {
-			for (int conf = 0; conf < selections.length; conf++) {
-				if (selections[conf][column] == selectionState) {
-					continue columnLoop;
-				}
-			}
-			falseOptionalFeatures.add(concreteFeatures.get(column));
-		}
-		return falseOptionalFeatures;
-	}
-
-	private boolean[][] getSelectionMatrix() {
-		return getSelectionMatrix(getOptionalConcreteFeatures());
-	}
-
-	private boolean[][] getSelectionMatrix(final Collection<String> concreteFeatures) {
-		final List<Path> configurations = getAllConfigurations();
-
-		final boolean[][] selections = new boolean[configurations.size()][concreteFeatures.size()];
-		final FeatureModelFormula featureModel = featureModelManager.getPersistentFormula();
-
-		int row = 0;
-		for (final Path file : configurations) {
-			final boolean[] currentRow = selections[row++];
-			final Configuration configuration = ConfigurationManager.load(file);
-			configuration.updateFeatures(featureModel);
-
-			int column = 0;
-			for (final String feature : concreteFeatures) {
-				final SelectableFeature selectablefeature = configuration.getSelectableFeature(feature);
-				if (selectablefeature != null) {
-					currentRow[column] = selectablefeature.getSelection() == Selection.SELECTED;
-				}
-				column++;
-			}
-		}
-		return selections;
+	/**
+	 * Returns the selections of all configurations in the configuration folder. Only configuration files that changed since the last call are read again.
+	 */
+	private ConfigurationIndex getConfigurationIndex() {
+		final ConfigurationIndex configurationIndex = ConfigurationIndex.getInstance(featureModelManager.getPersistentFormula(), configFolder);
+		configurationIndex.refresh(getAllConfigurations());
+		return configurationIndex;
 	}
 
 	private List<String> getOptionalConcreteFeatures() {
@@ -1617,6 +1576,7 @@ public class FeatureProject extends BuilderMarkerHandler implements IFeatureProj
 	 */
 	@Override
 	public void checkForProblems() {
+		configurationValidator.clear();
 		checkFeatureCoverage();
 		checkConfigurations(getAllConfigurations());
 		modelFile.deleteAllModelMarkers();
@@ -20,22 +20,59 @@
  */
 package de.ovgu.featureide.core.signature.filter;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import org.prop4j.And;
 import org.prop4j.Literal;
 import org.prop4j.Node;
 import org.prop4j.Not;
 import org.prop4j.Or;
-import org.prop4j.SatSolver;
-import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.core.CorePlugin;
 import de.ovgu.featureide.core.signature.base.IConstrainedObject;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.SimpleSatSolver;
+import de.ovgu.featureide.fm.core.editing.NodeCreator;
 
+/**
+ * Accepts all objects whose constraint contradicts the given constraints in at least one literal of its negated CNF.<br> The given constraints are
+ * converted into a {@link CNF} once. Each literal is checked only once by passing it as assumption to a solver, each found solution marks all of its
+ * literals as satisfiable. The result for a constraint is stored, because many objects share the same constraint. Each thread uses its own solver, so
+ * {@link #filter(Collection)} can check many objects in parallel.
+ */
 public class ConstraintFilter implements Predicate<IConstrainedObject> {
 
-	private final SatSolver solver;
+	private static final int TIMEOUT = 2000;
+
+	private static final int UNKNOWN = 0;
+	private static final int SATISFIABLE = 1;
+	private static final int UNSATISFIABLE = 2;
+
+	private final CNF cnf;
+
+	private final ThreadLocal<SimpleSatSolver> solvers = new ThreadLocal<SimpleSatSolver>() {
+
+		@Override
+		protected SimpleSatSolver initialValue() {
+			final SimpleSatSolver solver = new SimpleSatSolver(cnf);
+			solver.setTimeout(TIMEOUT);
+			return solver;
+		}
+	};
+
+	/**
+	 * The satisfiability of each literal (see {@link #getIndex(int)}). Index <code>0</code> holds the satisfiability of the formula itself.
+	 */
+	private final AtomicIntegerArray literalStatus;
+
+	private final Map<Node, Boolean> results = new ConcurrentHashMap<>();
 
 	private final boolean includeNullConstraint;
 
@@ -44,55 +81,115 @@ public class ConstraintFilter implements Predicate<IConstrainedObject> {
 	}
 
 	public ConstraintFilter(boolean includeNullConstraint, Node... constraints) {
-		solver = new SatSolver(new And(constraints), 2000);
+		cnf = Nodes.convert(new And(constraints));
+		literalStatus = new AtomicIntegerArray(2 * (cnf.getVariables().maxVariableID() + 1));
 		this.includeNullConstraint = includeNullConstraint;
 	}
 
+	/**
+	 * Filters the given objects in parallel.
+	 *
+	 * @param objects the objects to filter
+	 * @return all objects that are accepted by this filter in the order of the given collection
+	 */
+	public <T extends IConstrainedObject> List<T> filter(Collection<T> objects) {
+		return objects.parallelStream().filter(this).collect(Collectors.toList());
+	}
+
 	@Override
 	public boolean test(IConstrainedObject object) {
-		Node constraint = object.getConstraint();
+		final Node constraint = object.getConstraint();
 
 		if (constraint == null) {
 			return includeNullConstraint;
 		}
 
-		constraint = new Not(constraint).toCNF();
-
-		try {
-			if ((constraint instanceof Literal)) {
-				return !solver.isSatisfiable(new Node[] { constraint });
-			} else if (constraint instanceof Or) {
-				return checkOr(constraint);
-			} else {
-				final Node[] andChildren = constraint.getChildren();
-				for (int i = 0; i < andChildren.length; i++) {
-					final Node andChild = andChildren[i];
-					if (andChild instanceof Or) {
-						if (checkOr(andChild)) {
-							return true;
-						}
-					} else {
-						if (!solver.isSatisfiable(andChild)) {
-							return true;
-						}
-					}
-				}
+		Boolean result = results.get(constraint);
+		if (result == null) {
+			result = check(new Not(constraint).toCNF());
+			if (result == null) {
+				CorePlugin.getDefault().logWarning("Timeout while filtering constraint " + constraint);
 				return false;
 			}
-		} catch (final TimeoutException e) {
-			CorePlugin.getDefault().logError(e);
+			results.put(constraint, result);
+		}
+		return result;
+	}
+
+	/**
+	 * @return <code>true</code> if at least one literal of the given CNF is unsatisfiable, <code>null</code> if a timeout occurred
+	 */
+	private Boolean check(Node cnfNode) {
+		if ((cnfNode instanceof Literal) || (cnfNode instanceof Or)) {
+			return checkClause(cnfNode);
+		} else {
+			for (final Node andChild : cnfNode.getChildren()) {
+				final Boolean result = checkClause(andChild);
+				if ((result == null) || result) {
+					return result;
+				}
+			}
 			return false;
 		}
+	}
 
+	private Boolean checkClause(Node clause) {
+		if (clause instanceof Or) {
+			for (final Node orChild : clause.getChildren()) {
+				final Boolean satisfiable = isSatisfiable((Literal) orChild);
+				if ((satisfiable == null) || !satisfiable) {
+					return (satisfiable == null) ? null : true;
+				}
+			}
+			return false;
+		} else {
+			final Boolean satisfiable = isSatisfiable((Literal) clause);
+			return (satisfiable == null) ? null : !satisfiable;
+		}
 	}
 
-	private boolean checkOr(Node or) throws TimeoutException {
-		for (final Node orChild : or.getChildren()) {
-			if (!solver.isSatisfiable(orChild)) {
-				return true;
+	/**
+	 * @return whether the given constraints and the literal are satisfiable, <code>null</code> if a timeout occurred
+	 */
+	private Boolean isSatisfiable(Literal literal) {
+		if (NodeCreator.varTrue.equals(literal.var)) {
+			return literal.positive ? isSatisfiable(0) : Boolean.FALSE;
+		} else if (NodeCreator.varFalse.equals(literal.var)) {
+			return literal.positive ? Boolean.FALSE : isSatisfiable(0);
+		}
+		final int variable = cnf.getVariables().getVariable(literal.var.toString());
+		// variables that do not occur in the given constraints can have any value
+		return isSatisfiable(literal.positive ? variable : -variable);
+	}
+
+	private Boolean isSatisfiable(int literal) {
+		final int index = getIndex(literal);
+		final int status = literalStatus.get(index);
+		if (status != UNKNOWN) {
+			return status == SATISFIABLE;
+		}
+
+		final SimpleSatSolver solver = solvers.get();
+		switch ((literal == 0) ? solver.hasSolution() : solver.hasSolution(literal)) {
+		case TRUE:
+			literalStatus.set(0, SATISFIABLE);
+			for (final int solutionLiteral : solver.getSolution()) {
+				if (solutionLiteral != 0) {
+					literalStatus.set(getIndex(solutionLiteral), SATISFIABLE);
+				}
 			}
+			return true;
+		case FALSE:
+			literalStatus.set(index, UNSATISFIABLE);
+			return false;
+		case TIMEOUT:
+		default:
+			return null;
 		}
-		return false;
+	}
+
+	private static int getIndex(int literal) {
+		return literal > 0 ? literal << 1 : ((-literal) << 1) + 1;
 	}
 
 }
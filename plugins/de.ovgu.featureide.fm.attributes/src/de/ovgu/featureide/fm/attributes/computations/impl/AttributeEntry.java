@@ -51,8 +51,8 @@ public class AttributeEntry implements IOutlineEntry {
 	public List<IOutlineEntry> getChildren() {
 		List<IOutlineEntry> children = new ArrayList<>();
 		children.add(new CountAttributeComputation(config, attribute));
-		EstimatedMinimumComputation min = new EstimatedMinimumComputation(config, attribute);
-		EstimatedMaximumComputation max = new EstimatedMaximumComputation(config, attribute);
+		ExactMinimumComputation min = new ExactMinimumComputation(config, attribute);
+		ExactMaximumComputation max = new ExactMaximumComputation(config, attribute);
 		if (min.supportsType(null)) {
 			children.add(min);
 		}
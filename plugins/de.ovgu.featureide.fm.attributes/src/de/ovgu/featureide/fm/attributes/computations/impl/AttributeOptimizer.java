@@ -0,0 +1,230 @@
+package de.ovgu.featureide.fm.attributes.computations.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import de.ovgu.featureide.fm.attributes.optimization.AttributeFunction;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.constraint.analysis.DeRestrictionFactory;
+import de.ovgu.featureide.fm.core.constraint.analysis.PBSolver;
+import de.ovgu.featureide.fm.core.constraint.analysis.SAT4JPBSolver;
+import de.ovgu.featureide.fm.core.constraint.analysis.Translator;
+import de.ovgu.featureide.fm.core.constraint.analysis.UniqueId;
+
+/**
+ * Computes the exact minimum and maximum sum of a numerical attribute over all valid configurations that extend a partial configuration. In contrast to
+ * {@link EstimatedMinimumComputation} and {@link EstimatedMaximumComputation}, cross-tree constraints are considered.<br> The feature model is translated
+ * once into pseudo-boolean restrictions. The attribute values form the objective function, the selected and unselected features are passed as assumptions.
+ * Results are cached per attribute and configuration state. The last optimal configuration of an attribute is used as starting point for the next search.
+ */
+public class AttributeOptimizer {
+
+	private static final int CACHE_SIZE = 64;
+
+	/**
+	 * Identifies an optimization by attribute, direction, objective function and configuration state.
+	 */
+	private static class OptimizationKey {
+
+		private final String attributeName;
+		private final boolean maximize;
+		private final int[] assumptions;
+		private final AttributeFunction function;
+
+		private OptimizationKey(String attributeName, boolean maximize, int[] assumptions, AttributeFunction function) {
+			this.attributeName = attributeName;
+			this.maximize = maximize;
+			this.assumptions = assumptions;
+			this.function = function;
+		}
+
+		@Override
+		public int hashCode() {
+			int result = attributeName.hashCode();
+			result = (31 * result) + (maximize ? 1 : 0);
+			result = (31 * result) + Arrays.hashCode(assumptions);
+			result = (31 * result) + function.hashCode();
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if ((obj == null) || (getClass() != obj.getClass())) {
+				return false;
+			}
+			final OptimizationKey other = (OptimizationKey) obj;
+			return (maximize == other.maximize) && attributeName.equals(other.attributeName) && Arrays.equals(assumptions, other.assumptions)
+				&& function.equals(other.function);
+		}
+	}
+
+	/**
+	 * An optimal assignment together with the assumptions it was computed for.
+	 */
+	private static class Optimum {
+
+		private final OptimizationKey key;
+		private final int[] model;
+
+		private Optimum(OptimizationKey key, int[] model) {
+			this.key = key;
+			this.model = model;
+		}
+	}
+
+	/**
+	 * Returns the optimizer for the feature model of the given configuration. The optimizer is stored in the {@link FeatureModelFormula} and thus discarded
+	 * when the feature model changes.
+	 *
+	 * @param config The configuration
+	 * @return The optimizer for the feature model
+	 */
+	public static AttributeOptimizer getInstance(Configuration config) {
+		FeatureModelFormula formula = config.getFeatureModelFormula();
+		if (formula == null) {
+			formula = new FeatureModelFormula(config.getFeatureModel());
+		}
+		return formula.getElement(new AttributeOptimizerCreator());
+	}
+
+	private final IFeatureModel featureModel;
+	private final Map<String, Integer> featureIds;
+	private final PBSolver solver;
+
+	private final Map<OptimizationKey, Double> cache = new LinkedHashMap<OptimizationKey, Double>(16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Entry<OptimizationKey, Double> eldest) {
+			return size() > CACHE_SIZE;
+		}
+	};
+
+	/**
+	 * The last optimum per attribute and direction.
+	 */
+	private final Map<String, Optimum> lastOptima = new HashMap<>();
+
+	public AttributeOptimizer(IFeatureModel featureModel) {
+		this.featureModel = featureModel;
+		featureIds = Translator.buildFeatureNameMap(featureModel, new UniqueId());
+		solver = new SAT4JPBSolver();
+		solver.addRestrictions(Translator.translateFm(featureIds, featureModel, new DeRestrictionFactory()));
+	}
+
+	/**
+	 * Computes the minimal sum of the given attribute.
+	 *
+	 * @param attributeName The name of a numerical attribute
+	 * @param config The partial configuration
+	 * @return The minimal sum or <code>null</code> if the configuration cannot be completed to a valid one
+	 */
+	public synchronized Double getMinimum(String attributeName, Configuration config) {
+		return optimize(attributeName, config, false);
+	}
+
+	/**
+	 * Computes the maximal sum of the given attribute.
+	 *
+	 * @param attributeName The name of a numerical attribute
+	 * @param config The partial configuration
+	 * @return The maximal sum or <code>null</code> if the configuration cannot be completed to a valid one
+	 */
+	public synchronized Double getMaximum(String attributeName, Configuration config) {
+		return optimize(attributeName, config, true);
+	}
+
+	private Double optimize(String attributeName, Configuration config, boolean maximize) {
+		final AttributeFunction function = AttributeFunction.create(featureModel, attributeName, featureIds);
+		final int[] assumptions = createAssumptions(config);
+		final OptimizationKey key = new OptimizationKey(attributeName, maximize, assumptions, function);
+		if (cache.containsKey(key)) {
+			return cache.get(key);
+		}
+
+		final String optimumKey = (maximize ? "max:" : "min:") + attributeName;
+		final Optimum lastOptimum = lastOptima.get(optimumKey);
+		final int[] model;
+		if ((lastOptimum != null) && isRestrictionOf(lastOptimum.key, key) && satisfies(lastOptimum.model, assumptions)) {
+			// the configuration was only restricted further and the last optimum is still valid, so it is still optimal
+			model = lastOptimum.model;
+		} else {
+			final AttributeFunction minimized = maximize ? function.negate() : function;
+			model = solver.minimize(minimized.getIds(), minimized.getCoefficients(), assumptions, lastOptimum == null ? null : lastOptimum.model);
+		}
+
+		final Double value;
+		if (model != null) {
+			value = function.getValue(model);
+			lastOptima.put(optimumKey, new Optimum(key, model));
+		} else {
+			value = null;
+		}
+		cache.put(key, value);
+		return value;
+	}
+
+	private int[] createAssumptions(Configuration config) {
+		final List<Integer> assumptions = new ArrayList<>();
+		for (final String name : config.getSelectedFeatureNames()) {
+			final Integer id = featureIds.get(name);
+			if (id != null) {
+				assumptions.add(id);
+			}
+		}
+		for (final String name : config.getUnselectedFeatureNames()) {
+			final Integer id = featureIds.get(name);
+			if (id != null) {
+				assumptions.add(-id);
+			}
+		}
+		final int[] assumptionArray = new int[assumptions.size()];
+		for (int i = 0; i < assumptionArray.length; i++) {
+			assumptionArray[i] = assumptions.get(i);
+		}
+		Arrays.sort(assumptionArray);
+		return assumptionArray;
+	}
+
+	/**
+	 * @return <code>true</code> if both keys have the same objective function and the assumptions of the new key contain the assumptions of the old key.
+	 */
+	private static boolean isRestrictionOf(OptimizationKey oldKey, OptimizationKey newKey) {
+		if (!oldKey.function.equals(newKey.function)) {
+			return false;
+		}
+		for (final int assumption : oldKey.assumptions) {
+			if (Arrays.binarySearch(newKey.assumptions, assumption) < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean satisfies(int[] model, int[] assumptions) {
+		final Set<Integer> literals = new HashSet<>();
+		for (final int literal : model) {
+			literals.add(literal);
+		}
+		for (final int assumption : assumptions) {
+			if (!literals.contains(assumption)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,15 @@
+package de.ovgu.featureide.fm.attributes.computations.impl;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.ACreator;
+
+/**
+ * Creates an {@link AttributeOptimizer}.
+ */
+public class AttributeOptimizerCreator extends ACreator<AttributeOptimizer> {
+
+	@Override
+	protected AttributeOptimizer create() {
+		return new AttributeOptimizer(formula.getFeatureModel());
+	}
+
+}
@@ -0,0 +1,88 @@
+package de.ovgu.featureide.fm.attributes.computations.impl;
+
+import static de.ovgu.featureide.fm.core.localization.StringTable.NO_VALID_CONFIGURATION;
+
+import java.util.List;
+
+import org.eclipse.swt.graphics.Image;
+
+import de.ovgu.featureide.fm.attributes.FMAttributesPlugin;
+import de.ovgu.featureide.fm.attributes.base.IFeatureAttribute;
+import de.ovgu.featureide.fm.attributes.base.impl.DoubleFeatureAttribute;
+import de.ovgu.featureide.fm.attributes.base.impl.LongFeatureAttribute;
+import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.ui.views.outline.IOutlineEntry;
+
+/**
+ * Computes the exact maximum of a given numerical attribute regarding a partial configuration and all constraints of the feature model
+ */
+public class ExactMaximumComputation implements IOutlineEntry {
+
+	private static final String LABEL = "Maximal sum of attribute value: ";
+
+	Configuration config;
+	IFeatureAttribute attribute;
+
+	public ExactMaximumComputation(Configuration config, IFeatureAttribute attribute) {
+		this.config = config;
+		this.attribute = attribute;
+	}
+
+	/**
+	 * Computes the maximum of the value sum regarding a partial configuration
+	 *
+	 * @return Maximum or <code>null</code> if the configuration cannot be completed to a valid one
+	 */
+	public Double getSelectionSum() {
+		return AttributeOptimizer.getInstance(config).getMaximum(attribute.getName(), config);
+	}
+
+	@Override
+	public String getLabel() {
+		final Double sum;
+		try {
+			sum = getSelectionSum();
+		} catch (final RuntimeException e) {
+			FMAttributesPlugin.getDefault().logError(e);
+			return new EstimatedMaximumComputation(config, attribute).getLabel();
+		}
+		if (sum == null) {
+			return LABEL + NO_VALID_CONFIGURATION;
+		}
+		if (attribute instanceof LongFeatureAttribute) {
+			return LABEL + String.valueOf(sum.longValue());
+		}
+		return LABEL + sum.toString();
+	}
+
+	@Override
+	public boolean supportsType(Object element) {
+		return attribute instanceof LongFeatureAttribute || attribute instanceof DoubleFeatureAttribute;
+	}
+
+	@Override
+	public Image getLabelImage() {
+		return null;
+	}
+
+	@Override
+	public boolean hasChildren() {
+		return false;
+	}
+
+	@Override
+	public List<IOutlineEntry> getChildren() {
+		return null;
+	}
+
+	@Override
+	public void setConfig(Configuration config) {
+		this.config = config;
+	}
+
+	@Override
+	public void handleDoubleClick() {
+		// nothing to do
+	}
+
+}
@@ -0,0 +1,168 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.attributes.optimization;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.ovgu.featureide.fm.attributes.base.IFeatureAttribute;
+import de.ovgu.featureide.fm.attributes.base.impl.ExtendedFeature;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+
+/**
+ * The sum of a numerical attribute over all selected features as linear function with integer coefficients.<br> Pseudo-boolean solvers only support
+ * integer coefficients, so decimal attribute values are scaled by <code>10^scale</code>.
+ */
+public class AttributeFunction {
+
+	private final int[] ids;
+	private final BigInteger[] coefficients;
+	private final int scale;
+
+	private AttributeFunction(int[] ids, BigInteger[] coefficients, int scale) {
+		this.ids = ids;
+		this.coefficients = coefficients;
+		this.scale = scale;
+	}
+
+	/**
+	 * Creates the function of the given attribute. Features without a value for the attribute are ignored.
+	 *
+	 * @param featureModel The feature model
+	 * @param attributeName The name of a numerical attribute
+	 * @param featureIds The variable index of each feature
+	 * @return The function of the attribute
+	 * @throws IllegalArgumentException if a value of the attribute is not a finite number
+	 */
+	public static AttributeFunction create(IFeatureModel featureModel, String attributeName, Map<String, Integer> featureIds) {
+		final List<Integer> ids = new ArrayList<>();
+		final List<BigDecimal> values = new ArrayList<>();
+		int scale = 0;
+		for (final IFeature feature : featureModel.getFeatures()) {
+			final Integer id = featureIds.get(feature.getName());
+			if ((feature instanceof ExtendedFeature) && (id != null)) {
+				BigDecimal value = BigDecimal.ZERO;
+				for (final IFeatureAttribute attribute : ((ExtendedFeature) feature).getAttributes()) {
+					if (attribute.getName().equals(attributeName)) {
+						final Object attributeValue = attribute.getValue();
+						if (attributeValue instanceof Long) {
+							value = value.add(BigDecimal.valueOf((Long) attributeValue));
+						} else if (attributeValue instanceof Double) {
+							final double doubleValue = (Double) attributeValue;
+							if (Double.isNaN(doubleValue) || Double.isInfinite(doubleValue)) {
+								throw new IllegalArgumentException(feature.getName() + ": " + attributeName + " = " + doubleValue);
+							}
+							value = value.add(BigDecimal.valueOf(doubleValue));
+						}
+					}
+				}
+				if (value.signum() != 0) {
+					value = value.stripTrailingZeros();
+					scale = Math.max(scale, value.scale());
+					ids.add(id);
+					values.add(value);
+				}
+			}
+		}
+
+		final int[] idArray = new int[ids.size()];
+		final BigInteger[] coefficients = new BigInteger[values.size()];
+		for (int i = 0; i < idArray.length; i++) {
+			idArray[i] = ids.get(i);
+			coefficients[i] = values.get(i).movePointRight(scale).toBigIntegerExact();
+		}
+		return new AttributeFunction(idArray, coefficients, scale);
+	}
+
+	/**
+	 * @return The function with negated coefficients, which turns a maximization into a minimization.
+	 */
+	public AttributeFunction negate() {
+		final BigInteger[] negatedCoefficients = new BigInteger[coefficients.length];
+		for (int i = 0; i < coefficients.length; i++) {
+			negatedCoefficients[i] = coefficients[i].negate();
+		}
+		return new AttributeFunction(ids, negatedCoefficients, scale);
+	}
+
+	public int[] getIds() {
+		return ids;
+	}
+
+	public BigInteger[] getCoefficients() {
+		return coefficients;
+	}
+
+	/**
+	 * Converts a value of this function back to the unit of the attribute.
+	 *
+	 * @param value A value of this function
+	 * @return The attribute value
+	 */
+	public double toAttributeValue(BigInteger value) {
+		return new BigDecimal(value, scale).doubleValue();
+	}
+
+	/**
+	 * @param model An assignment that contains +id for each selected feature
+	 * @return The attribute value of the assignment
+	 */
+	public double getValue(int[] model) {
+		final Set<Integer> selected = new HashSet<>();
+		for (final int literal : model) {
+			if (literal > 0) {
+				selected.add(literal);
+			}
+		}
+		BigInteger value = BigInteger.ZERO;
+		for (int i = 0; i < ids.length; i++) {
+			if (selected.contains(ids[i])) {
+				value = value.add(coefficients[i]);
+			}
+		}
+		return toAttributeValue(value);
+	}
+
+	@Override
+	public int hashCode() {
+		return (31 * Arrays.hashCode(ids)) + Arrays.hashCode(coefficients);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if ((obj == null) || (getClass() != obj.getClass())) {
+			return false;
+		}
+		final AttributeFunction other = (AttributeFunction) obj;
+		return (scale == other.scale) && Arrays.equals(ids, other.ids) && Arrays.equals(coefficients, other.coefficients);
+	}
+
+}
@@ -0,0 +1,57 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.attributes.optimization;
+
+/**
+ * A numerical attribute whose sum over all selected features should be minimized or maximized.
+ */
+public class AttributeObjective {
+
+	private final String attributeName;
+	private final boolean maximize;
+
+	public AttributeObjective(String attributeName, boolean maximize) {
+		this.attributeName = attributeName;
+		this.maximize = maximize;
+	}
+
+	public static AttributeObjective minimize(String attributeName) {
+		return new AttributeObjective(attributeName, false);
+	}
+
+	public static AttributeObjective maximize(String attributeName) {
+		return new AttributeObjective(attributeName, true);
+	}
+
+	public String getAttributeName() {
+		return attributeName;
+	}
+
+	public boolean isMaximize() {
+		return maximize;
+	}
+
+	@Override
+	public String toString() {
+		return (maximize ? "max " : "min ") + attributeName;
+	}
+
+}
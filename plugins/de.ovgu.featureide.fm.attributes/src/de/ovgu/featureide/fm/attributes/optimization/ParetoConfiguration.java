@@ -0,0 +1,67 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.attributes.optimization;
+
+import java.util.List;
+
+import de.ovgu.featureide.fm.core.configuration.Configuration;
+
+/**
+ * A configuration of the Pareto front computed by {@link ParetoConfigurationSearch}.
+ */
+public class ParetoConfiguration {
+
+	private final Configuration configuration;
+	private final List<AttributeObjective> objectives;
+	private final double[] values;
+
+	public ParetoConfiguration(Configuration configuration, List<AttributeObjective> objectives, double[] values) {
+		this.configuration = configuration;
+		this.objectives = objectives;
+		this.values = values;
+	}
+
+	public Configuration getConfiguration() {
+		return configuration;
+	}
+
+	public List<AttributeObjective> getObjectives() {
+		return objectives;
+	}
+
+	/**
+	 * @return The attribute sums of the configuration in the order of {@link #getObjectives()}.
+	 */
+	public double[] getValues() {
+		return values;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < values.length; i++) {
+			sb.append(objectives.get(i).getAttributeName()).append(" = ").append(values[i]).append(", ");
+		}
+		sb.append(configuration.getSelectedFeatureNames());
+		return sb.toString();
+	}
+
+}
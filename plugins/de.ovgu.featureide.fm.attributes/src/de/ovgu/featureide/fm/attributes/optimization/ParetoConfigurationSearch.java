@@ -0,0 +1,142 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.attributes.optimization;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.IVariables;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.configuration.Selection;
+import de.ovgu.featureide.fm.core.constraint.analysis.DeRestrictionFactory;
+import de.ovgu.featureide.fm.core.constraint.analysis.ParetoFrontSearch;
+import de.ovgu.featureide.fm.core.constraint.analysis.ParetoFrontSearch.ParetoSolution;
+import de.ovgu.featureide.fm.core.constraint.analysis.Translator;
+import de.ovgu.featureide.fm.core.job.LongRunningMethod;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Computes the Pareto front of the valid configurations of an extended feature model regarding several numerical attributes.<br> The search runs on the
+ * CNF of the feature model and is backed by a pseudo-boolean solver (see {@link ParetoFrontSearch}). For each combination of attribute sums on the front,
+ * one configuration is returned.<br><br> Example:
+ *
+ * <pre>
+ * final ParetoConfigurationSearch search = new ParetoConfigurationSearch(formula, Arrays.asList(AttributeObjective.minimize("cost"), AttributeObjective.maximize("performance")));
+ * search.setTimeout(60000);
+ * final List&lt;ParetoConfiguration&gt; front = LongRunningWrapper.runMethod(search);
+ * </pre>
+ */
+public class ParetoConfigurationSearch implements LongRunningMethod<List<ParetoConfiguration>> {
+
+	private final FeatureModelFormula formula;
+	private final List<AttributeObjective> objectives;
+
+	private long timeout = 0;
+	private int threads = Runtime.getRuntime().availableProcessors();
+	private boolean complete;
+
+	/**
+	 * @param formula The formula of an extended feature model
+	 * @param objectives The attributes to optimize
+	 */
+	public ParetoConfigurationSearch(FeatureModelFormula formula, List<AttributeObjective> objectives) {
+		this.formula = formula;
+		this.objectives = objectives;
+	}
+
+	/**
+	 * @param timeout The time budget in milliseconds. <code>0</code> means no limit.
+	 */
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+	/**
+	 * @param threads The maximal number of objectives that are optimized in parallel.
+	 */
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
+	/**
+	 * @return <code>true</code> if the last search finished within the time budget. Otherwise, the result may contain dominated configurations and miss
+	 *         others.
+	 */
+	public boolean isComplete() {
+		return complete;
+	}
+
+	@Override
+	public List<ParetoConfiguration> execute(IMonitor<List<ParetoConfiguration>> monitor) throws Exception {
+		final CNF cnf = formula.getCNF();
+		final IVariables variables = cnf.getVariables();
+		final Map<String, Integer> featureIds = new HashMap<>();
+		for (int i = 1; i <= variables.maxVariableID(); i++) {
+			final String name = variables.getName(i);
+			if (name != null) {
+				featureIds.put(name, i);
+			}
+		}
+
+		final List<AttributeFunction> functions = new ArrayList<>(objectives.size());
+		final List<int[]> ids = new ArrayList<>(objectives.size());
+		final List<BigInteger[]> coefficients = new ArrayList<>(objectives.size());
+		for (final AttributeObjective objective : objectives) {
+			final AttributeFunction function = AttributeFunction.create(formula.getFeatureModel(), objective.getAttributeName(), featureIds);
+			final AttributeFunction minimized = objective.isMaximize() ? function.negate() : function;
+			functions.add(function);
+			ids.add(minimized.getIds());
+			coefficients.add(minimized.getCoefficients());
+		}
+
+		final ParetoFrontSearch search = new ParetoFrontSearch(Translator.translateCNF(cnf, new DeRestrictionFactory()), ids, coefficients);
+		search.setTimeout(timeout);
+		search.setThreads(threads);
+		final List<ParetoSolution> front = search.execute(monitor.<List<ParetoSolution>> subTask(1));
+		complete = search.isComplete();
+
+		final List<ParetoConfiguration> configurations = new ArrayList<>(front.size());
+		for (final ParetoSolution solution : front) {
+			final Configuration configuration = new Configuration(formula);
+			for (final int literal : solution.getModel()) {
+				final int variable = Math.abs(literal);
+				if (variable <= variables.maxVariableID()) {
+					final String name = variables.getName(variable);
+					if (name != null) {
+						configuration.setManual(name, literal > 0 ? Selection.SELECTED : Selection.UNSELECTED);
+					}
+				}
+			}
+			final double[] values = new double[functions.size()];
+			for (int i = 0; i < values.length; i++) {
+				values[i] = functions.get(i).getValue(solution.getModel());
+			}
+			configurations.add(new ParetoConfiguration(configuration, objectives, values));
+		}
+		return configurations;
+	}
+
+}
@@ -20,7 +20,11 @@
  */
 package de.ovgu.featureide.fm.attributes.outlineentry;
 
+import static de.ovgu.featureide.fm.core.localization.StringTable.COMPUTING_SUMS_OF_ATTRIBUTE_VALUES;
+import static de.ovgu.featureide.fm.core.localization.StringTable.NO_VALID_CONFIGURATION;
+
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.eclipse.swt.graphics.Image;
 
@@ -28,33 +32,69 @@ import de.ovgu.featureide.fm.attributes.base.IFeatureAttribute;
 import de.ovgu.featureide.fm.attributes.base.impl.DoubleFeatureAttribute;
 import de.ovgu.featureide.fm.attributes.base.impl.LongFeatureAttribute;
 import de.ovgu.featureide.fm.attributes.computations.impl.EstimatedMaximumComputation;
+import de.ovgu.featureide.fm.attributes.computations.impl.ExactMaximumComputation;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.job.IJob.JobStatus;
+import de.ovgu.featureide.fm.core.job.IRunner;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.ui.views.outline.IOutlineEntry;
 
 public class AttributeMaximumEntry implements IOutlineEntry {
 
 	IFeatureAttribute attribute;
 	Configuration config;
-	Double result;
 	EstimatedMaximumComputation estimatedMax;
 	private static final String LABEL = "Maximal sum of value: ";
 	private static final String EST = " (est)";
-	private String labelSuffix;
+
+	/**
+	 * Computes the exact sum, which considers cross-tree constraints, in the background. Until it is finished or if the solver fails, the estimated
+	 * sum is shown.
+	 */
+	private final IRunner<Double> exactMaximum;
+	private volatile Consumer<IOutlineEntry> labelChangeListener = null;
 
 	public AttributeMaximumEntry(Configuration config, IFeatureAttribute attribute) {
 		this.config = config;
 		this.attribute = attribute;
 		estimatedMax = new EstimatedMaximumComputation(config, attribute);
-		result = (Double) estimatedMax.getSelectionSum();
-		labelSuffix = EST;
+		final ExactMaximumComputation computation = new ExactMaximumComputation(config, attribute);
+		exactMaximum = LongRunningWrapper.getRunner(monitor -> computation.getSelectionSum(), COMPUTING_SUMS_OF_ATTRIBUTE_VALUES);
+		exactMaximum.addJobFinishedListener(finishedJob -> {
+			final Consumer<IOutlineEntry> listener = labelChangeListener;
+			if (listener != null) {
+				listener.accept(this);
+			}
+		});
+		exactMaximum.schedule();
 	}
 
+	/**
+	 * Waits until the exact sum is computed.
+	 *
+	 * @return The sum or <code>null</code> if the configuration cannot be completed to a valid one
+	 */
 	public Double getResult() {
-		return result;
+		try {
+			exactMaximum.join();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return getSum(exactMaximum.getStatus() == JobStatus.OK);
+	}
+
+	private Double getSum(boolean exact) {
+		return exact ? exactMaximum.getResults() : (Double) estimatedMax.getSelectionSum();
 	}
 
 	@Override
 	public String getLabel() {
+		final boolean exact = exactMaximum.getStatus() == JobStatus.OK;
+		final Double result = getSum(exact);
+		final String labelSuffix = exact ? "" : EST;
+		if (result == null) {
+			return LABEL + NO_VALID_CONFIGURATION;
+		}
 		if (attribute instanceof LongFeatureAttribute) {
 			return LABEL + String.valueOf((result).longValue()) + labelSuffix;
 		}
@@ -93,4 +133,9 @@ public class AttributeMaximumEntry implements IOutlineEntry {
 	@Override
 	public void handleDoubleClick() {}
 
+	@Override
+	public void setLabelChangeListener(Consumer<IOutlineEntry> listener) {
+		labelChangeListener = listener;
+	}
+
 }
@@ -20,7 +20,11 @@
  */
 package de.ovgu.featureide.fm.attributes.outlineentry;
 
+import static de.ovgu.featureide.fm.core.localization.StringTable.COMPUTING_SUMS_OF_ATTRIBUTE_VALUES;
+import static de.ovgu.featureide.fm.core.localization.StringTable.NO_VALID_CONFIGURATION;
+
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.eclipse.swt.graphics.Image;
 
@@ -28,7 +32,11 @@ import de.ovgu.featureide.fm.attributes.base.IFeatureAttribute;
 import de.ovgu.featureide.fm.attributes.base.impl.DoubleFeatureAttribute;
 import de.ovgu.featureide.fm.attributes.base.impl.LongFeatureAttribute;
 import de.ovgu.featureide.fm.attributes.computations.impl.EstimatedMinimumComputation;
+import de.ovgu.featureide.fm.attributes.computations.impl.ExactMinimumComputation;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.job.IJob.JobStatus;
+import de.ovgu.featureide.fm.core.job.IRunner;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.ui.views.outline.IOutlineEntry;
 
 public class AttributeMinimumEntry implements IOutlineEntry {
@@ -36,27 +44,59 @@ public class AttributeMinimumEntry implements IOutlineEntry {
 	IFeatureAttribute attribute;
 	Configuration config;
 	EstimatedMinimumComputation estimatedMinimum;
-	Double result;
-	private String labelSuffix;
 
 	private static final String EST = " (est)";
 	private static final String LABEL = "Minimal sum of value: ";
 
+	/**
+	 * Computes the exact sum, which considers cross-tree constraints, in the background. Until it is finished or if the solver fails, the estimated
+	 * sum is shown.
+	 */
+	private final IRunner<Double> exactMinimum;
+	private volatile Consumer<IOutlineEntry> labelChangeListener = null;
+
 	public AttributeMinimumEntry(Configuration config, IFeatureAttribute attribute) {
 		this.config = config;
 		this.attribute = attribute;
 		estimatedMinimum = new EstimatedMinimumComputation(config, attribute);
-		result = (Double) estimatedMinimum.getSelectionSum();
-		labelSuffix = EST;
+		final ExactMinimumComputation computation = new ExactMinimumComputation(config, attribute);
+		exactMinimum = LongRunningWrapper.getRunner(monitor -> computation.getSelectionSum(), COMPUTING_SUMS_OF_ATTRIBUTE_VALUES);
+		exactMinimum.addJobFinishedListener(finishedJob -> {
+			final Consumer<IOutlineEntry> listener = labelChangeListener;
+			if (listener != null) {
+				listener.accept(this);
+			}
+		});
+		exactMinimum.schedule();
 
 	}
 
+	/**
+	 * Waits until the exact sum is computed.
+	 *
+	 * @return The sum or <code>null</code> if the configuration cannot be completed to a valid one
+	 */
 	public Double getResult() {
-		return result;
+		try {
+			exactMinimum.join();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return getSum(exactMinimum.getStatus() == JobStatus.OK);
+	}
+
+	private Double getSum(boolean exact) {
+		return exact ? exactMinimum.getResults() : (Double) estimatedMinimum.getSelectionSum();
 	}
 
 	@Override
 	public String getLabel() {
+		final boolean exact = exactMinimum.getStatus() == JobStatus.OK;
+		final Double result = getSum(exact);
+		final String labelSuffix = exact ? "" : EST;
+		if (result == null) {
+			return LABEL + NO_VALID_CONFIGURATION;
+		}
 		if (attribute instanceof LongFeatureAttribute) {
 			return LABEL + String.valueOf(result.longValue()) + labelSuffix;
 		}
@@ -95,4 +135,9 @@ public class AttributeMinimumEntry implements IOutlineEntry {
 	@Override
 	public void handleDoubleClick() {}
 
+	@Override
+	public void setLabelChangeListener(Consumer<IOutlineEntry> listener) {
+		labelChangeListener = listener;
+	}
+
 }
@@ -27,18 +27,21 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 
 import de.ovgu.featureide.fm.core.analysis.ConstraintProperties;
 import de.ovgu.featureide.fm.core.analysis.FeatureModelProperties;
 import de.ovgu.featureide.fm.core.analysis.FeatureProperties;
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNFComponents;
 import de.ovgu.featureide.fm.core.analysis.cnf.IVariables;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
 import de.ovgu.featureide.fm.core.analysis.cnf.analysis.AClauseAnalysis;
 import de.ovgu.featureide.fm.core.analysis.cnf.analysis.AbstractAnalysis;
 import de.ovgu.featureide.fm.core.analysis.cnf.analysis.AnalysisResult;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.AnalysisSession;
 import de.ovgu.featureide.fm.core.analysis.cnf.analysis.AtomicSetAnalysis;
 import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CauseAnalysis;
 import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CauseAnalysis.Anomalies;
@@ -50,9 +53,12 @@ import de.ovgu.featureide.fm.core.analysis.cnf.analysis.IndependentRedundancyAna
 import de.ovgu.featureide.fm.core.analysis.cnf.analysis.IndeterminedAnalysis;
 import de.ovgu.featureide.fm.core.analysis.cnf.analysis.RemoveRedundancyAnalysis;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.ACreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.CNFComponentsCreator;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.EmptyCNFCreator;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureTreeCNFCreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.IncrementalSatSolver;
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IConstraint;
 import de.ovgu.featureide.fm.core.base.IFeature;
@@ -149,6 +155,7 @@ public class AnalysesCollection {
 	static class AnalysisWrapper<R, A extends AbstractAnalysis<R>> {
 
 		protected FeatureModelFormula formula;
+		protected AnalysisSession session;
 
 		private Object syncObject = new Object();
 		private IMonitor<R> monitor = new NullMonitor<>();
@@ -182,10 +189,9 @@ public class AnalysesCollection {
 				this.monitor = monitor != null ? monitor : new NullMonitor<>();
 				R result = null;
 				if (curAnalysisResult == null) {
-					final AbstractAnalysis<R> analysisInstance = createNewAnalysis();
 					try {
-						result = LongRunningWrapper.runMethod(analysisInstance, this.monitor);
-						curAnalysisResult = result == null ? null : analysisInstance.getResult();
+						curAnalysisResult = computeResult(this.monitor);
+						result = curAnalysisResult == null ? null : curAnalysisResult.getResult();
 					} catch (final MethodCancelException e) {
 
 					} catch (final Exception e) {
@@ -204,10 +210,35 @@ public class AnalysesCollection {
 			}
 		}
 
-		private A createNewAnalysis() {
+		protected AnalysisResult<R> computeResult(IMonitor<R> monitor) {
+			final CNF cnf = getCNF();
+			final IncrementalSatSolver solver = ((session != null) && isSolverShared()) ? session.acquire(cnf) : null;
 			try {
-				final CNF cnf = getCNF();
-				final A newInstance = analysis.getConstructor(CNF.class).newInstance(cnf);
+				final AbstractAnalysis<R> analysisInstance = createNewAnalysis(cnf, solver);
+				final R result = LongRunningWrapper.runMethod(analysisInstance, monitor);
+				return result == null ? null : analysisInstance.getResult();
+			} finally {
+				if (solver != null) {
+					session.release(solver);
+				}
+			}
+		}
+
+		/**
+		 * @return <code>true</code> if the analysis can use a solver of the {@link AnalysisSession session}, <code>false</code> if it needs its own solver
+		 */
+		protected boolean isSolverShared() {
+			return true;
+		}
+
+		protected Class<A> getAnalysis() {
+			return analysis;
+		}
+
+		private A createNewAnalysis(CNF cnf, ISatSolver solver) {
+			try {
+				final A newInstance = solver == null ? analysis.getConstructor(CNF.class).newInstance(cnf)
+					: analysis.getConstructor(ISatSolver.class).newInstance(solver);
 				configureAnalysis(cnf, newInstance);
 				return newInstance;
 			} catch (
@@ -228,6 +259,10 @@ public class AnalysesCollection {
 			this.formula = formula;
 		}
 
+		public void setSession(AnalysisSession session) {
+			this.session = session;
+		}
+
 		public boolean isEnabled() {
 			return enabled;
 		}
@@ -247,6 +282,30 @@ public class AnalysesCollection {
 
 	}
 
+	/**
+	 * Computes the result of an analysis for each {@link CNFComponents component} of the feature model's CNF in parallel and combines the results.
+	 */
+	static final class ComponentAnalysisWrapper<R, A extends AbstractAnalysis<R>> extends AnalysisWrapper<R, A> {
+
+		private final BiFunction<CNFComponents, IMonitor<R>, R> combinedAnalysis;
+
+		public ComponentAnalysisWrapper(Class<A> analysis, BiFunction<CNFComponents, IMonitor<R>, R> combinedAnalysis) {
+			super(analysis);
+			this.combinedAnalysis = combinedAnalysis;
+		}
+
+		@Override
+		protected AnalysisResult<R> computeResult(IMonitor<R> monitor) {
+			try {
+				monitor.checkCancel();
+				final R result = combinedAnalysis.apply(formula.getElement(new CNFComponentsCreator()), monitor);
+				return result == null ? null : new AnalysisResult<>(getAnalysis().getName(), new LiteralSet(), result);
+			} finally {
+				monitor.done();
+			}
+		}
+	}
+
 	static final class CauseAnalysisWrapper extends AConstraintAnalysisWrapper<List<Anomalies>, CauseAnalysis> {
 
 		private final AnalysisWrapper<LiteralSet, CoreDeadAnalysis> coreDeadAnalysis;
@@ -294,6 +353,11 @@ public class AnalysesCollection {
 			super(analysis);
 		}
 
+		@Override
+		protected boolean isSolverShared() {
+			return false;
+		}
+
 		@Override
 		protected void configureAnalysis(CNF cnf, IndeterminedAnalysis analysis) {
 			final LiteralSet convertToVariables = cnf.getVariables()
@@ -389,9 +453,14 @@ public class AnalysesCollection {
 	}
 
 	private FeatureModelFormula formula;
+	/**
+	 * Shares the solvers between all analyses of the same formula.
+	 */
+	private final AnalysisSession session = new AnalysisSession();
 	final AnalysisWrapper<Boolean, HasSolutionAnalysis> validAnalysis = new AnalysisWrapper<>(HasSolutionAnalysis.class);
-	final AnalysisWrapper<List<LiteralSet>, AtomicSetAnalysis> atomicSetAnalysis = new AnalysisWrapper<>(AtomicSetAnalysis.class);
-	final AnalysisWrapper<LiteralSet, CoreDeadAnalysis> coreDeadAnalysis = new AnalysisWrapper<>(CoreDeadAnalysis.class);
+	final AnalysisWrapper<List<LiteralSet>, AtomicSetAnalysis> atomicSetAnalysis =
+		new ComponentAnalysisWrapper<>(AtomicSetAnalysis.class, CNFComponents::getAtomicSets);
+	final AnalysisWrapper<LiteralSet, CoreDeadAnalysis> coreDeadAnalysis = new ComponentAnalysisWrapper<>(CoreDeadAnalysis.class, CNFComponents::getCoreDead);
 	final FalseOptionalAnalysisWrapper foAnalysis = new FalseOptionalAnalysisWrapper();
 	final AnalysisWrapper<LiteralSet, IndeterminedAnalysis> determinedAnalysis = new IndeterminesAnalzsisWrapper(IndeterminedAnalysis.class);
 	final ConstraintAnalysisWrapper<RemoveRedundancyAnalysis> constraintRedundancyAnalysis =
@@ -415,9 +484,11 @@ public class AnalysesCollection {
 
 	void reset(FeatureModelFormula formula) {
 		this.formula = formula;
+		session.clear();
 		for (final AnalysisWrapper<?, ?> analysisWrapper : list) {
 			analysisWrapper.reset();
 			analysisWrapper.setFormula(formula);
+			analysisWrapper.setSession(session);
 		}
 		deadFeatureExplanations.clear();
 		falseOptionalFeatureExplanations.clear();
@@ -442,8 +513,10 @@ public class AnalysesCollection {
 
 	void init(FeatureModelFormula formula) {
 		this.formula = formula;
+		session.clear();
 		for (final AnalysisWrapper<?, ?> analysisWrapper : list) {
 			analysisWrapper.setFormula(formula);
+			analysisWrapper.setSession(session);
 		}
 
 		deadFeatureExplanationCreator.setFeatureModel(formula.getFeatureModel());
@@ -82,8 +82,13 @@ public class FeatureModelAnalyzer implements IEventListener {
 
 	private final AnalysesCollection analysesCollection;
 
+	private LazyAnomalyAnalyzer lazyAnalyzer = null;
+
 	public void reset() {
 		analysesCollection.reset(formula);
+		if (lazyAnalyzer != null) {
+			lazyAnalyzer.update(this);
+		}
 	}
 
 	public FeatureModelAnalyzer(IFeatureModel featureModel) {
@@ -283,11 +288,25 @@ public class FeatureModelAnalyzer implements IEventListener {
 		return resultList;
 	}
 
+	/**
+	 * Returns the properties of the given feature. In the demand-driven mode (see {@link #setLazyAnalyzer(LazyAnomalyAnalyzer)}), the computation of the
+	 * properties is requested and the returned properties are completed in the background.
+	 */
 	public FeatureProperties getFeatureProperties(IFeature feature) {
+		if (lazyAnalyzer != null) {
+			lazyAnalyzer.request(feature);
+		}
 		return analysesCollection.featurePropertiesMap.get(feature);
 	}
 
+	/**
+	 * Returns the properties of the given constraint. In the demand-driven mode (see {@link #setLazyAnalyzer(LazyAnomalyAnalyzer)}), the computation of
+	 * the properties is requested and the returned properties are completed in the background.
+	 */
 	public ConstraintProperties getConstraintProperties(IConstraint constraint) {
+		if (lazyAnalyzer != null) {
+			lazyAnalyzer.request(constraint);
+		}
 		return analysesCollection.constraintPropertiesMap.get(constraint);
 	}
 
@@ -312,6 +331,20 @@ public class FeatureModelAnalyzer implements IEventListener {
 		}
 
 		try {
+			if (lazyAnalyzer != null) {
+				monitor.setRemainingWork(2);
+				updateFeatureModel(monitor);
+				if (analysesCollection.isCalculateFeatures()) {
+					resetFeatureProperties();
+				}
+				if (analysesCollection.isCalculateConstraints()) {
+					resetConstraintProperties();
+				}
+				lazyAnalyzer.update(this);
+				monitor.worked();
+				return analysesCollection;
+			}
+
 			int work = 1;
 			if (analysesCollection.isCalculateFeatures() || analysesCollection.isCalculateConstraints()) {
 				work += 1;
@@ -346,13 +379,7 @@ public class FeatureModelAnalyzer implements IEventListener {
 				monitor = new NullMonitor<>();
 			}
 			monitor.checkCancel();
-			// set default values for constraint properties
-			for (final IConstraint constraint : constraints) {
-				final ConstraintProperties constraintProperties = getConstraintProperties(constraint);
-				constraintProperties.resetStatus();
-				constraintProperties.setStatus(ConstraintStatus.NECESSARY);
-				constraintProperties.setStatus(ConstraintStatus.SATISFIABLE);
-			}
+			resetConstraintProperties();
 			monitor.worked();
 
 			monitor.checkCancel();
@@ -415,28 +442,7 @@ public class FeatureModelAnalyzer implements IEventListener {
 				monitor = new NullMonitor<>();
 			}
 			monitor.checkCancel();
-			// set default values for feature properties
-			for (final IFeature feature : featureModel.getFeatures()) {
-				final FeatureProperties featureProperties = getFeatureProperties(feature);
-				featureProperties.resetStatus();
-				featureProperties.setStatus(FeatureStatus.COMMON);
-
-				final IFeatureStructure structure = feature.getStructure();
-				final IFeatureStructure parent = structure.getParent();
-				if (parent == null) {
-					featureProperties.setStatus(FeatureStatus.MANDATORY);
-				} else {
-					if (parent.isAnd()) {
-						if (structure.isMandatorySet()) {
-							featureProperties.setStatus(FeatureStatus.MANDATORY);
-						} else {
-							featureProperties.setStatus(FeatureStatus.OPTIONAL);
-						}
-					} else {
-						featureProperties.setStatus(FeatureStatus.GROUP);
-					}
-				}
-			}
+			resetFeatureProperties();
 			monitor.worked();
 
 			monitor.checkCancel();
@@ -470,6 +476,45 @@ public class FeatureModelAnalyzer implements IEventListener {
 		}
 	}
 
+	/**
+	 * Sets the default values for all feature properties.
+	 */
+	private void resetFeatureProperties() {
+		for (final IFeature feature : featureModel.getFeatures()) {
+			final FeatureProperties featureProperties = analysesCollection.featurePropertiesMap.get(feature);
+			featureProperties.resetStatus();
+			featureProperties.setStatus(FeatureStatus.COMMON);
+
+			final IFeatureStructure structure = feature.getStructure();
+			final IFeatureStructure parent = structure.getParent();
+			if (parent == null) {
+				featureProperties.setStatus(FeatureStatus.MANDATORY);
+			} else {
+				if (parent.isAnd()) {
+					if (structure.isMandatorySet()) {
+						featureProperties.setStatus(FeatureStatus.MANDATORY);
+					} else {
+						featureProperties.setStatus(FeatureStatus.OPTIONAL);
+					}
+				} else {
+					featureProperties.setStatus(FeatureStatus.GROUP);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sets the default values for all constraint properties.
+	 */
+	private void resetConstraintProperties() {
+		for (final IConstraint constraint : constraints) {
+			final ConstraintProperties constraintProperties = analysesCollection.constraintPropertiesMap.get(constraint);
+			constraintProperties.resetStatus();
+			constraintProperties.setStatus(ConstraintStatus.NECESSARY);
+			constraintProperties.setStatus(ConstraintStatus.SATISFIABLE);
+		}
+	}
+
 	// TODO implement as analysis
 	public int countConcreteFeatures() {
 		int number = 0;
@@ -799,6 +844,28 @@ public class FeatureModelAnalyzer implements IEventListener {
 		return analysesCollection;
 	}
 
+	FeatureModelFormula getFormula() {
+		return formula;
+	}
+
+	public LazyAnomalyAnalyzer getLazyAnalyzer() {
+		return lazyAnalyzer;
+	}
+
+	/**
+	 * Enables the demand-driven analysis mode. In this mode, {@link #analyzeFeatureModel(IMonitor)} only determines whether the feature model is void.
+	 * The anomalies of a feature or constraint are computed by the given analyzer on the first access of its properties. The same analyzer can be set
+	 * for the analyzers of subsequent versions of a feature model to keep all results that are not affected by an edit.
+	 *
+	 * @param lazyAnalyzer the analyzer or <code>null</code> to compute all anomalies eagerly
+	 */
+	public void setLazyAnalyzer(LazyAnomalyAnalyzer lazyAnalyzer) {
+		this.lazyAnalyzer = lazyAnalyzer;
+		if (lazyAnalyzer != null) {
+			lazyAnalyzer.update(this);
+		}
+	}
+
 	@Override
 	public void propertyChange(FeatureIDEEvent event) {}
 
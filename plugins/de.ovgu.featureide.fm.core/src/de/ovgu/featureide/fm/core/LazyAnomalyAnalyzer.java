@@ -0,0 +1,786 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import de.ovgu.featureide.fm.core.analysis.ConstraintProperties;
+import de.ovgu.featureide.fm.core.analysis.ConstraintProperties.ConstraintStatus;
+import de.ovgu.featureide.fm.core.analysis.FeatureModelProperties;
+import de.ovgu.featureide.fm.core.analysis.FeatureModelProperties.FeatureModelStatus;
+import de.ovgu.featureide.fm.core.analysis.FeatureProperties;
+import de.ovgu.featureide.fm.core.analysis.FeatureProperties.FeatureStatus;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNFComponents;
+import de.ovgu.featureide.fm.core.analysis.cnf.IVariables;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.EmptyCNFCreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureTreeCNFCreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.IncrementalSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeContradictionException;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModelElement;
+import de.ovgu.featureide.fm.core.filter.OptionalFeatureFilter;
+import de.ovgu.featureide.fm.core.job.IJob;
+import de.ovgu.featureide.fm.core.job.IRunner;
+import de.ovgu.featureide.fm.core.job.JobExecutor;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Demand-driven analysis of feature and constraint anomalies for a {@link FeatureModelAnalyzer} (see
+ * {@link FeatureModelAnalyzer#setLazyAnalyzer(LazyAnomalyAnalyzer)}).<br> Instead of computing all anomalies whenever the feature model changes, the
+ * properties of a feature or constraint are computed on their first access by a background worker. Visible elements (see
+ * {@link #setVisibleElements(Collection)}) are computed before all other requested elements.<br> <br> The results are kept across different versions of
+ * a feature model. The result of a feature only depends on the components of the CNF (see {@link CNFComponents}) that contain the feature and its parent.
+ * Thus, it is only computed again if an edit affected one of these components. The solvers of unchanged components are reused as well. The results of
+ * constraints depend on the complete formula and are computed again after every change of the CNF.<br> <br> In contrast to
+ * {@link FeatureModelAnalyzer#analyzeFeatureModel(IMonitor)}, the redundancy of a constraint is computed on demand as well. Like the eager analysis,
+ * a constraint is redundant if it is implied by the feature tree, all later constraints, and all earlier constraints that are not redundant. Thus, the
+ * result depends on the order of the constraints. For example, if two constraints imply each other, only the first one is redundant. Checking a
+ * constraint requires checking all earlier constraints first. A dead or false-optional feature is caused by the first necessary constraint (in order
+ * of the constraints) that makes it dead or false-optional.
+ */
+public class LazyAnomalyAnalyzer {
+
+	private static final class Request implements Comparable<Request> {
+
+		private final IFeatureModelElement element;
+		private final boolean visible;
+		private final long sequenceNumber;
+
+		private Request(IFeatureModelElement element, boolean visible, long sequenceNumber) {
+			this.element = element;
+			this.visible = visible;
+			this.sequenceNumber = sequenceNumber;
+		}
+
+		@Override
+		public int compareTo(Request other) {
+			if (visible != other.visible) {
+				return visible ? -1 : 1;
+			}
+			return Long.compare(sequenceNumber, other.sequenceNumber);
+		}
+
+	}
+
+	private static final class FeatureResult {
+
+		private final List<Object> key;
+		private final boolean dead;
+		private final boolean falseOptional;
+
+		private FeatureResult(List<Object> key, boolean dead, boolean falseOptional) {
+			this.key = key;
+			this.dead = dead;
+			this.falseOptional = falseOptional;
+		}
+
+	}
+
+	private static final class ConstraintResult {
+
+		private final ConstraintStatus redundancyStatus;
+		private final ConstraintStatus satisfiabilityStatus;
+		private final List<String> deadFeatures;
+		private final List<String> falseOptionalFeatures;
+
+		private ConstraintResult(ConstraintStatus redundancyStatus, ConstraintStatus satisfiabilityStatus, List<String> deadFeatures,
+				List<String> falseOptionalFeatures) {
+			this.redundancyStatus = redundancyStatus;
+			this.satisfiabilityStatus = satisfiabilityStatus;
+			this.deadFeatures = deadFeatures;
+			this.falseOptionalFeatures = falseOptionalFeatures;
+		}
+
+	}
+
+	private static final Object FREE_VARIABLE = new Object();
+
+	private final OptionalFeatureFilter optionalFeatureFilter = new OptionalFeatureFilter();
+
+	/**
+	 * Results of features by feature name. Valid for all versions of the feature model with the same key.
+	 */
+	private final Map<String, FeatureResult> featureResults = new HashMap<>();
+	/**
+	 * Results of constraints by their index. Valid until the CNF or the constraints change.
+	 */
+	private final Map<Integer, ConstraintResult> constraintResults = new HashMap<>();
+	/**
+	 * Solvers of all components of the current CNF.
+	 */
+	private final Map<CNF, ISatSolver> componentSolvers = new HashMap<>();
+
+	private final PriorityQueue<Request> queue = new PriorityQueue<>();
+	private final Set<IFeatureModelElement> queuedElements = new HashSet<>();
+	private final Set<IFeatureModelElement> computedElements = new HashSet<>();
+	private Set<IFeatureModelElement> visibleElements = Collections.emptySet();
+
+	private Consumer<IFeatureModelElement> listener = null;
+
+	private FeatureModelAnalyzer analyzer = null;
+	private FeatureModelFormula formula = null;
+	private CNF cnf = null;
+	private List<String> constraintNames = Collections.emptyList();
+	private CNFComponents components = null;
+	private Map<String, List<Object>> featureKeys = Collections.emptyMap();
+	private boolean valid = true;
+
+	/**
+	 * Solver for the feature tree and all constraints of {@link #constraintSolverFormula}. Only used by the worker.
+	 */
+	private IncrementalSatSolver constraintSolver = null;
+	private FeatureModelFormula constraintSolverFormula = null;
+	private int[] constraintClauseIndex = null;
+	/**
+	 * Solver for the feature tree and all constraints of {@link #constraintSolverFormula} without the redundant constraints that were found so far.
+	 * Created on the first redundancy check. Only used by the worker.
+	 */
+	private IncrementalSatSolver redundancySolver = null;
+	/**
+	 * Redundancy of the first {@link #checkedConstraintCount} constraints of {@link #constraintSolverFormula}. Only used by the worker.
+	 */
+	private boolean[] redundantConstraints = null;
+	private int checkedConstraintCount = 0;
+	/**
+	 * Variables of {@link #constraintSolver} that are dead and literals of false-optional features with their parents in the formula of
+	 * {@link #anomalyCandidatesFormula}. Only used by the worker.
+	 */
+	private List<Integer> deadCandidates = null;
+	private List<int[]> falseOptionalCandidates = null;
+	private FeatureModelFormula anomalyCandidatesFormula = null;
+
+	private int version = 0;
+	private long sequence = 0;
+	/**
+	 * The scheduled or running worker job or <code>null</code> if there is none.
+	 */
+	private IRunner<Void> runner = null;
+
+	/**
+	 * Sets a listener that is notified whenever the properties of an element were computed. The listener is called by the worker thread.
+	 *
+	 * @param listener the listener or <code>null</code>
+	 */
+	public synchronized void setListener(Consumer<IFeatureModelElement> listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * Sets the elements that are currently visible. These elements are requested and computed before all other requested elements.
+	 *
+	 * @param elements the visible features and constraints
+	 */
+	public void setVisibleElements(Collection<? extends IFeatureModelElement> elements) {
+		synchronized (this) {
+			final Set<IFeatureModelElement> newVisibleElements = new HashSet<>();
+			newVisibleElements.addAll(elements);
+			visibleElements = newVisibleElements;
+
+			final List<Request> requests = new ArrayList<>(queue);
+			queue.clear();
+			for (final Request request : requests) {
+				queue.add(new Request(request.element, visibleElements.contains(request.element), request.sequenceNumber));
+			}
+		}
+		for (final IFeatureModelElement element : elements) {
+			request(element);
+		}
+	}
+
+	/**
+	 * Requests the computation of the properties of the given element. Does nothing if the properties are already computed or requested.
+	 *
+	 * @param element a feature or constraint of the analyzed feature model
+	 */
+	public synchronized void request(IFeatureModelElement element) {
+		if ((analyzer == null) || computedElements.contains(element) || queuedElements.contains(element)) {
+			return;
+		}
+		final AnalysesCollection analysesCollection = analyzer.getAnalysesCollection();
+		if (element instanceof IFeature) {
+			if (!analysesCollection.isCalculateFeatures() || (analysesCollection.featurePropertiesMap.get(element) == null)) {
+				return;
+			}
+		} else if (element instanceof IConstraint) {
+			if (!analysesCollection.isCalculateConstraints() || (analysesCollection.constraintPropertiesMap.get(element) == null)) {
+				return;
+			}
+		} else {
+			return;
+		}
+		queuedElements.add(element);
+		queue.add(new Request(element, visibleElements.contains(element), sequence++));
+		if (runner == null) {
+			final IRunner<Void> newRunner = LongRunningWrapper.getRunner(this::work, "Analyzing Feature Model Elements");
+			newRunner.setPriority(JobExecutor.SHORT);
+			newRunner.addJobFinishedListener(this::finished);
+			runner = newRunner;
+			newRunner.schedule();
+		}
+	}
+
+	/**
+	 * @param element a feature or constraint of the analyzed feature model
+	 * @return <code>true</code> if the properties of the given element are computed
+	 */
+	public synchronized boolean isComputed(IFeatureModelElement element) {
+		return computedElements.contains(element);
+	}
+
+	/**
+	 * Removes all requests that were not computed yet and cancels the worker.
+	 */
+	public void cancel() {
+		final IRunner<Void> currentRunner;
+		synchronized (this) {
+			queue.clear();
+			queuedElements.clear();
+			currentRunner = runner;
+		}
+		if (currentRunner != null) {
+			currentRunner.cancel();
+		}
+	}
+
+	/**
+	 * Waits until all requested elements are computed.
+	 *
+	 * @throws InterruptedException if the current thread is interrupted while waiting
+	 */
+	public synchronized void join() throws InterruptedException {
+		while (runner != null) {
+			wait();
+		}
+	}
+
+	/**
+	 * Switches to the current formula of the given analyzer. Results that are still valid are written into the properties of the analyzer immediately.
+	 * All other results are computed again when they are requested.
+	 *
+	 * @param analyzer the analyzer
+	 */
+	void update(FeatureModelAnalyzer analyzer) {
+		final FeatureModelFormula newFormula = analyzer.getFormula();
+		final boolean newValid = analyzer.isValid(null);
+		CNFComponents newComponents = null;
+		while (!update(analyzer, newFormula, newValid, newComponents)) {
+			newComponents = CNFComponents.decompose(newFormula.getCNF());
+		}
+	}
+
+	/**
+	 * Publishes the given formula and its validity.
+	 *
+	 * @return <code>false</code> if the formula changed and the components of the new formula are not given
+	 */
+	private synchronized boolean update(FeatureModelAnalyzer analyzer, FeatureModelFormula newFormula, boolean newValid, CNFComponents newComponents) {
+		if ((formula != newFormula) && (newComponents == null)) {
+			return false;
+		}
+		if ((this.analyzer != analyzer) || (formula != newFormula)) {
+			version++;
+			queue.clear();
+			queuedElements.clear();
+			this.analyzer = analyzer;
+			if (formula != newFormula) {
+				formula = newFormula;
+				updateFormula(newFormula, newComponents);
+			}
+		}
+		computedElements.clear();
+		valid = newValid;
+
+		final AnalysesCollection analysesCollection = analyzer.getAnalysesCollection();
+		if (analysesCollection.isCalculateFeatures()) {
+			for (final IFeature feature : formula.getFeatureModel().getFeatures()) {
+				if (!feature.getStructure().hasHiddenParent()) {
+					final FeatureResult result = featureResults.get(feature.getName());
+					if ((result != null) || !valid) {
+						applyFeatureResult(feature, result);
+					}
+				}
+			}
+		}
+		if (analysesCollection.isCalculateConstraints()) {
+			final List<IConstraint> constraints = formula.getFeatureModel().getConstraints();
+			for (int i = 0; i < constraints.size(); i++) {
+				final ConstraintResult result = constraintResults.get(i);
+				if (result != null) {
+					applyConstraintResult(constraints.get(i), result);
+				}
+			}
+		}
+		analysesCollection.getFeatureModelProperties().clearCache();
+		return true;
+	}
+
+	private void updateFormula(FeatureModelFormula newFormula, CNFComponents newComponents) {
+		final CNF newCNF = newFormula.getCNF();
+		final List<IConstraint> constraints = newFormula.getFeatureModel().getConstraints();
+		final List<String> newConstraintNames = new ArrayList<>(constraints.size());
+		for (final IConstraint constraint : constraints) {
+			newConstraintNames.add(constraint.getNode().toString());
+		}
+		if (!newCNF.equals(cnf) || !newConstraintNames.equals(constraintNames)) {
+			constraintResults.clear();
+		}
+		cnf = newCNF;
+		constraintNames = newConstraintNames;
+
+		components = newComponents;
+		componentSolvers.keySet().retainAll(new HashSet<>(components.getComponents()));
+
+		final IVariables variables = newCNF.getVariables();
+		featureKeys = new HashMap<>();
+		for (final IFeature feature : newFormula.getFeatureModel().getFeatures()) {
+			final IFeature parent = FeatureUtils.getParent(feature);
+			final boolean optional = (parent != null) && optionalFeatureFilter.test(feature);
+			featureKeys.put(feature.getName(), Arrays.asList(getVariableKey(variables.getVariable(feature.getName())), optional,
+					optional ? parent.getName() : null, optional ? getVariableKey(variables.getVariable(parent.getName())) : null));
+		}
+		final Map<String, List<Object>> keys = featureKeys;
+		featureResults.entrySet().removeIf(entry -> !entry.getValue().key.equals(keys.get(entry.getKey())));
+	}
+
+	/**
+	 * @return the component that contains the variable or its propagated literal or {@link #FREE_VARIABLE}.
+	 */
+	private Object getVariableKey(int variable) {
+		final int componentIndex = components.getComponentIndex(variable);
+		if (componentIndex >= 0) {
+			return components.getComponents().get(componentIndex);
+		}
+		final LiteralSet propagatedLiterals = components.getPropagatedLiterals();
+		if (propagatedLiterals.containsLiteral(variable)) {
+			return Boolean.TRUE;
+		} else if (propagatedLiterals.containsLiteral(-variable)) {
+			return Boolean.FALSE;
+		}
+		return FREE_VARIABLE;
+	}
+
+	private Void work(IMonitor<Void> monitor) {
+		while (true) {
+			monitor.checkCancel();
+			final Request request;
+			final int requestVersion;
+			synchronized (this) {
+				request = queue.poll();
+				if (request == null) {
+					runner = null;
+					notifyAll();
+					return null;
+				}
+				queuedElements.remove(request.element);
+				requestVersion = version;
+			}
+			try {
+				if (request.element instanceof IFeature) {
+					computeFeature((IFeature) request.element, requestVersion);
+				} else {
+					computeConstraint((IConstraint) request.element, requestVersion);
+				}
+			} catch (final Exception e) {
+				Logger.logError(e);
+			}
+		}
+	}
+
+	/**
+	 * Called when a worker job finished. If the job did not process all requests (e.g., because it was canceled before it started), the remaining
+	 * requests are dropped and are requested again on the next access of the elements.
+	 */
+	private synchronized void finished(IJob<Void> finishedRunner) {
+		if (runner == finishedRunner) {
+			runner = null;
+			queue.clear();
+			queuedElements.clear();
+			notifyAll();
+		}
+	}
+
+	private void computeFeature(IFeature feature, int requestVersion) {
+		final List<Object> key;
+		final FeatureModelAnalyzer currentAnalyzer;
+		final CNFComponents currentComponents;
+		final boolean currentValid;
+		synchronized (this) {
+			if (requestVersion != version) {
+				return;
+			}
+			key = featureKeys.get(feature.getName());
+			currentAnalyzer = analyzer;
+			currentComponents = components;
+			currentValid = valid;
+		}
+		if (key == null) {
+			return;
+		}
+
+		FeatureResult result = null;
+		boolean indeterminateHidden = false;
+		if (currentValid) {
+			final IVariables variables = currentComponents.getCNF().getVariables();
+			final int variable = variables.getVariable(feature.getName());
+			final boolean dead = !isSatisfiable(currentComponents, variable);
+			boolean falseOptional = false;
+			if (Boolean.TRUE.equals(key.get(1))) {
+				final int parentVariable = variables.getVariable(FeatureUtils.getParent(feature).getName());
+				falseOptional = !isSatisfiable(currentComponents, parentVariable, -variable);
+			}
+			result = new FeatureResult(key, dead, falseOptional);
+			if (feature.getStructure().hasHiddenParent()) {
+				indeterminateHidden = currentAnalyzer.getIndeterminedHiddenFeatures(null).contains(feature);
+			}
+		}
+
+		final Consumer<IFeatureModelElement> currentListener;
+		synchronized (this) {
+			if (requestVersion != version) {
+				return;
+			}
+			if (result != null) {
+				featureResults.put(feature.getName(), result);
+			}
+			applyFeatureResult(feature, result);
+			if (indeterminateHidden) {
+				analyzer.getAnalysesCollection().featurePropertiesMap.get(feature).setStatus(FeatureStatus.INDETERMINATE_HIDDEN);
+				analyzer.getFeatureModelProperties().setStatus(FeatureModelStatus.ANOMALIES);
+			}
+			analyzer.getFeatureModelProperties().clearCache();
+			currentListener = listener;
+		}
+		if (currentListener != null) {
+			currentListener.accept(feature);
+		}
+	}
+
+	/**
+	 * Checks whether the CNF has a solution that contains all given literals. Only the components that contain the variables of the literals are
+	 * considered.
+	 */
+	private boolean isSatisfiable(CNFComponents components, int... literals) {
+		final LiteralSet propagatedLiterals = components.getPropagatedLiterals();
+		final Map<Integer, List<Integer>> componentLiterals = new HashMap<>();
+		for (final int literal : literals) {
+			if (propagatedLiterals.containsLiteral(-literal)) {
+				return false;
+			}
+			final int componentIndex = components.getComponentIndex(Math.abs(literal));
+			if (componentIndex >= 0) {
+				componentLiterals.computeIfAbsent(componentIndex, index -> new ArrayList<>()).add(components.convertToComponent(literal));
+			}
+		}
+		for (final Map.Entry<Integer, List<Integer>> entry : componentLiterals.entrySet()) {
+			final ISatSolver solver = getComponentSolver(components.getComponents().get(entry.getKey()));
+			if (solver == null) {
+				return false;
+			}
+			final int[] assumptions = entry.getValue().stream().mapToInt(Integer::intValue).toArray();
+			if (solver.hasSolution(assumptions) == SatResult.FALSE) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private ISatSolver getComponentSolver(CNF component) {
+		synchronized (this) {
+			if (componentSolvers.containsKey(component)) {
+				return componentSolvers.get(component);
+			}
+		}
+		ISatSolver solver;
+		try {
+			solver = new AdvancedSatSolver(component);
+		} catch (final RuntimeContradictionException e) {
+			solver = null;
+		}
+		synchronized (this) {
+			componentSolvers.put(component, solver);
+		}
+		return solver;
+	}
+
+	private void computeConstraint(IConstraint constraint, int requestVersion) {
+		final FeatureModelFormula currentFormula;
+		final AnalysesCollection analysesCollection;
+		final CNFComponents currentComponents;
+		final boolean currentValid;
+		final int index;
+		synchronized (this) {
+			if (requestVersion != version) {
+				return;
+			}
+			currentFormula = formula;
+			analysesCollection = analyzer.getAnalysesCollection();
+			currentComponents = components;
+			currentValid = valid;
+			index = currentFormula.getFeatureModel().getConstraintIndex(constraint);
+		}
+		if (index < 0) {
+			return;
+		}
+		if (constraintSolverFormula != currentFormula) {
+			initConstraintSolver(currentFormula);
+		}
+
+		final CNF emptyCNF = currentFormula.getElement(new EmptyCNFCreator());
+		final List<LiteralSet> clauses = Nodes.convert(emptyCNF.getVariables(), constraint.getNode());
+		final int from = constraintClauseIndex[index];
+		final int to = constraintClauseIndex[index + 1];
+
+		ConstraintStatus redundancyStatus = ConstraintStatus.NECESSARY;
+		ConstraintStatus satisfiabilityStatus = ConstraintStatus.SATISFIABLE;
+		List<String> deadFeatures = Collections.emptyList();
+		List<String> falseOptionalFeatures = Collections.emptyList();
+		if (currentValid) {
+			if (analysesCollection.isCalculateRedundantConstraints() && isRedundant(index, emptyCNF.getVariables())) {
+				redundancyStatus = ConstraintStatus.REDUNDANT;
+				if (analysesCollection.isCalculateTautologyConstraints() && isTautology(clauses)) {
+					redundancyStatus = ConstraintStatus.TAUTOLOGY;
+				}
+			}
+			if ((redundancyStatus == ConstraintStatus.NECESSARY) && analysesCollection.isCalculateDeadConstraints()) {
+				if (anomalyCandidatesFormula != currentFormula) {
+					initAnomalyCandidates(currentFormula, currentComponents);
+				}
+				final IVariables variables = emptyCNF.getVariables();
+				final int end = constraintClauseIndex[constraintClauseIndex.length - 1];
+				deadFeatures = new ArrayList<>();
+				for (final int variable : deadCandidates) {
+					if (isCausedBy(from, to, end, variable)) {
+						deadFeatures.add(variables.getName(variable));
+					}
+				}
+				falseOptionalFeatures = new ArrayList<>();
+				for (final int[] literals : falseOptionalCandidates) {
+					if (isCausedBy(from, to, end, literals)) {
+						falseOptionalFeatures.add(variables.getName(-literals[1]));
+					}
+				}
+			}
+		} else if (constraintSolver.hasSolutionIgnoring(from, to) == SatResult.TRUE) {
+			satisfiabilityStatus = isSatisfiable(emptyCNF, clauses) ? ConstraintStatus.VOID : ConstraintStatus.UNSATISFIABLE;
+		}
+		final ConstraintResult result = new ConstraintResult(redundancyStatus, satisfiabilityStatus, deadFeatures, falseOptionalFeatures);
+
+		final Consumer<IFeatureModelElement> currentListener;
+		synchronized (this) {
+			if (requestVersion != version) {
+				return;
+			}
+			constraintResults.put(index, result);
+			applyConstraintResult(constraint, result);
+			analyzer.getFeatureModelProperties().clearCache();
+			currentListener = listener;
+		}
+		if (currentListener != null) {
+			currentListener.accept(constraint);
+		}
+	}
+
+	private void initConstraintSolver(FeatureModelFormula formula) {
+		final IVariables variables = formula.getElement(new EmptyCNFCreator()).getVariables();
+		final List<IConstraint> constraints = formula.getFeatureModel().getConstraints();
+		constraintSolver = new IncrementalSatSolver(formula.getElement(new FeatureTreeCNFCreator()));
+		constraintClauseIndex = new int[constraints.size() + 1];
+		for (int i = 0; i < constraints.size(); i++) {
+			constraintSolver.addClauses(Nodes.convert(variables, constraints.get(i).getNode()));
+			constraintClauseIndex[i + 1] = constraintSolver.getAddedClauseCount();
+		}
+		redundancySolver = null;
+		redundantConstraints = new boolean[constraints.size()];
+		checkedConstraintCount = 0;
+		constraintSolverFormula = formula;
+	}
+
+	/**
+	 * Determines the dead features and the false-optional features of the valid formula. These are the only features that can be dead or false-optional
+	 * because of a constraint.
+	 */
+	private void initAnomalyCandidates(FeatureModelFormula formula, CNFComponents components) {
+		final IVariables variables = formula.getElement(new EmptyCNFCreator()).getVariables();
+		final IVariables componentVariables = components.getCNF().getVariables();
+		deadCandidates = new ArrayList<>();
+		final LiteralSet coreDead = components.getCoreDead(new NullMonitor<LiteralSet>());
+		if (coreDead != null) {
+			for (final int literal : coreDead.getLiterals()) {
+				if (literal < 0) {
+					deadCandidates.add(variables.getVariable(componentVariables.getName(-literal)));
+				}
+			}
+		}
+		falseOptionalCandidates = new ArrayList<>();
+		for (final IFeature feature : formula.getFeatureModel().getFeatures()) {
+			final IFeature parent = FeatureUtils.getParent(feature);
+			if ((parent != null) && optionalFeatureFilter.test(feature)) {
+				final int variable = componentVariables.getVariable(feature.getName());
+				final int parentVariable = componentVariables.getVariable(parent.getName());
+				if (isSatisfiable(components, variable) && !isSatisfiable(components, parentVariable, -variable)) {
+					falseOptionalCandidates.add(new int[] { variables.getVariable(parent.getName()), -variables.getVariable(feature.getName()) });
+				}
+			}
+		}
+		anomalyCandidatesFormula = formula;
+	}
+
+	/**
+	 * Checks whether the constraint with the given clauses is the first constraint (in order of the constraints) that makes the given literals
+	 * unsatisfiable.
+	 *
+	 * @param from the index of the first clause of the constraint
+	 * @param to the index after the last clause of the constraint
+	 * @param end the number of clauses of all constraints
+	 * @param literals the literals
+	 * @return <code>true</code> if the literals are satisfiable without the constraint and all later constraints, but not with the constraint
+	 */
+	private boolean isCausedBy(int from, int to, int end, int... literals) {
+		return (constraintSolver.hasSolutionIgnoring(to, end, literals) == SatResult.FALSE)
+			&& (constraintSolver.hasSolutionIgnoring(from, end, literals) == SatResult.TRUE);
+	}
+
+	/**
+	 * Checks whether the constraint with the given index is redundant. Checks all earlier constraints that are not checked yet first and removes the
+	 * clauses of redundant constraints from {@link #redundancySolver}.
+	 *
+	 * @param index the index of the constraint
+	 * @param variables the variables of the formula
+	 * @return <code>true</code> if the constraint is implied by the feature tree, all later constraints, and all earlier constraints that are not
+	 *         redundant
+	 */
+	private boolean isRedundant(int index, IVariables variables) {
+		final List<IConstraint> constraints = constraintSolverFormula.getFeatureModel().getConstraints();
+		if (redundancySolver == null) {
+			redundancySolver = new IncrementalSatSolver(constraintSolverFormula.getElement(new FeatureTreeCNFCreator()));
+			for (final IConstraint constraint : constraints) {
+				redundancySolver.addClauses(Nodes.convert(variables, constraint.getNode()));
+			}
+		}
+		for (; checkedConstraintCount <= index; checkedConstraintCount++) {
+			final int from = constraintClauseIndex[checkedConstraintCount];
+			final int to = constraintClauseIndex[checkedConstraintCount + 1];
+			if (isImplied(Nodes.convert(variables, constraints.get(checkedConstraintCount).getNode()), from, to)) {
+				redundantConstraints[checkedConstraintCount] = true;
+				redundancySolver.removeClauses(from, to);
+			}
+		}
+		return redundantConstraints[index];
+	}
+
+	/**
+	 * @return <code>true</code> if all given clauses are implied by all other clauses of {@link #redundancySolver}
+	 */
+	private boolean isImplied(List<LiteralSet> clauses, int from, int to) {
+		for (final LiteralSet clause : clauses) {
+			if (redundancySolver.hasSolutionIgnoring(from, to, clause.negate().getLiterals()) != SatResult.FALSE) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isTautology(List<LiteralSet> clauses) {
+		for (final LiteralSet clause : clauses) {
+			if (!clause.hasConflicts(clause)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isSatisfiable(CNF emptyCNF, List<LiteralSet> clauses) {
+		final CNF constraintCNF = new CNF(emptyCNF, false);
+		constraintCNF.addClauses(clauses);
+		try {
+			return new AdvancedSatSolver(constraintCNF).hasSolution() == SatResult.TRUE;
+		} catch (final RuntimeContradictionException e) {
+			return false;
+		}
+	}
+
+	private void applyFeatureResult(IFeature feature, FeatureResult result) {
+		final FeatureProperties properties = analyzer.getAnalysesCollection().featurePropertiesMap.get(feature);
+		if (properties == null) {
+			return;
+		}
+		final FeatureModelProperties featureModelProperties = analyzer.getFeatureModelProperties();
+		if (result == null) {
+			properties.setStatus(FeatureStatus.DEAD);
+		} else {
+			if (result.dead) {
+				properties.setStatus(FeatureStatus.DEAD);
+				featureModelProperties.setStatus(FeatureModelStatus.ANOMALIES);
+			}
+			if (result.falseOptional) {
+				properties.setStatus(FeatureStatus.FALSE_OPTIONAL);
+				featureModelProperties.setStatus(FeatureModelStatus.ANOMALIES);
+			}
+		}
+		computedElements.add(feature);
+	}
+
+	private void applyConstraintResult(IConstraint constraint, ConstraintResult result) {
+		final ConstraintProperties properties = analyzer.getAnalysesCollection().constraintPropertiesMap.get(constraint);
+		if (properties == null) {
+			return;
+		}
+		properties.setStatus(result.redundancyStatus);
+		properties.setStatus(result.satisfiabilityStatus);
+		properties.setDeadFeatures(getFeatures(result.deadFeatures));
+		properties.setFalseOptionalFeatures(getFeatures(result.falseOptionalFeatures));
+		if (((result.redundancyStatus != ConstraintStatus.NECESSARY) || !result.deadFeatures.isEmpty() || !result.falseOptionalFeatures.isEmpty())
+			&& valid) {
+			analyzer.getFeatureModelProperties().setStatus(FeatureModelStatus.ANOMALIES);
+		}
+		computedElements.add(constraint);
+	}
+
+	private List<IFeature> getFeatures(List<String> names) {
+		final List<IFeature> features = new ArrayList<>(names.size());
+		for (final String name : names) {
+			features.add(formula.getFeatureModel().getFeature(name));
+		}
+		return features;
+	}
+
+}
@@ -56,6 +56,23 @@ public class FeatureModelProperties {
 		this.featureModelStatus = featureModelStatus;
 	}
 
+	/**
+	 * Forgets all cached results of the <code>has...</code> methods. Must be called after the properties of a feature or constraint changed.
+	 */
+	public void clearCache() {
+		cachedFeatureStatus.clear();
+		cachedConstraintStatus.clear();
+		hasFalseOptionalFeatures = null;
+		hasDeadFeatures = null;
+		hasIndeterminateHiddenFeatures = null;
+		hasUnsatisfiableConstraints = null;
+		hasTautologyConstraints = null;
+		hasDeadConstraints = null;
+		hasFalseOptionalConstraints = null;
+		hasVoidModelConstraints = null;
+		hasRedundantConstraints = null;
+	}
+
 	public boolean hasStatus(FeatureModelStatus status) {
 		return featureModelStatus == status;
 	}
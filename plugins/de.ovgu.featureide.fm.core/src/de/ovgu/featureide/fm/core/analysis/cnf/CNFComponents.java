@@ -0,0 +1,429 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.AtomicSetAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CoreDeadAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CountSolutionsAnalysis;
+import de.ovgu.featureide.fm.core.job.LongRunningMethod;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Decomposition of a {@link CNF} into independent components.<br> First, all unit clauses are propagated. For a feature model, this removes the clauses that
+ * connect subtrees to a core parent feature. Afterwards, the remaining clauses are split into components that do not share any variable. Each component
+ * is a {@link CNF} with its own compact {@link Variables}, so it can be analyzed independently of all other components.<br> Variables that do not occur in
+ * any remaining clause and are not assigned by unit propagation are called free. For a sliced CNF, only the variables that remain after slicing are
+ * considered, although the clauses refer to the variable IDs of the original CNF.
+ */
+public class CNFComponents {
+
+	private final CNF cnf;
+	private final boolean contradiction;
+	private final LiteralSet propagatedLiterals;
+	private final LiteralSet freeVariables;
+	private final List<CNF> components;
+	private final List<int[]> componentToOrg;
+	private final int[] orgToComponentIndex;
+	private final int[] orgToComponent;
+
+	private CNFComponents(CNF cnf, boolean contradiction, LiteralSet propagatedLiterals, LiteralSet freeVariables, List<CNF> components,
+			List<int[]> componentToOrg, int[] orgToComponentIndex, int[] orgToComponent) {
+		this.cnf = cnf;
+		this.contradiction = contradiction;
+		this.propagatedLiterals = propagatedLiterals;
+		this.freeVariables = freeVariables;
+		this.components = components;
+		this.componentToOrg = componentToOrg;
+		this.orgToComponentIndex = orgToComponentIndex;
+		this.orgToComponent = orgToComponent;
+	}
+
+	/**
+	 * Decomposes the given CNF.
+	 *
+	 * @param cnf The CNF
+	 * @return The components of the CNF
+	 */
+	public static CNFComponents decompose(CNF cnf) {
+		final int maxVariableID = cnf.getVariables().maxVariableID();
+		final List<LiteralSet> clauses = cnf.getClauses();
+
+		final List<List<Integer>> occurrences = new ArrayList<>(maxVariableID + 1);
+		for (int var = 0; var <= maxVariableID; var++) {
+			occurrences.add(new ArrayList<Integer>(2));
+		}
+		final int[] queue = new int[maxVariableID + 1];
+		int queueEnd = 0;
+		final int[] assignment = new int[maxVariableID + 1];
+		boolean contradiction = false;
+
+		// unit propagation
+		for (int i = 0; i < clauses.size(); i++) {
+			final int[] literals = clauses.get(i).getLiterals();
+			if (literals.length == 0) {
+				contradiction = true;
+			} else if (literals.length == 1) {
+				final int var = Math.abs(literals[0]);
+				if (assignment[var] == 0) {
+					assignment[var] = literals[0];
+					queue[queueEnd++] = literals[0];
+				} else if (assignment[var] != literals[0]) {
+					contradiction = true;
+				}
+			}
+			for (final int literal : literals) {
+				occurrences.get(Math.abs(literal)).add(i);
+			}
+		}
+		for (int queueStart = 0; (queueStart < queueEnd) && !contradiction; queueStart++) {
+			for (final int clauseIndex : occurrences.get(Math.abs(queue[queueStart]))) {
+				int unassignedLiteral = 0;
+				int unassignedCount = 0;
+				boolean satisfied = false;
+				for (final int literal : clauses.get(clauseIndex).getLiterals()) {
+					final int value = assignment[Math.abs(literal)];
+					if (value == literal) {
+						satisfied = true;
+						break;
+					} else if (value == 0) {
+						unassignedLiteral = literal;
+						unassignedCount++;
+					}
+				}
+				if (!satisfied) {
+					if (unassignedCount == 0) {
+						contradiction = true;
+						break;
+					} else if (unassignedCount == 1) {
+						assignment[Math.abs(unassignedLiteral)] = unassignedLiteral;
+						queue[queueEnd++] = unassignedLiteral;
+					}
+				}
+			}
+		}
+		if (contradiction) {
+			return new CNFComponents(cnf, true, new LiteralSet(), new LiteralSet(), Collections.<CNF> emptyList(), Collections.<int[]> emptyList(), new int[0],
+					new int[0]);
+		}
+
+		// split remaining clauses into components
+		final int[] parent = new int[maxVariableID + 1];
+		for (int var = 1; var <= maxVariableID; var++) {
+			parent[var] = var;
+		}
+		final List<int[]> remainingClauses = new ArrayList<>();
+		clauseLoop: for (final LiteralSet clause : clauses) {
+			final int[] literals = clause.getLiterals();
+			final int[] remainingLiterals = new int[literals.length];
+			int count = 0;
+			for (final int literal : literals) {
+				final int value = assignment[Math.abs(literal)];
+				if (value == literal) {
+					continue clauseLoop;
+				} else if (value == 0) {
+					remainingLiterals[count++] = literal;
+				}
+			}
+			final int[] remainingClause = Arrays.copyOf(remainingLiterals, count);
+			remainingClauses.add(remainingClause);
+			final int first = find(parent, Math.abs(remainingClause[0]));
+			for (int i = 1; i < remainingClause.length; i++) {
+				final int other = find(parent, Math.abs(remainingClause[i]));
+				if (other != first) {
+					parent[other] = first;
+				}
+			}
+		}
+
+		final IInternalVariables internalVariables = cnf.getInternalVariables();
+		final boolean[] used = new boolean[maxVariableID + 1];
+		final int[] componentIndex = new int[maxVariableID + 1];
+		final List<List<int[]>> componentClauses = new ArrayList<>();
+		for (final int[] clause : remainingClauses) {
+			final int root = find(parent, Math.abs(clause[0]));
+			if (componentIndex[root] == 0) {
+				componentClauses.add(new ArrayList<int[]>());
+				componentIndex[root] = componentClauses.size();
+			}
+			componentClauses.get(componentIndex[root] - 1).add(clause);
+			for (final int literal : clause) {
+				used[Math.abs(literal)] = true;
+			}
+		}
+
+		final List<List<Integer>> componentVariables = new ArrayList<>(componentClauses.size());
+		for (int i = 0; i < componentClauses.size(); i++) {
+			componentVariables.add(new ArrayList<Integer>());
+		}
+		final int[] freeVariables = new int[maxVariableID];
+		int freeCount = 0;
+		for (int var = 1; var <= maxVariableID; var++) {
+			if (used[var]) {
+				componentVariables.get(componentIndex[find(parent, var)] - 1).add(var);
+			} else if ((assignment[var] == 0) && (internalVariables.convertToInternal(var) != 0)) {
+				// variables removed by slicing keep their IDs, but are not part of the CNF
+				freeVariables[freeCount++] = var;
+			}
+		}
+
+		final IVariables orgVariables = cnf.getVariables();
+		final int[] orgToComponentIndex = new int[maxVariableID + 1];
+		final int[] orgToComponent = new int[maxVariableID + 1];
+		final List<CNF> components = new ArrayList<>(componentClauses.size());
+		final List<int[]> componentToOrg = new ArrayList<>(componentClauses.size());
+		for (int i = 0; i < componentClauses.size(); i++) {
+			final List<Integer> variables = componentVariables.get(i);
+			final int[] toOrg = new int[variables.size() + 1];
+			final List<String> names = new ArrayList<>(variables.size());
+			for (int j = 0; j < variables.size(); j++) {
+				final int var = variables.get(j);
+				toOrg[j + 1] = var;
+				orgToComponentIndex[var] = i + 1;
+				orgToComponent[var] = j + 1;
+				names.add(orgVariables.getName(var));
+			}
+			final List<LiteralSet> convertedClauses = new ArrayList<>(componentClauses.get(i).size());
+			for (final int[] clause : componentClauses.get(i)) {
+				final int[] convertedLiterals = new int[clause.length];
+				for (int j = 0; j < clause.length; j++) {
+					final int literal = clause[j];
+					convertedLiterals[j] = literal > 0 ? orgToComponent[literal] : -orgToComponent[-literal];
+				}
+				convertedClauses.add(new LiteralSet(convertedLiterals));
+			}
+			components.add(new CNF(new Variables(names), convertedClauses));
+			componentToOrg.add(toOrg);
+		}
+
+		final int[] propagatedLiterals = Arrays.copyOf(queue, queueEnd);
+		return new CNFComponents(cnf, false, new LiteralSet(propagatedLiterals), new LiteralSet(Arrays.copyOf(freeVariables, freeCount)), components,
+				componentToOrg, orgToComponentIndex, orgToComponent);
+	}
+
+	private static int find(int[] parent, int var) {
+		int root = var;
+		while (parent[root] != root) {
+			root = parent[root];
+		}
+		while (parent[var] != root) {
+			final int next = parent[var];
+			parent[var] = root;
+			var = next;
+		}
+		return root;
+	}
+
+	/**
+	 * @return The decomposed CNF.
+	 */
+	public CNF getCNF() {
+		return cnf;
+	}
+
+	/**
+	 * @return <code>true</code> if unit propagation already yields a contradiction (i.e., the CNF has no solution). In this case, there are no components.
+	 */
+	public boolean isContradiction() {
+		return contradiction;
+	}
+
+	/**
+	 * @return The literals that are implied by unit propagation (in the variables of the decomposed CNF).
+	 */
+	public LiteralSet getPropagatedLiterals() {
+		return propagatedLiterals;
+	}
+
+	/**
+	 * @return The variables that occur in no component and are not assigned by unit propagation (in the variables of the decomposed CNF).
+	 */
+	public LiteralSet getFreeVariables() {
+		return freeVariables;
+	}
+
+	/**
+	 * @return The independent components. Each component has its own variables.
+	 */
+	public List<CNF> getComponents() {
+		return Collections.unmodifiableList(components);
+	}
+
+	/**
+	 * Converts literals of a component into literals of the decomposed CNF.
+	 *
+	 * @param componentIndex The index of the component
+	 * @param literals The literals in the variables of the component
+	 * @return The literals in the variables of the decomposed CNF
+	 */
+	public LiteralSet convertToOriginal(int componentIndex, LiteralSet literals) {
+		final int[] toOrg = componentToOrg.get(componentIndex);
+		final int[] componentLiterals = literals.getLiterals();
+		final int[] orgLiterals = new int[componentLiterals.length];
+		for (int i = 0; i < componentLiterals.length; i++) {
+			final int literal = componentLiterals[i];
+			orgLiterals[i] = literal > 0 ? toOrg[literal] : -toOrg[-literal];
+		}
+		return new LiteralSet(orgLiterals);
+	}
+
+	/**
+	 * @param variable A variable of the decomposed CNF
+	 * @return The index of the component that contains the variable or <code>-1</code> if the variable is assigned by unit propagation or free.
+	 */
+	public int getComponentIndex(int variable) {
+		return variable < orgToComponentIndex.length ? orgToComponentIndex[variable] - 1 : -1;
+	}
+
+	/**
+	 * Converts a literal of the decomposed CNF into a literal of the component that contains its variable (see {@link #getComponentIndex(int)}).
+	 *
+	 * @param literal The literal in the variables of the decomposed CNF
+	 * @return The literal in the variables of the component
+	 */
+	public int convertToComponent(int literal) {
+		return literal > 0 ? orgToComponent[literal] : -orgToComponent[-literal];
+	}
+
+	/**
+	 * Runs an analysis for each component in parallel. Before the analysis of a component is started, the given monitor is checked for cancellation.
+	 *
+	 * @param analysisFactory Creates the analysis for a given component
+	 * @param monitor The monitor of the calling method
+	 * @return The results of the analyses in the same order as {@link #getComponents()}. The results refer to the variables of the components.
+	 */
+	public <T> List<T> analyze(Function<CNF, ? extends LongRunningMethod<T>> analysisFactory, IMonitor<?> monitor) {
+		final List<T> results = components.parallelStream().map(component -> {
+			monitor.checkCancel();
+			return LongRunningWrapper.runMethod(analysisFactory.apply(component));
+		}).collect(Collectors.toList());
+		monitor.checkCancel();
+		return results;
+	}
+
+	/**
+	 * Computes all core and dead features by combining the results of {@link CoreDeadAnalysis} for all components.
+	 *
+	 * @param monitor The monitor of the calling method
+	 * @return The core (positive) and dead (negative) literals or <code>null</code> if the CNF has no solution.
+	 */
+	public LiteralSet getCoreDead(IMonitor<?> monitor) {
+		if (contradiction) {
+			return null;
+		}
+		final List<LiteralSet> results = analyze(CoreDeadAnalysis::new, monitor);
+		final List<LiteralSet> coreDead = new ArrayList<>(results.size() + 1);
+		coreDead.add(propagatedLiterals);
+		for (int i = 0; i < results.size(); i++) {
+			final LiteralSet result = results.get(i);
+			if (result == null) {
+				return null;
+			}
+			coreDead.add(convertToOriginal(i, result));
+		}
+		return union(coreDead);
+	}
+
+	/**
+	 * Computes all atomic sets by combining the results of {@link AtomicSetAnalysis} for all components. As for {@link AtomicSetAnalysis}, the first set
+	 * contains all core and dead features.
+	 *
+	 * @param monitor The monitor of the calling method
+	 * @return The atomic sets or <code>null</code> if the CNF has no solution.
+	 */
+	public List<LiteralSet> getAtomicSets(IMonitor<?> monitor) {
+		if (contradiction) {
+			return null;
+		}
+		final List<List<LiteralSet>> results = analyze(AtomicSetAnalysis::new, monitor);
+		final List<LiteralSet> coreDead = new ArrayList<>(results.size() + 1);
+		coreDead.add(propagatedLiterals);
+		final List<LiteralSet> atomicSets = new ArrayList<>();
+		atomicSets.add(null);
+		for (int i = 0; i < results.size(); i++) {
+			final List<LiteralSet> result = results.get(i);
+			if ((result == null) || result.isEmpty()) {
+				return null;
+			}
+			coreDead.add(convertToOriginal(i, result.get(0)));
+			for (final LiteralSet atomicSet : result.subList(1, result.size())) {
+				atomicSets.add(convertToOriginal(i, atomicSet));
+			}
+		}
+		for (final int var : freeVariables.getLiterals()) {
+			atomicSets.add(new LiteralSet(var));
+		}
+		atomicSets.set(0, union(coreDead));
+		return atomicSets;
+	}
+
+	/**
+	 * Counts the solutions by multiplying the results of {@link CountSolutionsAnalysis} for all components. Each free variable doubles the number of
+	 * solutions.
+	 *
+	 * @param timeout The timeout in milliseconds for counting the solutions of a single component
+	 * @param monitor The monitor of the calling method
+	 * @return The number of solutions. As for {@link CountSolutionsAnalysis}, a negative number <code>-(n + 1)</code> indicates that a timeout occurred and
+	 *         at least <code>n</code> solutions exist. If the number does not fit into a <code>long</code>, {@link Long#MAX_VALUE} is returned.
+	 */
+	public long countSolutions(int timeout, IMonitor<?> monitor) {
+		if (contradiction) {
+			return 0;
+		}
+		final List<Long> results = analyze(component -> {
+			final CountSolutionsAnalysis analysis = new CountSolutionsAnalysis(component);
+			analysis.setDecompose(false);
+			analysis.setTimeout(timeout);
+			return analysis;
+		}, monitor);
+		boolean timeoutOccurred = false;
+		long count = 1;
+		try {
+			for (final Long result : results) {
+				if (result == null) {
+					return 0;
+				}
+				final long componentCount = result < 0 ? -(result + 1) : result;
+				timeoutOccurred |= result < 0;
+				count = Math.multiplyExact(count, componentCount);
+			}
+			for (int i = 0; i < freeVariables.size(); i++) {
+				count = Math.multiplyExact(count, 2L);
+			}
+		} catch (final ArithmeticException e) {
+			return Long.MAX_VALUE;
+		}
+		return timeoutOccurred ? -(count + 1) : count;
+	}
+
+	private static LiteralSet union(List<LiteralSet> literalSets) {
+		return new LiteralSet(literalSets.stream().flatMapToInt(literalSet -> IntStream.of(literalSet.getLiterals())).toArray());
+	}
+
+}
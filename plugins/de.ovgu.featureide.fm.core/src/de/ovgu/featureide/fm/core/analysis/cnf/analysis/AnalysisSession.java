@@ -0,0 +1,95 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.analysis;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver.SelectionStrategy;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.IncrementalSatSolver;
+
+/**
+ * Shares solvers between analyses of the same {@link CNF}.<br> An analysis acquires a solver for its CNF and releases it when it is finished. Released
+ * solvers are reused by the next analysis of the same CNF, which saves loading the clauses again and keeps the clauses learned so far. Clauses that an
+ * analysis adds are guarded by selector variables (see {@link IncrementalSatSolver}) and removed on release. A solver is never used by two analyses at the
+ * same time. If all solvers of a CNF are in use (e.g., by another thread), a new one is created.
+ */
+public class AnalysisSession {
+
+	private final Map<CNF, Deque<IncrementalSatSolver>> solvers = new IdentityHashMap<>();
+
+	/**
+	 * Returns a solver for the given CNF that is not used by any other analysis.
+	 *
+	 * @param cnf the CNF
+	 * @return a solver for the CNF
+	 */
+	public IncrementalSatSolver acquire(CNF cnf) {
+		synchronized (solvers) {
+			Deque<IncrementalSatSolver> freeSolvers = solvers.get(cnf);
+			if (freeSolvers == null) {
+				freeSolvers = new ArrayDeque<>();
+				solvers.put(cnf, freeSolvers);
+			} else if (!freeSolvers.isEmpty()) {
+				return freeSolvers.pop();
+			}
+		}
+		return new IncrementalSatSolver(cnf);
+	}
+
+	/**
+	 * Returns a solver that was {@link #acquire(CNF) acquired} before. All clauses that were added and the assignment are removed from the solver. Solvers
+	 * of CNFs that are not part of this session anymore (see {@link #clear()}) and solvers that contain too many removed clauses are discarded.
+	 *
+	 * @param solver the solver
+	 */
+	public void release(IncrementalSatSolver solver) {
+		solver.assignmentClear(0);
+		solver.removeAddedClauses();
+		solver.useSolutionList(0);
+		solver.setGlobalTimeout(false);
+		solver.setSelectionStrategy(SelectionStrategy.ORG);
+		solver.setOrderFix();
+
+		final CNF cnf = solver.getSatInstance();
+		if (solver.getInactiveClauseCount() <= (cnf.getClauses().size() + cnf.getVariables().size())) {
+			synchronized (solvers) {
+				final Deque<IncrementalSatSolver> freeSolvers = solvers.get(cnf);
+				if (freeSolvers != null) {
+					freeSolvers.push(solver);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Discards all solvers of this session.
+	 */
+	public void clear() {
+		synchronized (solvers) {
+			solvers.clear();
+		}
+	}
+
+}
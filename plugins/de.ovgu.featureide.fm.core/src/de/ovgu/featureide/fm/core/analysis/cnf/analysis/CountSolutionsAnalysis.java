@@ -21,20 +21,25 @@
 package de.ovgu.featureide.fm.core.analysis.cnf.analysis;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNFComponents;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeContradictionException;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
 
 /**
- * Attempts to count the number of possible solutions of a given {@link CNF}.
+ * Attempts to count the number of possible solutions of a given {@link CNF}.<br> The CNF together with the current assumptions is decomposed into independent
+ * components (see {@link CNFComponents}). The solutions of each component are enumerated separately and the counts are multiplied.
  *
  * @author Sebastian Krieter
  */
 public class CountSolutionsAnalysis extends AbstractAnalysis<Long> {
 
+	private boolean decompose = true;
+
 	public CountSolutionsAnalysis(ISatSolver solver) {
 		super(solver);
 	}
@@ -43,8 +48,29 @@ public class CountSolutionsAnalysis extends AbstractAnalysis<Long> {
 		super(satInstance);
 	}
 
+	/**
+	 * @param decompose Whether the CNF is decomposed into components before the solutions are enumerated. Default is <code>true</code>.
+	 */
+	public void setDecompose(boolean decompose) {
+		this.decompose = decompose;
+	}
+
 	@Override
 	public Long analyze(IMonitor<Long> monitor) throws Exception {
+		if (decompose) {
+			// the assumptions are added as unit clauses, so the components are mapped to the assigned variables by the decomposition
+			final CNF assignedCNF = new CNF(solver.getSatInstance());
+			for (final int literal : solver.getAssignmentArray()) {
+				if (literal != 0) {
+					assignedCNF.addClause(new LiteralSet(literal));
+				}
+			}
+			final CNFComponents components = CNFComponents.decompose(assignedCNF);
+			if (components.isContradiction() || (components.getComponents().size() > 1) || !components.getFreeVariables().isEmpty()) {
+				return components.countSolutions(getTimeout(), monitor != null ? monitor : new NullMonitor<>());
+			}
+		}
+
 		solver.setGlobalTimeout(true);
 		long solutionCount = 0;
 		SatResult hasSolution = solver.hasSolution();
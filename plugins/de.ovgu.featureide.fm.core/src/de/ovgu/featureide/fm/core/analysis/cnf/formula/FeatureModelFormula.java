@@ -58,7 +58,16 @@ public class FeatureModelFormula {
 			}
 		}
 
-		return (T) mappedFormulaElement.get();
+		final T element = (T) mappedFormulaElement.get();
+		if (element == null) {
+			// creation failed or was canceled, so the next request should try again with its own creator
+			synchronized (map) {
+				if (map.get(formulaElement) == mappedFormulaElement) {
+					map.remove(formulaElement);
+				}
+			}
+		}
+		return element;
 	}
 
 	private final IFeatureModel featureModel;
@@ -0,0 +1,72 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.formula;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.manipulator.remove.StructuralCNFSlicer;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Creates a {@link CNF} in which the given features are sliced.<br> Two instances are equal if they remove the same set of features, so repeated slices of
+ * the same feature model reuse the cached result.
+ */
+public class FeatureSlicedCNFCreator extends ACreator<CNF> {
+
+	private final Set<String> removeFeatures;
+	private final IMonitor<CNF> monitor;
+
+	/**
+	 * @param removeFeatures The names of the features to remove
+	 */
+	public FeatureSlicedCNFCreator(Collection<String> removeFeatures) {
+		this(removeFeatures, null);
+	}
+
+	/**
+	 * @param removeFeatures The names of the features to remove
+	 * @param monitor The monitor that reports the progress of the slicing, if the result is not cached yet (may be {@code null})
+	 */
+	public FeatureSlicedCNFCreator(Collection<String> removeFeatures, IMonitor<CNF> monitor) {
+		this.removeFeatures = new HashSet<>(removeFeatures);
+		this.monitor = monitor;
+	}
+
+	@Override
+	protected CNF create() {
+		return LongRunningWrapper.runMethod(new StructuralCNFSlicer(formula.getFeatureModel(), formula.getElement(new CNFCreator()), removeFeatures), monitor);
+	}
+
+	@Override
+	public int hashCode() {
+		return (31 * super.hashCode()) + removeFeatures.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return super.equals(obj) && removeFeatures.equals(((FeatureSlicedCNFCreator) obj).removeFeatures);
+	}
+
+}
@@ -23,7 +23,7 @@ package de.ovgu.featureide.fm.core.analysis.cnf.formula;
 import java.util.function.Predicate;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
-import de.ovgu.featureide.fm.core.analysis.cnf.manipulator.remove.CNFSlicer;
+import de.ovgu.featureide.fm.core.analysis.cnf.manipulator.remove.StructuralCNFSlicer;
 import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.functional.Functional;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
@@ -43,8 +43,8 @@ public abstract class SlicedCNFCreator extends ACreator<CNF> {
 
 	@Override
 	protected CNF create() {
-		final CNFSlicer slicer =
-			new CNFSlicer(formula.getElement(new CNFCreator()), Functional.mapToList(formula.getFeatureModel().getFeatures(), filter, IFeature::getName));
+		final StructuralCNFSlicer slicer = new StructuralCNFSlicer(formula.getFeatureModel(), formula.getElement(new CNFCreator()),
+				Functional.mapToList(formula.getFeatureModel().getFeatures(), filter, IFeature::getName));
 		return LongRunningWrapper.runMethod(slicer);
 	}
 
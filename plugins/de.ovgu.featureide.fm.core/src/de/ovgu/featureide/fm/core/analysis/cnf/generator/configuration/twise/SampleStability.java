@@ -0,0 +1,129 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise;
+
+/**
+ * Describes how much a sample changed when it was adapted to a new version of a feature model.<br> Configurations are only compared with respect to the
+ * variables that are contained in both versions.
+ */
+public class SampleStability {
+
+	private int numberOfPreviousConfigurations;
+	private int numberOfUnchangedConfigurations;
+	private int numberOfNewConfigurations;
+	private int numberOfCommonVariables;
+	private long numberOfChangedLiterals;
+	private long numberOfUncoveredConditions;
+
+	/**
+	 * @return The number of configurations in the previous sample.
+	 */
+	public int getNumberOfPreviousConfigurations() {
+		return numberOfPreviousConfigurations;
+	}
+
+	/**
+	 * @return The number of previous configurations that could be kept without changing any literal.
+	 */
+	public int getNumberOfUnchangedConfigurations() {
+		return numberOfUnchangedConfigurations;
+	}
+
+	/**
+	 * @return The number of previous configurations that became invalid and had to be changed.
+	 */
+	public int getNumberOfRepairedConfigurations() {
+		return numberOfPreviousConfigurations - numberOfUnchangedConfigurations;
+	}
+
+	/**
+	 * @return The number of configurations that were added to cover new combinations.
+	 */
+	public int getNumberOfNewConfigurations() {
+		return numberOfNewConfigurations;
+	}
+
+	/**
+	 * @return The number of variables that are contained in the previous and the new version.
+	 */
+	public int getNumberOfCommonVariables() {
+		return numberOfCommonVariables;
+	}
+
+	/**
+	 * @return The number of literals that were changed in all repaired configurations.
+	 */
+	public long getNumberOfChangedLiterals() {
+		return numberOfChangedLiterals;
+	}
+
+	/**
+	 * @return The number of valid combinations that were not covered by the repaired configurations.
+	 */
+	public long getNumberOfUncoveredConditions() {
+		return numberOfUncoveredConditions;
+	}
+
+	/**
+	 * @return The ratio of configurations in the new sample that are contained unchanged in the previous sample.
+	 */
+	public double getStability() {
+		final int sampleSize = numberOfPreviousConfigurations + numberOfNewConfigurations;
+		return sampleSize == 0 ? 1 : (double) numberOfUnchangedConfigurations / sampleSize;
+	}
+
+	/**
+	 * @return The ratio of literals of the previous configurations that were not changed.
+	 */
+	public double getLiteralStability() {
+		final long numberOfLiterals = (long) numberOfPreviousConfigurations * numberOfCommonVariables;
+		return numberOfLiterals == 0 ? 1 : 1 - ((double) numberOfChangedLiterals / numberOfLiterals);
+	}
+
+	void setNumberOfCommonVariables(int numberOfCommonVariables) {
+		this.numberOfCommonVariables = numberOfCommonVariables;
+	}
+
+	void addPreviousConfiguration(int changedLiterals) {
+		numberOfPreviousConfigurations++;
+		if (changedLiterals == 0) {
+			numberOfUnchangedConfigurations++;
+		} else {
+			numberOfChangedLiterals += changedLiterals;
+		}
+	}
+
+	void setNumberOfNewConfigurations(int numberOfNewConfigurations) {
+		this.numberOfNewConfigurations = numberOfNewConfigurations;
+	}
+
+	void setNumberOfUncoveredConditions(long numberOfUncoveredConditions) {
+		this.numberOfUncoveredConditions = numberOfUncoveredConditions;
+	}
+
+	@Override
+	public String toString() {
+		return "SampleStability [previous=" + numberOfPreviousConfigurations + ", unchanged=" + numberOfUnchangedConfigurations + ", repaired="
+			+ getNumberOfRepairedConfigurations() + ", new=" + numberOfNewConfigurations + ", changedLiterals=" + numberOfChangedLiterals + ", stability="
+			+ getStability() + "]";
+	}
+
+}
@@ -174,6 +174,21 @@ public class TWiseConfiguration extends LiteralSet {
 		}
 	}
 
+	/**
+	 * Creates a complete configuration from a given solution (e.g., a configuration of a previous sample).
+	 *
+	 * @param util the util
+	 * @param solution a complete and valid solution in index order
+	 */
+	public TWiseConfiguration(TWiseConfigurationUtil util, LiteralSet solution) {
+		super(Arrays.copyOf(solution.getLiterals(), solution.size()), Order.INDEX, false);
+		this.util = util;
+		countLiterals = 0;
+		numberOfVariableLiterals = 0;
+		traverser = null;
+		visitor = null;
+	}
+
 	public TWiseConfiguration(TWiseConfiguration other) {
 		super(other);
 		util = other.util;
@@ -28,7 +28,9 @@ import java.util.List;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.ClauseList;
+import de.ovgu.featureide.fm.core.analysis.cnf.IVariables;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.SolutionList;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.AConfigurationGenerator;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.ITWiseConfigurationGenerator;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.ICoverStrategy.CombinationStatus;
@@ -139,6 +141,9 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 	private List<TWiseConfiguration> curResult = null;
 	private ArrayList<TWiseConfiguration> bestResult = null;
 
+	private SolutionList previousSample = null;
+	private SampleStability stability = null;
+
 	protected MonitorThread samplingMonitor;
 
 	public TWiseConfigurationGenerator(CNF cnf, int t) {
@@ -182,9 +187,15 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 
 	@Override
 	protected void generate(IMonitor<List<LiteralSet>> monitor) throws Exception {
+		init();
 		util.setRandom(getRandom());
 		util.computeRandomSample();
 
+		if (previousSample != null) {
+			generateIncremental(monitor);
+			return;
+		}
+
 		phaseCount = 0;
 
 		for (int i = 0; i < iterations; i++) {
@@ -319,6 +330,183 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 		}
 	}
 
+	/**
+	 * Adapts the previous sample to the current formula. Previous configurations that became invalid are repaired by changing as few literals as possible.
+	 * Afterwards, only the combinations that are not covered by the repaired configurations are covered by new configurations. The repaired configurations
+	 * are returned first and in the same order as in the previous sample.
+	 */
+	private void generateIncremental(IMonitor<List<LiteralSet>> monitor) {
+		stability = new SampleStability();
+		final List<LiteralSet> repairedSample = repairSample(monitor);
+
+		final TWiseCoverageCalculator calculator = new TWiseCoverageCalculator(util, t);
+		calculator.setCollectUncovered(true);
+		calculator.calculate(repairedSample, presenceConditionManager.getGroupedPresenceConditions());
+		final List<ClauseList> uncoveredConditions = calculator.getUncoveredConditions();
+		stability.setNumberOfUncoveredConditions(uncoveredConditions.size());
+
+		List<TWiseConfiguration> bestNewConfigurations = null;
+		for (int i = 0; i < iterations; i++) {
+			monitor.checkCancel();
+			util.getIncompleteSolutionList().clear();
+			util.getCompleteSolutionList().clear();
+			for (final LiteralSet solution : repairedSample) {
+				util.getCompleteSolutionList().add(new TWiseConfiguration(util, solution));
+			}
+
+			Collections.shuffle(uncoveredConditions, getRandom());
+			final ICoverStrategy phase = new CoverAll(util);
+			for (final ClauseList combinedCondition : uncoveredConditions) {
+				phase.cover(combinedCondition);
+			}
+
+			final List<TWiseConfiguration> completeSolutionList = util.getCompleteSolutionList();
+			final List<TWiseConfiguration> newConfigurations = new ArrayList<>(util.getIncompleteSolutionList());
+			newConfigurations.addAll(completeSolutionList.subList(repairedSample.size(), completeSolutionList.size()));
+			if ((bestNewConfigurations == null) || (bestNewConfigurations.size() > newConfigurations.size())) {
+				bestNewConfigurations = newConfigurations;
+			}
+		}
+
+		repairedSample.forEach(this::addResult);
+		if (bestNewConfigurations != null) {
+			bestNewConfigurations.forEach(configuration -> addResult(configuration.getCompleteSolution()));
+			stability.setNumberOfNewConfigurations(bestNewConfigurations.size());
+		}
+	}
+
+	/**
+	 * Maps the previous configurations to the variables of the current formula and repairs invalid ones. For each configuration, the solver assumes all of
+	 * its literals. As long as there is no solution, one literal of the contradictory assumptions is dropped. The remaining variables are then decided in
+	 * favor of their previous value, new variables are deselected if possible.
+	 */
+	private List<LiteralSet> repairSample(IMonitor<List<LiteralSet>> monitor) {
+		final IVariables variables = util.getCnf().getVariables();
+		final IVariables previousVariables = previousSample.getVariables() != null ? previousSample.getVariables() : variables;
+		final int numberOfVariables = variables.size();
+
+		final int[] variableMapping = new int[previousVariables.size() + 1];
+		int numberOfCommonVariables = 0;
+		for (int var = 1; var < variableMapping.length; var++) {
+			final int newVar = variables.getVariable(previousVariables.getName(var));
+			variableMapping[var] = newVar;
+			if (newVar != 0) {
+				numberOfCommonVariables++;
+			}
+		}
+		stability.setNumberOfCommonVariables(numberOfCommonVariables);
+
+		final int[] globalAssumptions = assumptions.getLiterals();
+		final List<LiteralSet> repairedSample = new ArrayList<>(previousSample.getSolutions().size());
+		try {
+			for (final LiteralSet previousConfiguration : previousSample.getSolutions()) {
+				monitor.checkCancel();
+				final int[] previousLiterals = new int[numberOfVariables];
+				for (final int literal : previousConfiguration.getLiterals()) {
+					final int newVar = (literal != 0) ? variableMapping[Math.abs(literal)] : 0;
+					if (newVar != 0) {
+						previousLiterals[newVar - 1] = literal > 0 ? newVar : -newVar;
+					}
+				}
+
+				final int[] solution = repairConfiguration(previousLiterals, globalAssumptions);
+				if (solution == null) {
+					// the current formula is void
+					break;
+				}
+				int changedLiterals = 0;
+				for (int i = 0; i < numberOfVariables; i++) {
+					if ((previousLiterals[i] != 0) && (previousLiterals[i] != solution[i])) {
+						changedLiterals++;
+					}
+				}
+				stability.addPreviousConfiguration(changedLiterals);
+				repairedSample.add(new LiteralSet(solution, LiteralSet.Order.INDEX, false));
+			}
+		} finally {
+			solver.setSelectionStrategy(SelectionStrategy.ORG);
+		}
+		return repairedSample;
+	}
+
+	private int[] repairConfiguration(int[] previousLiterals, int[] globalAssumptions) {
+		final int[] phase = new int[previousLiterals.length];
+		final int[] keptLiterals = new int[globalAssumptions.length + previousLiterals.length];
+		System.arraycopy(globalAssumptions, 0, keptLiterals, 0, globalAssumptions.length);
+		int keptCount = globalAssumptions.length;
+		for (int i = 0; i < previousLiterals.length; i++) {
+			final int literal = previousLiterals[i];
+			// the selection strategy decides each variable against the given model
+			phase[i] = -literal;
+			if (literal != 0) {
+				keptLiterals[keptCount++] = literal;
+			}
+		}
+		solver.setSelectionStrategy(phase, true);
+
+		while (true) {
+			switch (solver.hasSolution(Arrays.copyOf(keptLiterals, keptCount))) {
+			case TRUE:
+				return solver.getSolution();
+			case FALSE: {
+				if (keptCount == globalAssumptions.length) {
+					return null;
+				}
+				keptCount = dropLiteral(keptLiterals, keptCount, globalAssumptions.length, solver.getContradictoryAssignment());
+				break;
+			}
+			case TIMEOUT:
+			default:
+				if (keptCount == globalAssumptions.length) {
+					reportTimeout();
+					return null;
+				}
+				keptCount = dropLiteral(keptLiterals, keptCount, globalAssumptions.length, null);
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Removes one literal from the kept literals. The last kept literal that is part of the contradictory assignment is preferred.
+	 *
+	 * @return The new number of kept literals.
+	 */
+	private static int dropLiteral(int[] keptLiterals, int keptCount, int fixedCount, int[] contradictoryAssignment) {
+		int index = keptCount - 1;
+		if ((contradictoryAssignment != null) && (contradictoryAssignment.length > 0)) {
+			final LiteralSet conflict = new LiteralSet(contradictoryAssignment);
+			for (int i = keptCount - 1; i >= fixedCount; i--) {
+				if (conflict.containsVariable(Math.abs(keptLiterals[i]))) {
+					index = i;
+					break;
+				}
+			}
+		}
+		System.arraycopy(keptLiterals, index + 1, keptLiterals, index, keptCount - index - 1);
+		return keptCount - 1;
+	}
+
+	public SolutionList getPreviousSample() {
+		return previousSample;
+	}
+
+	/**
+	 * Sets a sample for a previous version of the formula. If set, the generator repairs and extends this sample instead of creating a new one.
+	 *
+	 * @param previousSample the previous sample, or <code>null</code> to create a new sample
+	 */
+	public void setPreviousSample(SolutionList previousSample) {
+		this.previousSample = previousSample;
+	}
+
+	/**
+	 * @return A report of the changes between the previous and the new sample, or <code>null</code> if no previous sample was set.
+	 */
+	public SampleStability getStability() {
+		return stability;
+	}
+
 	public TWiseConfigurationUtil getUtil() {
 		return util;
 	}
@@ -96,7 +96,7 @@ public class TWiseConfigurationStatistic {
 		configValues2 = null;
 
 		if (onlyCoverage) {
-			completeCalc2(util, configurations, groupedPresenceConditions);
+			coverageCalc(util, configurations, groupedPresenceConditions);
 		} else {
 			if (fastCalc) {
 				fastCalc(util, configurations, groupedPresenceConditions);
@@ -181,9 +181,7 @@ public class TWiseConfigurationStatistic {
 				final int count = curConfigurationList.size();
 				if (count > 0) {
 					numberOfCoveredConditions++;
-					if (countValid) {
-						numberOfValidConditions++;
-					}
+					numberOfValidConditions++;
 					final double value = 1.0 / count;
 					final long value2 = count == 1 ? 1 : 0;
 					for (final Pair<Integer, LiteralSet> entry : curConfigurationList) {
@@ -205,6 +203,7 @@ public class TWiseConfigurationStatistic {
 							numberOfInvalidConditions++;
 						}
 					} else {
+						numberOfValidConditions++;
 						numberOfUncoveredConditions++;
 					}
 				}
@@ -212,103 +211,17 @@ public class TWiseConfigurationStatistic {
 		}
 	}
 
-	private void completeCalc2(TWiseConfigurationUtil util, List<? extends LiteralSet> configurations, List<List<PresenceCondition>> groupedPresenceConditions) {
+	private void coverageCalc(TWiseConfigurationUtil util, List<? extends LiteralSet> configurations, List<List<PresenceCondition>> groupedPresenceConditions) {
 		configValues = new double[configurations.size()];
 		configValues2 = new double[configurations.size()];
 
-		final TWiseCombiner combiner = new TWiseCombiner(util.getCnf().getVariables().size());
-		final ClauseList combinedCondition = new ClauseList();
-		final PresenceCondition[] clauseListArray = new PresenceCondition[t];
-
-		final ArrayList<List<Pair<Integer, LiteralSet>>> lists = new ArrayList<>(t);
-		{
-			for (int i = 0; i <= t; i++) {
-				lists.add(new ArrayList<Pair<Integer, LiteralSet>>());
-			}
-			final List<Pair<Integer, LiteralSet>> list = lists.get(0);
-			int confIndex = 0;
-			for (final LiteralSet configuration : configurations) {
-				list.add(new Pair<>(confIndex++, configuration));
-			}
-		}
-		final List<Pair<Integer, LiteralSet>> curConfigurationList = lists.get(t);
-
-		for (final List<PresenceCondition> expressions : groupedPresenceConditions) {
-			final int n = expressions.size();
-			if (n == 0) {
-				continue;
-			}
-			final int t2 = (n < t) ? n : t;
-			final int[] c = new int[t2 + 1];
-			c[0] = -1;
-			for (int i = 1; i <= t2; i++) {
-				c[i] = n - (t2 - i);
-			}
-			boolean first = true;
-
-			combinationLoop: while (true) {
-				int i = t2;
-				for (; i > 0; i--) {
-					final int ci = ++c[i];
-					if (ci < ((n - t2) + i)) {
-						break;
-					}
-				}
-
-				if (i == 0) {
-					if (first) {
-						first = false;
-					} else {
-						break combinationLoop;
-					}
-				}
-
-				for (int j = i + 1; j <= t2; j++) {
-					c[j] = c[j - 1] + 1;
-				}
-
-				for (int j = i; j <= t2; j++) {
-					if (j > 0) {
-						final List<Pair<Integer, LiteralSet>> prevList = lists.get(j - 1);
-						final List<Pair<Integer, LiteralSet>> curList = lists.get(j);
-						curList.clear();
-						final PresenceCondition presenceCondition = expressions.get(c[j]);
-						entryLoop: for (final Pair<Integer, LiteralSet> entry : prevList) {
-							for (final LiteralSet literals : presenceCondition) {
-								if (entry.getValue().containsAll(literals)) {
-									curList.add(entry);
-									continue entryLoop;
-								}
-							}
-						}
-					}
-				}
-
-				final int count = curConfigurationList.size();
-				if (count > 0) {
-					numberOfCoveredConditions++;
-					if (countValid) {
-						numberOfValidConditions++;
-					}
-				} else {
-					if (countValid) {
-						for (int j = 1; j < c.length; j++) {
-							clauseListArray[j - 1] = expressions.get(c[j]);
-						}
-						combinedCondition.clear();
-						combiner.combineConditions(clauseListArray, combinedCondition);
-						if (util.isCombinationValid(combinedCondition)) {
-							numberOfValidConditions++;
-							numberOfUncoveredConditions++;
-						} else {
-							numberOfInvalidConditions++;
-						}
-					} else {
-						numberOfUncoveredConditions++;
-					}
-				}
-			}
-		}
+		final TWiseCoverageCalculator calculator = new TWiseCoverageCalculator(util, t);
+		calculator.setCountValid(countValid);
+		calculator.calculate(configurations, groupedPresenceConditions);
+		numberOfValidConditions = calculator.getNumberOfValidConditions();
+		numberOfInvalidConditions = calculator.getNumberOfInvalidConditions();
+		numberOfCoveredConditions = calculator.getNumberOfCoveredConditions();
+		numberOfUncoveredConditions = calculator.getNumberOfUncoveredConditions();
 	}
 
 	private void fastCalc(TWiseConfigurationUtil util, List<? extends LiteralSet> configurations, List<List<PresenceCondition>> groupedPresenceConditions) {
@@ -390,6 +303,7 @@ public class TWiseConfigurationStatistic {
 					for (final LiteralSet literals : presenceCondition) {
 						if (entry.getValue().containsAll(literals)) {
 							if (curEntry == null) {
+								numberOfValidConditions++;
 								numberOfCoveredConditions++;
 								curEntry = entry;
 								continue entryLoop;
@@ -403,6 +317,7 @@ public class TWiseConfigurationStatistic {
 				if (curEntry != null) {
 					configValues2[curEntry.getKey()]++;
 				} else {
+					numberOfValidConditions++;
 					numberOfUncoveredConditions++;
 				}
 			}
@@ -437,6 +352,22 @@ public class TWiseConfigurationStatistic {
 		return numberOfUncoveredConditions;
 	}
 
+	/**
+	 * @return The ratio of covered combinations to all combinations (including invalid ones).
+	 */
+	public double getCoverage() {
+		final long numberOfConditions = numberOfCoveredConditions + numberOfUncoveredConditions + numberOfInvalidConditions;
+		return numberOfConditions == 0 ? 1 : (double) numberOfCoveredConditions / numberOfConditions;
+	}
+
+	/**
+	 * @return The ratio of covered combinations to valid combinations. If combinations are not checked for validity (see {@link #setCountValid(boolean)}),
+	 *         all combinations are valid.
+	 */
+	public double getValidCoverage() {
+		return numberOfValidConditions == 0 ? 1 : (double) numberOfCoveredConditions / numberOfValidConditions;
+	}
+
 	/**
 	 * For each configuration: Sum of every conditions covered divided by number of configurations that cover this condition.
 	 *
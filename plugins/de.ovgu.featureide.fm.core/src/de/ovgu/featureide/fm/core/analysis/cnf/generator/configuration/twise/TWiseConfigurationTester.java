@@ -73,7 +73,7 @@ public class TWiseConfigurationTester {
 	 * To get a percentage value of covered combinations use:<br>
 	 * <pre>{@code
 	 * 	TWiseConfigurationStatistic coverage = getCoverage();
-	 * 	double covered = (double) coverage.getNumberOfCoveredConditions() / coverage.getNumberOfValidConditions();
+	 * 	double covered = coverage.getValidCoverage();
 	 * }</pre>
 	 *
 
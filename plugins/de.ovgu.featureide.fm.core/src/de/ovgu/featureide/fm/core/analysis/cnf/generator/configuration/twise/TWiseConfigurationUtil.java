@@ -157,6 +157,10 @@ class TWiseConfigurationUtil {
 		return random;
 	}
 
+	public List<LiteralSet> getRandomSample() {
+		return randomSample;
+	}
+
 	protected int solverSolutionEndIndex = -1;
 
 	public void addSolverSolution(int[] literals) {
@@ -0,0 +1,434 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.ClauseList;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+
+/**
+ * Calculates the t-wise coverage of a set of configurations using bit sets.<br> The configurations are stored column-wise, such that for each literal there
+ * is a bit set of all configurations containing it. The configurations that cover a combination of presence conditions are the intersection of the bit sets
+ * of its presence conditions. Only combinations that are not covered by any configuration must be checked for validity.<br><br> The combinations of each
+ * group are partitioned by their first presence condition and the partitions are processed concurrently.
+ */
+public class TWiseCoverageCalculator {
+
+	/**
+	 * Column-wise representation of a list of configurations.
+	 */
+	private static class ConfigurationColumns {
+
+		private final int words;
+		private final long[][] columns;
+
+		private ConfigurationColumns(List<? extends LiteralSet> configurations, int numberOfVariables) {
+			words = Math.max(1, (configurations.size() + 63) >>> 6);
+			columns = new long[numberOfVariables << 1][words];
+			int configurationIndex = 0;
+			for (final LiteralSet configuration : configurations) {
+				final int word = configurationIndex >>> 6;
+				final long bit = 1L << configurationIndex;
+				for (final int literal : configuration.getLiterals()) {
+					if (literal != 0) {
+						columns[getIndex(literal)][word] |= bit;
+					}
+				}
+				configurationIndex++;
+			}
+		}
+
+		private static int getIndex(int literal) {
+			return ((Math.abs(literal) - 1) << 1) + (literal < 0 ? 0 : 1);
+		}
+
+		/**
+		 * @return The configurations that contain all given literals.
+		 */
+		private long[] get(LiteralSet literals) {
+			final long[] result = new long[words];
+			fill(result, -1L);
+			for (final int literal : literals.getLiterals()) {
+				intersect(result, columns[getIndex(literal)], result);
+			}
+			return result;
+		}
+
+		/**
+		 * @return The configurations that satisfy the given presence condition.
+		 */
+		private long[] get(PresenceCondition presenceCondition) {
+			final long[] result = new long[words];
+			for (final LiteralSet literals : presenceCondition) {
+				final long[] literalsColumn = get(literals);
+				for (int i = 0; i < words; i++) {
+					result[i] |= literalsColumn[i];
+				}
+			}
+			return result;
+		}
+
+		/**
+		 * @return <code>true</code> if at least one configuration contains all given literals.
+		 */
+		private boolean covers(LiteralSet literals) {
+			final int[] literalArray = literals.getLiterals();
+			if (literalArray.length == 0) {
+				return true;
+			}
+			wordLoop: for (int i = 0; i < words; i++) {
+				long word = -1L;
+				for (final int literal : literalArray) {
+					word &= columns[getIndex(literal)][i];
+					if (word == 0) {
+						continue wordLoop;
+					}
+				}
+				return true;
+			}
+			return false;
+		}
+
+		private static void fill(long[] bits, long value) {
+			for (int i = 0; i < bits.length; i++) {
+				bits[i] = value;
+			}
+		}
+
+		private static void intersect(long[] bits1, long[] bits2, long[] result) {
+			for (int i = 0; i < result.length; i++) {
+				result[i] = bits1[i] & bits2[i];
+			}
+		}
+
+		private static boolean isEmpty(long[] bits) {
+			for (final long word : bits) {
+				if (word != 0) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * All combinations of a group that start with the same presence condition.
+	 */
+	private static class Partition {
+
+		private final long[][] presenceConditionColumns;
+		private final List<PresenceCondition> expressions;
+		private final int first;
+		private final List<ClauseList> uncoveredConditions = new ArrayList<>();
+
+		private Partition(long[][] presenceConditionColumns, List<PresenceCondition> expressions, int first) {
+			this.presenceConditionColumns = presenceConditionColumns;
+			this.expressions = expressions;
+			this.first = first;
+		}
+	}
+
+	/**
+	 * Processes partitions and counts the combinations within them. Each worker uses its own solver.
+	 */
+	private class Worker implements Callable<Worker> {
+
+		private final List<Partition> partitions;
+		private final AtomicInteger nextPartition;
+		private final ConfigurationColumns randomSampleColumns;
+		private final ISatSolver solver;
+		private final List<LiteralSet> solverSolutions = new ArrayList<>();
+		private final TWiseCombiner combiner;
+		private final ClauseList combinedCondition = new ClauseList();
+
+		private long validConditions;
+		private long invalidConditions;
+		private long coveredConditions;
+		private long uncoveredConditions;
+
+		private Worker(List<Partition> partitions, AtomicInteger nextPartition, ConfigurationColumns randomSampleColumns) {
+			this.partitions = partitions;
+			this.nextPartition = nextPartition;
+			this.randomSampleColumns = randomSampleColumns;
+			solver = (countValid && util.hasSolver()) ? util.getSolver().clone() : null;
+			combiner = new TWiseCombiner(util.getCnf().getVariables().size());
+		}
+
+		@Override
+		public Worker call() {
+			for (int i = nextPartition.getAndIncrement(); i < partitions.size(); i = nextPartition.getAndIncrement()) {
+				count(partitions.get(i));
+			}
+			return this;
+		}
+
+		private void count(Partition partition) {
+			final long[][] presenceConditionColumns = partition.presenceConditionColumns;
+			final int n = presenceConditionColumns.length;
+			final int t2 = (n < t) ? n : t;
+			final int words = presenceConditionColumns[0].length;
+
+			// levels[j] contains the configurations that cover the first j presence conditions of the current combination
+			final long[][] levels = new long[t2 + 1][words];
+			ConfigurationColumns.fill(levels[0], -1L);
+
+			final int[] c = new int[t2];
+			for (int j = 0; j < t2; j++) {
+				c[j] = partition.first + j;
+			}
+			int changed = 0;
+			while (true) {
+				for (int j = changed; j < t2; j++) {
+					ConfigurationColumns.intersect(levels[j], presenceConditionColumns[c[j]], levels[j + 1]);
+				}
+
+				if (!ConfigurationColumns.isEmpty(levels[t2])) {
+					coveredConditions++;
+					validConditions++;
+				} else if (countValid || collectUncovered) {
+					final PresenceCondition[] clauseListArray = new PresenceCondition[t2];
+					for (int j = 0; j < t2; j++) {
+						clauseListArray[j] = partition.expressions.get(c[j]);
+					}
+					combinedCondition.clear();
+					combiner.combineConditions(clauseListArray, combinedCondition);
+					if (!countValid || isCombinationValid(combinedCondition)) {
+						validConditions++;
+						uncoveredConditions++;
+						if (collectUncovered) {
+							partition.uncoveredConditions.add(new ClauseList(combinedCondition));
+						}
+					} else {
+						invalidConditions++;
+					}
+				} else {
+					validConditions++;
+					uncoveredConditions++;
+				}
+
+				int j = t2 - 1;
+				while ((j > 0) && (c[j] == ((n - t2) + j))) {
+					j--;
+				}
+				if (j == 0) {
+					break;
+				}
+				c[j]++;
+				for (int k = j + 1; k < t2; k++) {
+					c[k] = c[k - 1] + 1;
+				}
+				changed = j;
+			}
+		}
+
+		/**
+		 * Same as {@link TWiseConfigurationUtil#isCombinationValid(ClauseList)}, but uses the solver of this worker and the bit sets of the random sample.
+		 */
+		private boolean isCombinationValid(ClauseList clauses) {
+			if (solver == null) {
+				return !clauses.isEmpty();
+			}
+			for (final LiteralSet literalSet : clauses) {
+				if (util.isCombinationInvalidMIG(literalSet)) {
+					return false;
+				}
+			}
+			for (final LiteralSet literalSet : clauses) {
+				if (isCombinationValidSAT(literalSet)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private boolean isCombinationValidSAT(LiteralSet literals) {
+			if (randomSampleColumns.covers(literals)) {
+				return true;
+			}
+			for (final LiteralSet solution : solverSolutions) {
+				if (!solution.hasConflicts(literals)) {
+					return true;
+				}
+			}
+			if (solver.hasSolution(literals.getLiterals()) == SatResult.TRUE) {
+				solverSolutions.add(new LiteralSet(solver.getSolution(), Order.INDEX, false));
+				return true;
+			}
+			return false;
+		}
+	}
+
+	private final TWiseConfigurationUtil util;
+	private final int t;
+	private final int threads;
+
+	private boolean countValid = true;
+	private boolean collectUncovered = false;
+
+	private long numberOfValidConditions;
+	private long numberOfInvalidConditions;
+	private long numberOfCoveredConditions;
+	private long numberOfUncoveredConditions;
+	private List<ClauseList> uncoveredConditions = new ArrayList<>();
+
+	public TWiseCoverageCalculator(TWiseConfigurationUtil util, int t) {
+		this(util, t, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param util The util containing the formula and solver
+	 * @param t The size of the combinations
+	 * @param threads The number of partitions that are processed concurrently
+	 */
+	public TWiseCoverageCalculator(TWiseConfigurationUtil util, int t, int threads) {
+		this.util = util;
+		this.t = t;
+		this.threads = Math.max(1, threads);
+	}
+
+	public boolean isCountValid() {
+		return countValid;
+	}
+
+	/**
+	 * @param countValid Whether uncovered combinations are checked for validity. If <code>false</code>, all combinations are treated as valid.
+	 */
+	public void setCountValid(boolean countValid) {
+		this.countValid = countValid;
+	}
+
+	public boolean isCollectUncovered() {
+		return collectUncovered;
+	}
+
+	/**
+	 * @param collectUncovered Whether the uncovered (valid) combinations are stored and can be retrieved via {@link #getUncoveredConditions()}.
+	 */
+	public void setCollectUncovered(boolean collectUncovered) {
+		this.collectUncovered = collectUncovered;
+	}
+
+	public void calculate(List<? extends LiteralSet> configurations, List<List<PresenceCondition>> groupedPresenceConditions) {
+		numberOfValidConditions = 0;
+		numberOfInvalidConditions = 0;
+		numberOfCoveredConditions = 0;
+		numberOfUncoveredConditions = 0;
+		uncoveredConditions = new ArrayList<>();
+
+		final int numberOfVariables = util.getCnf().getVariables().size();
+		final ConfigurationColumns sampleColumns = new ConfigurationColumns(configurations, numberOfVariables);
+		final ConfigurationColumns randomSampleColumns = new ConfigurationColumns(util.getRandomSample(), numberOfVariables);
+
+		final List<Partition> partitions = new ArrayList<>();
+		for (final List<PresenceCondition> expressions : groupedPresenceConditions) {
+			final int n = expressions.size();
+			if (n == 0) {
+				continue;
+			}
+			final long[][] presenceConditionColumns = new long[n][];
+			for (int i = 0; i < n; i++) {
+				presenceConditionColumns[i] = sampleColumns.get(expressions.get(i));
+			}
+			final int t2 = (n < t) ? n : t;
+			for (int first = 0; first <= (n - t2); first++) {
+				partitions.add(new Partition(presenceConditionColumns, expressions, first));
+			}
+		}
+		if (partitions.isEmpty()) {
+			return;
+		}
+
+		final AtomicInteger nextPartition = new AtomicInteger();
+		final int numberOfWorkers = Math.min(threads, partitions.size());
+		final List<Worker> workers = new ArrayList<>(numberOfWorkers);
+		for (int i = 0; i < numberOfWorkers; i++) {
+			workers.add(new Worker(partitions, nextPartition, randomSampleColumns));
+		}
+
+		if (numberOfWorkers == 1) {
+			add(workers.get(0).call());
+		} else {
+			final ExecutorService executor = Executors.newFixedThreadPool(numberOfWorkers);
+			try {
+				for (final Future<Worker> future : executor.invokeAll(workers)) {
+					add(future.get());
+				}
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException(e);
+			} catch (final ExecutionException e) {
+				final Throwable cause = e.getCause();
+				throw cause instanceof RuntimeException ? (RuntimeException) cause : new RuntimeException(cause);
+			} finally {
+				executor.shutdownNow();
+			}
+		}
+
+		if (collectUncovered) {
+			for (final Partition partition : partitions) {
+				uncoveredConditions.addAll(partition.uncoveredConditions);
+			}
+		}
+	}
+
+	private void add(Worker worker) {
+		numberOfValidConditions += worker.validConditions;
+		numberOfInvalidConditions += worker.invalidConditions;
+		numberOfCoveredConditions += worker.coveredConditions;
+		numberOfUncoveredConditions += worker.uncoveredConditions;
+	}
+
+	public long getNumberOfValidConditions() {
+		return numberOfValidConditions;
+	}
+
+	public long getNumberOfInvalidConditions() {
+		return numberOfInvalidConditions;
+	}
+
+	public long getNumberOfCoveredConditions() {
+		return numberOfCoveredConditions;
+	}
+
+	public long getNumberOfUncoveredConditions() {
+		return numberOfUncoveredConditions;
+	}
+
+	/**
+	 * @return The combined presence conditions of all uncovered (valid) combinations in the order of their groups. Empty, if uncovered combinations are not
+	 *         collected.
+	 */
+	public List<ClauseList> getUncoveredConditions() {
+		return uncoveredConditions;
+	}
+
+}
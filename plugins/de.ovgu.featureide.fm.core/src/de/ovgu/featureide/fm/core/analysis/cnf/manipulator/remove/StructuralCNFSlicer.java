@@ -0,0 +1,335 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.manipulator.remove;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.IVariables;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.SlicedVariables;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureStructure;
+import de.ovgu.featureide.fm.core.job.LongRunningMethod;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+import de.ovgu.featureide.fm.core.job.monitor.AMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Removes features from the {@link CNF} of a feature model while retaining dependencies of all other features.<br> In contrast to {@link CNFSlicer}, the
+ * structure of the feature model is used to reduce the work:
+ * <ol>
+ * <li>Subtrees that only contain removed features which do not occur in any cross-tree constraint are dropped without any computation. The tree can always
+ * be completed for such a subtree, so all clauses containing one of its features are simply omitted.</li>
+ * <li>The remaining clauses are split into independent components (i.e., clauses that do not share any variable). Components without removed features are
+ * kept as they are.</li>
+ * <li>The other components are distributed over several {@link CNFSlicer slicers}, which run in parallel.</li>
+ * </ol>
+ * The variables of the resulting CNF are the same as for {@link CNFSlicer}.
+ */
+public class StructuralCNFSlicer implements LongRunningMethod<CNF> {
+
+	private final IFeatureModel featureModel;
+	private final CNF orgCNF;
+	private final Set<String> removeFeatures;
+
+	/**
+	 * @param featureModel The feature model
+	 * @param orgCNF The CNF of the given feature model (e.g., {@link de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula#getCNF()})
+	 * @param removeFeatures The names of the features to remove
+	 */
+	public StructuralCNFSlicer(IFeatureModel featureModel, CNF orgCNF, Collection<String> removeFeatures) {
+		this.featureModel = featureModel;
+		this.orgCNF = orgCNF;
+		this.removeFeatures = new HashSet<>(removeFeatures);
+	}
+
+	@Override
+	public CNF execute(IMonitor<CNF> monitor) throws Exception {
+		monitor.setRemainingWork(3);
+		final Variables variables = (Variables) orgCNF.getVariables();
+		final int maxVariableID = variables.maxVariableID();
+
+		final boolean[] removed = new boolean[maxVariableID + 1];
+		final List<String> keptNames = new ArrayList<>();
+		for (int var = 1; var <= maxVariableID; var++) {
+			final String name = variables.getName(var);
+			if (removeFeatures.contains(name)) {
+				removed[var] = true;
+			} else {
+				keptNames.add(name);
+			}
+		}
+		final SlicedVariables slicedVariables = new SlicedVariables(variables, keptNames);
+
+		final boolean[] free = getFreeVariables(variables, removed);
+		monitor.step();
+		monitor.checkCancel();
+
+		// union-find over all variables of the remaining clauses
+		final int[] parent = new int[maxVariableID + 1];
+		for (int var = 1; var <= maxVariableID; var++) {
+			parent[var] = var;
+		}
+		final List<LiteralSet> remainingClauses = new ArrayList<>();
+		clauseLoop: for (final LiteralSet clause : orgCNF.getClauses()) {
+			final int[] literals = clause.getLiterals();
+			for (final int literal : literals) {
+				if (free[Math.abs(literal)]) {
+					continue clauseLoop;
+				}
+			}
+			remainingClauses.add(clause);
+			if (literals.length > 0) {
+				final int first = find(parent, Math.abs(literals[0]));
+				for (int i = 1; i < literals.length; i++) {
+					final int other = find(parent, Math.abs(literals[i]));
+					if (other != first) {
+						parent[other] = first;
+					}
+				}
+			}
+		}
+
+		final List<List<LiteralSet>> components = new ArrayList<>();
+		final int[] componentIndex = new int[maxVariableID + 1];
+		final List<LiteralSet> result = new ArrayList<>();
+		for (final LiteralSet clause : remainingClauses) {
+			final int[] literals = clause.getLiterals();
+			if (literals.length == 0) {
+				result.add(clause);
+				continue;
+			}
+			final int root = find(parent, Math.abs(literals[0]));
+			if (componentIndex[root] == 0) {
+				components.add(new ArrayList<LiteralSet>());
+				componentIndex[root] = components.size();
+			}
+			components.get(componentIndex[root] - 1).add(clause);
+		}
+
+		// only components that contain removed features need to be sliced
+		final List<List<LiteralSet>> dirtyComponents = new ArrayList<>();
+		for (final List<LiteralSet> component : components) {
+			if (containsRemovedVariable(component, removed)) {
+				dirtyComponents.add(component);
+			} else {
+				result.addAll(component);
+			}
+		}
+		monitor.step();
+		monitor.checkCancel();
+
+		final List<List<LiteralSet>> batches = distribute(dirtyComponents, Runtime.getRuntime().availableProcessors());
+		final List<List<LiteralSet>> slicedBatches =
+			batches.parallelStream().map(batch -> slice(variables, batch, removed, monitor)).collect(Collectors.toList());
+		monitor.checkCancel();
+		for (final List<LiteralSet> slicedBatch : slicedBatches) {
+			if (slicedBatch == null) {
+				throw new IllegalStateException("Could not slice component");
+			}
+			result.addAll(slicedBatch);
+		}
+		monitor.step();
+
+		return new CNF(slicedVariables, result);
+	}
+
+	/**
+	 * @return For each variable, whether it belongs to a subtree that only contains removed features, which do not occur in any constraint.
+	 */
+	private boolean[] getFreeVariables(IVariables variables, boolean[] removed) {
+		final boolean[] free = new boolean[removed.length];
+		final IFeatureStructure root = featureModel.getStructure().getRoot();
+		if (root == null) {
+			return free;
+		}
+
+		final Set<IFeature> constraintFeatures = new HashSet<>();
+		for (final IConstraint constraint : featureModel.getConstraints()) {
+			constraintFeatures.addAll(constraint.getContainedFeatures());
+		}
+
+		// post order traversal, the root itself is never dropped
+		final List<IFeatureStructure> postOrder = new ArrayList<>();
+		final List<IFeatureStructure> stack = new ArrayList<>();
+		stack.add(root);
+		while (!stack.isEmpty()) {
+			final IFeatureStructure structure = stack.remove(stack.size() - 1);
+			postOrder.add(structure);
+			stack.addAll(structure.getChildren());
+		}
+		Collections.reverse(postOrder);
+
+		final Set<IFeatureStructure> freeStructures = new HashSet<>();
+		for (final IFeatureStructure structure : postOrder) {
+			if (structure == root) {
+				continue;
+			}
+			final IFeature feature = structure.getFeature();
+			final int var = variables.getVariable(feature.getName());
+			if ((var <= 0) || !removed[var] || constraintFeatures.contains(feature)) {
+				continue;
+			}
+			boolean freeSubtree = true;
+			for (final IFeatureStructure child : structure.getChildren()) {
+				if (!freeStructures.contains(child)) {
+					freeSubtree = false;
+					break;
+				}
+			}
+			if (freeSubtree) {
+				freeStructures.add(structure);
+				free[var] = true;
+			}
+		}
+		return free;
+	}
+
+	private static List<LiteralSet> slice(Variables variables, List<LiteralSet> clauses, boolean[] removed, IMonitor<?> monitor) {
+		final Set<Integer> dirtyVariables = new HashSet<>();
+		for (final LiteralSet clause : clauses) {
+			for (final int literal : clause.getLiterals()) {
+				final int var = Math.abs(literal);
+				if (removed[var]) {
+					dirtyVariables.add(var);
+				}
+			}
+		}
+		final int[] dirtyVariableArray = new int[dirtyVariables.size()];
+		int i = 0;
+		for (final Integer var : dirtyVariables) {
+			dirtyVariableArray[i++] = var;
+		}
+		final CNF slicedCNF =
+			LongRunningWrapper.runMethod(new CNFSlicer(new CNF(variables, clauses), new LiteralSet(dirtyVariableArray)), new CancelMonitor<CNF>(monitor));
+		return slicedCNF != null ? slicedCNF.getClauses() : null;
+	}
+
+	/**
+	 * Distributes the given components over at most the given number of batches, such that all batches have a similar number of clauses.
+	 */
+	private static List<List<LiteralSet>> distribute(List<List<LiteralSet>> components, int batchCount) {
+		final List<List<LiteralSet>> sortedComponents = new ArrayList<>(components);
+		Collections.sort(sortedComponents, Comparator.comparingInt((List<LiteralSet> c) -> c.size()).reversed());
+
+		final List<List<LiteralSet>> batches = new ArrayList<>();
+		for (final List<LiteralSet> component : sortedComponents) {
+			if (batches.size() < batchCount) {
+				batches.add(new ArrayList<>(component));
+			} else {
+				List<LiteralSet> smallestBatch = batches.get(0);
+				for (final List<LiteralSet> batch : batches) {
+					if (batch.size() < smallestBatch.size()) {
+						smallestBatch = batch;
+					}
+				}
+				smallestBatch.addAll(component);
+			}
+		}
+		return batches;
+	}
+
+	private static boolean containsRemovedVariable(List<LiteralSet> clauses, boolean[] removed) {
+		for (final LiteralSet clause : clauses) {
+			for (final int literal : clause.getLiterals()) {
+				if (removed[Math.abs(literal)]) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static int find(int[] parent, int var) {
+		int root = var;
+		while (parent[root] != root) {
+			root = parent[root];
+		}
+		while (parent[var] != root) {
+			final int next = parent[var];
+			parent[var] = root;
+			var = next;
+		}
+		return root;
+	}
+
+	/**
+	 * Only forwards cancel requests of the given monitor, such that it can be shared by the parallel slicers without synchronizing their progress.
+	 */
+	private static final class CancelMonitor<T> extends AMonitor<T> {
+
+		private final IMonitor<?> monitor;
+
+		private CancelMonitor(IMonitor<?> monitor) {
+			this.monitor = monitor;
+		}
+
+		@Override
+		public void cancel() {
+			monitor.cancel();
+		}
+
+		@Override
+		public void done() {}
+
+		@Override
+		public void checkCancel() throws MethodCancelException {
+			monitor.checkCancel();
+		}
+
+		@Override
+		public <R> IMonitor<R> subTask(int size) {
+			return new CancelMonitor<>(monitor);
+		}
+
+		@Override
+		public void worked(int work) {}
+
+		@Override
+		public void setRemainingWork(int work) {}
+
+		@Override
+		public int getRemainingWork() {
+			return 0;
+		}
+
+		@Override
+		public void setTaskName(String name) {}
+
+		@Override
+		public String getTaskName() {
+			return monitor.getTaskName();
+		}
+
+	}
+
+}
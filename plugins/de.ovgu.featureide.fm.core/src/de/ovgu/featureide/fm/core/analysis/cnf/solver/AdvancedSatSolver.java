@@ -170,15 +170,16 @@ public class AdvancedSatSolver extends SimpleSatSolver implements ISatSolver {
 		if (contradiction) {
 			return SatResult.FALSE;
 		}
+		final long conflicts = getConflictCount();
 		try {
 			if (solver.isSatisfiable(assignment, globalTimeout)) {
 				addSolution();
-				return SatResult.TRUE;
+				return countCall(SatResult.TRUE, conflicts);
 			} else {
-				return SatResult.FALSE;
+				return countCall(SatResult.FALSE, conflicts);
 			}
 		} catch (final TimeoutException e) {
-			return SatResult.TIMEOUT;
+			return countCall(SatResult.TIMEOUT, conflicts);
 		}
 	}
 
@@ -193,18 +194,19 @@ public class AdvancedSatSolver extends SimpleSatSolver implements ISatSolver {
 		final int[] unitClauses = new int[assignment.length];
 		System.arraycopy(internalMapping.convertToInternal(assignment), 0, unitClauses, 0, unitClauses.length);
 
+		final long conflicts = getConflictCount();
 		try {
 			// TODO why is this necessary?
 			solver.setKeepSolverHot(true);
 			if (solver.isSatisfiable(new VecInt(unitClauses), globalTimeout)) {
 				addSolution();
-				return SatResult.TRUE;
+				return countCall(SatResult.TRUE, conflicts);
 			} else {
-				return SatResult.FALSE;
+				return countCall(SatResult.FALSE, conflicts);
 			}
 		} catch (final TimeoutException e) {
 			e.printStackTrace();
-			return SatResult.TIMEOUT;
+			return countCall(SatResult.TIMEOUT, conflicts);
 		}
 	}
 
@@ -53,7 +53,7 @@ public class FixedLiteralSelectionStrategy implements IPhaseSelectionStrategy {
 	@Override
 	public void assignLiteral(int p) {
 		final int var = var(p);
-		if (model[var - 1] == 0) {
+		if ((var <= model.length) && (model[var - 1] == 0)) {
 			phase[var] = p;
 		}
 	}
@@ -0,0 +1,303 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.sat4j.core.VecInt;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IConstr;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+
+/**
+ * Sat solver that can be reused by several analyses of the same formula.<br> Each clause that is added to this solver is guarded by a new selector
+ * variable. The selectors of all added clauses are passed as assumptions to every satisfiability check. Removing a clause only deactivates its selector.
+ * Thus, in contrast to {@link ModifiableSatSolver}, the clauses learned by Sat4j stay valid and are kept.<br> <br> Selector variables are never part of a
+ * solution, an assignment, or a contradictory assignment.
+ */
+public class IncrementalSatSolver extends AdvancedSatSolver {
+
+	/**
+	 * The selector of each added clause in order of addition. Removed clauses have the selector 0.
+	 */
+	private final VecInt selectors = new VecInt();
+
+	private int inactiveClauseCount = 0;
+
+	/**
+	 * Whether selector variables were created since the last initialization of the variable order.
+	 */
+	private boolean newVariables = false;
+
+	public IncrementalSatSolver(CNF satInstance) {
+		super(satInstance);
+	}
+
+	@Override
+	public IConstr addClause(LiteralSet mainClause) throws RuntimeContradictionException {
+		return addSelectedClause(internalMapping.convertToInternal(mainClause.getLiterals()));
+	}
+
+	@Override
+	public IConstr addInternalClause(LiteralSet mainClause) throws RuntimeContradictionException {
+		return addSelectedClause(mainClause.getLiterals());
+	}
+
+	@Override
+	public List<IConstr> addClauses(Iterable<? extends LiteralSet> clauses) throws RuntimeContradictionException {
+		return addSelectedClauses(clauses, false);
+	}
+
+	@Override
+	public List<IConstr> addInternalClauses(Iterable<? extends LiteralSet> clauses) throws RuntimeContradictionException {
+		return addSelectedClauses(clauses, true);
+	}
+
+	private List<IConstr> addSelectedClauses(Iterable<? extends LiteralSet> clauses, boolean internal) throws RuntimeContradictionException {
+		final ArrayList<IConstr> newConstrs = new ArrayList<>();
+		try {
+			for (final LiteralSet clause : clauses) {
+				newConstrs.add(addSelectedClause(internal ? clause.getLiterals() : internalMapping.convertToInternal(clause.getLiterals())));
+			}
+		} catch (final RuntimeContradictionException e) {
+			removeLastClauses(newConstrs.size());
+			throw e;
+		}
+		return newConstrs;
+	}
+
+	private IConstr addSelectedClause(int[] literals) throws RuntimeContradictionException {
+		if (contradiction || ((literals.length == 1) && (literals[0] == 0))) {
+			throw new RuntimeContradictionException();
+		}
+		final int selector = solver.nextFreeVarId(true);
+		final int[] selectedLiterals = Arrays.copyOf(literals, literals.length + 1);
+		selectedLiterals[literals.length] = -selector;
+		final IConstr constr;
+		try {
+			constr = solver.addClause(new VecInt(selectedLiterals));
+		} catch (final ContradictionException e) {
+			throw new RuntimeContradictionException(e);
+		}
+		selectors.push(selector);
+		constrList.add(constr);
+		newVariables = true;
+		return constr;
+	}
+
+	@Override
+	public void removeClause(IConstr constr) {
+		if (constr != null) {
+			for (int i = constrList.size() - 1; i >= 0; i--) {
+				if (constrList.get(i) == constr) {
+					deactivate(i);
+					return;
+				}
+			}
+		}
+	}
+
+	@Override
+	public void removeLastClauses(int numberOfClauses) {
+		for (int i = 0; i < numberOfClauses; i++) {
+			final int index = selectors.size() - 1;
+			deactivate(index);
+			selectors.pop();
+			constrList.remove(index);
+		}
+	}
+
+	/**
+	 * Removes the clauses in the given range. In contrast to {@link #removeLastClauses(int)}, the indices of all other clauses do not change.
+	 *
+	 * @param from the index of the first removed clause (in order of addition)
+	 * @param to the index after the last removed clause
+	 */
+	public void removeClauses(int from, int to) {
+		for (int i = from; i < to; i++) {
+			deactivate(i);
+		}
+	}
+
+	/**
+	 * Removes all clauses that were added to this solver.
+	 */
+	public void removeAddedClauses() {
+		removeLastClauses(selectors.size());
+	}
+
+	/**
+	 * @return the number of clauses that were added to this solver and not removed by {@link #removeLastClauses(int)}
+	 */
+	public int getAddedClauseCount() {
+		return selectors.size();
+	}
+
+	/**
+	 * @return the number of clauses that were removed from this solver, but are still contained in the Sat4j solver
+	 */
+	public int getInactiveClauseCount() {
+		return inactiveClauseCount;
+	}
+
+	private void deactivate(int index) {
+		final int selector = selectors.get(index);
+		if (selector != 0) {
+			selectors.set(index, 0);
+			inactiveClauseCount++;
+			try {
+				solver.addClause(new VecInt(new int[] { -selector }));
+			} catch (final ContradictionException e) {
+				throw new RuntimeContradictionException(e);
+			}
+		}
+	}
+
+	private IVecInt getAssumptions(IVecInt assumptions) {
+		return getAssumptions(assumptions, 0, 0);
+	}
+
+	private IVecInt getAssumptions(IVecInt assumptions, int ignoredFrom, int ignoredTo) {
+		if (newVariables) {
+			solver.getOrder().init();
+			newVariables = false;
+		}
+		final VecInt selectedAssumptions = new VecInt(assumptions.size() + selectors.size());
+		assumptions.copyTo(selectedAssumptions);
+		for (int i = 0; i < selectors.size(); i++) {
+			final int selector = selectors.get(i);
+			if ((selector != 0) && ((i < ignoredFrom) || (i >= ignoredTo))) {
+				selectedAssumptions.unsafePush(selector);
+			}
+		}
+		return selectedAssumptions;
+	}
+
+	@Override
+	public SatResult hasSolution() {
+		if (contradiction) {
+			return SatResult.FALSE;
+		}
+		final long conflicts = getConflictCount();
+		try {
+			if (solver.isSatisfiable(getAssumptions(assignment), globalTimeout)) {
+				addSolution();
+				return countCall(SatResult.TRUE, conflicts);
+			} else {
+				return countCall(SatResult.FALSE, conflicts);
+			}
+		} catch (final TimeoutException e) {
+			return countCall(SatResult.TIMEOUT, conflicts);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}<br> <br> Does only consider the given {@code assignment} and <b>not</b> the global assignment variable of the solver.
+	 */
+	@Override
+	public SatResult hasSolution(int... assignment) {
+		if (contradiction) {
+			return SatResult.FALSE;
+		}
+		final long conflicts = getConflictCount();
+		try {
+			if (solver.isSatisfiable(getAssumptions(new VecInt(internalMapping.convertToInternal(assignment))), globalTimeout)) {
+				addSolution();
+				return countCall(SatResult.TRUE, conflicts);
+			} else {
+				return countCall(SatResult.FALSE, conflicts);
+			}
+		} catch (final TimeoutException e) {
+			return countCall(SatResult.TIMEOUT, conflicts);
+		}
+	}
+
+	/**
+	 * Checks satisfiability while some of the added clauses are ignored. The ignored clauses are not removed and are considered again by all subsequent
+	 * checks.<br> <br> Does only consider the given {@code assignment} and <b>not</b> the global assignment variable of the solver.
+	 *
+	 * @param ignoredFrom the index of the first ignored clause (in order of addition)
+	 * @param ignoredTo the index after the last ignored clause
+	 * @param assignment the assumptions
+	 * @return the result of the check
+	 */
+	public SatResult hasSolutionIgnoring(int ignoredFrom, int ignoredTo, int... assignment) {
+		if (contradiction) {
+			return SatResult.FALSE;
+		}
+		final long conflicts = getConflictCount();
+		try {
+			if (solver.isSatisfiable(getAssumptions(new VecInt(internalMapping.convertToInternal(assignment)), ignoredFrom, ignoredTo), globalTimeout)) {
+				addSolution();
+				return countCall(SatResult.TRUE, conflicts);
+			} else {
+				return countCall(SatResult.FALSE, conflicts);
+			}
+		} catch (final TimeoutException e) {
+			return countCall(SatResult.TIMEOUT, conflicts);
+		}
+	}
+
+	private void addSolution() {
+		if (useSolutionList) {
+			solutionList.add(getInternalSolution());
+		}
+	}
+
+	@Override
+	public int[] getSolution() {
+		return contradiction ? null : internalMapping.convertToOriginal(getInternalSolution());
+	}
+
+	@Override
+	public int[] getInternalSolution() {
+		return contradiction ? null : Arrays.copyOf(solver.model(), order.length);
+	}
+
+	@Override
+	public int[] findSolution() {
+		return hasSolution() == SatResult.TRUE ? getInternalSolution() : null;
+	}
+
+	@Override
+	public int[] getContradictoryAssignment() {
+		if (contradiction) {
+			return new int[0];
+		}
+		final IVecInt unsatExplanation = solver.unsatExplanation();
+		final int[] literals = new int[unsatExplanation.size()];
+		int count = 0;
+		for (int i = 0; i < unsatExplanation.size(); i++) {
+			final int literal = unsatExplanation.get(i);
+			if (Math.abs(literal) <= order.length) {
+				literals[count++] = literal;
+			}
+		}
+		return internalMapping.convertToOriginal(Arrays.copyOf(literals, count));
+	}
+
+}
@@ -0,0 +1,638 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.WeakHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.core.DataStructureFactory;
+import org.sat4j.minisat.core.Solver;
+import org.sat4j.minisat.learning.PercentLengthLearning;
+import org.sat4j.minisat.orders.NegativeLiteralSelectionStrategy;
+import org.sat4j.minisat.orders.PositiveLiteralSelectionStrategy;
+import org.sat4j.minisat.restarts.ArminRestarts;
+import org.sat4j.minisat.restarts.LubyRestarts;
+import org.sat4j.specs.IConstr;
+import org.sat4j.specs.ISolverService;
+import org.sat4j.specs.TimeoutException;
+import org.sat4j.tools.SearchListenerAdapter;
+
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+
+/**
+ * Sat solver that runs several differently configured Sat4j solvers on the same query in parallel.<br> The first answer is used and the other solvers are
+ * stopped. The number of wins of each {@link Configuration} is recorded per formula (i.e., per equal {@link CNF}). The configuration that won most often is
+ * run on the calling thread, the other configurations are run by a shared executor. At most as many configurations as there are processors are run for one
+ * query. If a race delay is set, the other configurations are only started if the best configuration did not answer within the delay.<br> <br> All
+ * modifications (clauses, assignment, order, selection strategy, timeouts) are applied to every solver. Setting a selection strategy replaces the phase
+ * selection of all configurations. Solutions and explanations are taken from the solver that answered the last query.
+ */
+public class PortfolioSatSolver extends AdvancedSatSolver {
+
+	public static final String THREADS_PROPERTY = "featureide.solver.portfolio.threads";
+
+	/**
+	 * The configurations of the solvers in a portfolio.
+	 */
+	public static enum Configuration {
+		/**
+		 * Default configuration of Sat4j.
+		 */
+		DEFAULT,
+		/**
+		 * Luby restarts and negative phase selection.
+		 */
+		LUBY_NEGATIVE,
+		/**
+		 * Armin restarts and positive phase selection.
+		 */
+		ARMIN_POSITIVE,
+		/**
+		 * Only learns clauses whose length is at most 10 percent of the number of variables.
+		 */
+		LIMITED_LEARNING
+	}
+
+	/**
+	 * Solver with one configuration of the portfolio.
+	 */
+	private static class MemberSolver extends AdvancedSatSolver {
+
+		private MemberSolver(CNF satInstance, Configuration configuration) {
+			super(satInstance);
+			configure(this, configuration);
+		}
+
+	}
+
+	/**
+	 * Stops the search of a solver from within the thread that runs the search.<br> {@link Solver#expireTimeout()} must not be called from other threads, as it
+	 * also cancels and clears the timeout timer of the solver, which is not synchronized.
+	 */
+	private static final class StopListener extends SearchListenerAdapter<ISolverService> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient Solver<?> solver;
+
+		private volatile boolean stop = false;
+
+		private StopListener(Solver<?> solver) {
+			this.solver = solver;
+		}
+
+		private void checkStop() {
+			if (stop) {
+				stop = false;
+				solver.stop();
+			}
+		}
+
+		@Override
+		public void beginLoop() {
+			checkStop();
+		}
+
+		@Override
+		public void assuming(int p) {
+			checkStop();
+		}
+
+		@Override
+		public void conflictFound(IConstr confl, int dlevel, int trailLevel) {
+			checkStop();
+		}
+
+	}
+
+	private static final Map<CNF, AtomicIntegerArray> wins = Collections.synchronizedMap(new WeakHashMap<CNF, AtomicIntegerArray>());
+
+	/**
+	 * The maximal number of solvers that run at the same time for one query. Defaults to the number of processors.
+	 */
+	private static final int PARALLELISM = Math.max(1, Integer.getInteger(THREADS_PROPERTY, Runtime.getRuntime().availableProcessors()));
+
+	private static final int PENDING = 0, RUNNING = 1, DONE = 2;
+
+	private static ScheduledThreadPoolExecutor executor = null;
+
+	private static synchronized ScheduledThreadPoolExecutor getExecutor() {
+		if (executor == null) {
+			final AtomicInteger threadNumber = new AtomicInteger();
+			executor = new ScheduledThreadPoolExecutor(Math.max(1, PARALLELISM - 1), runnable -> {
+				final Thread thread = new Thread(runnable, "Portfolio Solver " + threadNumber.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+			executor.setRemoveOnCancelPolicy(true);
+		}
+		return executor;
+	}
+
+	private static void configure(AdvancedSatSolver member, Configuration configuration) {
+		if (member.contradiction) {
+			return;
+		}
+		switch (configuration) {
+		case DEFAULT:
+			break;
+		case LUBY_NEGATIVE:
+			member.solver.setRestartStrategy(new LubyRestarts());
+			member.solver.setOrder(new VarOrderHeap2(new NegativeLiteralSelectionStrategy(), member.order));
+			break;
+		case ARMIN_POSITIVE:
+			member.solver.setRestartStrategy(new ArminRestarts());
+			member.solver.setOrder(new VarOrderHeap2(new PositiveLiteralSelectionStrategy(), member.order));
+			break;
+		case LIMITED_LEARNING:
+			setLimitedLearning(member.solver);
+			break;
+		default:
+			throw new AssertionError(configuration);
+		}
+		member.solver.getOrder().init();
+	}
+
+	private static <D extends DataStructureFactory> void setLimitedLearning(Solver<D> solver) {
+		solver.setLearningStrategy(new PercentLengthLearning<D>(10));
+	}
+
+	private final Configuration[] configurations;
+	/**
+	 * The solvers of the portfolio. The first one is this solver.
+	 */
+	private final AdvancedSatSolver[] members;
+	/**
+	 * The stop requests of the solvers of the portfolio; <code>null</code> for solvers without Sat4J solver.
+	 */
+	private final StopListener[] stopListeners;
+	private final AtomicIntegerArray configurationWins;
+
+	private AdvancedSatSolver lastWinner = this;
+	private long raceDelay = 0;
+
+	/**
+	 * Creates a portfolio with all {@link Configuration configurations}.
+	 *
+	 * @param satInstance the formula
+	 */
+	public PortfolioSatSolver(CNF satInstance) {
+		this(satInstance, Configuration.values());
+	}
+
+	/**
+	 * Creates a portfolio with the given configurations.
+	 *
+	 * @param satInstance the formula
+	 * @param configurations the configurations; not empty
+	 */
+	public PortfolioSatSolver(CNF satInstance, Configuration... configurations) {
+		super(satInstance);
+		if (configurations.length == 0) {
+			throw new IllegalArgumentException("No configuration specified!");
+		}
+		this.configurations = configurations.clone();
+		final AdvancedSatSolver[] members = new AdvancedSatSolver[configurations.length];
+		members[0] = this;
+		configure(this, configurations[0]);
+		for (int i = 1; i < configurations.length; i++) {
+			members[i] = new MemberSolver(satInstance, configurations[i]);
+		}
+		this.members = members;
+		stopListeners = new StopListener[members.length];
+		for (int i = 0; i < members.length; i++) {
+			if (!members[i].contradiction) {
+				stopListeners[i] = new StopListener(members[i].solver);
+				members[i].solver.setSearchListener(stopListeners[i]);
+			}
+		}
+		AtomicIntegerArray modelWins;
+		synchronized (wins) {
+			modelWins = wins.get(satInstance);
+			if (modelWins == null) {
+				modelWins = new AtomicIntegerArray(Configuration.values().length);
+				wins.put(satInstance, modelWins);
+			}
+		}
+		configurationWins = modelWins;
+	}
+
+	/**
+	 * @return all solvers of the portfolio except this solver (empty while the super constructor initializes this solver)
+	 */
+	private List<AdvancedSatSolver> getOtherMembers() {
+		return members == null ? Collections.<AdvancedSatSolver> emptyList() : Arrays.asList(members).subList(1, members.length);
+	}
+
+	/**
+	 * Requests the solver with the given index to stop its current search. The search is stopped by the thread that runs it.
+	 *
+	 * @param memberIndex the index of the solver
+	 * @param stop whether the search should be stopped
+	 */
+	private void requestStop(int memberIndex, boolean stop) {
+		if (stopListeners[memberIndex] != null) {
+			stopListeners[memberIndex].stop = stop;
+		}
+	}
+
+	@Override
+	protected long countConflicts() {
+		long conflicts = super.countConflicts();
+		for (final AdvancedSatSolver member : getOtherMembers()) {
+			if (!member.contradiction) {
+				conflicts += member.countConflicts();
+			}
+		}
+		return conflicts;
+	}
+
+	/**
+	 * Sets the time to wait for the best configuration before the other configurations are started. With a delay of 0, all configurations are started at
+	 * once.
+	 *
+	 * @param raceDelay the delay in milliseconds
+	 */
+	public void setRaceDelay(long raceDelay) {
+		this.raceDelay = Math.max(0, raceDelay);
+	}
+
+	public long getRaceDelay() {
+		return raceDelay;
+	}
+
+	/**
+	 * @return the configuration of the solver that answered the last query
+	 */
+	public Configuration getLastWinner() {
+		for (int i = 0; i < members.length; i++) {
+			if (members[i] == lastWinner) {
+				return configurations[i];
+			}
+		}
+		return configurations[0];
+	}
+
+	/**
+	 * @param configuration a configuration
+	 * @return how often the given configuration answered first for the formula of this solver
+	 */
+	public int getWins(Configuration configuration) {
+		return configurationWins.get(configuration.ordinal());
+	}
+
+	@Override
+	public SatResult hasSolution() {
+		return race(null);
+	}
+
+	@Override
+	public SatResult hasSolution(int... assignment) {
+		return race(internalMapping.convertToInternal(assignment));
+	}
+
+	/**
+	 * Runs all solvers on the same query and returns the first answer.
+	 *
+	 * @param assumptions internal literals to assume or <code>null</code> to use the assignment of each solver
+	 * @return the result of the fastest solver or {@link SatResult#TIMEOUT} if all solvers timed out
+	 */
+	private SatResult race(int[] assumptions) {
+		if (contradiction) {
+			return SatResult.FALSE;
+		}
+		final long conflicts = getConflictCount();
+		final int[] ranking = getRanking();
+		final SatResult[] results = new SatResult[members.length];
+		final AtomicInteger winner = new AtomicInteger(-1);
+		for (int i = 0; i < members.length; i++) {
+			requestStop(i, false);
+		}
+
+		final int racers = Math.min(ranking.length, PARALLELISM);
+		final AtomicIntegerArray states = new AtomicIntegerArray(members.length);
+		final CountDownLatch finished = new CountDownLatch(racers - 1);
+		final List<Future<?>> futures = new ArrayList<>(racers - 1);
+		for (int i = 1; i < racers; i++) {
+			final int memberIndex = ranking[i];
+			futures.add(getExecutor().schedule(() -> {
+				if (states.compareAndSet(memberIndex, PENDING, RUNNING)) {
+					try {
+						solve(memberIndex, assumptions, results, winner);
+					} catch (final RuntimeException e) {
+						Logger.logError(e);
+					} finally {
+						states.set(memberIndex, DONE);
+						finished.countDown();
+					}
+				}
+			}, raceDelay, TimeUnit.MILLISECONDS));
+		}
+		solve(ranking[0], assumptions, results, winner);
+
+		// the solvers must not be used by other threads after this method returns
+		boolean interrupted = false;
+		while (true) {
+			if (interrupted || (winner.get() >= 0)) {
+				for (int i = 1; i < racers; i++) {
+					final int memberIndex = ranking[i];
+					if (states.compareAndSet(memberIndex, PENDING, DONE)) {
+						futures.get(i - 1).cancel(false);
+						finished.countDown();
+					} else if (states.get(memberIndex) == RUNNING) {
+						requestStop(memberIndex, true);
+					}
+				}
+			}
+			try {
+				if (finished.await(winner.get() >= 0 ? 1 : 10, TimeUnit.MILLISECONDS)) {
+					break;
+				}
+			} catch (final InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+
+		final int winnerIndex = winner.get();
+		final SatResult result;
+		if (winnerIndex >= 0) {
+			lastWinner = members[winnerIndex];
+			configurationWins.incrementAndGet(configurations[winnerIndex].ordinal());
+			result = results[winnerIndex];
+			if ((result == SatResult.TRUE) && useSolutionList) {
+				solutionList.add(lastWinner.solver.model());
+			}
+		} else {
+			result = SatResult.TIMEOUT;
+		}
+		return countCall(result, conflicts);
+	}
+
+	private void solve(int memberIndex, int[] assumptions, SatResult[] results, AtomicInteger winner) {
+		if (winner.get() >= 0) {
+			return;
+		}
+		final AdvancedSatSolver member = members[memberIndex];
+		SatResult result;
+		try {
+			final boolean satisfiable;
+			if (assumptions == null) {
+				satisfiable = member.solver.isSatisfiable(member.assignment, globalTimeout);
+			} else {
+				member.solver.setKeepSolverHot(true);
+				satisfiable = member.solver.isSatisfiable(new VecInt(assumptions), globalTimeout);
+			}
+			result = satisfiable ? SatResult.TRUE : SatResult.FALSE;
+		} catch (final TimeoutException e) {
+			result = SatResult.TIMEOUT;
+		}
+		results[memberIndex] = result;
+		if ((result != SatResult.TIMEOUT) && winner.compareAndSet(-1, memberIndex)) {
+			for (int i = 0; i < members.length; i++) {
+				if (i != memberIndex) {
+					requestStop(i, true);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the indexes of the members, sorted by their number of wins
+	 */
+	private int[] getRanking() {
+		final Integer[] ranking = new Integer[members.length];
+		for (int i = 0; i < ranking.length; i++) {
+			ranking[i] = i;
+		}
+		Arrays.sort(ranking, (i1, i2) -> Integer.compare(getWins(configurations[i2]), getWins(configurations[i1])));
+		final int[] result = new int[ranking.length];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = ranking[i];
+		}
+		return result;
+	}
+
+	@Override
+	public int[] getSolution() {
+		return contradiction ? null : internalMapping.convertToOriginal(lastWinner.solver.model());
+	}
+
+	@Override
+	public int[] getInternalSolution() {
+		return contradiction ? null : lastWinner.solver.model();
+	}
+
+	@Override
+	public int[] findSolution() {
+		return hasSolution() == SatResult.TRUE ? lastWinner.solver.model() : null;
+	}
+
+	@Override
+	public int[] getContradictoryAssignment() {
+		return lastWinner == this ? super.getContradictoryAssignment() : lastWinner.getContradictoryAssignment();
+	}
+
+	@Override
+	public IConstr addClause(LiteralSet mainClause) throws RuntimeContradictionException {
+		for (final AdvancedSatSolver member : getOtherMembers()) {
+			member.addClause(mainClause);
+		}
+		return super.addClause(mainClause);
+	}
+
+	@Override
+	public IConstr addInternalClause(LiteralSet mainClause) throws RuntimeContradictionException {
+		for (final AdvancedSatSolver member : getOtherMembers()) {
+			member.addInternalClause(mainClause);
+		}
+		return super.addInternalClause(mainClause);
+	}
+
+	@Override
+	public List<IConstr> addClauses(Iterable<? extends LiteralSet> clauses) throws RuntimeContradictionException {
+		for (final AdvancedSatSolver member : getOtherMembers()) {
+			member.addClauses(clauses);
+		}
+		return super.addClauses(clauses);
+	}
+
+	@Override
+	public List<IConstr> addInternalClauses(Iterable<? extends LiteralSet> clauses) throws RuntimeContradictionException {
+		for (final AdvancedSatSolver member : getOtherMembers()) {
+			member.addInternalClauses(clauses);
+		}
+		return super.addInternalClauses(clauses);
+	}
+
+	@Override
+	public void assignmentClear(int size) {
+		super.assignmentClear(size);
+		for (final AdvancedSatSolver member : getOtherMembers()) {
+			member.assignmentClear(size);
+		}
+	}
+
+	@Override
+	public void asignmentEnsure(int size) {
+		super.asignmentEnsure(size);
+		for (final AdvancedSatSolver member : getOtherMembers()) {
+			member.asignmentEnsure(size);
+		}
+	}
+
+	@Override
+	public void assignmentPop() {
+		super.assignmentPop();
+		for (final AdvancedSatSolver member : getOtherMembers()) {
+			member.assignmentPop();
+		}
+	}
+
+	@Override
+	public void assignmentPush(int x) {
+		super.assignmentPush(x);
+		for (final AdvancedSatSolver member : getOtherMembers()) {
+			member.assignmentPush(x);
+		}
+	}
+
+	@Override
+	public void assignmentPushAll(int[] x) {
+		super.assignmentPushAll(x);
+		for (final AdvancedSatSolver member : getOtherMembers()) {
+			member.assignmentPushAll(x);
+		}
+	}
+
+	@Override
+	public void assignmentReplaceLast(int x) {
+		super.assignmentReplaceLast(x);
+		for (final AdvancedSatSolver member : getOtherMembers()) {
+			member.assignmentReplaceLast(x);
+		}
+	}
+
+	@Override
+	public void assignmentDelete(int i) {
+		super.assignmentDelete(i);
+		for (final AdvancedSatSolver member : getOtherMembers()) {
+			member.assignmentDelete(i);
+		}
+	}
+
+	@Override
+	public void assignmentSet(int index, int var) {
+		super.assignmentSet(index, var);
+		for (final AdvancedSatSolver member : getOtherMembers()) {
+			member.assignmentSet(index, var);
+		}
+	}
+
+	@Override
+	public void setOrder(int[] order) {
+		super.setOrder(order);
+		for (final AdvancedSatSolver member : getOtherMembers()) {
+			member.setOrder(order);
+		}
+	}
+
+	@Override
+	public void setOrderFix() {
+		super.setOrderFix();
+		for (final AdvancedSatSolver member : getOtherMembers()) {
+			member.setOrderFix();
+		}
+	}
+
+	@Override
+	public void shuffleOrder(Random rnd) {
+		super.shuffleOrder(rnd);
+		for (final AdvancedSatSolver member : getOtherMembers()) {
+			member.setOrder(order);
+		}
+	}
+
+	@Override
+	public void setSelectionStrategy(SelectionStrategy strategy) {
+		super.setSelectionStrategy(strategy);
+		for (final AdvancedSatSolver member : getOtherMembers()) {
+			member.setSelectionStrategy(strategy);
+		}
+	}
+
+	@Override
+	public void setSelectionStrategy(int[] model, boolean min) {
+		super.setSelectionStrategy(model, min);
+		for (final AdvancedSatSolver member : getOtherMembers()) {
+			member.setSelectionStrategy(model, min);
+		}
+	}
+
+	@Override
+	public void setSelectionStrategy(List<LiteralSet> sample) {
+		super.setSelectionStrategy(sample);
+		for (final AdvancedSatSolver member : getOtherMembers()) {
+			member.setSelectionStrategy(sample);
+		}
+	}
+
+	@Override
+	public void setGlobalTimeout(boolean globalTimeout) {
+		super.setGlobalTimeout(globalTimeout);
+		for (final AdvancedSatSolver member : getOtherMembers()) {
+			member.setGlobalTimeout(globalTimeout);
+		}
+	}
+
+	@Override
+	public void setTimeout(int timeout) {
+		super.setTimeout(timeout);
+		for (final AdvancedSatSolver member : getOtherMembers()) {
+			member.setTimeout(timeout);
+		}
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		for (final AdvancedSatSolver member : getOtherMembers()) {
+			member.reset();
+		}
+	}
+
+}
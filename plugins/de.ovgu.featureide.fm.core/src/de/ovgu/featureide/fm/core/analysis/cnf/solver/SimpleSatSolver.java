@@ -34,6 +34,8 @@ import org.sat4j.specs.TimeoutException;
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.IInternalVariables;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.job.metrics.ExecutionRecord.Counter;
+import de.ovgu.featureide.fm.core.job.metrics.JobMetrics;
 
 /**
  * Light version of a sat solver with reduced functionality.
@@ -151,15 +153,16 @@ public class SimpleSatSolver implements ISimpleSatSolver {
 		if (contradiction) {
 			return SatResult.FALSE;
 		}
+		final long conflicts = getConflictCount();
 		try {
 			if (solver.isSatisfiable(false)) {
-				return SatResult.TRUE;
+				return countCall(SatResult.TRUE, conflicts);
 			} else {
-				return SatResult.FALSE;
+				return countCall(SatResult.FALSE, conflicts);
 			}
 		} catch (final TimeoutException e) {
 			e.printStackTrace();
-			return SatResult.TIMEOUT;
+			return countCall(SatResult.TIMEOUT, conflicts);
 		}
 	}
 
@@ -171,18 +174,52 @@ public class SimpleSatSolver implements ISimpleSatSolver {
 		final int[] unitClauses = new int[assignment.length];
 		System.arraycopy(internalMapping.convertToInternal(assignment), 0, unitClauses, 0, unitClauses.length);
 
+		final long conflicts = getConflictCount();
 		try {
 			if (solver.isSatisfiable(new VecInt(unitClauses), false)) {
-				return SatResult.TRUE;
+				return countCall(SatResult.TRUE, conflicts);
 			} else {
-				return SatResult.FALSE;
+				return countCall(SatResult.FALSE, conflicts);
 			}
 		} catch (final TimeoutException e) {
 			e.printStackTrace();
-			return SatResult.TIMEOUT;
+			return countCall(SatResult.TIMEOUT, conflicts);
 		}
 	}
 
+	/**
+	 * @return the amount of conflicts so far if the solver calls are measured by {@link JobMetrics} and 0 otherwise
+	 */
+	protected final long getConflictCount() {
+		return JobMetrics.isEnabled() ? countConflicts() : 0;
+	}
+
+	/**
+	 * @return the amount of conflicts of all Sat4J solvers that answer the queries of this solver
+	 */
+	protected long countConflicts() {
+		return solver.getStats().conflicts;
+	}
+
+	/**
+	 * Adds a solver call to the counters of the currently measured method.
+	 *
+	 * @param result the result of the call
+	 * @param conflicts the amount of conflicts before the call
+	 * @return the given result
+	 */
+	protected final SatResult countCall(SatResult result, long conflicts) {
+		if (JobMetrics.isEnabled()) {
+			final long newConflicts = countConflicts();
+			JobMetrics.increment(Counter.SOLVER_CALLS, 1);
+			JobMetrics.increment(Counter.SOLVER_CONFLICTS, newConflicts >= conflicts ? newConflicts - conflicts : newConflicts);
+			if (result == SatResult.TIMEOUT) {
+				JobMetrics.increment(Counter.SOLVER_TIMEOUTS, 1);
+			}
+		}
+		return result;
+	}
+
 	@Override
 	public SatResult hasSolution(LiteralSet assignment) {
 		return hasSolution(assignment.getLiterals());
@@ -66,6 +66,9 @@ public class UniformRandomSelectionStrategy implements IPhaseSelectionStrategy {
 	}
 
 	public void undo(int var) {
+		if (var > model.length) {
+			return;
+		}
 		final int literal = model[var - 1];
 		if (literal != 0) {
 			updateRatioUnset(literal);
@@ -75,8 +78,12 @@ public class UniformRandomSelectionStrategy implements IPhaseSelectionStrategy {
 
 	@Override
 	public void assignLiteral(int p) {
+		final int var = LiteralsUtils.var(p);
+		if (var > model.length) {
+			return;
+		}
 		final int literal = LiteralsUtils.toDimacs(p);
-		model[LiteralsUtils.var(p) - 1] = literal;
+		model[var - 1] = literal;
 		updateRatioSet(literal);
 	}
 
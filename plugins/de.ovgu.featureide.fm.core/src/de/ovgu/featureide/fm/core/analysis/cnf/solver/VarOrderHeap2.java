@@ -50,7 +50,8 @@ public class VarOrderHeap2 extends VarOrderHeap {
 		activity[0] = -1;
 		heap = new Heap(activity);
 		heap.setBounds(nlength);
-		nlength--;
+		// variables that are not contained in the order (e.g., selector variables) are never decided
+		nlength = Math.min(nlength - 1, order.length);
 		for (int i = 0; i < nlength; i++) {
 			final int x = order[i];
 			activity[x] = 0.0;
@@ -55,6 +55,17 @@ public class ModalImplicationGraph implements IEdgeTypes, Serializable {
 		adjList = new ArrayList<>(numVariables);
 	}
 
+	/**
+	 * Creates a graph with the given vertices and complex clauses. The lists are used directly.
+	 *
+	 * @param adjList The vertices in the order of {@link #getVertex(int)}
+	 * @param complexClauses The complex clauses referenced by the vertices
+	 */
+	public ModalImplicationGraph(List<Vertex> adjList, List<LiteralSet> complexClauses) {
+		this.adjList = adjList;
+		this.complexClauses.addAll(complexClauses);
+	}
+
 	public void copyValues(ModalImplicationGraph other) {
 		adjList.addAll(other.adjList);
 		complexClauses.addAll(other.complexClauses);
@@ -731,4 +731,35 @@ public interface IFeatureModel extends Cloneable, IEventManager {
 
 	void setEventManager(IEventManager eventManager);
 
+	/**
+	 * Starts a bulk edit of this feature model. Until the corresponding call of {@link #endBulkEdit()}, events fired via {@link #fireEvent(de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent)}
+	 * are collected instead of being passed to the listeners. Bulk edits can be nested.<br> Use this method for operations that change many elements at once
+	 * (e.g., importers or slicing), so that listeners are notified only once.
+	 *
+	 * @see #endBulkEdit()
+	 *
+	 * @since 3.6
+	 */
+	void beginBulkEdit();
+
+	/**
+	 * Ends a bulk edit of this feature model. If the outermost bulk edit ends, the collected events are passed to the listeners. A single event is fired
+	 * unchanged. Multiple events are coalesced into one {@link de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent.EventType#MODEL_DATA_CHANGED} event,
+	 * whose new value is the list of the collected events.
+	 *
+	 * @see #beginBulkEdit()
+	 *
+	 * @since 3.6
+	 *
+	 * @throws IllegalStateException if no bulk edit was started
+	 */
+	void endBulkEdit();
+
+	/**
+	 * @return <code>true</code> if a bulk edit was started and not ended yet.
+	 *
+	 * @since 3.6
+	 */
+	boolean isInBulkEdit();
+
 }
@@ -24,8 +24,9 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Hashtable;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -78,6 +79,11 @@ public class FeatureModel implements IFeatureModel {
 
 	protected final List<IConstraint> constraints = new ArrayList<>();
 
+	/**
+	 * The position of each constraint in {@link #constraints}. Created on demand and discarded whenever constraints are inserted or removed.
+	 */
+	private Map<IConstraint, Integer> constraintIndex = null;
+
 	/**
 	 * A list containing the feature names in their specified order will be initialized in XmlFeatureModelReader.
 	 */
@@ -91,6 +97,9 @@ public class FeatureModel implements IFeatureModel {
 
 	protected IEventManager eventManager = new DefaultEventManager();
 
+	private volatile int bulkEditDepth = 0;
+	private final List<FeatureIDEEvent> bulkEditEvents = new ArrayList<>();
+
 	protected final IFeatureModelProperty property;
 
 	protected final RenamingsManager renamingsManager;
@@ -103,7 +112,7 @@ public class FeatureModel implements IFeatureModel {
 		this.factoryID = factoryID;
 
 		id = getNextId();
-		featureOrderList = new LinkedList<>();
+		featureOrderList = new ArrayList<>();
 		featureOrderUserDefined = false;
 
 		property = createProperty();
@@ -116,7 +125,7 @@ public class FeatureModel implements IFeatureModel {
 		factoryID = oldFeatureModel.factoryID;
 		id = oldFeatureModel.id;
 		nextElementId = oldFeatureModel.nextElementId;
-		featureOrderList = new LinkedList<>(oldFeatureModel.featureOrderList);
+		featureOrderList = new ArrayList<>(oldFeatureModel.featureOrderList);
 		featureOrderUserDefined = oldFeatureModel.featureOrderUserDefined;
 
 		property = oldFeatureModel.getProperty().clone(this);
@@ -155,12 +164,16 @@ public class FeatureModel implements IFeatureModel {
 	@Override
 	public void addConstraint(IConstraint constraint) {
 		constraints.add(constraint);
+		if (constraintIndex != null) {
+			constraintIndex.putIfAbsent(constraint, constraints.size() - 1);
+		}
 		elements.put(constraint.getInternalId(), constraint);
 	}
 
 	@Override
 	public void addConstraint(IConstraint constraint, int index) {
 		constraints.add(index, constraint);
+		constraintIndex = null;
 		elements.put(constraint.getInternalId(), constraint);
 	}
 
@@ -266,9 +279,49 @@ public class FeatureModel implements IFeatureModel {
 
 	@Override
 	public final void fireEvent(FeatureIDEEvent event) {
+		if (bulkEditDepth > 0) {
+			synchronized (bulkEditEvents) {
+				if (bulkEditDepth > 0) {
+					bulkEditEvents.add(event);
+					return;
+				}
+			}
+		}
 		eventManager.fireEvent(event);
 	}
 
+	@Override
+	public void beginBulkEdit() {
+		synchronized (bulkEditEvents) {
+			bulkEditDepth++;
+		}
+	}
+
+	@Override
+	public void endBulkEdit() {
+		final List<FeatureIDEEvent> events;
+		synchronized (bulkEditEvents) {
+			if (bulkEditDepth == 0) {
+				throw new IllegalStateException("No bulk edit was started.");
+			}
+			if (--bulkEditDepth > 0) {
+				return;
+			}
+			events = new ArrayList<>(bulkEditEvents);
+			bulkEditEvents.clear();
+		}
+		if (events.size() == 1) {
+			eventManager.fireEvent(events.get(0));
+		} else if (!events.isEmpty()) {
+			eventManager.fireEvent(new FeatureIDEEvent(this, EventType.MODEL_DATA_CHANGED, null, Collections.unmodifiableList(events)));
+		}
+	}
+
+	@Override
+	public boolean isInBulkEdit() {
+		return bulkEditDepth > 0;
+	}
+
 	protected void fireEvent(final EventType action) {
 		fireEvent(new FeatureIDEEvent(this, action, Boolean.FALSE, Boolean.TRUE));
 	}
@@ -280,7 +333,16 @@ public class FeatureModel implements IFeatureModel {
 
 	@Override
 	public int getConstraintIndex(IConstraint constraint) {
-		return constraints.indexOf(constraint);
+		Map<IConstraint, Integer> index = constraintIndex;
+		if (index == null) {
+			index = new HashMap<>();
+			for (int i = constraints.size() - 1; i >= 0; i--) {
+				index.put(constraints.get(i), i);
+			}
+			constraintIndex = index;
+		}
+		final Integer position = index.get(constraint);
+		return position == null ? -1 : position;
 	}
 
 	@Override
@@ -373,13 +435,18 @@ public class FeatureModel implements IFeatureModel {
 
 	@Override
 	public void removeConstraint(IConstraint constraint) {
-		constraints.remove(constraint);
+		final int index = getConstraintIndex(constraint);
+		if (index >= 0) {
+			constraints.remove(index);
+			constraintIndex = null;
+		}
 		elements.remove(constraint.getInternalId());
 	}
 
 	@Override
 	public void removeConstraint(int index) {
 		final IConstraint constraint = constraints.remove(index);
+		constraintIndex = null;
 		elements.remove(constraint.getInternalId());
 	}
 
@@ -390,6 +457,7 @@ public class FeatureModel implements IFeatureModel {
 		}
 		elements.remove(constraints.get(index).getInternalId());
 		constraints.set(index, constraint);
+		constraintIndex = null;
 		elements.put(constraint.getInternalId(), constraint);
 	}
 
@@ -400,6 +468,7 @@ public class FeatureModel implements IFeatureModel {
 		featureTable.clear();
 		renamingsManager.clear();
 		constraints.clear();
+		constraintIndex = null;
 		featureOrderList.clear();
 		elements.clear();
 
@@ -410,6 +479,7 @@ public class FeatureModel implements IFeatureModel {
 	@Override
 	public void setConstraints(Iterable<IConstraint> constraints) {
 		this.constraints.clear();
+		constraintIndex = null;
 		for (final IConstraint constraint : constraints) {
 			addConstraint(constraint);
 		}
@@ -418,8 +488,7 @@ public class FeatureModel implements IFeatureModel {
 	@Override
 	public void setFeatureOrderList(List<String> featureOrderList) {
 		final List<String> basicSet = Functional.mapToList(new FeaturePreOrder(this), new ConcreteFeatureFilter(), IFeature::getName);
-		// TODO optimize performance
-		basicSet.removeAll(featureOrderList);
+		basicSet.removeAll(new HashSet<>(featureOrderList));
 		this.featureOrderList.clear();
 		this.featureOrderList.addAll(featureOrderList);
 		this.featureOrderList.addAll(basicSet);
@@ -529,6 +598,7 @@ public class FeatureModel implements IFeatureModel {
 	@Override
 	public void setConstraint(int index, IConstraint constraint) {
 		constraints.set(index, constraint);
+		constraintIndex = null;
 	}
 
 	@Override
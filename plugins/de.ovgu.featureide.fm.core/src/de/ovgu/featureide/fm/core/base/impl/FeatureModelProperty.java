@@ -49,6 +49,8 @@ public class FeatureModelProperty extends MapPropertyContainer implements IFeatu
 	public static String PROPERTY_CALCULATIONS_CALCULATE_FEATURES = "calculatefeatures";
 	/** Property decides whether calculations for constraints are performed. */
 	public static String PROPERTY_CALCULATIONS_CALCULATE_CONSTRAINTS = "calculateconstraints";
+	/** Property decides whether anomalies are only calculated for the elements that are shown. */
+	public static String PROPERTY_CALCULATIONS_ON_DEMAND = "calculateondemand";
 
 	@Override
 	public int hashCode() {
@@ -218,4 +220,21 @@ public class FeatureModelProperty extends MapPropertyContainer implements IFeatu
 		return isCalculatingConstraints;
 	}
 
+	/**
+	 * Defines whether the anomalies of features and constraints are only calculated when they are shown (see
+	 * {@link de.ovgu.featureide.fm.core.LazyAnomalyAnalyzer LazyAnomalyAnalyzer}).
+	 *
+	 * @param fm The relative feature model.
+	 * @return true, when anomalies should be calculated on demand, false when all anomalies should be calculated at once.
+	 */
+	public static boolean isCalculateOnDemand(IFeatureModel fm) {
+		Boolean isCalculatingOnDemand =
+			getBooleanProperty(fm.getProperty(), FeatureModelProperty.TYPE_CALCULATIONS, FeatureModelProperty.PROPERTY_CALCULATIONS_ON_DEMAND);
+		if (isCalculatingOnDemand == null) {
+			// Is big model => calculations on demand as default
+			isCalculatingOnDemand = fm.getNumberOfFeatures() >= FeatureModelProperty.BIG_MODEL_LIMIT;
+		}
+		return isCalculatingOnDemand;
+	}
+
 }
@@ -55,6 +55,7 @@ public class ConfigurationGenerator extends ACLIFunction {
 	private Path outputFile;
 	private Path fmFile;
 	private Path expressionFile;
+	private Path previousSampleFile;
 	private int t;
 	private int m;
 	private int limit;
@@ -77,6 +78,9 @@ public class ConfigurationGenerator extends ACLIFunction {
 		if (algorithm == null) {
 			throw new IllegalArgumentException("No algorithm specified!");
 		}
+		if ((previousSampleFile != null) && !"yasa".equalsIgnoreCase(algorithm)) {
+			throw new IllegalArgumentException("A previous sample can only be used with YASA!");
+		}
 
 		final CNF cnf = new CNF();
 		ProblemList lastProblems = FileHandler.load(fmFile, cnf, new DIMACSFormatCNF());
@@ -95,6 +99,17 @@ public class ConfigurationGenerator extends ACLIFunction {
 			expressionGroups = null;
 		}
 
+		final SolutionList previousSample;
+		if (previousSampleFile != null) {
+			previousSample = new SolutionList();
+			lastProblems = FileHandler.load(previousSampleFile, previousSample, new ConfigurationListFormat());
+			if (lastProblems.containsError()) {
+				throw new IllegalArgumentException(lastProblems.getErrors().get(0).error);
+			}
+		} else {
+			previousSample = null;
+		}
+
 		IConfigurationGenerator generator = null;
 		switch (algorithm.toLowerCase()) {
 		case "icpl": {
@@ -116,6 +131,7 @@ public class ConfigurationGenerator extends ACLIFunction {
 				generator = new TWiseConfigurationGenerator(cnf, expressionGroups, t, limit);
 			}
 			((TWiseConfigurationGenerator) generator).setIterations(m);
+			((TWiseConfigurationGenerator) generator).setPreviousSample(previousSample);
 			break;
 		}
 		case "random": {
@@ -131,6 +147,9 @@ public class ConfigurationGenerator extends ACLIFunction {
 		}
 		final List<LiteralSet> result = LongRunningWrapper.runMethod(generator, new ConsoleMonitor<>());
 		FileHandler.save(outputFile, new SolutionList(cnf.getVariables(), result), new ConfigurationListFormat());
+		if ((generator instanceof TWiseConfigurationGenerator) && (((TWiseConfigurationGenerator) generator).getStability() != null)) {
+			System.out.println(((TWiseConfigurationGenerator) generator).getStability());
+		}
 	}
 
 	private void resetArguments() {
@@ -138,6 +157,7 @@ public class ConfigurationGenerator extends ACLIFunction {
 		outputFile = null;
 		fmFile = null;
 		expressionFile = null;
+		previousSampleFile = null;
 		t = 0;
 		m = 1;
 		limit = Integer.MAX_VALUE;
@@ -177,6 +197,10 @@ public class ConfigurationGenerator extends ACLIFunction {
 					expressionFile = Paths.get(getArgValue(iterator, arg));
 					break;
 				}
+				case "p": {
+					previousSampleFile = Paths.get(getArgValue(iterator, arg));
+					break;
+				}
 				default: {
 					throw new IllegalArgumentException(arg);
 				}
@@ -20,27 +20,48 @@
  */
 package de.ovgu.featureide.fm.core.cli;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import de.ovgu.featureide.fm.core.ExtensionManager.NoSuchExtensionException;
 import de.ovgu.featureide.fm.core.init.FMCoreLibrary;
 import de.ovgu.featureide.fm.core.init.LibraryManager;
+import de.ovgu.featureide.fm.core.job.metrics.JobMetrics;
+import de.ovgu.featureide.fm.core.job.metrics.MetricsExporter;
+import de.ovgu.featureide.fm.core.job.metrics.MetricsRegistry;
 
 /**
- * Command line interface for several functions of FeatureIDE.
+ * Command line interface for several functions of FeatureIDE.<br> The option <code>-metrics &lt;file&gt;</code> records the execution time and solver calls
+ * of all long running methods and writes them to the given file (CSV if the file name ends with <code>.csv</code>, JSON otherwise).
  *
  * @author Sebastian Krieter
  */
 public class FeatureIDECLI {
 
+	private static final String METRICS_OPTION = "-metrics";
+
 	public static void main(String[] args) {
-		if (args.length == 0) {
+		final List<String> argList = new ArrayList<>(Arrays.asList(args));
+		Path metricsFile = null;
+		final int metricsIndex = argList.indexOf(METRICS_OPTION);
+		if (metricsIndex >= 0) {
+			if (metricsIndex == (argList.size() - 1)) {
+				System.err.println("No value specified for " + METRICS_OPTION);
+				return;
+			}
+			metricsFile = Paths.get(argList.get(metricsIndex + 1));
+			argList.subList(metricsIndex, metricsIndex + 2).clear();
+		}
+		if (argList.isEmpty()) {
 			System.err.println("No operation specified!");
 			return;
 		}
-		System.err.println(Arrays.asList(args));
 
-		final String functionName = args[0];
+		final String functionName = argList.get(0);
 
 		LibraryManager.registerLibrary(FMCoreLibrary.getInstance());
 
@@ -56,11 +77,22 @@ public class FeatureIDECLI {
 			return;
 		}
 
+		final MetricsRegistry metricsRegistry = metricsFile != null ? new MetricsRegistry() : null;
+		JobMetrics.setRegistry(metricsRegistry);
 		try {
-			function.run(Arrays.asList(args).subList(1, args.length));
+			function.run(argList.subList(1, argList.size()));
 		} catch (final IllegalArgumentException e) {
 			System.err.println(e.getMessage());
 			return;
+		} finally {
+			JobMetrics.setRegistry(null);
+			if (metricsRegistry != null) {
+				try {
+					MetricsExporter.export(metricsRegistry, metricsFile);
+				} catch (final IOException e) {
+					System.err.println("Could not write metrics to " + metricsFile + ": " + e.getMessage());
+				}
+			}
 		}
 	}
 
@@ -0,0 +1,434 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.ACreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.io.manager.ConfigurationManager;
+import de.ovgu.featureide.fm.core.io.manager.FileHandler;
+
+/**
+ * Stores the selections of all configuration files of a folder in columnar form.<br> There is one bit set per feature, in which each bit represents one
+ * configuration file. Queries on the configurations are answered with bit operations on whole words. Configuration files are only read again if their
+ * modification time (in full precision of the file system), size, or file key changed.<br><br> An index is cached in the {@link FeatureModelFormula} per folder (see {@link #getInstance(FeatureModelFormula,
+ * Path)}) and is thus discarded when the feature model changes.
+ */
+public class ConfigurationIndex {
+
+	private static class IndexCreator extends ACreator<ConfigurationIndex> {
+
+		private final Path folder;
+
+		private IndexCreator(Path folder) {
+			this.folder = folder;
+		}
+
+		@Override
+		protected ConfigurationIndex create() {
+			return new ConfigurationIndex(formula);
+		}
+
+		@Override
+		public int hashCode() {
+			return (31 * super.hashCode()) + folder.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return super.equals(obj) && folder.equals(((IndexCreator) obj).folder);
+		}
+	}
+
+	private static class Row {
+
+		private final int index;
+		private final FileTime lastModified;
+		private final long size;
+		private final Object fileKey;
+
+		private Row(int index, BasicFileAttributes attributes) {
+			this.index = index;
+			lastModified = attributes.lastModifiedTime();
+			size = attributes.size();
+			fileKey = attributes.fileKey();
+		}
+
+		/**
+		 * @return <code>true</code> if the file may have changed since this row was read. A file that is replaced (e.g., by saving via a temporary file)
+		 *         gets a new file key even if the modification time has a coarse resolution.
+		 */
+		private boolean isStale(BasicFileAttributes attributes) {
+			return !lastModified.equals(attributes.lastModifiedTime()) || (size != attributes.size())
+				|| ((fileKey != null) && !fileKey.equals(attributes.fileKey()));
+		}
+	}
+
+	/**
+	 * Returns the index for the configuration files in the given folder. The index is created on the first call and reused until the feature model changes.
+	 * Call {@link #refresh(Collection)} to synchronize it with the current files.
+	 *
+	 * @param formula The formula of the feature model
+	 * @param folder The configuration folder
+	 * @return The index for the folder
+	 */
+	public static ConfigurationIndex getInstance(FeatureModelFormula formula, Path folder) {
+		return formula.getElement(new IndexCreator(folder.toAbsolutePath().normalize()));
+	}
+
+	private final FeatureModelFormula formula;
+	private final Map<String, Integer> columnIndex = new HashMap<>();
+
+	private final Map<Path, Row> rows = new HashMap<>();
+	private final List<Integer> freeRows = new ArrayList<>();
+	private int rowCount = 0;
+
+	/**
+	 * One bit set per feature. Bit <code>i</code> is set if the feature is selected in the configuration in row <code>i</code>.
+	 */
+	private long[][] columns;
+	/**
+	 * Bit <code>i</code> is set if row <code>i</code> holds a configuration.
+	 */
+	private long[] activeRows;
+
+	public ConfigurationIndex(FeatureModelFormula formula) {
+		this.formula = formula;
+		for (final SelectableFeature feature : new Configuration(formula).getFeatures()) {
+			columnIndex.put(feature.getName(), columnIndex.size());
+		}
+		columns = new long[columnIndex.size()][1];
+		activeRows = new long[1];
+	}
+
+	/**
+	 * Synchronizes the index with the given files. Files that are not indexed yet or that were modified are read, files that are not contained in the given
+	 * collection are removed from the index.
+	 *
+	 * @param files All configuration files
+	 */
+	public synchronized void refresh(Collection<Path> files) {
+		final Set<Path> normalizedFiles = new HashSet<>();
+		for (final Path file : files) {
+			final Path normalizedFile = file.toAbsolutePath().normalize();
+			normalizedFiles.add(normalizedFile);
+			final Row row = rows.get(normalizedFile);
+			if (row == null) {
+				update(normalizedFile);
+			} else {
+				try {
+					final BasicFileAttributes attributes = Files.readAttributes(normalizedFile, BasicFileAttributes.class);
+					if (row.isStale(attributes)) {
+						update(normalizedFile);
+					}
+				} catch (final IOException e) {
+					remove(normalizedFile);
+				}
+			}
+		}
+		for (final Iterator<Entry<Path, Row>> iterator = rows.entrySet().iterator(); iterator.hasNext();) {
+			final Entry<Path, Row> entry = iterator.next();
+			if (!normalizedFiles.contains(entry.getKey())) {
+				clearRow(entry.getValue().index);
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * Reads the given configuration file (again). If the file cannot be read, it is removed from the index.
+	 *
+	 * @param file The configuration file
+	 */
+	public synchronized void update(Path file) {
+		final Path normalizedFile = file.toAbsolutePath().normalize();
+		remove(normalizedFile);
+
+		final BasicFileAttributes attributes;
+		try {
+			attributes = Files.readAttributes(normalizedFile, BasicFileAttributes.class);
+		} catch (final IOException e) {
+			return;
+		}
+		final FileHandler<Configuration> fileHandler = ConfigurationManager.getFileHandler(normalizedFile);
+		if ((fileHandler == null) || fileHandler.getLastProblems().containsError()) {
+			return;
+		}
+		final Configuration configuration = fileHandler.getObject();
+		configuration.updateFeatures(formula);
+
+		final int row = allocateRow();
+		final int word = row >>> 6;
+		final long bit = 1L << row;
+		for (final SelectableFeature feature : configuration.getFeatures()) {
+			if (feature.getSelection() == Selection.SELECTED) {
+				final Integer column = columnIndex.get(feature.getName());
+				if (column != null) {
+					columns[column][word] |= bit;
+				}
+			}
+		}
+		activeRows[word] |= bit;
+		rows.put(normalizedFile, new Row(row, attributes));
+	}
+
+	/**
+	 * Removes the given configuration file from the index.
+	 *
+	 * @param file The configuration file
+	 */
+	public synchronized void remove(Path file) {
+		final Row row = rows.remove(file.toAbsolutePath().normalize());
+		if (row != null) {
+			clearRow(row.index);
+		}
+	}
+
+	/**
+	 * @return The number of indexed configurations.
+	 */
+	public synchronized int size() {
+		return rows.size();
+	}
+
+	/**
+	 * @param features The names of the features to check
+	 * @return All given features that are not selected in any indexed configuration. Empty if there are no configurations.
+	 */
+	public synchronized List<String> getUnusedFeatures(Collection<String> features) {
+		return getConstantFeatures(features, false);
+	}
+
+	/**
+	 * @param features The names of the features to check
+	 * @return All given features that are selected in every indexed configuration. Empty if there are no configurations.
+	 */
+	public synchronized List<String> getAlwaysSelectedFeatures(Collection<String> features) {
+		return getConstantFeatures(features, true);
+	}
+
+	private List<String> getConstantFeatures(Collection<String> features, boolean selected) {
+		final List<String> result = new ArrayList<>();
+		if (rows.isEmpty()) {
+			return result;
+		}
+		featureLoop: for (final String feature : features) {
+			final long[] column = getColumn(feature);
+			for (int word = 0; word < activeRows.length; word++) {
+				final long value = (column == null) ? 0 : column[word];
+				if (((selected ? ~value : value) & activeRows[word]) != 0) {
+					continue featureLoop;
+				}
+			}
+			result.add(feature);
+		}
+		return result;
+	}
+
+	/**
+	 * @return <code>true</code> if at least one indexed configuration has the given selections for both features.
+	 */
+	public synchronized boolean isCovered(String feature1, boolean selected1, String feature2, boolean selected2) {
+		final long[] column1 = getColumn(feature1);
+		final long[] column2 = getColumn(feature2);
+		for (int word = 0; word < activeRows.length; word++) {
+			if ((getBits(column1, word, selected1) & getBits(column2, word, selected2)) != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Computes the ratio of feature interactions that are covered by the indexed configurations. An interaction consists of two features and a selection
+	 * for each of them.
+	 *
+	 * @param features The names of the features to consider
+	 * @return The ratio of covered pairwise interactions between <code>0</code> and <code>1</code>
+	 */
+	public synchronized double getPairwiseCoverage(List<String> features) {
+		if (features.size() < 2) {
+			return 1;
+		}
+		final long[][] selectedColumns = new long[features.size()][];
+		for (int i = 0; i < selectedColumns.length; i++) {
+			selectedColumns[i] = getColumn(features.get(i));
+		}
+		long covered = 0;
+		for (int i = 0; i < selectedColumns.length; i++) {
+			for (int j = i + 1; j < selectedColumns.length; j++) {
+				covered += countCovered(selectedColumns[i], selectedColumns[j]);
+			}
+		}
+		final long total = 2L * features.size() * (features.size() - 1);
+		return (double) covered / total;
+	}
+
+	private int countCovered(long[] column1, long[] column2) {
+		long c00 = 0, c01 = 0, c10 = 0, c11 = 0;
+		for (int word = 0; word < activeRows.length; word++) {
+			final long a = getBits(column1, word, true);
+			final long na = getBits(column1, word, false);
+			final long b = getBits(column2, word, true);
+			final long nb = getBits(column2, word, false);
+			c00 |= na & nb;
+			c01 |= na & b;
+			c10 |= a & nb;
+			c11 |= a & b;
+		}
+		return (c00 != 0 ? 1 : 0) + (c01 != 0 ? 1 : 0) + (c10 != 0 ? 1 : 0) + (c11 != 0 ? 1 : 0);
+	}
+
+	/**
+	 * Computes a recommendation value for each feature of the given configuration. Each indexed configuration is weighted by the number of features that
+	 * have the same selection as in the given configuration. The value of a feature is the weighted ratio of configurations in which its selection differs
+	 * from the given configuration.
+	 *
+	 * @param configuration The current configuration
+	 * @param excludedFile A file that is not considered (e.g., the file of the current configuration), may be <code>null</code>
+	 * @return One value per feature in the order of {@link Configuration#getFeatures()} or <code>null</code> if there are no other configurations. All values
+	 *         are <code>0</code> if every other configuration differs in all features from the given one.
+	 */
+	public synchronized double[] getRecommendationValues(Configuration configuration, Path excludedFile) {
+		final long[] mask = Arrays.copyOf(activeRows, activeRows.length);
+		if (excludedFile != null) {
+			final Row excludedRow = rows.get(excludedFile.toAbsolutePath().normalize());
+			if (excludedRow != null) {
+				mask[excludedRow.index >>> 6] &= ~(1L << excludedRow.index);
+			}
+		}
+		if (isEmpty(mask)) {
+			return null;
+		}
+
+		final Collection<SelectableFeature> features = configuration.getFeatures();
+		final long[][] featureColumns = new long[features.size()][];
+		final boolean[] selected = new boolean[features.size()];
+		int i = 0;
+		for (final SelectableFeature feature : features) {
+			featureColumns[i] = getColumn(feature.getName());
+			selected[i++] = feature.getSelection() == Selection.SELECTED;
+		}
+
+		// the weight of each configuration is stored in bit-sliced counters, plane p holds bit p of all weights
+		final int planeCount = 32 - Integer.numberOfLeadingZeros(featureColumns.length);
+		final long[] planes = new long[planeCount];
+		final long[] featureSums = new long[featureColumns.length];
+		long weightSum = 0;
+		for (int word = 0; word < mask.length; word++) {
+			if (mask[word] == 0) {
+				continue;
+			}
+			Arrays.fill(planes, 0);
+			for (int f = 0; f < featureColumns.length; f++) {
+				final long value = (featureColumns[f] == null) ? 0 : featureColumns[f][word];
+				long carry = (selected[f] ? value : ~value) & mask[word];
+				for (int p = 0; (p < planeCount) && (carry != 0); p++) {
+					final long nextCarry = planes[p] & carry;
+					planes[p] ^= carry;
+					carry = nextCarry;
+				}
+			}
+			for (int p = 0; p < planeCount; p++) {
+				weightSum += ((long) Long.bitCount(planes[p])) << p;
+			}
+			for (int f = 0; f < featureColumns.length; f++) {
+				if (featureColumns[f] != null) {
+					final long value = featureColumns[f][word];
+					for (int p = 0; p < planeCount; p++) {
+						featureSums[f] += ((long) Long.bitCount(value & planes[p])) << p;
+					}
+				}
+			}
+		}
+
+		final double[] values = new double[featureColumns.length];
+		if (weightSum == 0) {
+			return values;
+		}
+		for (int f = 0; f < values.length; f++) {
+			final double value = (double) featureSums[f] / weightSum;
+			values[f] = selected[f] ? 1 - value : value;
+		}
+		return values;
+	}
+
+	private long[] getColumn(String feature) {
+		final Integer column = columnIndex.get(feature);
+		return (column == null) ? null : columns[column];
+	}
+
+	private long getBits(long[] column, int word, boolean selected) {
+		final long value = (column == null) ? 0 : column[word];
+		return (selected ? value : ~value) & activeRows[word];
+	}
+
+	private int allocateRow() {
+		if (!freeRows.isEmpty()) {
+			return freeRows.remove(freeRows.size() - 1);
+		}
+		final int row = rowCount++;
+		final int words = (rowCount + 63) >>> 6;
+		if (words > activeRows.length) {
+			final int newLength = Math.max(words, activeRows.length * 2);
+			activeRows = Arrays.copyOf(activeRows, newLength);
+			for (int i = 0; i < columns.length; i++) {
+				columns[i] = Arrays.copyOf(columns[i], newLength);
+			}
+		}
+		return row;
+	}
+
+	private void clearRow(int row) {
+		final int word = row >>> 6;
+		final long bit = ~(1L << row);
+		activeRows[word] &= bit;
+		for (final long[] column : columns) {
+			column[word] &= bit;
+		}
+		freeRows.add(row);
+	}
+
+	private static boolean isEmpty(long[] bits) {
+		for (final long word : bits) {
+			if (word != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
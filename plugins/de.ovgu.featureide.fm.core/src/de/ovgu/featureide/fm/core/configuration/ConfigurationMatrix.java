@@ -23,17 +23,14 @@ package de.ovgu.featureide.fm.core.configuration;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.List;
 
+import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
 import de.ovgu.featureide.fm.core.configuration.io.ConfigurationLoader;
-import de.ovgu.featureide.fm.core.configuration.io.IConfigurationLoaderCallback;
 
 /**
- * Reads all configuration file from a certain folder and saves their content in form of a selection matrix.
+ * Reads all configuration file from a certain folder and saves their content in form of a selection matrix.<br> The selections are stored in the
+ * {@link ConfigurationIndex} of the folder, so unchanged files are not read again.
  *
  * @author Paul Maximilan Bittner
  * @author Sebastian Krieter
@@ -41,11 +38,10 @@ import de.ovgu.featureide.fm.core.configuration.io.IConfigurationLoaderCallback;
  */
 public class ConfigurationMatrix {
 
-	private final List<Config> configurationMatrix;
-	private final ConfigurationLoader loader;
-	private final FeatureModelFormula featureModel;
+	private final ConfigurationIndex index;
 	private final Path path;
 
+	private Path excludedFile = null;
 	private double[] rec = null;
 
 	public ConfigurationMatrix(FeatureModelFormula featureModel, String path) {
@@ -53,57 +49,21 @@ public class ConfigurationMatrix {
 	}
 
 	public ConfigurationMatrix(FeatureModelFormula featureModel, Path path) {
-		this.featureModel = featureModel;
 		this.path = path;
-		configurationMatrix = new ArrayList<>();
-		loader = new ConfigurationLoader(new IConfigurationLoaderCallback() {
-
-			@Override
-			public void onLoadingStarted() {
-				configurationMatrix.clear();
-			}
-
-			@Override
-			public void onLoadingError(IOException exception) {}
-
-			@Override
-			public void onConfigurationLoaded(Configuration configuration, Path path) {
-				configurationMatrix.add(createConfig(configuration));
-			}
-
-			@Override
-			public void onLoadingFinished() {
-				// TODO Auto-generated method stub
-
-			}
-		});
+		index = ConfigurationIndex.getInstance(featureModel, path);
 	}
 
 	public void readConfigurations() {
-		loader.loadConfigurations(featureModel, path);
+		readConfigurations(null);
 	}
 
 	public void readConfigurations(String excludeFile) {
-		loader.loadConfigurations(featureModel, path, excludeFile);
-	}
-
-	private Config createConfig(Configuration configuration) {
-		final Collection<SelectableFeature> features = configuration.getFeatures();
-		final byte[] configArray = new byte[features.size()];
-		int i = 0;
-		for (final SelectableFeature feature : features) {
-			switch (feature.getSelection()) {
-			case SELECTED:
-				configArray[i++] = 1;
-				break;
-			case UNDEFINED:
-			case UNSELECTED:
-			default:
-				configArray[i++] = 0;
-				break;
-			}
+		try {
+			index.refresh(ConfigurationLoader.getConfigurationFiles(path, null));
+			excludedFile = (excludeFile == null) ? null : path.resolve(excludeFile);
+		} catch (final IOException e) {
+			Logger.logError(e);
 		}
-		return new Config(configArray);
 	}
 
 	public double[] getRec() {
@@ -111,56 +71,7 @@ public class ConfigurationMatrix {
 	}
 
 	public void calcRec(Configuration configuration) {
-		if (configurationMatrix.isEmpty()) {
-			return;
-		}
-
-		final Config curConfig = createConfig(configuration);
-
-		rec = new double[configurationMatrix.get(0).configArray.length];
-		Arrays.fill(rec, 0);
-
-		final int[] w = new int[configurationMatrix.size()];
-		int wSum = 0;
-		{
-			int j = 0;
-			for (final Config config : configurationMatrix) {
-				final int delta = curConfig.getDelta(config);
-				w[j++] = delta;
-				wSum += delta;
-			}
-		}
-
-		for (int i = 0; i < rec.length; i++) {
-			int fSum = 0;
-			for (int j = 0; j < w.length; j++) {
-				fSum += configurationMatrix.get(j).configArray[i] * w[j];
-			}
-			double recValue = ((double) fSum) / wSum;
-			if (curConfig.configArray[i] == 1) {
-				recValue = 1 - recValue;
-			}
-			rec[i] = recValue;
-		}
+		rec = index.getRecommendationValues(configuration, excludedFile);
 	}
 
-	private static class Config {
-
-		private final byte[] configArray;
-
-		public Config(byte[] configArray) {
-			this.configArray = configArray;
-		}
-
-		public int getDelta(Config otherConfig) {
-			int count = 0;
-			for (int i = 0; i < configArray.length; i++) {
-				if (configArray[i] == otherConfig.configArray[i]) {
-					count++;
-				}
-			}
-			return count;
-		}
-
-	}
 }
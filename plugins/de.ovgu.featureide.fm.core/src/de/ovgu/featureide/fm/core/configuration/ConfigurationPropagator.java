@@ -174,7 +174,9 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 				return 0L;
 			}
 			solver.setTimeout(timeout);
-			return new CountSolutionsAnalysis(solver).analyze(monitor);
+			final CountSolutionsAnalysis analysis = new CountSolutionsAnalysis(solver);
+			analysis.setTimeout(timeout);
+			return analysis.analyze(monitor);
 		}
 
 	}
@@ -0,0 +1,295 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.IVariables;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeContradictionException;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.SimpleSatSolver;
+import de.ovgu.featureide.fm.core.base.impl.ConfigFormatManager;
+import de.ovgu.featureide.fm.core.io.FileSystem;
+import de.ovgu.featureide.fm.core.io.Problem;
+import de.ovgu.featureide.fm.core.io.ProblemList;
+import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Checks the validity of many configuration files of the same feature model.<br> The files are parsed concurrently. The manual selections of each
+ * configuration are passed as assumptions to a solver, which is reused by the same thread for all files. The result for a file is only computed again if
+ * the content of the file or the feature model changed.<br><br> A configuration is valid if it is still valid after propagating its manual selections and
+ * deselecting all remaining undefined features. This is the same as calling {@link ConfigurationAnalyzer#update()} followed by
+ * {@link ConfigurationAnalyzer#isValid()}.
+ */
+public class ConfigurationValidator {
+
+	/**
+	 * The validation result of a single configuration file.
+	 */
+	public static class Result {
+
+		private final Path file;
+		private final boolean valid;
+		private final ProblemList problems;
+
+		private Result(Path file, boolean valid, ProblemList problems) {
+			this.file = file;
+			this.valid = valid;
+			this.problems = problems;
+		}
+
+		public Path getFile() {
+			return file;
+		}
+
+		public boolean isValid() {
+			return valid;
+		}
+
+		/**
+		 * @return The problems that occurred while reading the file (e.g., features that are not available anymore).
+		 */
+		public ProblemList getProblems() {
+			return problems;
+		}
+	}
+
+	private static class CacheEntry {
+
+		private final FeatureModelFormula formula;
+		private final String contentHash;
+		private final Result result;
+
+		private CacheEntry(FeatureModelFormula formula, String contentHash, Result result) {
+			this.formula = formula;
+			this.contentHash = contentHash;
+			this.result = result;
+		}
+	}
+
+	private final Map<Path, CacheEntry> checkedFiles = new ConcurrentHashMap<>();
+
+	private final int threads;
+
+	public ConfigurationValidator() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param threads The number of files that are checked concurrently
+	 */
+	public ConfigurationValidator(int threads) {
+		this.threads = Math.max(1, threads);
+	}
+
+	/**
+	 * Checks the given configuration files. For files whose content did not change since the last check against the same formula, the previous result is
+	 * returned without checking them again.
+	 *
+	 * @param formula The formula of the feature model
+	 * @param files The configuration files
+	 * @param monitor The monitor, which is stepped once per file
+	 * @return The results of all given files
+	 * @throws Exception if the check was canceled
+	 */
+	public List<Result> validate(final FeatureModelFormula formula, List<Path> files, IMonitor<?> monitor) throws Exception {
+		final CNF cnf = formula.getCNF();
+		final ThreadLocal<ISimpleSatSolver> solvers = new ThreadLocal<ISimpleSatSolver>() {
+
+			@Override
+			protected ISimpleSatSolver initialValue() {
+				try {
+					return new SimpleSatSolver(cnf);
+				} catch (final RuntimeContradictionException e) {
+					// the feature model is void
+					return null;
+				}
+			}
+		};
+
+		final List<Result> results = new ArrayList<>();
+		final ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, files.size())));
+		try {
+			final CompletionService<Result> completionService = new ExecutorCompletionService<>(executor);
+			for (final Path file : files) {
+				completionService.submit(new Callable<Result>() {
+
+					@Override
+					public Result call() throws Exception {
+						return check(formula, cnf, solvers.get(), file);
+					}
+				});
+			}
+			for (int i = 0; i < files.size(); i++) {
+				final Result result;
+				try {
+					result = completionService.take().get();
+				} catch (final ExecutionException e) {
+					final Throwable cause = e.getCause();
+					throw cause instanceof Exception ? (Exception) cause : e;
+				}
+				results.add(result);
+				monitor.step();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		return results;
+	}
+
+	/**
+	 * Forgets all previous results, so that the next call of {@link #validate(FeatureModelFormula, List, IMonitor)} checks all files.
+	 */
+	public void clear() {
+		checkedFiles.clear();
+	}
+
+	/**
+	 * @return The result for the given file. The cached result if the file did not change since the last check.
+	 */
+	private Result check(FeatureModelFormula formula, CNF cnf, ISimpleSatSolver solver, Path file) {
+		final byte[] content;
+		try {
+			content = FileSystem.read(file);
+		} catch (final IOException e) {
+			checkedFiles.remove(file);
+			final ProblemList problems = new ProblemList();
+			problems.add(new Problem(e));
+			return new Result(file, false, problems);
+		}
+		final String contentHash = hash(content);
+		final CacheEntry entry = checkedFiles.get(file);
+		if ((entry != null) && (entry.formula == formula) && contentHash.equals(entry.contentHash)) {
+			return entry.result;
+		}
+
+		final Configuration configuration = new Configuration(formula);
+		final ProblemList problems =
+			SimpleFileHandler.loadFromString(file, new String(content, SimpleFileHandler.DEFAULT_CHARSET), configuration, ConfigFormatManager.getInstance());
+		final boolean valid = (solver != null) && isValid(solver, getManualLiterals(configuration, cnf.getVariables()), cnf.getVariables().maxVariableID());
+
+		final Result result = new Result(file, valid, problems);
+		checkedFiles.put(file, new CacheEntry(formula, contentHash, result));
+		return result;
+	}
+
+	private static int[] getManualLiterals(Configuration configuration, IVariables variables) {
+		final int[] literals = new int[configuration.getFeatures().size()];
+		int count = 0;
+		for (final SelectableFeature feature : configuration.getFeatures()) {
+			if (feature.getManual() != Selection.UNDEFINED) {
+				final int literal = variables.getVariable(feature.getFeature().getName(), feature.getManual() == Selection.SELECTED);
+				if (literal != 0) {
+					literals[count++] = literal;
+				}
+			}
+		}
+		return Arrays.copyOf(literals, count);
+	}
+
+	/**
+	 * Checks whether the given manual selections are valid after propagation and deselection of all undefined features.
+	 */
+	private static boolean isValid(ISimpleSatSolver solver, int[] manualLiterals, int variableCount) {
+		final boolean[] assigned = new boolean[variableCount + 1];
+		for (final int literal : manualLiterals) {
+			assigned[Math.abs(literal)] = true;
+		}
+
+		// common case: deselecting all undefined features is already valid
+		final int[] assumptions = Arrays.copyOf(manualLiterals, manualLiterals.length + variableCount);
+		int count = manualLiterals.length;
+		for (int var = 1; var <= variableCount; var++) {
+			if (!assigned[var]) {
+				assumptions[count++] = -var;
+			}
+		}
+		if (solver.hasSolution(Arrays.copyOf(assumptions, count)) == SatResult.TRUE) {
+			return true;
+		}
+
+		if (solver.hasSolution(manualLiterals) != SatResult.TRUE) {
+			return false;
+		}
+
+		// only undefined features that are selected in a solution can be implied by the manual selections
+		final boolean[] notImplied = new boolean[variableCount + 1];
+		final int[] solution = solver.getSolution();
+		for (int var = 1; var <= variableCount; var++) {
+			notImplied[var] = assigned[var] || (solution[var - 1] < 0);
+		}
+		final int[] testAssumptions = Arrays.copyOf(manualLiterals, manualLiterals.length + 1);
+		for (int var = 1; var <= variableCount; var++) {
+			if (!notImplied[var]) {
+				testAssumptions[manualLiterals.length] = -var;
+				if (solver.hasSolution(testAssumptions) == SatResult.TRUE) {
+					final int[] otherSolution = solver.getSolution();
+					for (int other = var; other <= variableCount; other++) {
+						if (otherSolution[other - 1] < 0) {
+							notImplied[other] = true;
+						}
+					}
+				}
+			}
+		}
+
+		count = manualLiterals.length;
+		for (int var = 1; var <= variableCount; var++) {
+			if (!assigned[var]) {
+				assumptions[count++] = notImplied[var] ? -var : var;
+			}
+		}
+		return solver.hasSolution(Arrays.copyOf(assumptions, count)) == SatResult.TRUE;
+	}
+
+	private static String hash(byte[] content) {
+		try {
+			final byte[] hash = MessageDigest.getInstance("SHA-1").digest(content);
+			final StringBuilder sb = new StringBuilder(hash.length * 2);
+			for (final byte b : hash) {
+				sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+				sb.append(Character.forDigit(b & 0xF, 16));
+			}
+			return sb.toString();
+		} catch (final NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+}
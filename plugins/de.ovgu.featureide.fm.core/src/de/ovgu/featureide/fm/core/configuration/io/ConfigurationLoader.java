@@ -71,37 +71,23 @@ public class ConfigurationLoader {
 
 	public List<Configuration> loadConfigurations(final FeatureModelFormula featureModel, Path path, final String excludeFile) {
 		final List<Configuration> configs = new ArrayList<>();
-		final HashSet<String> configurationNames = new HashSet<>();
 
 		if (callback != null) {
 			callback.onLoadingStarted();
 		}
 
 		try {
-			Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
-
-				@Override
-				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-					final String fileName = file.getFileName().toString();
-					if (!fileName.equals(excludeFile) && !fileName.endsWith("." + new FeatureIDEFormat().getSuffix()) && Files.isReadable(file)
-						&& Files.isRegularFile(file)) {
-						final int extensionIndex = fileName.lastIndexOf('.');
-						final String configurationName = (extensionIndex > 0) ? fileName.substring(0, extensionIndex) : fileName;
-						if (configurationNames.add(configurationName)) {
-							final FileHandler<Configuration> fileHandler = ConfigurationManager.getFileHandler(file);
-							if (!fileHandler.getLastProblems().containsError()) {
-								final Configuration currentConfiguration = fileHandler.getObject();
-								currentConfiguration.updateFeatures(featureModel);
-								configs.add(currentConfiguration);
-								if (callback != null) {
-									callback.onConfigurationLoaded(currentConfiguration, file);
-								}
-							}
-						}
+			for (final Path file : getConfigurationFiles(path, excludeFile)) {
+				final FileHandler<Configuration> fileHandler = ConfigurationManager.getFileHandler(file);
+				if (!fileHandler.getLastProblems().containsError()) {
+					final Configuration currentConfiguration = fileHandler.getObject();
+					currentConfiguration.updateFeatures(featureModel);
+					configs.add(currentConfiguration);
+					if (callback != null) {
+						callback.onConfigurationLoaded(currentConfiguration, file);
 					}
-					return super.visitFile(file, attrs);
 				}
-			});
+			}
 		} catch (final IOException e) {
 			Logger.logError(e);
 			if (callback != null) {
@@ -116,4 +102,35 @@ public class ConfigurationLoader {
 		return configs;
 	}
 
+	/**
+	 * Returns all files in the given folder that are loaded by {@link #loadConfigurations(FeatureModelFormula, Path, String)}. For each configuration name,
+	 * only the first file is returned.
+	 *
+	 * @param path The configuration folder
+	 * @param excludeFile The name of a file that is skipped, may be <code>null</code>
+	 * @return The configuration files
+	 * @throws IOException if the folder cannot be read
+	 */
+	public static List<Path> getConfigurationFiles(Path path, final String excludeFile) throws IOException {
+		final List<Path> files = new ArrayList<>();
+		final HashSet<String> configurationNames = new HashSet<>();
+		Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				final String fileName = file.getFileName().toString();
+				if (!fileName.equals(excludeFile) && !fileName.endsWith("." + new FeatureIDEFormat().getSuffix()) && Files.isReadable(file)
+					&& Files.isRegularFile(file)) {
+					final int extensionIndex = fileName.lastIndexOf('.');
+					final String configurationName = (extensionIndex > 0) ? fileName.substring(0, extensionIndex) : fileName;
+					if (configurationNames.add(configurationName)) {
+						files.add(file);
+					}
+				}
+				return super.visitFile(file, attrs);
+			}
+		});
+		return files;
+	}
+
 }
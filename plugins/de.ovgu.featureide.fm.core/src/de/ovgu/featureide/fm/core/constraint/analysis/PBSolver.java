@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.fm.core.constraint.analysis;
 
+import java.math.BigInteger;
 import java.util.Collection;
 import java.util.Set;
 
@@ -71,4 +72,26 @@ public interface PBSolver {
 	 * @return Those variables that are statically assigned and their assignment.
 	 */
 	public Set<Integer> backbone(Set<Integer> varibales);
+
+	/**
+	 * Returns the satisfying assignment that was found by the last successful call of {@link #isSatisfiable()} or {@link #isSatisfiable(int[])}. Contains +id
+	 * for each true variable and -id for each false variable.
+	 *
+	 * @return The last satisfying assignment.
+	 */
+	public int[] getModel();
+
+	/**
+	 * Searches a satisfying assignment that minimizes the linear objective function <code>c_1*x_1 + c_2*x_2 + ...</code> with respect of the passed
+	 * assumptions. The restrictions that are used during the search are only active for this call, so the solver can be reused for further calls with
+	 * different assumptions or objectives.
+	 *
+	 * @param ids The indices of the variables of the objective function.
+	 * @param coefficients The coefficients of the objective function in the same order as the indices.
+	 * @param assumptions An array of temporary assumption used for this call.
+	 * @param initialModel A satisfying assignment that is used as starting point of the search, if it is consistent with the assumptions. May be
+	 *        <code>null</code>.
+	 * @return An optimal assignment or <code>null</code> if there is no satisfying assignment.
+	 */
+	public int[] minimize(int[] ids, BigInteger[] coefficients, int[] assumptions, int[] initialModel);
 }
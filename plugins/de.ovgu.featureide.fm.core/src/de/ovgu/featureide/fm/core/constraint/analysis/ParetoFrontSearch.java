@@ -0,0 +1,378 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.constraint.analysis;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.sat4j.core.Vec;
+import org.sat4j.core.VecInt;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.fm.core.job.LongRunningMethod;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Computes the Pareto front of several linear objective functions over the satisfying assignments of a set of restrictions. All objectives are minimized.<br>
+ * The search follows the guided improvement algorithm: A satisfying assignment is improved until no other assignment dominates it. Then, all assignments
+ * that are dominated by it are excluded and the search continues with the next satisfying assignment. Before, one Pareto-optimal assignment per objective
+ * is computed in parallel, starting from the optimum of this objective.<br><br> If the time budget runs out, the assignments found so far are returned.
+ * They are not necessarily Pareto-optimal (see {@link #isComplete()}).
+ */
+public class ParetoFrontSearch implements LongRunningMethod<List<ParetoFrontSearch.ParetoSolution>> {
+
+	/**
+	 * A satisfying assignment together with its values of the objective functions.
+	 */
+	public static class ParetoSolution {
+
+		private final int[] model;
+		private final BigInteger[] values;
+
+		private ParetoSolution(int[] model, BigInteger[] values) {
+			this.model = model;
+			this.values = values;
+		}
+
+		/**
+		 * @return The assignment. Contains +id for each true variable and -id for each false variable.
+		 */
+		public int[] getModel() {
+			return model;
+		}
+
+		/**
+		 * @return The values of the objective functions in the order of the objectives.
+		 */
+		public BigInteger[] getValues() {
+			return values;
+		}
+
+		/**
+		 * @param other Another solution
+		 * @return <code>true</code> if this solution is at least as good as the other solution for all objectives and better for at least one objective.
+		 */
+		public boolean dominates(ParetoSolution other) {
+			boolean better = false;
+			for (int i = 0; i < values.length; i++) {
+				final int comparison = values[i].compareTo(other.values[i]);
+				if (comparison > 0) {
+					return false;
+				} else if (comparison < 0) {
+					better = true;
+				}
+			}
+			return better;
+		}
+	}
+
+	private final List<? extends Restriction> restrictions;
+	private final int[][] objectiveIds;
+	private final BigInteger[][] objectiveCoefficients;
+
+	/**
+	 * The sum of all absolute coefficients per objective, which bounds the difference of two values of the objective function.
+	 */
+	private final BigInteger[] ranges;
+
+	private long timeout = 0;
+	private int threads = Runtime.getRuntime().availableProcessors();
+
+	private long deadline;
+	private volatile boolean complete;
+
+	/**
+	 * @param restrictions The restrictions that every assignment has to satisfy.
+	 * @param ids The variable indices of each objective function.
+	 * @param coefficients The coefficients of each objective function in the same order as the indices.
+	 */
+	public ParetoFrontSearch(List<? extends Restriction> restrictions, List<int[]> ids, List<BigInteger[]> coefficients) {
+		this.restrictions = restrictions;
+		objectiveIds = ids.toArray(new int[ids.size()][]);
+		objectiveCoefficients = coefficients.toArray(new BigInteger[coefficients.size()][]);
+		ranges = new BigInteger[objectiveIds.length];
+		for (int i = 0; i < objectiveIds.length; i++) {
+			BigInteger range = BigInteger.ZERO;
+			for (final BigInteger coefficient : objectiveCoefficients[i]) {
+				range = range.add(coefficient.abs());
+			}
+			ranges[i] = range;
+		}
+	}
+
+	/**
+	 * @param timeout The time budget of the whole search in milliseconds. <code>0</code> means no limit.
+	 */
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+	/**
+	 * @param threads The maximal number of objectives that are optimized in parallel.
+	 */
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
+	/**
+	 * @return <code>true</code> if the last search finished within the time budget, i.e., the result is the complete Pareto front.
+	 */
+	public boolean isComplete() {
+		return complete;
+	}
+
+	@Override
+	public List<ParetoSolution> execute(final IMonitor<List<ParetoSolution>> monitor) throws Exception {
+		deadline = timeout > 0 ? System.currentTimeMillis() + timeout : Long.MAX_VALUE;
+		complete = true;
+		final List<ParetoSolution> front = new ArrayList<>();
+
+		final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, objectiveIds.length)));
+		try {
+			final List<Future<ParetoSolution>> anchors = new ArrayList<>(objectiveIds.length);
+			for (int i = 0; i < objectiveIds.length; i++) {
+				final int objective = i;
+				anchors.add(executor.submit(new Callable<ParetoSolution>() {
+
+					@Override
+					public ParetoSolution call() throws Exception {
+						return searchAnchor(objective, monitor);
+					}
+				}));
+			}
+			for (final Future<ParetoSolution> anchor : anchors) {
+				final ParetoSolution solution = get(anchor);
+				if (solution != null) {
+					addSolution(front, solution);
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		final SAT4JPBSolver pbSolver = createSolver();
+		for (final ParetoSolution solution : front) {
+			exclude(pbSolver, solution);
+		}
+		while (true) {
+			monitor.checkCancel();
+			final int[] model = solve(pbSolver, new int[0]);
+			if (model == null) {
+				break;
+			}
+			final ParetoSolution solution = improve(pbSolver, model, monitor);
+			addSolution(front, solution);
+			exclude(pbSolver, solution);
+		}
+		return front;
+	}
+
+	private static <T> T get(Future<T> future) throws Exception {
+		try {
+			return future.get();
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Computes a Pareto-optimal assignment that is optimal for the given objective.
+	 */
+	private ParetoSolution searchAnchor(int objective, IMonitor<?> monitor) {
+		final SAT4JPBSolver pbSolver = createSolver();
+		int[] model = solve(pbSolver, new int[0]);
+		if (model == null) {
+			return null;
+		}
+		while (true) {
+			monitor.checkCancel();
+			final int guard = pbSolver.solver.nextFreeVarId(true);
+			addBound(pbSolver, guard, objective, getValue(model, objective).subtract(BigInteger.ONE));
+			final int[] improved = solve(pbSolver, new int[] { guard });
+			disable(pbSolver, guard);
+			if (improved == null) {
+				break;
+			}
+			model = improved;
+		}
+		return improve(pbSolver, model, monitor);
+	}
+
+	/**
+	 * Searches dominating assignments until the current assignment is Pareto-optimal.
+	 */
+	private ParetoSolution improve(SAT4JPBSolver pbSolver, int[] model, IMonitor<?> monitor) {
+		ParetoSolution solution = new ParetoSolution(model, getValues(model));
+		while (true) {
+			monitor.checkCancel();
+
+			// guard => (all objectives are at least as good) and (at least one objective is better)
+			final int guard = pbSolver.solver.nextFreeVarId(true);
+			final int[] better = new int[objectiveIds.length];
+			final int[] clause = new int[objectiveIds.length + 1];
+			clause[0] = -guard;
+			for (int i = 0; i < objectiveIds.length; i++) {
+				better[i] = pbSolver.solver.nextFreeVarId(true);
+				clause[i + 1] = better[i];
+				addBound(pbSolver, guard, i, solution.values[i]);
+				addBound(pbSolver, better[i], i, solution.values[i].subtract(BigInteger.ONE));
+			}
+			addClause(pbSolver, clause);
+
+			final int[] improved = solve(pbSolver, new int[] { guard });
+			disable(pbSolver, guard);
+			for (final int selector : better) {
+				disable(pbSolver, selector);
+			}
+			if (improved == null) {
+				return solution;
+			}
+			solution = new ParetoSolution(improved, getValues(improved));
+		}
+	}
+
+	/**
+	 * Permanently excludes all assignments that are dominated by or equal to the given solution.
+	 */
+	private void exclude(SAT4JPBSolver pbSolver, ParetoSolution solution) {
+		final int[] clause = new int[objectiveIds.length];
+		for (int i = 0; i < objectiveIds.length; i++) {
+			clause[i] = pbSolver.solver.nextFreeVarId(true);
+			addBound(pbSolver, clause[i], i, solution.values[i].subtract(BigInteger.ONE));
+		}
+		addClause(pbSolver, clause);
+	}
+
+	private static void addSolution(List<ParetoSolution> front, ParetoSolution solution) {
+		for (final Iterator<ParetoSolution> iterator = front.iterator(); iterator.hasNext();) {
+			final ParetoSolution other = iterator.next();
+			if (other.dominates(solution) || Arrays.equals(other.values, solution.values)) {
+				return;
+			} else if (solution.dominates(other)) {
+				iterator.remove();
+			}
+		}
+		front.add(solution);
+	}
+
+	private SAT4JPBSolver createSolver() {
+		final SAT4JPBSolver pbSolver = new SAT4JPBSolver();
+		pbSolver.addRestrictions(restrictions);
+		return pbSolver;
+	}
+
+	/**
+	 * @return A satisfying assignment or <code>null</code> if there is none or the time budget is exhausted.
+	 */
+	private int[] solve(SAT4JPBSolver pbSolver, int[] assumptions) {
+		if (pbSolver.alreadyContradiction) {
+			return null;
+		}
+		if (deadline != Long.MAX_VALUE) {
+			final long remaining = deadline - System.currentTimeMillis();
+			if (remaining <= 0) {
+				complete = false;
+				return null;
+			}
+			pbSolver.solver.setTimeoutMs(remaining);
+		}
+		try {
+			return pbSolver.solver.isSatisfiable(new VecInt(assumptions)) ? pbSolver.solver.model() : null;
+		} catch (final TimeoutException e) {
+			complete = false;
+			return null;
+		}
+	}
+
+	/**
+	 * Adds the inequality "guard => objective <= bound" as "-objective + (range - bound) * -guard >= -bound".
+	 */
+	private void addBound(SAT4JPBSolver pbSolver, int guard, int objective, BigInteger bound) {
+		final BigInteger weight = ranges[objective].subtract(bound);
+		if (weight.signum() <= 0) {
+			// the objective can never exceed the bound
+			return;
+		}
+		final int[] ids = objectiveIds[objective];
+		final BigInteger[] coefficients = objectiveCoefficients[objective];
+		final int[] boundIds = Arrays.copyOf(ids, ids.length + 1);
+		final BigInteger[] boundCoefficients = new BigInteger[coefficients.length + 1];
+		for (int i = 0; i < coefficients.length; i++) {
+			boundCoefficients[i] = coefficients[i].negate();
+		}
+		boundIds[ids.length] = -guard;
+		boundCoefficients[ids.length] = weight;
+		try {
+			pbSolver.solver.addPseudoBoolean(new VecInt(boundIds), new Vec<>(boundCoefficients), true, bound.negate());
+		} catch (final ContradictionException e) {
+			// the restriction is satisfied if the guard is false, so the restrictions were already contradictory
+			pbSolver.alreadyContradiction = true;
+		}
+	}
+
+	private static void addClause(SAT4JPBSolver pbSolver, int[] clause) {
+		try {
+			pbSolver.solver.addClause(new VecInt(clause));
+		} catch (final ContradictionException e) {
+			pbSolver.alreadyContradiction = true;
+		}
+	}
+
+	private static void disable(SAT4JPBSolver pbSolver, int selector) {
+		addClause(pbSolver, new int[] { -selector });
+	}
+
+	private BigInteger[] getValues(int[] model) {
+		final BigInteger[] values = new BigInteger[objectiveIds.length];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = getValue(model, i);
+		}
+		return values;
+	}
+
+	private BigInteger getValue(int[] model, int objective) {
+		final int[] ids = objectiveIds[objective];
+		final BigInteger[] coefficients = objectiveCoefficients[objective];
+		BigInteger value = BigInteger.ZERO;
+		for (int i = 0; i < ids.length; i++) {
+			final int id = ids[i];
+			// sat4j stores the literal of variable i at index i - 1
+			if ((id <= model.length) && (model[id - 1] == id)) {
+				value = value.add(coefficients[i]);
+			}
+		}
+		return value;
+	}
+
+}
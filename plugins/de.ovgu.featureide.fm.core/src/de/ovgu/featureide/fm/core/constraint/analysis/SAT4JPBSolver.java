@@ -21,8 +21,11 @@
 package de.ovgu.featureide.fm.core.constraint.analysis;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.sat4j.core.Vec;
@@ -30,6 +33,7 @@ import org.sat4j.core.VecInt;
 import org.sat4j.pb.IPBSolver;
 import org.sat4j.pb.SolverFactory;
 import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IConstr;
 import org.sat4j.specs.IVecInt;
 import org.sat4j.specs.TimeoutException;
 
@@ -42,10 +46,22 @@ import de.ovgu.featureide.fm.core.constraint.analysis.Restriction.Op;
  */
 public class SAT4JPBSolver implements PBSolver {
 
+	/**
+	 * The number of selector variables that {@link #minimize(int[], BigInteger[], int[], int[])} may retire before the solver is rebuilt.
+	 */
+	static final int MAX_RETIRED_SELECTORS = 256;
+
 	IPBSolver solver;
 
 	boolean alreadyContradiction;
 
+	/**
+	 * All added restrictions, which are needed to rebuild the solver.
+	 */
+	private final List<Restriction> restrictions = new ArrayList<>();
+
+	private int retiredSelectors = 0;
+
 	public SAT4JPBSolver() {
 		solver = SolverFactory.newDefault();
 		alreadyContradiction = false;
@@ -53,6 +69,11 @@ public class SAT4JPBSolver implements PBSolver {
 
 	@Override
 	public <T extends Restriction> void addRestriction(T restriction) {
+		restrictions.add(restriction);
+		addToSolver(restriction);
+	}
+
+	private void addToSolver(Restriction restriction) {
 		final IVecInt ids = new VecInt(restriction.getIds());
 		final Vec<BigInteger> coefficients = new Vec<>(restriction.getCoefficients());
 		final BigInteger degree = BigInteger.valueOf(restriction.getDegree());
@@ -118,4 +139,132 @@ public class SAT4JPBSolver implements PBSolver {
 
 		return backbone;
 	}
+
+	@Override
+	public int[] getModel() {
+		return solver.model();
+	}
+
+	@Override
+	public int[] minimize(int[] ids, BigInteger[] coefficients, int[] assumptions, int[] initialModel) {
+		if (alreadyContradiction) {
+			return null;
+		}
+
+		int[] bestModel;
+		if ((initialModel != null) && isConsistent(initialModel, assumptions)) {
+			bestModel = initialModel;
+		} else if (isSatisfiable(assumptions)) {
+			bestModel = solver.model();
+		} else {
+			return null;
+		}
+
+		// the objective function can change its value at most by the sum of all absolute coefficients
+		BigInteger range = BigInteger.ZERO;
+		for (final BigInteger coefficient : coefficients) {
+			range = range.add(coefficient.abs());
+		}
+		// all bounds of this call are guarded by the same selector, as every bound implies the previous ones
+		final int selector = solver.nextFreeVarId(true);
+		final int[] boundAssumptions = Arrays.copyOf(assumptions, assumptions.length + 1);
+		boundAssumptions[assumptions.length] = selector;
+		IConstr boundConstraint = null;
+		try {
+			while (true) {
+				final BigInteger bound = getValue(bestModel, ids, coefficients).subtract(BigInteger.ONE);
+
+				// add the inequality "selector => terms <= bound" as "-terms + (range - bound) * -selector >= -bound"
+				// the arrays are created for each restriction, as sat4j may normalize them in place
+				final int[] boundIds = Arrays.copyOf(ids, ids.length + 1);
+				final BigInteger[] boundCoefficients = new BigInteger[coefficients.length + 1];
+				for (int i = 0; i < coefficients.length; i++) {
+					boundCoefficients[i] = coefficients[i].negate();
+				}
+				boundIds[ids.length] = -selector;
+				boundCoefficients[ids.length] = range.subtract(bound);
+				final IConstr nextBoundConstraint;
+				try {
+					nextBoundConstraint = solver.addPseudoBoolean(new VecInt(boundIds), new Vec<>(boundCoefficients), true, bound.negate());
+				} catch (final ContradictionException e) {
+					return bestModel;
+				}
+				// the new bound subsumes the previous one
+				removeConstraint(boundConstraint);
+				boundConstraint = nextBoundConstraint;
+
+				try {
+					if (!solver.isSatisfiable(new VecInt(boundAssumptions))) {
+						return bestModel;
+					}
+				} catch (final TimeoutException e) {
+					throw new RuntimeException(e.getMessage());
+				}
+				bestModel = solver.model();
+			}
+		} finally {
+			retireSelector(selector, boundConstraint);
+		}
+	}
+
+	private void removeConstraint(IConstr constraint) {
+		if (constraint != null) {
+			solver.removeConstr(constraint);
+		}
+	}
+
+	/**
+	 * Removes the last bound of a call to {@link #minimize(int[], BigInteger[], int[], int[])} and deactivates its selector permanently. Learned clauses that
+	 * depend on the bounds contain the negated selector and thus remain valid for further calls. As each call leaves one unused variable, the solver is rebuilt
+	 * from the added restrictions after {@link #MAX_RETIRED_SELECTORS} calls.
+	 */
+	private void retireSelector(int selector, IConstr boundConstraint) {
+		removeConstraint(boundConstraint);
+		if (++retiredSelectors >= MAX_RETIRED_SELECTORS) {
+			retiredSelectors = 0;
+			solver = SolverFactory.newDefault();
+			alreadyContradiction = false;
+			for (final Restriction restriction : restrictions) {
+				addToSolver(restriction);
+			}
+		} else {
+			try {
+				solver.addClause(new VecInt(new int[] { -selector }));
+			} catch (final ContradictionException e) {
+				// cannot happen, the selector is not used by any other restriction
+			}
+		}
+	}
+
+	private static boolean isConsistent(int[] model, int[] assumptions) {
+		for (final int assumption : assumptions) {
+			if (isTrue(model, Math.abs(assumption)) != (assumption > 0)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static BigInteger getValue(int[] model, int[] ids, BigInteger[] coefficients) {
+		BigInteger value = BigInteger.ZERO;
+		for (int i = 0; i < ids.length; i++) {
+			if (isTrue(model, ids[i])) {
+				value = value.add(coefficients[i]);
+			}
+		}
+		return value;
+	}
+
+	private static boolean isTrue(int[] model, int id) {
+		// sat4j stores the literal of variable i at index i - 1
+		if ((id <= model.length) && (Math.abs(model[id - 1]) == id)) {
+			return model[id - 1] > 0;
+		}
+		for (final int literal : model) {
+			if (Math.abs(literal) == id) {
+				return literal > 0;
+			}
+		}
+		return false;
+	}
 }
@@ -33,6 +33,8 @@ import org.prop4j.Literal;
 import org.prop4j.Node;
 import org.prop4j.Or;
 
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.base.IConstraint;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.base.IFeatureStructure;
@@ -124,6 +126,27 @@ public class Translator {
 		return rs;
 	}
 
+	/**
+	 * Translates each clause of the given CNF into a pseudo boolean restriction. The ids of the restrictions are the variable indices of the CNF.
+	 *
+	 * @param cnf The CNF.
+	 * @param factory The restriction factory.
+	 * @return One restriction per clause.
+	 */
+	public static <T> List<T> translateCNF(CNF cnf, RestrictionFactory<T> factory) {
+		final List<T> rs = new ArrayList<>(cnf.getClauses().size());
+
+		for (final LiteralSet clause : cnf.getClauses()) {
+			final List<Term> terms = new ArrayList<>();
+			for (final int literal : clause.getLiterals()) {
+				terms.add(new Term(Math.abs(literal), 1, literal > 0));
+			}
+			factory.createAndAdd(terms, RelationOperator.GREATER_EQUAL, 1, rs);
+		}
+
+		return rs;
+	}
+
 	private static <T> void translateFmTree(Map<String, Integer> m, IFeatureStructure feature, List<T> rs, RestrictionFactory<T> factory) {
 
 		if (feature.isAlternative()) {
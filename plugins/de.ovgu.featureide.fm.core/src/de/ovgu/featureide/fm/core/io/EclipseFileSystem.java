@@ -22,6 +22,8 @@ package de.ovgu.featureide.fm.core.io;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URL;
 import java.nio.file.Files;
@@ -41,6 +43,7 @@ import org.eclipse.core.runtime.IPath;
 
 import de.ovgu.featureide.fm.core.FMCorePlugin;
 import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.io.FileSystem.IContentWriter;
 import de.ovgu.featureide.fm.core.io.FileSystem.IFileSystem;
 
 public class EclipseFileSystem implements IFileSystem {
@@ -90,6 +93,37 @@ public class EclipseFileSystem implements IFileSystem {
 		}
 	}
 
+	/**
+	 * Files in the workspace are written via {@link IFile#setContents(InputStream, boolean, boolean, org.eclipse.core.runtime.IProgressMonitor)}, so the
+	 * workspace stays in sync and the local history is kept. The content is buffered in a temporary file, which is streamed into the resource once it is
+	 * complete.
+	 */
+	@Override
+	public void write(Path path, IContentWriter writer) throws IOException {
+		final IFile file = ResourcesPlugin.getWorkspace().getRoot().getFileForLocation(getIPath(path));
+		if (file == null) {
+			JAVA.write(path, writer);
+		} else {
+			final Path tempFile = Files.createTempFile("featureide", ".tmp");
+			try {
+				try (OutputStream out = Files.newOutputStream(tempFile)) {
+					writer.write(out);
+				}
+				try (InputStream in = Files.newInputStream(tempFile)) {
+					if (file.exists()) {
+						file.setContents(in, true, true, null);
+					} else {
+						file.create(in, true, null);
+					}
+				} catch (final CoreException e) {
+					throw new IOException(e);
+				}
+			} finally {
+				Files.deleteIfExists(tempFile);
+			}
+		}
+	}
+
 	@Override
 	public void append(Path path, byte[] content) throws IOException {
 		final IFile file = ResourcesPlugin.getWorkspace().getRoot().getFileForLocation(getIPath(path));
@@ -109,6 +143,11 @@ public class EclipseFileSystem implements IFileSystem {
 		return Files.readAllBytes(path);
 	}
 
+	@Override
+	public InputStream getInputStream(Path path) throws IOException {
+		return Files.newInputStream(path);
+	}
+
 	@Override
 	public void mkDir(Path path) throws IOException {
 		IContainer container = ResourcesPlugin.getWorkspace().getRoot().getContainerForLocation(getIPath(path));
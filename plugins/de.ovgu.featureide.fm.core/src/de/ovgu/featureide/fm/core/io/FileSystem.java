@@ -21,6 +21,8 @@
 package de.ovgu.featureide.fm.core.io;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
 
@@ -30,14 +32,36 @@ import java.nio.file.Path;
  */
 public final class FileSystem {
 
+	/**
+	 * Writes the content of a file to a stream.
+	 */
+	public static interface IContentWriter {
+
+		/**
+		 * Writes the content to the given stream. The stream must not be closed.
+		 */
+		void write(OutputStream out) throws IOException;
+	}
+
 	public static interface IFileSystem {
 
 		void write(Path path, byte[] content) throws IOException;
 
+		/**
+		 * Writes the content of the given writer to the given file. The file is only replaced after the content was written completely, so it is never left
+		 * partially written. An existing file keeps its permissions. If the file is a symbolic link, the target of the link is replaced.
+		 */
+		void write(Path path, IContentWriter writer) throws IOException;
+
 		void append(Path path, byte[] content) throws IOException;
 
 		byte[] read(Path path) throws IOException;
 
+		/**
+		 * Opens an input stream for the given file. The caller is responsible for closing the stream.
+		 */
+		InputStream getInputStream(Path path) throws IOException;
+
 		void mkDir(Path path) throws IOException;
 
 		void delete(Path path) throws IOException;
@@ -57,10 +81,18 @@ public final class FileSystem {
 		INSTANCE.write(path, content);
 	}
 
+	public static void write(Path path, IContentWriter writer) throws IOException {
+		INSTANCE.write(path, writer);
+	}
+
 	public static byte[] read(Path path) throws IOException {
 		return INSTANCE.read(path);
 	}
 
+	public static InputStream getInputStream(Path path) throws IOException {
+		return INSTANCE.getInputStream(path);
+	}
+
 	public static void mkDir(Path path) throws IOException {
 		INSTANCE.mkDir(path);
 	}
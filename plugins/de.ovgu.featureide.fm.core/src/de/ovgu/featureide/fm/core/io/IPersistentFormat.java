@@ -20,6 +20,10 @@
  */
 package de.ovgu.featureide.fm.core.io;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
 import de.ovgu.featureide.fm.core.IExtension;
 
 /**
@@ -52,6 +56,50 @@ public interface IPersistentFormat<T> extends IExtension {
 	 */
 	String write(T object);
 
+	/**
+	 * Parses the contents of the given reader and transfers all information onto the given object. Works like {@link #read(Object, CharSequence)}, but does
+	 * not require the complete source in memory, if the format {@link #supportsStreaming() supports streaming}.<br> The default implementation reads the
+	 * complete source and calls {@link #read(Object, CharSequence)}. The reader is not closed.
+	 *
+	 * @param object the object to write the information into.
+	 * @param source the reader providing the source content.
+	 * @return A list of {@link Problem problems} that occurred during the parsing process.
+	 * @throws IOException if the source cannot be read.
+	 *
+	 * @see #supportsRead()
+	 */
+	default ProblemList read(T object, Reader source) throws IOException {
+		final StringBuilder content = new StringBuilder();
+		final char[] buffer = new char[8192];
+		for (int length; (length = source.read(buffer)) >= 0;) {
+			content.append(buffer, 0, length);
+		}
+		return read(object, content);
+	}
+
+	/**
+	 * Writes the information of an object to the given writer. Works like {@link #write(Object)}, but does not create the complete output in memory, if the
+	 * format {@link #supportsStreaming() supports streaming}.<br> The default implementation calls {@link #write(Object)}. The writer is not closed.
+	 *
+	 * @param object the object to get the information from.
+	 * @param target the writer to write the object to.
+	 * @throws IOException if the output cannot be written.
+	 *
+	 * @see #supportsWrite()
+	 */
+	default void write(T object, Writer target) throws IOException {
+		target.write(write(object));
+	}
+
+	/**
+	 * Returns whether this format overrides {@link #read(Object, Reader)} and {@link #write(Object, Writer)} to process its content incrementally.
+	 *
+	 * @return {@code true} if reading and writing works in bounded memory, {@code false} if the complete content is kept in memory.
+	 */
+	default boolean supportsStreaming() {
+		return false;
+	}
+
 	/**
 	 * Returns the file extension for this format. (Without a leading ".")
 	 *
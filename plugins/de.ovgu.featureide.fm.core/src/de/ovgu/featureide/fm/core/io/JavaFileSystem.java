@@ -21,10 +21,18 @@
 package de.ovgu.featureide.fm.core.io;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.DosFileAttributeView;
+import java.nio.file.attribute.DosFileAttributes;
+import java.nio.file.attribute.PosixFileAttributeView;
 
+import de.ovgu.featureide.fm.core.io.FileSystem.IContentWriter;
 import de.ovgu.featureide.fm.core.io.FileSystem.IFileSystem;
 
 public class JavaFileSystem implements IFileSystem {
@@ -34,6 +42,44 @@ public class JavaFileSystem implements IFileSystem {
 		Files.write(path, content, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
 	}
 
+	/**
+	 * Writes the content to a temporary file in the directory of the target file first, which then replaces the target file. The permissions of an existing
+	 * target file are copied to the temporary file before.
+	 */
+	@Override
+	public void write(Path path, IContentWriter writer) throws IOException {
+		// replace the target of a link instead of the link itself
+		final Path target = Files.isSymbolicLink(path) ? path.toRealPath() : path.toAbsolutePath();
+		final Path tempFile = Files.createTempFile(target.getParent(), "." + target.getFileName(), ".tmp");
+		try {
+			try (OutputStream out = Files.newOutputStream(tempFile)) {
+				writer.write(out);
+			}
+			if (Files.exists(target)) {
+				copyAttributes(target, tempFile);
+			}
+			move(tempFile, target);
+		} finally {
+			Files.deleteIfExists(tempFile);
+		}
+	}
+
+	private static void copyAttributes(Path source, Path target) throws IOException {
+		final PosixFileAttributeView posixView = Files.getFileAttributeView(source, PosixFileAttributeView.class);
+		if (posixView != null) {
+			Files.setPosixFilePermissions(target, posixView.readAttributes().permissions());
+		} else {
+			final DosFileAttributeView dosView = Files.getFileAttributeView(source, DosFileAttributeView.class);
+			if (dosView != null) {
+				final DosFileAttributes attributes = dosView.readAttributes();
+				final DosFileAttributeView targetView = Files.getFileAttributeView(target, DosFileAttributeView.class);
+				targetView.setHidden(attributes.isHidden());
+				targetView.setSystem(attributes.isSystem());
+				targetView.setArchive(attributes.isArchive());
+			}
+		}
+	}
+
 	@Override
 	public void append(Path path, byte[] content) throws IOException {
 		Files.write(path, content, StandardOpenOption.APPEND, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
@@ -44,6 +90,22 @@ public class JavaFileSystem implements IFileSystem {
 		return Files.readAllBytes(path);
 	}
 
+	@Override
+	public InputStream getInputStream(Path path) throws IOException {
+		return Files.newInputStream(path);
+	}
+
+	/**
+	 * Moves the source file to the target file. An existing target file is replaced. If possible, the target is replaced atomically.
+	 */
+	private static void move(Path source, Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (final AtomicMoveNotSupportedException e) {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
 	@Override
 	public void mkDir(Path path) throws IOException {
 		Files.createDirectories(path);
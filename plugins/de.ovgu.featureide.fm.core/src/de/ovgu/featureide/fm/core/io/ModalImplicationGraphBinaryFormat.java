@@ -0,0 +1,329 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.mig.ModalImplicationGraph;
+import de.ovgu.featureide.fm.core.analysis.mig.Vertex;
+
+/**
+ * Reads / Writes a {@link ModalImplicationGraph} in a compact binary format.<br> In contrast to {@link ModalImplicationGraphFormat}, which uses Java
+ * serialization, the format is independent of the class layout and does not pass through a string. Files are read by memory-mapping them.<br><br>
+ * <b>Layout</b> (all numbers are unsigned varints, signed numbers are zigzag encoded):
+ * <ol>
+ * <li>Magic bytes <code>MIGB</code> and a version byte</li>
+ * <li>Number of variables <code>n</code></li>
+ * <li>For each of the <code>2n</code> vertices in the order of {@link ModalImplicationGraph#getAdjList()}: a flag byte (1 = core, 2 = dead), the sorted
+ * strong edges (count, first literal as signed number, then the differences to the previous literal), and the sorted indices of its complex clauses (count,
+ * then the differences to the previous index)</li>
+ * <li>Number of complex clauses, then for each clause the number of literals followed by the literals as signed numbers</li>
+ * <li>CRC32 checksum of all preceding bytes as 4 byte big endian integer</li>
+ * </ol>
+ */
+public class ModalImplicationGraphBinaryFormat {
+
+	public static final String FILE_EXTENSION = "migb";
+
+	private static final byte[] MAGIC = { 'M', 'I', 'G', 'B' };
+	private static final byte VERSION = 1;
+
+	private static final byte CORE = 1;
+	private static final byte DEAD = 2;
+
+	/**
+	 * Writes the given graph to the given file. An existing file is only replaced after the graph was written completely.
+	 *
+	 * @param mig The graph
+	 * @param path The file
+	 * @throws IOException If the file cannot be written
+	 */
+	public void write(ModalImplicationGraph mig, Path path) throws IOException {
+		FileSystem.write(path, out -> {
+			final BufferedOutputStream bufferedOut = new BufferedOutputStream(out);
+			write(mig, bufferedOut);
+			bufferedOut.flush();
+		});
+	}
+
+	/**
+	 * Writes the given graph to the given stream. The stream is not closed.
+	 *
+	 * @param mig The graph
+	 * @param out The stream
+	 * @throws IOException If the stream cannot be written
+	 */
+	public void write(ModalImplicationGraph mig, OutputStream out) throws IOException {
+		final CRC32 checksum = new CRC32();
+		final Encoder encoder = new Encoder(out, checksum);
+
+		encoder.writeBytes(MAGIC);
+		encoder.writeByte(VERSION);
+
+		final List<Vertex> adjList = mig.getAdjList();
+		encoder.writeUnsigned(adjList.size() >> 1);
+		for (final Vertex vertex : adjList) {
+			encoder.writeByte((byte) ((vertex.isCore() ? CORE : 0) | (vertex.isDead() ? DEAD : 0)));
+
+			final int[] strongEdges = sorted(vertex.getStrongEdges());
+			encoder.writeUnsigned(strongEdges.length);
+			if (strongEdges.length > 0) {
+				encoder.writeSigned(strongEdges[0]);
+				for (int i = 1; i < strongEdges.length; i++) {
+					encoder.writeUnsigned(strongEdges[i] - strongEdges[i - 1]);
+				}
+			}
+
+			final int[] complexClauses = sorted(vertex.getComplexClauses());
+			encoder.writeUnsigned(complexClauses.length);
+			int previous = 0;
+			for (final int clauseIndex : complexClauses) {
+				encoder.writeUnsigned(clauseIndex - previous);
+				previous = clauseIndex;
+			}
+		}
+
+		final List<LiteralSet> complexClauses = mig.getComplexClauses();
+		encoder.writeUnsigned(complexClauses.size());
+		for (final LiteralSet clause : complexClauses) {
+			final int[] literals = clause.getLiterals();
+			encoder.writeUnsigned(literals.length);
+			for (final int literal : literals) {
+				encoder.writeSigned(literal);
+			}
+		}
+		encoder.flush();
+
+		final int crc = (int) checksum.getValue();
+		out.write(new byte[] { (byte) (crc >>> 24), (byte) (crc >>> 16), (byte) (crc >>> 8), (byte) crc });
+	}
+
+	/**
+	 * Encodes the given graph.
+	 *
+	 * @param mig The graph
+	 * @return The binary representation of the graph
+	 */
+	public byte[] toBytes(ModalImplicationGraph mig) {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try {
+			write(mig, out);
+		} catch (final IOException e) {
+			// cannot happen for a ByteArrayOutputStream
+			throw new RuntimeException(e);
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * Reads a graph from the given file. The file is memory-mapped.
+	 *
+	 * @param path The file
+	 * @return The graph
+	 * @throws IOException If the file cannot be read or has an invalid content
+	 */
+	public ModalImplicationGraph read(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			final MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+			return read(buffer);
+		}
+	}
+
+	/**
+	 * Decodes a graph from the remaining bytes of the given buffer.
+	 *
+	 * @param buffer The buffer
+	 * @return The graph
+	 * @throws IOException If the content is invalid
+	 */
+	public ModalImplicationGraph read(ByteBuffer buffer) throws IOException {
+		final ByteBuffer content = buffer.slice();
+		final int length = content.remaining() - 4;
+		if (length < (MAGIC.length + 1)) {
+			throw new IOException("File too short");
+		}
+
+		final ByteBuffer checkedContent = content.duplicate();
+		checkedContent.limit(length);
+		final CRC32 checksum = new CRC32();
+		checksum.update(checkedContent);
+		if ((int) checksum.getValue() != content.getInt(length)) {
+			throw new IOException("Invalid checksum");
+		}
+		content.limit(length);
+
+		try {
+			for (final byte magicByte : MAGIC) {
+				if (content.get() != magicByte) {
+					throw new IOException("Not a binary modal implication graph");
+				}
+			}
+			final byte version = content.get();
+			if (version != VERSION) {
+				throw new IOException("Unsupported version " + version);
+			}
+
+			final int numberOfVertices = checkCount(content, readUnsigned(content) << 1);
+			final List<Vertex> adjList = new ArrayList<>(numberOfVertices);
+			for (int i = 0; i < numberOfVertices; i++) {
+				final int var = (i >> 1) + 1;
+				final Vertex vertex = new Vertex((i & 1) == 0 ? -var : var);
+				vertex.setId(i);
+
+				final byte flags = content.get();
+				vertex.setCore((flags & CORE) != 0);
+				vertex.setDead((flags & DEAD) != 0);
+
+				final int[] strongEdges = new int[checkCount(content, readUnsigned(content))];
+				if (strongEdges.length > 0) {
+					strongEdges[0] = readSigned(content);
+					for (int j = 1; j < strongEdges.length; j++) {
+						strongEdges[j] = strongEdges[j - 1] + readUnsigned(content);
+					}
+				}
+				vertex.setStrongEdges(strongEdges);
+
+				final int[] complexClauses = new int[checkCount(content, readUnsigned(content))];
+				int previous = 0;
+				for (int j = 0; j < complexClauses.length; j++) {
+					previous += readUnsigned(content);
+					complexClauses[j] = previous;
+				}
+				vertex.setComplexClauses(complexClauses);
+
+				adjList.add(vertex);
+			}
+
+			final int numberOfClauses = checkCount(content, readUnsigned(content));
+			final List<LiteralSet> clauses = new ArrayList<>(numberOfClauses);
+			for (int i = 0; i < numberOfClauses; i++) {
+				final int[] literals = new int[checkCount(content, readUnsigned(content))];
+				for (int j = 0; j < literals.length; j++) {
+					literals[j] = readSigned(content);
+				}
+				clauses.add(new LiteralSet(literals));
+			}
+
+			if (content.hasRemaining()) {
+				throw new IOException("Unexpected data at end of file");
+			}
+			return new ModalImplicationGraph(adjList, clauses);
+		} catch (final BufferUnderflowException e) {
+			throw new IOException("Unexpected end of file", e);
+		}
+	}
+
+	private static int[] sorted(int[] array) {
+		if (array == null) {
+			return new int[0];
+		}
+		final int[] sortedArray = Arrays.copyOf(array, array.length);
+		Arrays.sort(sortedArray);
+		return sortedArray;
+	}
+
+	/**
+	 * Each counted element needs at least one byte, so a larger count can only stem from a corrupted file.
+	 */
+	private static int checkCount(ByteBuffer buffer, int count) throws IOException {
+		if ((count < 0) || (count > buffer.remaining())) {
+			throw new IOException("Invalid element count " + count);
+		}
+		return count;
+	}
+
+	private static int readUnsigned(ByteBuffer buffer) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			final byte b = buffer.get();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed number");
+	}
+
+	private static int readSigned(ByteBuffer buffer) throws IOException {
+		final int value = readUnsigned(buffer);
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static final class Encoder {
+
+		private final OutputStream out;
+		private final CRC32 checksum;
+		private final byte[] buffer = new byte[8192];
+		private int position = 0;
+
+		private Encoder(OutputStream out, CRC32 checksum) {
+			this.out = out;
+			this.checksum = checksum;
+		}
+
+		private void writeByte(byte b) throws IOException {
+			if (position == buffer.length) {
+				flush();
+			}
+			buffer[position++] = b;
+		}
+
+		private void writeBytes(byte[] bytes) throws IOException {
+			for (final byte b : bytes) {
+				writeByte(b);
+			}
+		}
+
+		private void writeUnsigned(int value) throws IOException {
+			while ((value & ~0x7F) != 0) {
+				writeByte((byte) ((value & 0x7F) | 0x80));
+				value >>>= 7;
+			}
+			writeByte((byte) value);
+		}
+
+		private void writeSigned(int value) throws IOException {
+			writeUnsigned((value << 1) ^ (value >> 31));
+		}
+
+		private void flush() throws IOException {
+			checksum.update(buffer, 0, position);
+			out.write(buffer, 0, position);
+			position = 0;
+		}
+	}
+
+}
@@ -20,9 +20,13 @@
  */
 package de.ovgu.featureide.fm.core.io.csv;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.Arrays;
-import java.util.Scanner;
-import java.util.regex.Pattern;
 
 import de.ovgu.featureide.fm.core.PluginID;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
@@ -45,6 +49,18 @@ public class ConfigurationListFormat extends APersistentFormat<SolutionList> {
 
 	@Override
 	public String write(SolutionList configurationList) {
+		final StringWriter writer = new StringWriter();
+		try {
+			write(configurationList, writer);
+		} catch (final IOException e) {
+			// cannot happen for a StringWriter
+			throw new RuntimeException(e);
+		}
+		return writer.toString();
+	}
+
+	@Override
+	public void write(SolutionList configurationList, Writer target) throws IOException {
 		final StringBuilder csv = new StringBuilder();
 		csv.append("Configuration");
 		final String[] names = configurationList.getVariables().getNames();
@@ -53,8 +69,10 @@ public class ConfigurationListFormat extends APersistentFormat<SolutionList> {
 			csv.append(names[i]);
 		}
 		csv.append('\n');
+		target.append(csv);
 		int configurationIndex = 0;
 		for (final LiteralSet configuration : configurationList.getSolutions()) {
+			csv.setLength(0);
 			csv.append(configurationIndex++);
 			final int[] literals = configuration.getLiterals();
 			for (int i = 0; i < literals.length; i++) {
@@ -62,28 +80,35 @@ public class ConfigurationListFormat extends APersistentFormat<SolutionList> {
 				csv.append(literals[i] < 0 ? 0 : 1);
 			}
 			csv.append('\n');
+			target.append(csv);
 		}
-		return csv.toString();
 	}
 
 	@Override
 	public ProblemList read(SolutionList configurationList, CharSequence source) {
+		try {
+			return read(configurationList, new StringReader(source.toString()));
+		} catch (final IOException e) {
+			// cannot happen for a StringReader
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public ProblemList read(SolutionList configurationList, Reader source) throws IOException {
 		final ProblemList problems = new ProblemList();
+		final BufferedReader reader = source instanceof BufferedReader ? (BufferedReader) source : new BufferedReader(source);
 		int lineNumber = 0;
-		try (final Scanner scanner = new Scanner(source.toString())) {
-			scanner.useDelimiter(Pattern.compile("\\n+\\Z|\\n+|\\Z"));
-			{
-				final String line = scanner.next();
-				if (line.trim().isEmpty()) {
-					problems.add(new Problem(new UnsupportedModelException("Empty file!", lineNumber)));
-					return problems;
-				}
-				final String[] names = line.split(";");
-				configurationList.setVariables(new Variables(Arrays.asList(names).subList(1, names.length)));
+		try {
+			String line = nextLine(reader);
+			if ((line == null) || line.trim().isEmpty()) {
+				problems.add(new Problem(new UnsupportedModelException("Empty file!", lineNumber)));
+				return problems;
 			}
+			final String[] names = line.split(";");
+			configurationList.setVariables(new Variables(Arrays.asList(names).subList(1, names.length)));
 
-			while (scanner.hasNext()) {
-				final String line = scanner.next();
+			while ((line = nextLine(reader)) != null) {
 				lineNumber++;
 				final String[] split = line.split(";");
 				if ((split.length - 1) != configurationList.getVariables().size()) {
@@ -96,12 +121,31 @@ public class ConfigurationListFormat extends APersistentFormat<SolutionList> {
 				}
 				configurationList.addSolution(new LiteralSet(literals, Order.INDEX, false));
 			}
+		} catch (final IOException e) {
+			throw e;
 		} catch (final Exception e) {
 			problems.add(new Problem(new UnsupportedModelException(e.getMessage(), lineNumber)));
 		}
 		return problems;
 	}
 
+	/**
+	 * @return The next non-empty line or <code>null</code> if the end of the source is reached.
+	 */
+	private static String nextLine(BufferedReader reader) throws IOException {
+		for (String line; (line = reader.readLine()) != null;) {
+			if (!line.isEmpty()) {
+				return line;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public boolean supportsStreaming() {
+		return true;
+	}
+
 	@Override
 	public String getSuffix() {
 		return "csv";
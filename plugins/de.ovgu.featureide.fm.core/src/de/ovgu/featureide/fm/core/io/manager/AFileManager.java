@@ -30,7 +30,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -166,7 +167,15 @@ public abstract class AFileManager<T> implements IFileManager<T> {
 	private final IEventManager eventManager = new DefaultEventManager();
 	private final ProblemList lastProblems = new ProblemList();
 
-	protected final Lock fileOperationLock = new ReentrantLock();
+	private final ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+	/**
+	 * The write lock for all operations that modify the variable object or read / write the file.
+	 */
+	protected final Lock fileOperationLock = readWriteLock.writeLock();
+	/**
+	 * The read lock for operations that only read the variable object. Multiple readers can hold it at the same time.
+	 */
+	protected final Lock readLock = readWriteLock.readLock();
 
 	private final Path path;
 	private final List<? extends IPersistentFormat<T>> formats;
@@ -175,7 +184,16 @@ public abstract class AFileManager<T> implements IFileManager<T> {
 	protected String persistentObjectSource;
 	protected T persistentObject;
 	protected T variableObject;
-	protected T snapshot;
+	/**
+	 * Copy of the variable object that is handed out to readers. It is discarded after every edit that changes the variable object, and the next
+	 * reader creates a new copy with {@link #copyObject(Object)}. The copy is complete, i.e., it does not share any elements with the variable object or
+	 * with previous snapshots. Subclasses may keep the snapshot for edits that they can apply to it directly (see {@link #resetSnapshot(int)}).
+	 */
+	protected volatile T snapshot;
+	/**
+	 * Guards the creation of {@link #snapshot}, so that concurrent readers wait for one copy instead of creating their own.
+	 */
+	private final Object snapshotMonitor = new Object();
 
 	private IPersistentFormat<T> format;
 	private boolean modifying = false;
@@ -196,9 +214,9 @@ public abstract class AFileManager<T> implements IFileManager<T> {
 				} else {
 					detectFormat(content);
 				}
-				final ProblemList problems = format.getInstance().read(variableObject, content);
+				final ProblemList problems = read(variableObject, content);
 				final T newPersistentObject = createObject();
-				format.getInstance().read(newPersistentObject, content);
+				read(newPersistentObject, content);
 				if (problems != null) {
 					lastProblems.addAll(problems);
 				}
@@ -263,16 +281,28 @@ public abstract class AFileManager<T> implements IFileManager<T> {
 
 	protected abstract T copyObject(T oldObject);
 
+	/**
+	 * {@inheritDoc}<br> If the current snapshot is still valid, it is returned without locking, so readers do not wait for running edit operations. Otherwise,
+	 * a new snapshot is created while holding the read lock, which excludes edits but not other readers.
+	 */
 	@Override
 	public T getSnapshot() {
-		fileOperationLock.lock();
+		T currentSnapshot = snapshot;
+		if (currentSnapshot != null) {
+			return currentSnapshot;
+		}
+		readLock.lock();
 		try {
-			if (snapshot == null) {
-				snapshot = copyObject(variableObject);
+			synchronized (snapshotMonitor) {
+				currentSnapshot = snapshot;
+				if (currentSnapshot == null) {
+					currentSnapshot = copyObject(variableObject);
+					snapshot = currentSnapshot;
+				}
+				return currentSnapshot;
 			}
-			return snapshot;
 		} finally {
-			fileOperationLock.unlock();
+			readLock.unlock();
 		}
 	}
 
@@ -343,11 +373,11 @@ public abstract class AFileManager<T> implements IFileManager<T> {
 
 	@Override
 	public ProblemList getLastProblems() {
-		fileOperationLock.lock();
+		readLock.lock();
 		try {
 			return new ProblemList(lastProblems);
 		} finally {
-			fileOperationLock.unlock();
+			readLock.unlock();
 		}
 	}
 
@@ -400,7 +430,7 @@ public abstract class AFileManager<T> implements IFileManager<T> {
 		final String content = new String(FileSystem.read(path), SimpleFileHandler.DEFAULT_CHARSET);
 		detectFormat(content);
 		tempObject = createObject();
-		final List<Problem> problemList = format.getInstance().read(tempObject, content);
+		final List<Problem> problemList = read(tempObject, content);
 		if (problemList != null) {
 			lastProblems.addAll(problemList);
 		}
@@ -418,7 +448,7 @@ public abstract class AFileManager<T> implements IFileManager<T> {
 			lastProblems.clear();
 			try {
 				detectFormat(source);
-				final List<Problem> problemList = format.getInstance().read(variableObject, source);
+				final List<Problem> problemList = read(variableObject, source);
 				if (problemList != null) {
 					lastProblems.addAll(problemList);
 				}
@@ -440,7 +470,7 @@ public abstract class AFileManager<T> implements IFileManager<T> {
 				return;
 			}
 			if (persistentObjectSource != null) {
-				format.getInstance().read(variableObject, persistentObjectSource);
+				read(variableObject, persistentObjectSource);
 			}
 		} finally {
 			fileOperationLock.unlock();
@@ -448,6 +478,17 @@ public abstract class AFileManager<T> implements IFileManager<T> {
 		fireEvent(new FeatureIDEEvent(variableObject, EventType.MODEL_DATA_OVERWRITTEN));
 	}
 
+	/**
+	 * Reads the given source into the given object using the current format.<br> Subclasses could override this method.
+	 *
+	 * @param object The object to read into.
+	 * @param source The source to read from.
+	 * @return The problems that occurred while reading.
+	 */
+	protected ProblemList read(T object, CharSequence source) {
+		return format.getInstance().read(object, source);
+	}
+
 	/**
 	 * Compares the persistent with the given object for equality.<br> Subclasses could override this method.
 	 *
@@ -483,7 +524,7 @@ public abstract class AFileManager<T> implements IFileManager<T> {
 				final String source = format.getInstance().write(variableObject);
 				FileSystem.write(path, source.getBytes(SimpleFileHandler.DEFAULT_CHARSET));
 				final T tempObject = createObject();
-				format.getInstance().read(tempObject, source);
+				read(tempObject, source);
 				setPersistentObject(tempObject);
 			} catch (final Exception e) {
 				handleException(e);
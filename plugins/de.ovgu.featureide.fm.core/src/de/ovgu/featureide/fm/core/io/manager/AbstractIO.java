@@ -108,6 +108,21 @@ public abstract class AbstractIO<T> {
 
 	public final FileHandler<T> getFileHandler(Path path) {
 		final FileHandler<T> fileHandler = new FileHandler<>(path, null, null);
+
+		// only reads the beginning of the file
+		final IPersistentFormat<T> knownFormat = getFormatManager().getFormatByContent(path);
+		if (knownFormat != null) {
+			try {
+				fileHandler.setObject(getFactoryManager().getFactory(path, knownFormat).create());
+				fileHandler.setFormat(knownFormat);
+				fileHandler.read();
+			} catch (final NoSuchExtensionException e) {
+				fileHandler.getLastProblems().add(new Problem(e));
+			}
+			return fileHandler;
+		}
+
+		// no format found, read the content to report the actual problem
 		final String content = fileHandler.getContent();
 
 		if (content != null) {
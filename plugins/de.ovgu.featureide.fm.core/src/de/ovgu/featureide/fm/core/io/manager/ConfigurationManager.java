@@ -80,6 +80,15 @@ public class ConfigurationManager extends AFileManager<Configuration> {
 		return oldObject.clone();
 	}
 
+	@Override
+	protected void resetSnapshot(int changeIndicator) {
+		if (changeIndicator == CHANGE_NOTHING) {
+			// the variable object was only read, so the current snapshot is still valid
+			return;
+		}
+		super.resetSnapshot(changeIndicator);
+	}
+
 	private IFeatureModelManager featureModelManager;
 
 	public void linkFeatureModel(IFeatureModelManager featureModelManager) {
@@ -32,6 +32,7 @@ import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
 import de.ovgu.featureide.fm.core.base.impl.FMFormatManager;
 import de.ovgu.featureide.fm.core.io.IFeatureModelFormat;
 import de.ovgu.featureide.fm.core.io.IPersistentFormat;
+import de.ovgu.featureide.fm.core.io.ProblemList;
 
 /**
  * Responsible to load and save all information for a feature model instance.
@@ -49,7 +50,11 @@ public class FeatureModelManager extends AFileManager<IFeatureModel> implements
 	public static final int CHANGE_NOTHING = Integer.MAX_VALUE;
 
 	private FeatureModelFormula persistentFormula = null;
-	private FeatureModelFormula variableFormula = null;
+	private volatile FeatureModelFormula variableFormula = null;
+	/**
+	 * Guards the creation of {@link #variableFormula}.
+	 */
+	private final Object formulaMonitor = new Object();
 
 	@CheckForNull
 	public static FeatureModelManager getInstance(Path path) {
@@ -97,6 +102,17 @@ public class FeatureModelManager extends AFileManager<IFeatureModel> implements
 		return (IFeatureModelFormat) super.getFormat();
 	}
 
+	@Override
+	protected ProblemList read(IFeatureModel object, CharSequence source) {
+		// deliver the events of an import as one change instead of one event per element
+		object.beginBulkEdit();
+		try {
+			return super.read(object, source);
+		} finally {
+			object.endBulkEdit();
+		}
+	}
+
 	@Override
 	protected IFeatureModel copyObject(IFeatureModel oldObject) {
 		final IFeatureModel clone = oldObject.clone();
@@ -114,19 +130,42 @@ public class FeatureModelManager extends AFileManager<IFeatureModel> implements
 
 	@Override
 	public FeatureModelFormula getVariableFormula() {
-		fileOperationLock.lock();
+		FeatureModelFormula currentFormula = variableFormula;
+		if (currentFormula != null) {
+			return currentFormula;
+		}
+		readLock.lock();
 		try {
-			if (variableFormula == null) {
-				variableFormula = new FeatureModelFormula(getSnapshot());
+			synchronized (formulaMonitor) {
+				currentFormula = variableFormula;
+				if (currentFormula == null) {
+					currentFormula = new FeatureModelFormula(getSnapshot());
+					variableFormula = currentFormula;
+				}
+				return currentFormula;
 			}
-			return variableFormula;
 		} finally {
-			fileOperationLock.unlock();
+			readLock.unlock();
 		}
 	}
 
 	@Override
 	protected void resetSnapshot(int changeIndicator) {
+		if (changeIndicator == CHANGE_NOTHING) {
+			// the variable object was only read, so the current snapshot is still valid
+			return;
+		}
+		if (changeIndicator == CHANGE_MODEL_PROPERTY) {
+			final IFeatureModel currentSnapshot = snapshot;
+			if (currentSnapshot != null) {
+				// only the properties of the feature model changed, so they are copied to the snapshot instead of copying the whole feature model
+				currentSnapshot.getProperty().setProperties(variableObject.getProperty().getProperties());
+				if ((variableFormula != null) && (variableFormula.getFeatureModel() != currentSnapshot)) {
+					variableFormula.getFeatureModel().getProperty().setProperties(variableObject.getProperty().getProperties());
+				}
+				return;
+			}
+		}
 		super.resetSnapshot(changeIndicator);
 		if (variableFormula != null) {
 			if (changeIndicator <= CHANGE_DEPENDENCIES) {
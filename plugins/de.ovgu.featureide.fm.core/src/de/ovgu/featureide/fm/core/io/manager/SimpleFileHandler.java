@@ -21,10 +21,17 @@
 package de.ovgu.featureide.fm.core.io.manager;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -127,26 +134,68 @@ public class SimpleFileHandler<T> {
 		return fileHandler.getLastProblems();
 	}
 
+	/**
+	 * Reads the content of the given channel with the given format. If the format {@link IPersistentFormat#supportsStreaming() supports streaming}, the
+	 * content is never held completely in memory. The channel is not closed.
+	 */
+	public static <T> ProblemList load(ReadableByteChannel channel, T object, IPersistentFormat<T> format) {
+		final SimpleFileHandler<T> fileHandler = new SimpleFileHandler<>(null, object, format);
+		fileHandler.problemList.clear();
+		fileHandler.parse(Channels.newReader(channel, DEFAULT_CHARSET.newDecoder(), -1));
+		return fileHandler.getLastProblems();
+	}
+
 	public static <T> ProblemList load(Path path, T object, FormatManager<T> formatManager) {
 		return load(new SimpleFileHandler<>(path, object, null), formatManager);
 	}
 
 	public static <T> ProblemList load(SimpleFileHandler<T> fileHandler, FormatManager<T> formatManager) {
+		IPersistentFormat<T> knownFormat = fileHandler.getFormat();
+		if (knownFormat == null) {
+			// only reads the beginning of the file
+			knownFormat = formatManager.getFormatByContent(fileHandler.getPath());
+		}
+		if (knownFormat != null) {
+			fileHandler.setFormat(knownFormat);
+			fileHandler.read();
+			return fileHandler.getLastProblems();
+		}
+
+		// no format found, read the content to report the actual problem
 		final String content = fileHandler.getContent();
 
 		if (content != null) {
-			final String fileName = fileHandler.getPath().getFileName().toString();
-			final IPersistentFormat<T> format = formatManager.getFormatByContent(content, fileName);
-			if (format == null) {
-				fileHandler.getLastProblems().add(new Problem(new FormatManager.NoSuchExtensionException("No format found for file \"" + fileName + "\"!")));
-			} else {
-				fileHandler.setFormat(format);
-				fileHandler.parse(content);
-			}
+			parse(fileHandler, formatManager, content);
 		}
 		return fileHandler.getLastProblems();
 	}
 
+	/**
+	 * Parses the given content, which was already read from the given file. The format is chosen by the file name and the content.
+	 *
+	 * @param path The file the content was read from
+	 * @param content The content of the file
+	 * @param object The object to fill
+	 * @param formatManager The available formats
+	 * @return The problems that occurred while parsing
+	 */
+	public static <T> ProblemList loadFromString(Path path, String content, T object, FormatManager<T> formatManager) {
+		final SimpleFileHandler<T> fileHandler = new SimpleFileHandler<>(path, object, null);
+		parse(fileHandler, formatManager, content);
+		return fileHandler.getLastProblems();
+	}
+
+	private static <T> void parse(SimpleFileHandler<T> fileHandler, FormatManager<T> formatManager, String content) {
+		final String fileName = fileHandler.getPath().getFileName().toString();
+		final IPersistentFormat<T> format = formatManager.getFormatByContent(content, fileName);
+		if (format == null) {
+			fileHandler.getLastProblems().add(new Problem(new FormatManager.NoSuchExtensionException("No format found for file \"" + fileName + "\"!")));
+		} else {
+			fileHandler.setFormat(format);
+			fileHandler.parse(content);
+		}
+	}
+
 	public static <T> ProblemList save(Path path, T object, IPersistentFormat<T> format) {
 		final SimpleFileHandler<T> fileHandler = new SimpleFileHandler<>(path, object, format);
 		fileHandler.write();
@@ -165,6 +214,22 @@ public class SimpleFileHandler<T> {
 		return pl;
 	}
 
+	/**
+	 * Writes the given object to the given channel. If the format {@link IPersistentFormat#supportsStreaming() supports streaming}, the output is never held
+	 * completely in memory. The channel is not closed.
+	 */
+	public static <T> ProblemList save(WritableByteChannel channel, T object, IPersistentFormat<T> format) {
+		final SimpleFileHandler<T> fileHandler = new SimpleFileHandler<>(null, object, format);
+		try {
+			final Writer writer = Channels.newWriter(channel, DEFAULT_CHARSET.newEncoder(), -1);
+			format.getInstance().write(object, writer);
+			writer.flush();
+		} catch (final Exception e) {
+			fileHandler.problemList.add(new Problem(e));
+		}
+		return fileHandler.getLastProblems();
+	}
+
 	public static <T> String saveToString(T object, IPersistentFormat<T> format) {
 		return format.getInstance().write(object);
 	}
@@ -209,11 +274,27 @@ public class SimpleFileHandler<T> {
 
 	public boolean read() {
 		problemList.clear();
+		if (isStreaming()) {
+			try {
+				if (!Files.exists(path)) {
+					throw new FileNotFoundException(path.toString());
+				}
+				try (Reader reader = new BufferedReader(new InputStreamReader(FileSystem.getInputStream(path), DEFAULT_CHARSET))) {
+					return parse(reader);
+				}
+			} catch (final Exception e) {
+				problemList.add(new Problem(e));
+				return false;
+			}
+		}
 		return parse(getContent());
 	}
 
 	public boolean read(InputStream inputStream) {
 		problemList.clear();
+		if (isStreaming()) {
+			return parse(new BufferedReader(new InputStreamReader(inputStream, DEFAULT_CHARSET)));
+		}
 		return parse(getContent(inputStream));
 	}
 
@@ -264,8 +345,34 @@ public class SimpleFileHandler<T> {
 		return !problemList.containsError();
 	}
 
+	private boolean isStreaming() {
+		return (format != null) && format.getInstance().supportsStreaming();
+	}
+
+	boolean parse(Reader reader) {
+		try {
+			problemList.addAll(format.getInstance().read(object, reader));
+		} catch (final Exception e) {
+			problemList.add(new Problem(e));
+		}
+		return !problemList.containsError();
+	}
+
 	public boolean write() {
 		problemList.clear();
+		if (isStreaming()) {
+			// the original file is only replaced after the content was written completely
+			try {
+				FileSystem.write(path, out -> {
+					final Writer writer = new BufferedWriter(new OutputStreamWriter(out, DEFAULT_CHARSET));
+					format.getInstance().write(object, writer);
+					writer.flush();
+				});
+			} catch (final Exception e) {
+				problemList.add(new Problem(e));
+			}
+			return !problemList.containsError();
+		}
 		try {
 			final byte[] content = format.getInstance().write(object).getBytes(DEFAULT_CHARSET);
 			FileSystem.write(path, content);
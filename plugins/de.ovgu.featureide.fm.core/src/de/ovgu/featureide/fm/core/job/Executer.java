@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.fm.core.job;
 
+import de.ovgu.featureide.fm.core.job.metrics.JobMetrics;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
 /**
@@ -29,10 +30,20 @@ import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 class Executer<T> {
 
 	protected final LongRunningMethod<T> method;
+	protected final long queuedSince;
 	protected IMonitor<T> monitor;
 
 	public Executer(LongRunningMethod<T> method) {
+		this(method, -1);
+	}
+
+	/**
+	 * @param method the method to execute
+	 * @param queuedSince the value of {@link System#nanoTime()} when the method was submitted or <code>-1</code> if unknown
+	 */
+	public Executer(LongRunningMethod<T> method, long queuedSince) {
 		this.method = method;
+		this.queuedSince = queuedSince;
 	}
 
 	public void cancel() {
@@ -41,7 +52,7 @@ class Executer<T> {
 
 	public T execute(IMonitor<T> monitor) throws Exception {
 		this.monitor = monitor;
-		return method.execute(monitor);
+		return JobMetrics.execute(method, monitor, queuedSince);
 	}
 
 }
@@ -0,0 +1,166 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.job;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.ovgu.featureide.fm.core.Logger;
+
+/**
+ * Shared, bounded executor for all {@link LongRunningThread jobs} that are not run as Eclipse jobs.<br> Waiting jobs are ordered by their priority first and
+ * by their submission second. The priorities use the same values as Eclipse jobs, so interactive jobs (e.g., propagation in the configuration editor) are
+ * started before analyses, which are started before builds.<br> <br> If the system property {@value #VIRTUAL_THREADS_PROPERTY} is set to
+ * <code>true</code> and the JVM supports virtual threads, the workers are virtual threads. The number of workers can be set with the system property
+ * {@value #THREADS_PROPERTY} and defaults to the number of available processors.
+ */
+public final class JobExecutor {
+
+	public static final String THREADS_PROPERTY = "featureide.jobs.threads";
+	public static final String VIRTUAL_THREADS_PROPERTY = "featureide.jobs.virtualThreads";
+
+	/**
+	 * Priority for short jobs that block user interaction.
+	 */
+	public static final int INTERACTIVE = 10;
+	/**
+	 * Priority for short background jobs.
+	 */
+	public static final int SHORT = 20;
+	/**
+	 * Default priority for analyses.
+	 */
+	public static final int LONG = 30;
+	/**
+	 * Priority for builds.
+	 */
+	public static final int BUILD = 40;
+	/**
+	 * Priority for jobs that only decorate existing views.
+	 */
+	public static final int DECORATE = 50;
+
+	/**
+	 * A task that can be compared by priority and submission order.
+	 */
+	static final class PrioritizedTask extends FutureTask<Void> implements Comparable<PrioritizedTask> {
+
+		private final int priority;
+		private final long sequenceNumber;
+
+		private PrioritizedTask(Runnable runnable, int priority) {
+			super(runnable, null);
+			this.priority = priority;
+			sequenceNumber = sequence.getAndIncrement();
+		}
+
+		@Override
+		public int compareTo(PrioritizedTask other) {
+			final int result = Integer.compare(priority, other.priority);
+			return result != 0 ? result : Long.compare(sequenceNumber, other.sequenceNumber);
+		}
+
+	}
+
+	private static final AtomicLong sequence = new AtomicLong();
+
+	private static final ThreadLocal<Boolean> workerThread = new ThreadLocal<>();
+
+	private static ThreadPoolExecutor executor = null;
+
+	private JobExecutor() {}
+
+	private static synchronized ThreadPoolExecutor getExecutor() {
+		if (executor == null) {
+			final int threads = Math.max(1, Integer.getInteger(THREADS_PROPERTY, Runtime.getRuntime().availableProcessors()));
+			executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new PriorityBlockingQueue<Runnable>(), createThreadFactory());
+			executor.allowCoreThreadTimeOut(true);
+		}
+		return executor;
+	}
+
+	private static ThreadFactory createThreadFactory() {
+		ThreadFactory baseFactory = null;
+		if (Boolean.getBoolean(VIRTUAL_THREADS_PROPERTY)) {
+			try {
+				// Thread.ofVirtual().factory() (Java 21+)
+				final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+				final Method factoryMethod = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+				baseFactory = (ThreadFactory) factoryMethod.invoke(builder);
+			} catch (final ReflectiveOperationException e) {
+				Logger.logWarning("Virtual threads are not supported by this JVM.");
+			}
+		}
+		final ThreadFactory factory = baseFactory != null ? baseFactory : Executors.defaultThreadFactory();
+		final AtomicInteger threadNumber = new AtomicInteger();
+		return runnable -> {
+			final Thread thread = factory.newThread(() -> {
+				workerThread.set(Boolean.TRUE);
+				runnable.run();
+			});
+			thread.setName("FeatureIDE Job Worker " + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	/**
+	 * Submits the given task.
+	 *
+	 * @param runnable the task
+	 * @param priority the priority of the task (lower values are started first)
+	 * @return the submitted task, which can be used to {@link #remove(PrioritizedTask) remove} it before it is started
+	 */
+	static PrioritizedTask submit(Runnable runnable, int priority) {
+		final PrioritizedTask task = new PrioritizedTask(runnable, priority);
+		getExecutor().execute(task);
+		return task;
+	}
+
+	/**
+	 * Removes the given task from the queue if it was not started yet.
+	 *
+	 * @param task the task
+	 * @return <code>true</code> if the task was removed
+	 */
+	static boolean remove(PrioritizedTask task) {
+		final ThreadPoolExecutor executor;
+		synchronized (JobExecutor.class) {
+			executor = JobExecutor.executor;
+		}
+		return (executor != null) && executor.remove(task);
+	}
+
+	/**
+	 * @return <code>true</code> if the current thread is a worker of this executor
+	 */
+	static boolean isWorkerThread() {
+		return workerThread.get() != null;
+	}
+
+}
@@ -20,13 +20,16 @@
  */
 package de.ovgu.featureide.fm.core.job;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.WeakHashMap;
-import java.util.concurrent.ConcurrentLinkedDeque;
-import java.util.concurrent.Semaphore;
+
+import de.ovgu.featureide.fm.core.job.util.JobFinishListener;
 
 /**
- * Maps related jobs.
+ * Maps related jobs.<br> The jobs of one token are run one after another. The next job is scheduled as soon as the previous one has finished, so no thread
+ * is blocked while jobs are waiting. Jobs that are canceled before they were started are removed from the queue (i.e., superseded jobs are coalesced).
  *
  * @author Sebastian Krieter
  */
@@ -34,8 +37,10 @@ public final class JobSynchronizer {
 
 	private static class JobEntry {
 
-		private final ConcurrentLinkedDeque<IRunner<?>> jobs = new ConcurrentLinkedDeque<>();
-		private final Semaphore semaphore = new Semaphore(1);
+		/**
+		 * The waiting jobs. The first job is the currently running job.
+		 */
+		private final Deque<IRunner<?>> jobs = new ArrayDeque<>();
 
 		private final JobStartingStrategy strategy;
 
@@ -63,9 +68,7 @@ public final class JobSynchronizer {
 					return;
 				}
 			case CANCEL_WAIT:
-				for (final Iterator<IRunner<?>> iterator = jobs.descendingIterator(); iterator.hasNext();) {
-					iterator.next().cancel();
-				}
+				cancelPrevious();
 				start(job);
 				break;
 			default:
@@ -73,44 +76,57 @@ public final class JobSynchronizer {
 			}
 		}
 
+		/**
+		 * Cancels the running job and removes all waiting jobs, which are superseded by a new job.
+		 */
+		private void cancelPrevious() {
+			final IRunner<?> runningJob = jobs.poll();
+			for (final IRunner<?> waitingJob : jobs) {
+				waitingJob.cancel();
+			}
+			jobs.clear();
+			if (runningJob != null) {
+				jobs.add(runningJob);
+				runningJob.cancel();
+			}
+		}
+
 		private void start(IRunner<?> job) {
 			jobs.offer(job);
-			new Starter(this).start();
+			if (jobs.size() == 1) {
+				scheduleNext();
+			}
 		}
 
-		public synchronized void cancelAll() {
-			for (final Iterator<IRunner<?>> iterator = jobs.descendingIterator(); iterator.hasNext();) {
-				iterator.next().cancel();
-				iterator.remove();
+		private void scheduleNext() {
+			final IRunner<?> job = jobs.peek();
+			if (job != null) {
+				addFinishListener(job);
+				job.schedule();
 			}
 		}
 
-	}
-
-	private static class Starter extends Thread {
+		private <T> void addFinishListener(IRunner<T> job) {
+			job.addJobFinishedListener(new JobFinishListener<T>() {
 
-		private final JobEntry jobEntry;
+				@Override
+				public void jobFinished(IJob<T> finishedJob) {
+					finished(finishedJob);
+				}
+			});
+		}
 
-		public Starter(JobEntry jobEntry) {
-			this.jobEntry = jobEntry;
+		private synchronized void finished(IJob<?> job) {
+			if (jobs.peek() == job) {
+				jobs.poll();
+				scheduleNext();
+			}
 		}
 
-		@Override
-		public void run() {
-			try {
-				jobEntry.semaphore.acquire();
-				try {
-					final IRunner<?> job = jobEntry.jobs.peek();
-					if (job != null) {
-						job.schedule();
-						job.join();
-					}
-				} finally {
-					jobEntry.jobs.poll();
-					jobEntry.semaphore.release();
-				}
-			} catch (final InterruptedException e) {
-				return;
+		public synchronized void cancelAll() {
+			for (final Iterator<IRunner<?>> iterator = jobs.descendingIterator(); iterator.hasNext();) {
+				iterator.next().cancel();
+				iterator.remove();
 			}
 		}
 
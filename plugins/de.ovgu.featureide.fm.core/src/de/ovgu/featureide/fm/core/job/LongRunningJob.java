@@ -32,6 +32,7 @@ import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 public class LongRunningJob<T> extends AbstractJob<T> implements IRunner<T> {
 
 	private final LongRunningMethod<T> method;
+	private final long creationTime = System.nanoTime();
 
 	private Executer<T> executer;
 
@@ -44,7 +45,7 @@ public class LongRunningJob<T> extends AbstractJob<T> implements IRunner<T> {
 
 	@Override
 	protected T work(IMonitor<T> monitor) throws Exception {
-		executer = cancelingTimeout < 0 ? new Executer<>(method) : new StoppableExecuter<>(method, cancelingTimeout);
+		executer = cancelingTimeout < 0 ? new Executer<>(method, creationTime) : new StoppableExecuter<>(method, cancelingTimeout, creationTime);
 		methodResult = executer.execute(monitor);
 		return methodResult;
 	}
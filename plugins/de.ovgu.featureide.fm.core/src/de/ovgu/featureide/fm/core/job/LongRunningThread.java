@@ -20,37 +20,49 @@
  */
 package de.ovgu.featureide.fm.core.job;
 
-import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
 import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.job.JobExecutor.PrioritizedTask;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
 import de.ovgu.featureide.fm.core.job.util.JobFinishListener;
 
 /**
- * Job that wraps the functionality of a {@link LongRunningMethod}.
+ * Job that wraps the functionality of a {@link LongRunningMethod}.<br> The job is run by the shared {@link JobExecutor} instead of its own thread.
+ * Cancellation is cooperative via {@link IMonitor#checkCancel()}, unless the job is {@link #setStoppable(boolean) stoppable}. A job that is canceled before
+ * it was started is removed from the queue.
  *
  * @author Sebastian Krieter
  */
-// TODO Implement prioritization
-public class LongRunningThread<T> extends Thread implements IRunner<T> {
+public class LongRunningThread<T> implements IRunner<T> {
 
-	protected final List<JobFinishListener<T>> listenerList = new LinkedList<>();
+	protected final List<JobFinishListener<T>> listenerList = new CopyOnWriteArrayList<>();
 
+	private final String name;
 	private final LongRunningMethod<T> method;
 	private final IMonitor<T> monitor;
+	private final long creationTime = System.nanoTime();
+
+	private final AtomicBoolean started = new AtomicBoolean();
+	private final CountDownLatch finished = new CountDownLatch(1);
+	private volatile boolean canceled = false;
+	private PrioritizedTask task = null;
 	private Executer<T> executer;
 
+	private int priority = JobExecutor.LONG;
 	private int cancelingTimeout = -1;
-	private T methodResult = null;
-	private JobStatus status = JobStatus.NOT_STARTED;
+	private volatile T methodResult = null;
+	private volatile JobStatus status = JobStatus.NOT_STARTED;
 
 	private boolean stoppable;
 
 	public LongRunningThread(String name, LongRunningMethod<T> method, IMonitor<T> monitor) {
-		super(name);
+		this.name = name;
 		this.method = method;
 		this.monitor = monitor != null ? monitor : new NullMonitor<T>();
 	}
@@ -64,10 +76,29 @@ public class LongRunningThread<T> extends Thread implements IRunner<T> {
 
 	@Override
 	public boolean cancel() {
-		if (executer != null) {
-			executer.cancel();
+		canceled = true;
+		if (started.compareAndSet(false, true)) {
+			// not started yet, so it is not necessary to run it at all
+			final PrioritizedTask currentTask;
+			synchronized (this) {
+				currentTask = task;
+			}
+			if (currentTask != null) {
+				JobExecutor.remove(currentTask);
+			}
+			status = JobStatus.FAILED;
+			monitor.done();
+			finish();
+			return true;
+		}
+		final Executer<T> currentExecuter;
+		synchronized (this) {
+			currentExecuter = executer;
 		}
-		return !isAlive();
+		if (currentExecuter != null) {
+			currentExecuter.cancel();
+		}
+		return finished.getCount() == 0;
 	}
 
 	public void fireEvent() {
@@ -80,6 +111,10 @@ public class LongRunningThread<T> extends Thread implements IRunner<T> {
 		}
 	}
 
+	public String getName() {
+		return name;
+	}
+
 	@Override
 	public int getCancelingTimeout() {
 		return cancelingTimeout;
@@ -110,32 +145,64 @@ public class LongRunningThread<T> extends Thread implements IRunner<T> {
 		listenerList.remove(listener);
 	}
 
+	/**
+	 * Waits for the job to finish. If the current thread is a worker of the {@link JobExecutor} and the job was not started yet, the job is run directly by the
+	 * current thread. Thus, jobs that wait for other jobs cannot block all workers.
+	 */
 	@Override
-	public void run() {
-		// TODO check fo cancel at beginning
+	public void join() throws InterruptedException {
+		final PrioritizedTask currentTask;
+		synchronized (this) {
+			currentTask = task;
+		}
+		if (currentTask == null) { // not scheduled
+			return;
+		}
+		if (JobExecutor.isWorkerThread() && JobExecutor.remove(currentTask) && started.compareAndSet(false, true)) {
+			execute();
+		} else {
+			finished.await();
+		}
+	}
+
+	private void run() {
+		if (started.compareAndSet(false, true)) {
+			execute();
+		}
+	}
+
+	private void execute() {
 		status = JobStatus.RUNNING;
 		try {
-			executer = stoppable ? new StoppableExecuter<>(method, cancelingTimeout) : new Executer<>(method);
-			methodResult = executer.execute(monitor);
+			final Executer<T> newExecuter =
+				stoppable ? new StoppableExecuter<>(method, cancelingTimeout, creationTime) : new Executer<>(method, creationTime);
+			synchronized (this) {
+				executer = newExecuter;
+			}
+			if (canceled) {
+				monitor.cancel();
+			}
+			methodResult = newExecuter.execute(monitor);
 			status = JobStatus.OK;
 		} catch (final Exception e) {
 			Logger.logError(e);
 			status = JobStatus.FAILED;
 		} finally {
 			monitor.done();
-			for (final JobFinishListener<T> listener : listenerList) {
-				try {
-					listener.jobFinished(this);
-				} catch (final Throwable e) {
-					Logger.logError(e);
-				}
-			}
+			finish();
 		}
 	}
 
+	private void finish() {
+		fireEvent();
+		finished.countDown();
+	}
+
 	@Override
-	public void schedule() {
-		start();
+	public synchronized void schedule() {
+		if ((task == null) && !started.get()) {
+			task = JobExecutor.submit(this::run, priority);
+		}
 	}
 
 	@Override
@@ -148,9 +215,24 @@ public class LongRunningThread<T> extends Thread implements IRunner<T> {
 		monitor.setIntermediateFunction(intermediateFunction);
 	}
 
+	/**
+	 * Sets the priority of this job. Only has an effect before the job is scheduled.
+	 *
+	 * @param priority one of {@link JobExecutor#INTERACTIVE}, {@link JobExecutor#SHORT}, {@link JobExecutor#LONG}, or {@link JobExecutor#BUILD}
+	 */
+	@Override
+	public void setPriority(int priority) {
+		this.priority = priority;
+	}
+
 	@Override
 	public void setStoppable(boolean stoppable) {
 		this.stoppable = stoppable;
 	}
 
+	@Override
+	public String toString() {
+		return "LongRunningThread [" + name + "]";
+	}
+
 }
@@ -21,6 +21,7 @@
 package de.ovgu.featureide.fm.core.job;
 
 import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.job.metrics.JobMetrics;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
 import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
@@ -50,7 +51,7 @@ public final class LongRunningWrapper {
 	public static <T> T runMethod(LongRunningMethod<T> method, IMonitor<T> monitor) throws MethodCancelException {
 		monitor = monitor != null ? monitor : new NullMonitor<T>();
 		try {
-			return method.execute(monitor);
+			return JobMetrics.execute(method, monitor, -1);
 		} catch (final Exception e) {
 			Logger.logError(e);
 			return null;
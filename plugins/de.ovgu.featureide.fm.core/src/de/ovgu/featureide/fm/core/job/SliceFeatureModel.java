@@ -33,7 +33,7 @@ import de.ovgu.featureide.fm.core.analysis.cnf.IVariables;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
-import de.ovgu.featureide.fm.core.analysis.cnf.manipulator.remove.CNFSlicer;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureSlicedCNFCreator;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.SimpleSatSolver;
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IConstraint;
@@ -88,6 +88,10 @@ public class SliceFeatureModel implements LongRunningMethod<IFeatureModel> {
 
 		monitor.checkCancel();
 		final CNF slicedFeatureModelCNF = sliceFormula(monitor.subTask(80));
+		if (slicedFeatureModelCNF == null) {
+			monitor.checkCancel();
+			throw new IllegalStateException("Could not slice the feature model formula");
+		}
 		monitor.checkCancel();
 		final IFeatureModel featureTree = sliceTree(featureNames, featureModel, factory, monitor.subTask(2));
 		monitor.checkCancel();
@@ -96,107 +100,114 @@ public class SliceFeatureModel implements LongRunningMethod<IFeatureModel> {
 		return featureTree;
 	}
 
-	private CNF sliceFormula(IMonitor<?> monitor) {
+	private CNF sliceFormula(IMonitor<CNF> monitor) {
 		monitor.setTaskName("Slicing Feature Model Formula");
 		final ArrayList<String> removeFeatures = new ArrayList<>(FeatureUtils.getFeatureNames(featureModel));
 		removeFeatures.removeAll(featureNames);
-		return LongRunningWrapper.runMethod(new CNFSlicer(formula.getCNF(), removeFeatures), monitor.subTask(1));
+		// cached per formula, so repeated slices with the same features are only computed once
+		return formula.getElement(new FeatureSlicedCNFCreator(removeFeatures, monitor));
 	}
 
 	private IFeatureModel sliceTree(Collection<String> selectedFeatureNames, IFeatureModel orgFeatureModel, IFeatureModelFactory factory, IMonitor<?> monitor) {
 		monitor.setTaskName("Slicing Feature Tree");
 		monitor.setRemainingWork(2);
 		final IFeatureModel m = orgFeatureModel.clone();
-		// mark features
-		for (final IFeature feat : m.getFeatures()) {
-			if (!selectedFeatureNames.contains(feat.getName())) {
-				feat.setName(MARK1);
+		// collect the events of the following modifications into one change
+		m.beginBulkEdit();
+		try {
+			// mark features
+			for (final IFeature feat : m.getFeatures()) {
+				if (!selectedFeatureNames.contains(feat.getName())) {
+					feat.setName(MARK1);
+				}
 			}
-		}
 
-		final IFeature root = m.getStructure().getRoot().getFeature();
+			final IFeature root = m.getStructure().getRoot().getFeature();
 
-		m.getStructure().setRoot(null);
+			m.getStructure().setRoot(null);
 
-		// set new abstract root
-		// needs to be done before resetting to get a unique ID
-		final IFeature nroot = factory.createFeature(m, FeatureUtils.getFeatureName(orgFeatureModel, StringTable.DEFAULT_SLICING_ROOT_NAME));
+			// set new abstract root
+			// needs to be done before resetting to get a unique ID
+			final IFeature nroot = factory.createFeature(m, FeatureUtils.getFeatureName(orgFeatureModel, StringTable.DEFAULT_SLICING_ROOT_NAME));
 
-		final long nextElementId = m.getNextElementId();
-		m.reset();
+			final long nextElementId = m.getNextElementId();
+			m.reset();
 
-		// keep the nextElementId so newly created abstract features get a unique ID
-		if (m instanceof FeatureModel) {
-			((FeatureModel) m).setNextElementId(nextElementId);
-		}
+			// keep the nextElementId so newly created abstract features get a unique ID
+			if (m instanceof FeatureModel) {
+				((FeatureModel) m).setNextElementId(nextElementId);
+			}
 
-		nroot.getStructure().setAbstract(true);
-		nroot.getStructure().setAnd();
-		nroot.getStructure().addChild(root.getStructure());
-		root.getStructure().setParent(nroot.getStructure());
-
-		// merge tree
-		cut(nroot);
-		do {
-			changed = false;
-			merge(nroot.getStructure(), GROUP_NO);
-		} while (changed);
-		monitor.step();
+			nroot.getStructure().setAbstract(true);
+			nroot.getStructure().setAnd();
+			nroot.getStructure().addChild(root.getStructure());
+			root.getStructure().setParent(nroot.getStructure());
+
+			// merge tree
+			cut(nroot);
+			do {
+				changed = false;
+				merge(nroot.getStructure(), GROUP_NO);
+			} while (changed);
+			monitor.step();
 
-		// needed to correctly set unique names for newly created abstract features
-		int abstractCount = 0;
-		for (final IFeature f : orgFeatureModel.getFeatures()) {
-			if (f.getName().startsWith(ABSTRACT_NAME)) {
-				try {
-					final int abstractNumber = Integer.parseInt(f.getName().substring(ABSTRACT_NAME.length()));
-					if (abstractNumber >= abstractCount) {
-						abstractCount = abstractNumber + 1;
+			// needed to correctly set unique names for newly created abstract features
+			int abstractCount = 0;
+			for (final IFeature f : orgFeatureModel.getFeatures()) {
+				if (f.getName().startsWith(ABSTRACT_NAME)) {
+					try {
+						final int abstractNumber = Integer.parseInt(f.getName().substring(ABSTRACT_NAME.length()));
+						if (abstractNumber >= abstractCount) {
+							abstractCount = abstractNumber + 1;
+						}
+					} catch (final NumberFormatException e) {
+						// feature name is not "Abstract_NUMBER". Can be ignored
 					}
-				} catch (final NumberFormatException e) {
-					// feature name is not "Abstract_NUMBER". Can be ignored
 				}
 			}
-		}
 
-		final Hashtable<String, IFeature> featureTable = new Hashtable<>();
-		final LinkedList<IFeature> featureStack = new LinkedList<>();
-		featureStack.push(nroot);
-		while (!featureStack.isEmpty()) {
-			final IFeature curFeature = featureStack.pop();
-			for (final IFeature feature : FeatureUtils.convertToFeatureList(curFeature.getStructure().getChildren())) {
-				featureStack.push(feature);
-			}
-			if (curFeature.getName().startsWith(MARK1)) {
-				curFeature.setName(ABSTRACT_NAME + abstractCount++);
-				curFeature.getStructure().setAbstract(true);
+			final Hashtable<String, IFeature> featureTable = new Hashtable<>();
+			final LinkedList<IFeature> featureStack = new LinkedList<>();
+			featureStack.push(nroot);
+			while (!featureStack.isEmpty()) {
+				final IFeature curFeature = featureStack.pop();
+				for (final IFeature feature : FeatureUtils.convertToFeatureList(curFeature.getStructure().getChildren())) {
+					featureStack.push(feature);
+				}
+				if (curFeature.getName().startsWith(MARK1)) {
+					curFeature.setName(ABSTRACT_NAME + abstractCount++);
+					curFeature.getStructure().setAbstract(true);
+				}
+				featureTable.put(curFeature.getName(), curFeature);
 			}
-			featureTable.put(curFeature.getName(), curFeature);
-		}
-		m.setFeatureTable(featureTable);
-		m.getStructure().setRoot(nroot.getStructure());
+			m.setFeatureTable(featureTable);
+			m.getStructure().setRoot(nroot.getStructure());
 
-		if (m instanceof FeatureModel) {
-			((FeatureModel) m).updateNextElementId();
-		}
+			if (m instanceof FeatureModel) {
+				((FeatureModel) m).updateNextElementId();
+			}
 
-		if (considerConstraints) {
-			final ArrayList<IConstraint> innerConstraintList = new ArrayList<>();
-			for (final IConstraint constaint : orgFeatureModel.getConstraints()) {
-				final Collection<IFeature> containedFeatures = constaint.getContainedFeatures();
-				boolean containsAllfeatures = !containedFeatures.isEmpty();
-				for (final IFeature feature : containedFeatures) {
-					if (!selectedFeatureNames.contains(feature.getName())) {
-						containsAllfeatures = false;
-						break;
+			if (considerConstraints) {
+				final ArrayList<IConstraint> innerConstraintList = new ArrayList<>();
+				for (final IConstraint constaint : orgFeatureModel.getConstraints()) {
+					final Collection<IFeature> containedFeatures = constaint.getContainedFeatures();
+					boolean containsAllfeatures = !containedFeatures.isEmpty();
+					for (final IFeature feature : containedFeatures) {
+						if (!selectedFeatureNames.contains(feature.getName())) {
+							containsAllfeatures = false;
+							break;
+						}
+					}
+					if (containsAllfeatures) {
+						innerConstraintList.add(constaint);
 					}
 				}
-				if (containsAllfeatures) {
-					innerConstraintList.add(constaint);
+				for (final IConstraint constraint : innerConstraintList) {
+					m.addConstraint(constraint.clone(m));
 				}
 			}
-			for (final IConstraint constraint : innerConstraintList) {
-				m.addConstraint(constraint.clone(m));
-			}
+		} finally {
+			m.endBulkEdit();
 		}
 		monitor.step();
 
@@ -316,18 +327,23 @@ public class SliceFeatureModel implements LongRunningMethod<IFeatureModel> {
 		final SimpleSatSolver s = new SimpleSatSolver(featureTreeCNF);
 		monitor.step();
 
-		for (final LiteralSet clause : children) {
-			switch (s.hasSolution(clause.negate())) {
-			case FALSE:
-				break;
-			case TIMEOUT:
-			case TRUE:
-				featureTree.addConstraint(factory.createConstraint(featureTree, Nodes.convert(variables, clause)));
-				break;
-			default:
-				assert false;
+		featureTree.beginBulkEdit();
+		try {
+			for (final LiteralSet clause : children) {
+				switch (s.hasSolution(clause.negate())) {
+				case FALSE:
+					break;
+				case TIMEOUT:
+				case TRUE:
+					featureTree.addConstraint(factory.createConstraint(featureTree, Nodes.convert(variables, clause)));
+					break;
+				default:
+					assert false;
+				}
+				monitor.step();
 			}
-			monitor.step();
+		} finally {
+			featureTree.endBulkEdit();
 		}
 	}
 
@@ -21,6 +21,7 @@
 package de.ovgu.featureide.fm.core.job;
 
 import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.job.metrics.JobMetrics;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
 
@@ -41,7 +42,7 @@ class StoppableExecuter<T> extends Executer<T> {
 		@Override
 		public void run() {
 			try {
-				result = method.execute(monitor);
+				result = JobMetrics.execute(method, monitor, queuedSince);
 			} catch (final MethodCancelException e) {
 				exception = e;
 			} catch (final Exception e) {
@@ -57,7 +58,11 @@ class StoppableExecuter<T> extends Executer<T> {
 	private InnerThread innerThread = null;
 
 	public StoppableExecuter(LongRunningMethod<T> method, int cancelingTimeout) {
-		super(method);
+		this(method, cancelingTimeout, -1);
+	}
+
+	public StoppableExecuter(LongRunningMethod<T> method, int cancelingTimeout, long queuedSince) {
+		super(method, queuedSince);
 		this.cancelingTimeout = (cancelingTimeout < 0) ? DEFAULT_TIMEOUT : cancelingTimeout;
 	}
 
@@ -0,0 +1,111 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.job.metrics;
+
+import java.util.Arrays;
+
+/**
+ * The measurements of a single execution of a {@link de.ovgu.featureide.fm.core.job.LongRunningMethod LongRunningMethod}.
+ */
+public class ExecutionRecord {
+
+	/**
+	 * Counters that can be incremented while a method is executed.
+	 */
+	public static enum Counter {
+		SOLVER_CALLS, SOLVER_CONFLICTS, SOLVER_TIMEOUTS
+	}
+
+	private final String name;
+	private final long queueTime;
+	private final long[] counters = new long[Counter.values().length];
+
+	private long wallTime;
+	private long cpuTime = -1;
+	private boolean canceled;
+	private boolean failed;
+
+	public ExecutionRecord(String name, long queueTime) {
+		this.name = name;
+		this.queueTime = queueTime;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the time in nanoseconds between the creation of the job and the start of the method
+	 */
+	public long getQueueTime() {
+		return queueTime;
+	}
+
+	/**
+	 * @return the elapsed time in nanoseconds
+	 */
+	public long getWallTime() {
+		return wallTime;
+	}
+
+	/**
+	 * @return the CPU time of the executing thread in nanoseconds or <code>-1</code> if not supported by the JVM
+	 */
+	public long getCpuTime() {
+		return cpuTime;
+	}
+
+	public boolean isCanceled() {
+		return canceled;
+	}
+
+	public boolean isFailed() {
+		return failed;
+	}
+
+	public long getCounter(Counter counter) {
+		return counters[counter.ordinal()];
+	}
+
+	void increment(Counter counter, long value) {
+		counters[counter.ordinal()] += value;
+	}
+
+	void setTimes(long wallTime, long cpuTime) {
+		this.wallTime = wallTime;
+		this.cpuTime = cpuTime;
+	}
+
+	void setCanceled() {
+		canceled = true;
+	}
+
+	void setFailed() {
+		failed = true;
+	}
+
+	@Override
+	public String toString() {
+		return "ExecutionRecord [name=" + name + ", queueTime=" + queueTime + ", wallTime=" + wallTime + ", cpuTime=" + cpuTime + ", canceled=" + canceled
+			+ ", failed=" + failed + ", counters=" + Arrays.toString(counters) + "]";
+	}
+
+}
@@ -0,0 +1,124 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.job.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import de.ovgu.featureide.fm.core.job.LongRunningMethod;
+import de.ovgu.featureide.fm.core.job.metrics.ExecutionRecord.Counter;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
+
+/**
+ * Records the execution of {@link LongRunningMethod long running methods} and passes the measurements to the current {@link IMetricsRegistry}.<br> By
+ * default, no registry is set and nothing is measured.<br> <br> Counters are attributed to the innermost method that is executed by the current thread.
+ * Work that a method hands over to other threads (e.g., parallel streams) is only included in its wall time.
+ */
+public final class JobMetrics {
+
+	private static final ThreadLocal<ExecutionRecord> currentRecord = new ThreadLocal<>();
+
+	private static volatile IMetricsRegistry registry = null;
+
+	private JobMetrics() {}
+
+	/**
+	 * Sets the registry that receives all further measurements.
+	 *
+	 * @param registry the registry or <code>null</code> to disable the measurement
+	 */
+	public static void setRegistry(IMetricsRegistry registry) {
+		JobMetrics.registry = registry;
+	}
+
+	public static IMetricsRegistry getRegistry() {
+		return registry;
+	}
+
+	public static boolean isEnabled() {
+		return registry != null;
+	}
+
+	/**
+	 * Executes the given method and records its wall and CPU time, queue time, and whether it was canceled or failed.
+	 *
+	 * @param method the method to execute
+	 * @param monitor the monitor passed to the method
+	 * @param queuedSince the value of {@link System#nanoTime()} when the method was submitted or <code>-1</code> if unknown
+	 * @return the result of the method
+	 * @throws Exception any exception thrown by the method
+	 */
+	public static <T> T execute(LongRunningMethod<T> method, IMonitor<T> monitor, long queuedSince) throws Exception {
+		final IMetricsRegistry registry = JobMetrics.registry;
+		if (registry == null) {
+			return method.execute(monitor);
+		}
+		final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+		final boolean measureCpu = threadBean.isCurrentThreadCpuTimeSupported();
+		final long startTime = System.nanoTime();
+		final long startCpuTime = measureCpu ? threadBean.getCurrentThreadCpuTime() : -1;
+
+		final ExecutionRecord record = new ExecutionRecord(getName(method), queuedSince < 0 ? 0 : startTime - queuedSince);
+		final ExecutionRecord parentRecord = currentRecord.get();
+		currentRecord.set(record);
+		try {
+			return method.execute(monitor);
+		} catch (final MethodCancelException e) {
+			record.setCanceled();
+			throw e;
+		} catch (final Exception e) {
+			record.setFailed();
+			throw e;
+		} finally {
+			record.setTimes(System.nanoTime() - startTime, measureCpu ? threadBean.getCurrentThreadCpuTime() - startCpuTime : -1);
+			if (parentRecord != null) {
+				currentRecord.set(parentRecord);
+			} else {
+				currentRecord.remove();
+			}
+			registry.record(record);
+		}
+	}
+
+	/**
+	 * Increments a counter of the method that is currently executed by this thread. Does nothing if no method is measured.
+	 *
+	 * @param counter the counter
+	 * @param value the value to add
+	 */
+	public static void increment(Counter counter, long value) {
+		if (registry == null) {
+			return;
+		}
+		final ExecutionRecord record = currentRecord.get();
+		if (record != null) {
+			record.increment(counter, value);
+		}
+	}
+
+	private static String getName(LongRunningMethod<?> method) {
+		final String name = method.getClass().getName();
+		final int lambdaIndex = name.indexOf("$$Lambda");
+		return lambdaIndex < 0 ? name : name.substring(0, lambdaIndex);
+	}
+
+}
@@ -0,0 +1,151 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.job.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import de.ovgu.featureide.fm.core.job.metrics.ExecutionRecord.Counter;
+import de.ovgu.featureide.fm.core.job.metrics.MetricsRegistry.MethodStatistics;
+
+/**
+ * Writes the statistics of a {@link MetricsRegistry} as CSV or JSON. All times are given in nanoseconds.
+ */
+public final class MetricsExporter {
+
+	private static final String[] COLUMNS = { "method", "executions", "canceled", "failed", "queueTimeNs", "wallTimeNs", "maxWallTimeNs", "cpuTimeNs" };
+
+	private MetricsExporter() {}
+
+	/**
+	 * Writes the statistics to the given file. Uses CSV if the file name ends with <code>.csv</code> and JSON otherwise.
+	 *
+	 * @param registry the registry
+	 * @param path the output file
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void export(MetricsRegistry registry, Path path) throws IOException {
+		try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+			final Path fileName = path.getFileName();
+			if ((fileName != null) && fileName.toString().toLowerCase().endsWith(".csv")) {
+				writeCSV(registry.getStatistics(), writer);
+			} else {
+				writeJSON(registry.getStatistics(), writer);
+			}
+		}
+	}
+
+	public static void writeCSV(List<MethodStatistics> statistics, Writer writer) throws IOException {
+		for (final String column : COLUMNS) {
+			writer.write(column);
+			writer.write(';');
+		}
+		final Counter[] counters = Counter.values();
+		for (int i = 0; i < counters.length; i++) {
+			writer.write(getCounterName(counters[i]));
+			writer.write(i < (counters.length - 1) ? ";" : "\n");
+		}
+		for (final MethodStatistics method : statistics) {
+			writer.write(method.getName());
+			writer.write(';');
+			final long[] values = getValues(method);
+			for (int i = 0; i < values.length; i++) {
+				writer.write(Long.toString(values[i]));
+				writer.write(i < (values.length - 1) ? ";" : "\n");
+			}
+		}
+	}
+
+	public static void writeJSON(List<MethodStatistics> statistics, Writer writer) throws IOException {
+		final Counter[] counters = Counter.values();
+		writer.write("[");
+		for (int m = 0; m < statistics.size(); m++) {
+			final MethodStatistics method = statistics.get(m);
+			writer.write(m == 0 ? "\n" : ",\n");
+			writer.write("\t{\"" + COLUMNS[0] + "\": \"");
+			writer.write(escapeJSON(method.getName()));
+			writer.write('"');
+			final long[] values = getValues(method);
+			for (int i = 0; i < values.length; i++) {
+				final String name = (i < (COLUMNS.length - 1)) ? COLUMNS[i + 1] : getCounterName(counters[i - (COLUMNS.length - 1)]);
+				writer.write(", \"" + name + "\": " + values[i]);
+			}
+			writer.write('}');
+		}
+		writer.write("\n]\n");
+	}
+
+	private static long[] getValues(MethodStatistics method) {
+		final Counter[] counters = Counter.values();
+		final long[] values = new long[(COLUMNS.length - 1) + counters.length];
+		values[0] = method.getExecutions();
+		values[1] = method.getCanceled();
+		values[2] = method.getFailed();
+		values[3] = method.getQueueTime();
+		values[4] = method.getWallTime();
+		values[5] = method.getMaxWallTime();
+		values[6] = method.getCpuTime();
+		for (int i = 0; i < counters.length; i++) {
+			values[(COLUMNS.length - 1) + i] = method.getCounter(counters[i]);
+		}
+		return values;
+	}
+
+	private static String getCounterName(Counter counter) {
+		final StringBuilder sb = new StringBuilder();
+		boolean upperCase = false;
+		for (final char c : counter.name().toLowerCase().toCharArray()) {
+			if (c == '_') {
+				upperCase = true;
+			} else {
+				sb.append(upperCase ? Character.toUpperCase(c) : c);
+				upperCase = false;
+			}
+		}
+		return sb.toString();
+	}
+
+	private static String escapeJSON(String text) {
+		final StringBuilder sb = new StringBuilder(text.length());
+		for (final char c : text.toCharArray()) {
+			switch (c) {
+			case '"':
+				sb.append("\\\"");
+				break;
+			case '\\':
+				sb.append("\\\\");
+				break;
+			default:
+				if (c < 0x20) {
+					sb.append(String.format("\\u%04x", (int) c));
+				} else {
+					sb.append(c);
+				}
+			}
+		}
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,134 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.job.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import de.ovgu.featureide.fm.core.job.metrics.ExecutionRecord.Counter;
+
+/**
+ * Aggregates the measurements of all executions per method.
+ */
+public class MetricsRegistry implements IMetricsRegistry {
+
+	/**
+	 * The aggregated measurements of all executions of one method.
+	 */
+	public static class MethodStatistics {
+
+		private final String name;
+		private final long[] counters = new long[Counter.values().length];
+
+		private int executions;
+		private int canceled;
+		private int failed;
+		private long queueTime;
+		private long wallTime;
+		private long maxWallTime;
+		private long cpuTime;
+
+		private MethodStatistics(String name) {
+			this.name = name;
+		}
+
+		private synchronized void add(ExecutionRecord record) {
+			executions++;
+			if (record.isCanceled()) {
+				canceled++;
+			}
+			if (record.isFailed()) {
+				failed++;
+			}
+			queueTime += record.getQueueTime();
+			wallTime += record.getWallTime();
+			maxWallTime = Math.max(maxWallTime, record.getWallTime());
+			if (record.getCpuTime() > 0) {
+				cpuTime += record.getCpuTime();
+			}
+			for (final Counter counter : Counter.values()) {
+				counters[counter.ordinal()] += record.getCounter(counter);
+			}
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public synchronized int getExecutions() {
+			return executions;
+		}
+
+		public synchronized int getCanceled() {
+			return canceled;
+		}
+
+		public synchronized int getFailed() {
+			return failed;
+		}
+
+		public synchronized long getQueueTime() {
+			return queueTime;
+		}
+
+		public synchronized long getWallTime() {
+			return wallTime;
+		}
+
+		public synchronized long getMaxWallTime() {
+			return maxWallTime;
+		}
+
+		public synchronized long getCpuTime() {
+			return cpuTime;
+		}
+
+		public synchronized long getCounter(Counter counter) {
+			return counters[counter.ordinal()];
+		}
+
+	}
+
+	private final Map<String, MethodStatistics> statistics = new ConcurrentHashMap<>();
+
+	@Override
+	public void record(ExecutionRecord record) {
+		statistics.computeIfAbsent(record.getName(), MethodStatistics::new).add(record);
+	}
+
+	/**
+	 * @return the statistics of all methods, sorted by descending wall time
+	 */
+	public List<MethodStatistics> getStatistics() {
+		final List<MethodStatistics> list = new ArrayList<>(statistics.values());
+		Collections.sort(list, Comparator.comparingLong(MethodStatistics::getWallTime).reversed());
+		return list;
+	}
+
+	public void clear() {
+		statistics.clear();
+	}
+
+}
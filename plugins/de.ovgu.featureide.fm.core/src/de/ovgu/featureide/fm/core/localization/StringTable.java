@@ -455,6 +455,7 @@ public class StringTable {
 	public static final String CALCULATE_CONSTRAINT_ERRORS = "Calculate Constraint Errors";
 	public static final String CALCULATE_DEAD_FO_CONSTRAINTS = "Calculate Constraint That Lead to Dead or False-Optional Features";
 	public static final String CALCULATE_FEATURES = "Calculate Features";
+	public static final String CALCULATE_ON_DEMAND = "Calculate Anomalies of Shown Elements Only";
 	public static final String CALCULATE_REDUNDANT_CONSTRAINTS = "Calculate Redundant Constraints";
 	public static final String RUN_MANUAL_CALCULATIONS = "Run Manual Calculations";
 	public static final String CALCULATE_TAUTOLOGY_CONSTRAINTS = "Calculate Tautology Constraints";
@@ -1150,4 +1151,6 @@ public class StringTable {
 	public static final String LEVELS = "Levels";
 	public static final String SHOW = "Show";
 	public static final String SHOW_ALL_LEVELS = "Show All Levels";
+	public static final String NO_VALID_CONFIGURATION = "no valid configuration";
+	public static final String COMPUTING_SUMS_OF_ATTRIBUTE_VALUES = "Computing Sums of Attribute Values";
 }
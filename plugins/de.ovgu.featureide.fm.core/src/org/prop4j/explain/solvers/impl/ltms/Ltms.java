@@ -20,17 +20,17 @@
  */
 package org.prop4j.explain.solvers.impl.ltms;
 
-import java.util.AbstractList;
-import java.util.Collection;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Deque;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.TreeSet;
@@ -40,12 +40,17 @@ import org.prop4j.Node;
 import org.prop4j.explain.solvers.MusExtractor;
 import org.prop4j.explain.solvers.impl.AbstractSatProblem;
 
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+
 /**
  * <p> The class LTMS (logic truth maintenance system) records proofs for implications and constructs explanations. Uses BCP (boolean constraint propagation)
  * for managing logical implications. BCP expects two parameters: initial truth values (premises) and a propositional formula in CNF (conjunctive normal form).
  * </p>
  *
- * <p> Clauses are referenced by their index in the CNF. </p>
+ * <p> Clauses are referenced by their index in the CNF. Internally, each variable is mapped to a positive integer once when a clause containing it is added.
+ * The clauses are stored as {@link LiteralSet literal sets} over these integers and propagated using two watched literals per clause. Truth values, reasons,
+ * and the trail of assigned variables are kept in arrays indexed by variable. </p>
  *
  * <p> Note that this class does not fulfill the entire contract of each of its interfaces. This is because BCP is inherently incomplete, meaning it does not
  * always find a result. </p>
@@ -55,51 +60,85 @@ import org.prop4j.explain.solvers.impl.AbstractSatProblem;
  */
 public class Ltms extends AbstractSatProblem implements MusExtractor {
 
+	private static final int NONE = -1;
+
+	/**
+	 * The variables mapped to their integer representation. Integers start at 1.
+	 */
+	private final Map<Object, Integer> variableIndexes = new HashMap<>();
 	/**
-	 * Variables mapped to the clauses they are contained in. Redundant map for the sake of performance.
+	 * The variables by their integer representation. The first entry is unused.
 	 */
-	private final Map<Object, Set<Integer>> variableClauses = new HashMap<>();
+	private final List<Object> variables = new ArrayList<>();
+	/**
+	 * The clauses in integer representation. Same order as the clauses of this problem. Contains no duplicate literals.
+	 */
+	private final List<LiteralSet> literalClauses = new ArrayList<>();
+
 	/**
-	 * The truth value assignments of the variables. If the truth value is true, all positive literals containing the variable evaluate to true and negated ones
-	 * to false. If the truth value is false, all positive literals containing the variable evaluate to false and negated ones to true. If the variable is not
-	 * contained in this map, its truth value is considered unknown.
+	 * The truth value assignments of the variables. A value of 1 means true, -1 means false, and 0 means unknown. If the truth value is true, all positive
+	 * literals containing the variable evaluate to true and negated ones to false.
 	 */
-	private final Map<Object, Boolean> variableValues = new HashMap<>();
+	private byte[] variableValues = new byte[0];
 	/**
-	 * The reason for a derived truth value, represented by a clause. The literals of this clause are the antecedents of the variable. The antecedents are the
-	 * literals whose values were referenced when deriving a new truth value.
+	 * The reason for a derived truth value, represented by a clause index. The literals of this clause are the antecedents of the variable. The antecedents
+	 * are the literals whose values were referenced when deriving a new truth value. Premises and unknown variables have no reason.
 	 */
-	private final Map<Object, Integer> reasons = new HashMap<>();
+	private int[] reasons = new int[0];
+	/**
+	 * The assigned variables in the order of their assignment. The premises come first.
+	 */
+	private int[] trail = new int[0];
+	private int trailSize;
+	/**
+	 * The amount of premises at the start of the trail. These are kept when resetting.
+	 */
+	private int premiseCount;
 	/**
 	 * The stack to collect unit-open clauses.
 	 */
-	private final Deque<Integer> unitOpenClauses = new LinkedList<>();
+	private int[] unitOpenClauses = new int[0];
+	private int unitOpenClauseCount;
 	/**
-	 * The clause that was violated during the most recent contradiction check.
+	 * The clauses watching a literal, indexed by {@link #watchIndex(int)}. A clause is visited whenever one of its watched literals becomes false.
+	 */
+	private int[][] watchers = new int[0][];
+	private int[] watcherCounts = new int[0];
+	/**
+	 * The positions of the two watched literals of each clause. Both are the same for clauses with only one literal.
+	 */
+	private int[] watches = new int[0];
+	/**
+	 * Marks the variables that were already explained during the most recent explanation.
 	 */
-	private Integer violatedClause;
+	private boolean[] explained = new boolean[0];
 	/**
-	 * The clause containing the derived literal.
+	 * The clause that was violated during the most recent contradiction check.
 	 */
-	private Integer derivedClause;
+	private int violatedClause = NONE;
 	/**
 	 * The literal whose truth value was derived during the most recent propagation.
 	 */
-	private Literal derivedLiteral;
+	private int derivedLiteral;
 
 	/**
 	 * The variables that were assumed in each scope except the current one.
 	 */
-	private final Deque<Map<Object, Boolean>> previousScopeAssumptions = new LinkedList<>();
+	private final Deque<Map<Object, Boolean>> previousScopeAssumptions = new ArrayDeque<>();
 	/**
 	 * The amount of clauses that were added in each scope except the current one.
 	 */
-	private final Deque<Integer> previousScopeClauseCounts = new LinkedList<>();
+	private int[] previousScopeClauseCounts = new int[4];
+	private int scopeDepth = 0;
 	/**
 	 * The amount of clauses in the current scope.
 	 */
 	private int scopeClauseCount = 0;
 
+	public Ltms() {
+		variables.add(null);
+	}
+
 	@Override
 	public Object getOracle() {
 		return this; // direct implementation
@@ -108,15 +147,26 @@ public class Ltms extends AbstractSatProblem implements MusExtractor {
 	@Override
 	public int addClause(Node clause) {
 		final int index = super.addClause(clause);
-		for (final Node child : clause.getChildren()) {
+		final Node[] children = clause.getChildren();
+		final int[] literals = new int[children.length];
+		int size = 0;
+		childLoop: for (final Node child : children) {
 			final Literal literal = (Literal) child;
-			Set<Integer> clauseSet = variableClauses.get(literal.var);
-			if (clauseSet == null) {
-				clauseSet = new HashSet<>();
-				variableClauses.put(literal.var, clauseSet);
+			Integer variable = variableIndexes.get(literal.var);
+			if (variable == null) {
+				variable = variables.size();
+				variableIndexes.put(literal.var, variable);
+				variables.add(literal.var);
 			}
-			clauseSet.add(index);
+			final int l = literal.positive ? variable : -variable;
+			for (int i = 0; i < size; i++) {
+				if (literals[i] == l) {
+					continue childLoop;
+				}
+			}
+			literals[size++] = l;
 		}
+		literalClauses.add(new LiteralSet(Arrays.copyOf(literals, size), Order.UNORDERED, false));
 		scopeClauseCount++;
 		return index;
 	}
@@ -124,13 +174,7 @@ public class Ltms extends AbstractSatProblem implements MusExtractor {
 	@Override
 	public Node removeClause(int index) {
 		final Node clause = super.removeClause(index);
-		for (final Node child : clause.getChildren()) {
-			final Literal literal = (Literal) child;
-			final Set<Integer> clauses = variableClauses.get(literal.var);
-			if (clauses.remove(index) && clauses.isEmpty()) {
-				variableClauses.remove(literal.var);
-			}
-		}
+		literalClauses.remove(index);
 		return clause;
 	}
 
@@ -172,13 +216,21 @@ public class Ltms extends AbstractSatProblem implements MusExtractor {
 
 	@Override
 	public Map<Object, Boolean> getModel() throws IllegalStateException {
-		return variableValues;
+		final Map<Object, Boolean> model = getAssumptions();
+		for (int i = premiseCount; i < trailSize; i++) {
+			final int variable = trail[i];
+			model.put(variables.get(variable), variableValues[variable] > 0);
+		}
+		return model;
 	}
 
 	@Override
 	public void push() {
 		// Push the clauses.
-		previousScopeClauseCounts.push(scopeClauseCount);
+		if (scopeDepth == previousScopeClauseCounts.length) {
+			previousScopeClauseCounts = Arrays.copyOf(previousScopeClauseCounts, scopeDepth << 1);
+		}
+		previousScopeClauseCounts[scopeDepth++] = scopeClauseCount;
 		scopeClauseCount = 0;
 
 		// Push the assumptions.
@@ -188,9 +240,13 @@ public class Ltms extends AbstractSatProblem implements MusExtractor {
 
 	@Override
 	public List<Node> pop() throws NoSuchElementException {
+		if (scopeDepth == 0) {
+			throw new NoSuchElementException();
+		}
+
 		// Pop the clauses.
 		final List<Node> removedClauses = removeClauses(scopeClauseCount);
-		scopeClauseCount = previousScopeClauseCounts.pop();
+		scopeClauseCount = previousScopeClauseCounts[--scopeDepth];
 
 		// Pop the assumptions.
 		clearAssumptions();
@@ -229,23 +285,19 @@ public class Ltms extends AbstractSatProblem implements MusExtractor {
 	 */
 	@Override
 	public List<Set<Integer>> getAllMinimalUnsatisfiableSubsetIndexes() throws IllegalStateException {
-		reset();
 		final List<Set<Integer>> explanations = new LinkedList<>();
-		if (isContradicted()) { // If the initial truth values already lead to a contradiction...
+		if (!initialize()) { // If the initial truth values already lead to a contradiction...
 			explanations.add(getContradictionExplanation()); // ... explain immediately.
 			return explanations;
 		}
-		unitOpenClauses.clear();
-		pushUnitOpenClauses(); // Start iterating over the first unit-open clauses using the initial truth value assumptions.
-		while (!unitOpenClauses.isEmpty()) {
-			derivedClause = unitOpenClauses.removeLast();
+		while (unitOpenClauseCount > 0) {
+			final int derivedClause = unitOpenClauses[--unitOpenClauseCount];
 			derivedLiteral = getUnboundLiteral(derivedClause);
-			if (derivedLiteral == null) { // not actually unit-open
+			if (derivedLiteral == 0) { // not actually unit-open
 				continue;
 			}
-			propagate(); // Propagate the truth values by deriving a new truth value.
-			pushUnitOpenClauses();
-			if (isContradicted()) { // If the propagation lead to a contradiction...
+			assign(derivedLiteral, derivedClause); // Propagate the truth values by deriving a new truth value.
+			if (!propagate(-derivedLiteral)) { // If the propagation lead to a contradiction...
 				explanations.add(getContradictionExplanation()); // ... explain the reason for the contradiction.
 				/*
 				 * At this point, the found explanation could already be returned. Instead, keep generating new explanations as there might be a shorter one
@@ -258,159 +310,219 @@ public class Ltms extends AbstractSatProblem implements MusExtractor {
 	}
 
 	/**
-	 * Clears the internal state for a new explanation. Adds the premises to the variable values.
+	 * Prepares the internal state for a new run. Assigns the premises, chooses the watched literals, and pushes the initial unit-open clauses to the stack.
+	 *
+	 * @return false iff the premises already violate a clause
 	 */
-	private void reset() {
-		violatedClause = null;
-		derivedClause = null;
-		derivedLiteral = null;
-		reasons.clear();
-		variableValues.clear();
-		variableValues.putAll(getAssumptions());
-	}
+	private boolean initialize() {
+		final int variableCount = variables.size();
+		final int clauseCount = literalClauses.size();
+		if (variableValues.length < variableCount) {
+			variableValues = new byte[variableCount];
+			reasons = new int[variableCount];
+			trail = new int[variableCount];
+			explained = new boolean[variableCount];
+			watchers = Arrays.copyOf(watchers, variableCount << 1);
+			watcherCounts = new int[variableCount << 1];
+		} else {
+			Arrays.fill(variableValues, (byte) 0);
+			Arrays.fill(watcherCounts, 0);
+		}
+		Arrays.fill(reasons, NONE);
+		if (watches.length < (clauseCount << 1)) {
+			watches = new int[clauseCount << 1];
+		}
+		if (unitOpenClauses.length < clauseCount) {
+			unitOpenClauses = new int[clauseCount];
+		}
+		trailSize = 0;
+		unitOpenClauseCount = 0;
+		violatedClause = NONE;
+		derivedLiteral = 0;
+
+		for (final Entry<Object, Boolean> assumption : getAssumptions().entrySet()) {
+			final Integer variable = variableIndexes.get(assumption.getKey());
+			if (variable != null) { // Variables not contained in any clause cannot take part in a contradiction.
+				assign(assumption.getValue() ? variable : -variable, NONE);
+			}
+		}
+		premiseCount = trailSize;
 
-	/**
-	 * Pushes the unit-open clauses to stack.
-	 */
-	private void pushUnitOpenClauses() {
-		unitOpenClauses.addAll(getUnitOpenClauses());
-	}
+		for (int clause = 0; clause < clauseCount; clause++) {
+			final int[] literals = literalClauses.get(clause).getLiterals();
+			if (literals.length == 0) { // The empty clause cannot be satisfied and has nothing to watch.
+				violatedClause = clause;
+				return false;
+			}
+			/*
+			 * Prefer literals that are not false. A false literal is only watched if there are not enough other literals. Such a clause is already unit-open
+			 * or violated by the premises.
+			 */
+			int first = NONE;
+			int second = NONE;
+			for (int i = 0; (i < literals.length) && (second == NONE); i++) {
+				if (getValue(literals[i]) >= 0) {
+					if (first == NONE) {
+						first = i;
+					} else {
+						second = i;
+					}
+				}
+			}
+			final boolean violated = first == NONE;
+			final boolean unitOpen = !violated && (second == NONE) && (getValue(literals[first]) == 0);
+			for (int i = 0; (i < literals.length) && ((first == NONE) || (second == NONE)); i++) {
+				if ((i != first) && (getValue(literals[i]) < 0)) {
+					if (first == NONE) {
+						first = i;
+					} else {
+						second = i;
+					}
+				}
+			}
+			if (second == NONE) {
+				second = first;
+			}
+			watches[clause << 1] = first;
+			watches[(clause << 1) + 1] = second;
+			watch(literals[first], clause);
+			if (second != first) {
+				watch(literals[second], clause);
+			}
 
-	/**
-	 * Returns the unit-open clauses.
-	 *
-	 * @return the unit-open clauses
-	 */
-	private Set<Integer> getUnitOpenClauses() {
-		final Set<Integer> unitOpenClauses = new LinkedHashSet<>(); // linked to maintain order and determinism during iteration later
-		for (final int clause : getDirtyClauses()) {
-			if (isUnitOpenClause(clause)) {
-				unitOpenClauses.add(clause);
+			if (violated) {
+				violatedClause = clause;
+				return false;
+			} else if (unitOpen) {
+				pushUnitOpenClause(clause);
 			}
 		}
-		return unitOpenClauses;
+		return true;
 	}
 
 	/**
-	 * Returns true iff the given clause is unit-open. A CNF clause is unit-open iff one of the contained literals evaluates to unknown and all others to false.
-	 *
-	 * @param clause clause in conjunctive normal form
-	 * @return true iff the given clause is unit-open
+	 * Clears the derived truth values for a new explanation. Keeps the premises and the watched literals.
 	 */
-	private boolean isUnitOpenClause(int clause) {
-		return getUnboundLiteral(clause) != null;
+	private void reset() {
+		for (int i = premiseCount; i < trailSize; i++) {
+			final int variable = trail[i];
+			variableValues[variable] = 0;
+			reasons[variable] = NONE;
+		}
+		trailSize = premiseCount;
+		violatedClause = NONE;
+		derivedLiteral = 0;
 	}
 
 	/**
-	 * Returns the unbound literal in the given clause or null if no such literal exists. A literal is unbound iff it evaluates to unknown while all other
-	 * literals in the same CNF clause evaluate to false. Such a literal is critical for the satisfiability of the clause and as such the entire CNF.
+	 * Makes the given literal true and sets its reason.
 	 *
-	 * @param clause clause in conjunctive normal form
-	 * @return the unbound literal in the given clause or null if no such literal exists
+	 * @param literal literal to satisfy
+	 * @param reason clause containing the literal or {@value #NONE} for a premise
 	 */
-	private Literal getUnboundLiteral(int clause) {
-		Literal unboundLiteral = null;
-		for (final Node child : getClause(clause).getChildren()) {
-			final Literal literal = (Literal) child;
-			if (!variableValues.containsKey(literal.var)) { // unknown value
-				if (unboundLiteral == null) {
-					unboundLiteral = literal;
-				} else { // more than one unknown literal found, thus actually a non-unit-open clause
-					return null;
-				}
-			} else if (literal.getValue(variableValues)) { // true value
-				return null;
-			} else { // false value
-				// irrelevant
-			}
-		}
-		return unboundLiteral;
+	private void assign(int literal, int reason) {
+		final int variable = Math.abs(literal);
+		variableValues[variable] = (byte) (literal > 0 ? 1 : -1);
+		reasons[variable] = reason;
+		trail[trailSize++] = variable;
 	}
 
 	/**
-	 * Returns true iff the conjunctive normal form evaluates to false. A CNF evaluates to false iff any of its clauses evaluates to false.
+	 * Visits all clauses watching the given literal, which has just become false. Moves their watch to another literal that is not false if possible.
+	 * Otherwise, the clause is either satisfied by its other watched literal, unit-open, or violated. Unit-open clauses are pushed to the stack.
 	 *
-	 * @return true iff the conjunctive normal form evaluates to false
+	 * @param falseLiteral literal that has become false
+	 * @return false iff a clause was violated
 	 */
-	private boolean isContradicted() {
-		for (final int clause : getDirtyClauses()) {
-			if (isViolatedClause(clause)) {
+	private boolean propagate(int falseLiteral) {
+		final int watchIndex = watchIndex(falseLiteral);
+		final int[] clauses = watchers[watchIndex];
+		final int count = watcherCounts[watchIndex];
+		int kept = 0;
+		clauseLoop: for (int i = 0; i < count; i++) {
+			final int clause = clauses[i];
+			final int[] literals = literalClauses.get(clause).getLiterals();
+			final int slot = literals[watches[clause << 1]] == falseLiteral ? clause << 1 : (clause << 1) + 1;
+			final int otherSlot = slot ^ 1;
+			final int otherLiteral = literals[watches[otherSlot]];
+			if ((otherLiteral != falseLiteral) && (getValue(otherLiteral) > 0)) { // satisfied
+				clauses[kept++] = clause;
+				continue;
+			}
+			for (int j = 0; j < literals.length; j++) {
+				if ((j != watches[slot]) && (j != watches[otherSlot]) && (getValue(literals[j]) >= 0)) {
+					watches[slot] = j;
+					watch(literals[j], clause);
+					continue clauseLoop;
+				}
+			}
+			clauses[kept++] = clause;
+			if ((otherLiteral != falseLiteral) && (getValue(otherLiteral) == 0)) {
+				pushUnitOpenClause(clause);
+			} else if (violatedClause == NONE) {
 				violatedClause = clause;
-				return true;
 			}
 		}
-		return false;
+		watcherCounts[watchIndex] = kept;
+		return violatedClause == NONE;
 	}
 
 	/**
-	 * Returns the dirty clauses. A clause is dirty if it needs to be checked for a possible change in its truth value. At the beginning of the algorithm, all
-	 * clauses are dirty. After propagating, only the clauses containing the variable of the derived literal are dirty.
+	 * Pushes the given clause to the stack of unit-open clauses. The same clause may be pushed again after a reset.
 	 *
-	 * @return the dirty clauses
+	 * @param clause unit-open clause
 	 */
-	private Collection<Integer> getDirtyClauses() {
-		if (derivedLiteral == null) {
-			final int size = getClauseCount();
-			return new AbstractList<Integer>() {
-
-				@Override
-				public Integer get(int index) {
-					return index;
-				}
-
-				@Override
-				public int size() {
-					return size;
-				}
-			};
+	private void pushUnitOpenClause(int clause) {
+		if (unitOpenClauseCount == unitOpenClauses.length) {
+			unitOpenClauses = Arrays.copyOf(unitOpenClauses, Math.max(4, unitOpenClauses.length << 1));
 		}
-		return variableClauses.get(derivedLiteral.var);
+		unitOpenClauses[unitOpenClauseCount++] = clause;
 	}
 
 	/**
-	 * Returns true iff the given CNF clause evaluates to false. A CNF clause evaluates to false iff all of its literals evaluate to false.
+	 * Returns the unbound literal in the given clause or 0 if no such literal exists. A literal is unbound iff it evaluates to unknown while all other
+	 * literals in the same CNF clause evaluate to false. Such a literal is critical for the satisfiability of the clause and as such the entire CNF.
 	 *
 	 * @param clause clause in conjunctive normal form
-	 * @return true iff the given CNF clause evaluates to false
+	 * @return the unbound literal in the given clause or 0 if no such literal exists
 	 */
-	private boolean isViolatedClause(int clause) {
-		for (final Node child : getClause(clause).getChildren()) {
-			final Literal literal = (Literal) child;
-			if (!variableValues.containsKey(literal.var)) { // unknown value
-				return false;
-			} else if (literal.getValue(variableValues)) { // true value
-				return false;
-			} else { // false value
-				// irrelevant
+	private int getUnboundLiteral(int clause) {
+		int unboundLiteral = 0;
+		for (final int literal : literalClauses.get(clause).getLiterals()) {
+			final int value = getValue(literal);
+			if (value == 0) { // unknown value
+				if (unboundLiteral == 0) {
+					unboundLiteral = literal;
+				} else { // more than one unknown literal found, thus actually a non-unit-open clause
+					return 0;
+				}
+			} else if (value > 0) { // true value
+				return 0;
 			}
 		}
-		return true;
+		return unboundLiteral;
 	}
 
-	/**
-	 * Does one iteration of BCP. Changes the assignment of a literal's variable from unknown to whatever makes it evaluate to true in the current clause. Also
-	 * sets its reason and antecedents.
-	 */
-	private void propagate() {
-		deriveValue();
-		justify(derivedLiteral.var, derivedClause);
+	private int getValue(int literal) {
+		final int value = variableValues[Math.abs(literal)];
+		return literal > 0 ? value : -value;
 	}
 
-	/**
-	 * Satisfies the current unit-open clause by making its unbound literal true or negated false.
-	 */
-	private void deriveValue() {
-		variableValues.put(derivedLiteral.var, derivedLiteral.positive);
+	private void watch(int literal, int clause) {
+		final int watchIndex = watchIndex(literal);
+		int[] clauses = watchers[watchIndex];
+		if (clauses == null) {
+			clauses = new int[4];
+			watchers[watchIndex] = clauses;
+		} else if (watcherCounts[watchIndex] == clauses.length) {
+			clauses = Arrays.copyOf(clauses, clauses.length << 1);
+			watchers[watchIndex] = clauses;
+		}
+		clauses[watcherCounts[watchIndex]++] = clause;
 	}
 
-	/**
-	 * Sets a variable's reason and antecedents.
-	 *
-	 * @param variable variable to set
-	 * @param cnfClause clause containing the literal
-	 */
-	private void justify(Object variable, int cnfClause) {
-		reasons.put(variable, cnfClause);
+	private static int watchIndex(int literal) {
+		return literal > 0 ? literal << 1 : (-literal << 1) + 1;
 	}
 
 	/**
@@ -421,38 +533,36 @@ public class Ltms extends AbstractSatProblem implements MusExtractor {
 	private Set<Integer> getContradictionExplanation() {
 		final Set<Integer> explanation = new TreeSet<>();
 		explanation.add(violatedClause);
-		final Map<Object, Integer> antecedents = new LinkedHashMap<>();
-		if (derivedLiteral != null) {
-			getAntecedents(derivedLiteral.var, antecedents);
+		Arrays.fill(explained, false);
+		/*
+		 * Collect all antecedents recursively. The antecedents explain why the variable was assigned a certain truth value. Only derived variables are pushed,
+		 * each at most once, so the stack never exceeds the trail.
+		 */
+		final int[] stack = new int[trailSize];
+		int stackSize = 0;
+		if (derivedLiteral != 0) {
+			stackSize = pushAntecedent(derivedLiteral, stack, stackSize);
 		}
-		for (final Node child : getClause(violatedClause).getChildren()) {
-			final Literal literal = (Literal) child;
-			getAntecedents(literal.var, antecedents);
+		for (final int literal : literalClauses.get(violatedClause).getLiterals()) {
+			stackSize = pushAntecedent(literal, stack, stackSize);
+		}
+		while (stackSize > 0) {
+			final int reason = reasons[stack[--stackSize]];
+			explanation.add(reason);
+			for (final int antecedent : literalClauses.get(reason).getLiterals()) {
+				stackSize = pushAntecedent(antecedent, stack, stackSize);
+			}
 		}
-		explanation.addAll(antecedents.values());
 		return explanation;
 	}
 
-	/**
-	 * Returns all antecedents of the given variable recursively. The antecedents explain why the variable was assigned a certain truth value.
-	 *
-	 * @param variable variable with possible antecedents
-	 * @param antecedents out variable; not null
-	 * @return all antecedents of the given variable recursively; not null
-	 */
-	private Map<Object, Integer> getAntecedents(Object variable, Map<Object, Integer> antecedents) {
-		if (antecedents.containsKey(variable)) { // already explained
-			return antecedents;
-		}
-		final Integer reason = reasons.get(variable);
-		if (reason == null) { // premise
-			return antecedents;
-		}
-		antecedents.put(variable, reason);
-		for (final Node child : getClause(reason).getChildren()) {
-			final Literal antecedent = (Literal) child;
-			getAntecedents(antecedent.var, antecedents);
+	private int pushAntecedent(int literal, int[] stack, int stackSize) {
+		final int variable = Math.abs(literal);
+		if (explained[variable] || (reasons[variable] == NONE)) { // already explained or premise
+			return stackSize;
 		}
-		return antecedents;
+		explained[variable] = true;
+		stack[stackSize] = variable;
+		return stackSize + 1;
 	}
 }
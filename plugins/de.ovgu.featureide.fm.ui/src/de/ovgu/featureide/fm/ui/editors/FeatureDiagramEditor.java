@@ -82,6 +82,7 @@ import org.eclipse.ui.progress.UIJob;
 import de.ovgu.featureide.fm.core.AnalysesCollection;
 import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
 import de.ovgu.featureide.fm.core.Features;
+import de.ovgu.featureide.fm.core.LazyAnomalyAnalyzer;
 import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
@@ -154,6 +155,7 @@ import de.ovgu.featureide.fm.ui.editors.featuremodel.actions.ShowCollapsedConstr
 import de.ovgu.featureide.fm.ui.editors.featuremodel.actions.calculations.AutomatedCalculationsAction;
 import de.ovgu.featureide.fm.ui.editors.featuremodel.actions.calculations.ConstrainsCalculationsAction;
 import de.ovgu.featureide.fm.ui.editors.featuremodel.actions.calculations.FeaturesOnlyCalculationAction;
+import de.ovgu.featureide.fm.ui.editors.featuremodel.actions.calculations.OnDemandCalculationsAction;
 import de.ovgu.featureide.fm.ui.editors.featuremodel.actions.calculations.RunManualCalculationsAction;
 import de.ovgu.featureide.fm.ui.editors.featuremodel.actions.colors.SetFeatureColorAction;
 import de.ovgu.featureide.fm.ui.editors.featuremodel.commands.renaming.FeatureCellEditorLocator;
@@ -240,6 +242,16 @@ public class FeatureDiagramEditor extends FeatureModelEditorPage implements GUID
 
 	private final JobToken analysisToken = LongRunningWrapper.createToken(JobStartingStrategy.CANCEL_WAIT);
 
+	/**
+	 * Computes the anomalies of the shown features and constraints, if calculations on demand are enabled. Keeps its results for all versions of the
+	 * feature model.
+	 */
+	private final LazyAnomalyAnalyzer lazyAnalyzer = new LazyAnomalyAnalyzer();
+	/**
+	 * Elements whose anomalies were computed by {@link #lazyAnalyzer}, but are not refreshed yet.
+	 */
+	private final Set<IFeatureModelElement> lazilyAnalyzedElements = new HashSet<>();
+
 	FeatureDiagramEditorKeyHandler editorKeyHandler;
 
 	/** The currently active explanation. */
@@ -262,6 +274,7 @@ public class FeatureDiagramEditor extends FeatureModelEditorPage implements GUID
 		createActions();
 
 		FeatureColorManager.addListener(this);
+		lazyAnalyzer.setListener(this::refreshLazilyAnalyzedElement);
 	}
 
 	private void createActions() {
@@ -314,11 +327,12 @@ public class FeatureDiagramEditor extends FeatureModelEditorPage implements GUID
 
 		// Calculation actions
 		calculateDependencyAction = addAction(new CalculateDependencyAction(viewer, featureModelManager));
-		calculationActions = new ArrayList<>(4);
+		calculationActions = new ArrayList<>(5);
 		calculationActions.add(addAction(new AutomatedCalculationsAction(graphicalFeatureModel.getFeatureModelManager())));
 		calculationActions.add(addAction(new RunManualCalculationsAction(graphicalFeatureModel.getFeatureModelManager())));
 		calculationActions.add(addAction(new FeaturesOnlyCalculationAction(graphicalFeatureModel.getFeatureModelManager())));
 		calculationActions.add(addAction(new ConstrainsCalculationsAction(graphicalFeatureModel.getFeatureModelManager())));
+		calculationActions.add(addAction(new OnDemandCalculationsAction(graphicalFeatureModel.getFeatureModelManager())));
 
 		// Zoom actions
 		zoomIn = addAction(new ZoomInAction(viewer.getZoomManager()));
@@ -535,6 +549,7 @@ public class FeatureDiagramEditor extends FeatureModelEditorPage implements GUID
 			@Override
 			public Boolean execute(IMonitor<Boolean> monitor) throws Exception {
 				final FeatureModelAnalyzer localAnalyzer = variableFormula.getAnalyzer();
+				localAnalyzer.setLazyAnalyzer(FeatureModelProperty.isCalculateOnDemand(featureModel) ? lazyAnalyzer : null);
 				localAnalyzer.reset();
 				refreshGraphics(null);
 
@@ -546,6 +561,7 @@ public class FeatureDiagramEditor extends FeatureModelEditorPage implements GUID
 				}
 
 				final AnalysesCollection analysisResults = localAnalyzer.analyzeFeatureModel(monitor);
+				requestShownElements();
 				refreshGraphics(analysisResults);
 				return true;
 			}
@@ -554,6 +570,80 @@ public class FeatureDiagramEditor extends FeatureModelEditorPage implements GUID
 		LongRunningWrapper.startJob(analysisToken, analyzeJob);
 	}
 
+	/**
+	 * Requests the computation of the anomalies of all shown features and constraints, if calculations on demand are enabled.
+	 */
+	private void requestShownElements() {
+		if (fmManager.getVariableFormula().getAnalyzer().getLazyAnalyzer() == lazyAnalyzer) {
+			final List<IFeatureModelElement> shownElements = new ArrayList<>();
+			for (final IGraphicalFeature feature : graphicalFeatureModel.getVisibleFeatures()) {
+				shownElements.add(feature.getObject());
+			}
+			for (final IGraphicalConstraint constraint : graphicalFeatureModel.getVisibleConstraints()) {
+				shownElements.add(constraint.getObject());
+			}
+			lazyAnalyzer.setVisibleElements(shownElements);
+		}
+	}
+
+	/**
+	 * Refreshes an element whose anomalies were computed on demand. Collects all elements that are computed until the refresh is run.
+	 *
+	 * @param element the feature or constraint
+	 */
+	private void refreshLazilyAnalyzedElement(IFeatureModelElement element) {
+		synchronized (lazilyAnalyzedElements) {
+			lazilyAnalyzedElements.add(element);
+			if (lazilyAnalyzedElements.size() > 1) {
+				// refresh is already scheduled
+				return;
+			}
+		}
+		final UIJob refreshGraphics = new UIJob(UPDATING_FEATURE_MODEL_ATTRIBUTES) {
+
+			@Override
+			public IStatus runInUIThread(IProgressMonitor monitor) {
+				final List<IFeatureModelElement> elements;
+				synchronized (lazilyAnalyzedElements) {
+					elements = new ArrayList<>(lazilyAnalyzedElements);
+					lazilyAnalyzedElements.clear();
+				}
+				if (viewer.getContents() != null) {
+					refreshElements(elements);
+					viewer.getContents().refresh();
+					viewer.internRefresh(true);
+				}
+				return Status.OK_STATUS;
+			}
+
+		};
+		refreshGraphics.setPriority(Job.SHORT);
+		refreshGraphics.schedule();
+	}
+
+	/**
+	 * Refreshes the figures of the given elements. Must be called in the UI thread.
+	 *
+	 * @param elements the features and constraints
+	 */
+	private void refreshElements(Iterable<? extends IFeatureModelElement> elements) {
+		for (final IFeatureModelElement element : elements) {
+			if (element instanceof IFeature) {
+				final IGraphicalFeature graphicalFeature = graphicalFeatureModel.getGraphicalFeature((IFeature) element);
+				if (graphicalFeature != null) {
+					((IFeature) element).fireEvent(new FeatureIDEEvent(this, EventType.ATTRIBUTE_CHANGED, false, true));
+					graphicalFeature.update(FeatureIDEEvent.getDefault(EventType.ATTRIBUTE_CHANGED));
+				}
+			} else if (element instanceof IConstraint) {
+				final IGraphicalConstraint graphicalConstraint = graphicalFeatureModel.getGraphicalConstraint((IConstraint) element);
+				if (graphicalConstraint != null) {
+					((IConstraint) element).fireEvent(new FeatureIDEEvent(this, EventType.ATTRIBUTE_CHANGED, false, true));
+					graphicalConstraint.update(FeatureIDEEvent.getDefault(EventType.ATTRIBUTE_CHANGED));
+				}
+			}
+		}
+	}
+
 	/**
 	 * Refreshes the colors of the feature model.
 	 *
@@ -574,15 +664,7 @@ public class FeatureDiagramEditor extends FeatureModelEditorPage implements GUID
 						c.update(FeatureIDEEvent.getDefault(EventType.ATTRIBUTE_CHANGED));
 					}
 				} else {
-					for (final IFeatureModelElement element : changedAttributes.getFeatureModelElementsProperties().keySet()) {
-						if (element instanceof IFeature) {
-							((IFeature) element).fireEvent(new FeatureIDEEvent(this, EventType.ATTRIBUTE_CHANGED, false, true));
-							graphicalFeatureModel.getGraphicalFeature((IFeature) element).update(FeatureIDEEvent.getDefault(EventType.ATTRIBUTE_CHANGED));
-						} else if (element instanceof IConstraint) {
-							((IConstraint) element).fireEvent(new FeatureIDEEvent(this, EventType.ATTRIBUTE_CHANGED, false, true));
-							graphicalFeatureModel.getGraphicalConstraint((IConstraint) element).update(FeatureIDEEvent.getDefault(EventType.ATTRIBUTE_CHANGED));
-						}
-					}
+					refreshElements(changedAttributes.getFeatureModelElementsProperties().keySet());
 				}
 				setActiveExplanation();
 				viewer.getContents().refresh();
@@ -886,6 +968,7 @@ public class FeatureDiagramEditor extends FeatureModelEditorPage implements GUID
 
 			// redraw the explanation after collapse
 			setActiveExplanation(activeExplanation);
+			requestShownElements();
 			break;
 		case FEATURE_COLLAPSED_ALL_CHANGED:
 			viewer.reload();
@@ -899,6 +982,7 @@ public class FeatureDiagramEditor extends FeatureModelEditorPage implements GUID
 
 			// redraw the explanation after collapse
 			setActiveExplanation(activeExplanation);
+			requestShownElements();
 			break;
 		case FEATURE_COLOR_CHANGED:
 			if (source instanceof List) {
@@ -1364,6 +1448,8 @@ public class FeatureDiagramEditor extends FeatureModelEditorPage implements GUID
 	public void dispose() {
 		LongRunningWrapper.cancelAllJobs(analysisToken);
 		LongRunningWrapper.removeToken(analysisToken);
+		lazyAnalyzer.setListener(null);
+		lazyAnalyzer.cancel();
 		FeatureColorManager.removeListener(this);
 		fmManager.removeListener(this);
 		graphicalFeatureModel.getFeatureModelManager().removeListener(editorKeyHandler);
@@ -122,6 +122,7 @@ import de.ovgu.featureide.fm.core.io.manager.ConfigurationManager;
 import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
 import de.ovgu.featureide.fm.core.io.manager.IFeatureModelManager;
 import de.ovgu.featureide.fm.core.job.IRunner;
+import de.ovgu.featureide.fm.core.job.JobExecutor;
 import de.ovgu.featureide.fm.core.job.JobStartingStrategy;
 import de.ovgu.featureide.fm.core.job.JobToken;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
@@ -1166,6 +1167,7 @@ public abstract class ConfigurationTreeEditorPage extends EditorPart implements
 		}
 		if (updateJob != null) {
 			updateJob.setIntermediateFunction(t -> updateFeatures(currentDisplay, t));
+			updateJob.setPriority(JobExecutor.INTERACTIVE);
 			sequence.addJob(updateJob);
 			sequence.addJob(LongRunningWrapper.getRunner(this::resetUpdateFeatures));
 		}
@@ -0,0 +1,68 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.ui.editors.featuremodel.actions.calculations;
+
+import static de.ovgu.featureide.fm.core.localization.StringTable.CALCULATE_ON_DEMAND;
+
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.FeatureModelProperty;
+import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
+import de.ovgu.featureide.fm.core.io.manager.IFeatureModelManager;
+import de.ovgu.featureide.fm.ui.editors.featuremodel.actions.AFeatureModelAction;
+
+/**
+ * Action to specify feature model analysis.<br> The anomalies of features and constraints are only calculated when they are shown in the editor.
+ */
+public class OnDemandCalculationsAction extends AFeatureModelAction {
+
+	public static final String ID = "de.ovgu.featureide.ondemandcalculations";
+
+	public OnDemandCalculationsAction(IFeatureModelManager featureModelManager) {
+		super(CALCULATE_ON_DEMAND, ID, featureModelManager);
+	}
+
+	@Override
+	public void run() {
+		final boolean isCalculatingOnDemand = FeatureModelProperty.isCalculateOnDemand(featureModelManager.getSnapshot());
+
+		// Change model property
+		featureModelManager.editObject(model -> setProperty(model, !isCalculatingOnDemand), FeatureModelManager.CHANGE_MODEL_PROPERTY);
+		// Model data changed => reanalyze the model in the editor if needed
+		featureModelManager.getVarObject().handleModelDataChanged();
+	}
+
+	/***
+	 * Consumer function used to edit the current models property for calculations on demand.
+	 *
+	 * @param model Model that should be changed.
+	 * @param onDemand The new value of the property.
+	 */
+	private void setProperty(IFeatureModel model, boolean onDemand) {
+		model.getProperty().set(FeatureModelProperty.PROPERTY_CALCULATIONS_ON_DEMAND, FeatureModelProperty.TYPE_CALCULATIONS,
+				onDemand ? FeatureModelProperty.VALUE_BOOLEAN_TRUE : FeatureModelProperty.VALUE_BOOLEAN_FALSE);
+	}
+
+	@Override
+	public void update() {
+		setChecked(FeatureModelProperty.isCalculateOnDemand(featureModelManager.getSnapshot()));
+	}
+
+}
@@ -21,6 +21,7 @@
 package de.ovgu.featureide.fm.ui.views.outline;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.eclipse.swt.graphics.Image;
 
@@ -80,4 +81,12 @@ public interface IOutlineEntry {
 	 */
 	public void handleDoubleClick();
 
+	/**
+	 * Sets a listener that is notified whenever the label of the entry changes (e.g., because a computation in the background finished). The listener
+	 * may be called by any thread.
+	 *
+	 * @param listener the listener
+	 */
+	public default void setLabelChangeListener(Consumer<IOutlineEntry> listener) {}
+
 }
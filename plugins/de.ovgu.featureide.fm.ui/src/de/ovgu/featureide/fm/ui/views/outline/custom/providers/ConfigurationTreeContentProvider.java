@@ -28,6 +28,7 @@ import org.eclipse.core.resources.IFile;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.Platform;
+import org.eclipse.jface.viewers.StructuredViewer;
 import org.eclipse.jface.viewers.Viewer;
 
 import de.ovgu.featureide.fm.core.Logger;
@@ -48,9 +49,11 @@ public class ConfigurationTreeContentProvider extends OutlineTreeContentProvider
 	private static final String ENTRY_EXTENSION_ID = "de.ovgu.featureide.fm.ui.ConfigurationOutlineEntry";
 
 	private Configuration config;
+	private Viewer viewer;
 
 	@Override
 	public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
+		this.viewer = viewer;
 		if (newInput != null) {
 			if (newInput instanceof Configuration) {
 				config = ((Configuration) newInput);
@@ -76,7 +79,7 @@ public class ConfigurationTreeContentProvider extends OutlineTreeContentProvider
 			final List<IOutlineEntry> topLevelEntries = new ArrayList<>();
 			topLevelEntries.add(new ConfigurationOutlineStandardBundle(config));
 			topLevelEntries.addAll(getExtensionEntries());
-			return topLevelEntries.toArray();
+			return listen(topLevelEntries);
 		}
 		return new String[] { "Config not initialized yet" };
 	}
@@ -90,7 +93,7 @@ public class ConfigurationTreeContentProvider extends OutlineTreeContentProvider
 		if (parentElement instanceof IOutlineEntry) {
 			final IOutlineEntry entry = (IOutlineEntry) parentElement;
 			if (entry.hasChildren()) {
-				return entry.getChildren().toArray();
+				return listen(entry.getChildren());
 			}
 		}
 		return null;
@@ -118,6 +121,27 @@ public class ConfigurationTreeContentProvider extends OutlineTreeContentProvider
 		return false;
 	}
 
+	/**
+	 * Updates the labels of the given entries in the viewer whenever they change.
+	 */
+	private Object[] listen(List<IOutlineEntry> entries) {
+		for (final IOutlineEntry entry : entries) {
+			entry.setLabelChangeListener(this::update);
+		}
+		return entries.toArray();
+	}
+
+	private void update(IOutlineEntry entry) {
+		final Viewer currentViewer = viewer;
+		if ((currentViewer instanceof StructuredViewer) && !currentViewer.getControl().isDisposed()) {
+			currentViewer.getControl().getDisplay().asyncExec(() -> {
+				if (!currentViewer.getControl().isDisposed()) {
+					((StructuredViewer) currentViewer).update(entry, null);
+				}
+			});
+		}
+	}
+
 	private List<IOutlineEntry> getExtensionEntries() {
 		final List<IOutlineEntry> extensionEntries = new ArrayList<>();
 		for (final IConfigurationElement extension : Platform.getExtensionRegistry().getConfigurationElementsFor(ENTRY_EXTENSION_ID)) {
@@ -0,0 +1,258 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import static de.ovgu.featureide.fm.core.localization.StringTable.ERROR_IN_CONFIGURATION;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.annotation.CheckForNull;
+
+import org.eclipse.core.runtime.CoreException;
+
+import de.ovgu.featureide.ui.UIPlugin;
+import de.ovgu.featureide.ui.actions.generator.BuildStage.FailureHandler;
+import de.ovgu.featureide.ui.actions.generator.BuildStage.StageTask;
+
+/**
+ * Builds configurations in three stages: compose, compile and test.<br> Every stage has its own bounded worker pool. A full stage blocks the previous one,
+ * so the amount of configurations that are kept in memory is bounded.
+ */
+public class BuildPipeline implements IConfigurationBuilderBasics {
+
+	/**
+	 * The number of elements that can wait in front of a stage, per worker thread.
+	 */
+	private static final int QUEUE_CAPACITY_PER_THREAD = 2;
+
+	/**
+	 * A compiled configuration together with the compiler holding its binary files.
+	 */
+	private static class CompiledConfiguration {
+
+		private final BuilderConfiguration configuration;
+		private final JavaCompiler compiler;
+
+		private CompiledConfiguration(BuilderConfiguration configuration, JavaCompiler compiler) {
+			this.configuration = configuration;
+			this.compiler = compiler;
+		}
+	}
+
+	private final ConfigurationBuilder builder;
+	private final Generator generator;
+
+	private final BuildStage<BuilderConfiguration> composeStage;
+	@CheckForNull
+	private final BuildStage<BuilderConfiguration> compileStage;
+	@CheckForNull
+	private final BuildStage<CompiledConfiguration> testStage;
+
+	/**
+	 * Compilers that are currently not used. A compiler is taken by the compile stage and returned after its binary files were tested.
+	 */
+	private final BlockingQueue<JavaCompiler> compilers;
+
+	/**
+	 * @param builder The {@link ConfigurationBuilder} that provides the configurations
+	 * @param threads The number of worker threads per stage
+	 */
+	public BuildPipeline(ConfigurationBuilder builder, int threads) {
+		this.builder = builder;
+		generator = new Generator(builder);
+
+		final FailureHandler<BuilderConfiguration> failureHandler = new FailureHandler<BuilderConfiguration>() {
+
+			@Override
+			public void failed(BuilderConfiguration configuration, Exception exception) {
+				// an interrupted worker was stopped by cancel(), which is not an error of the configuration
+				if (!(exception instanceof InterruptedException) && !Thread.currentThread().isInterrupted()) {
+					UIPlugin.getDefault().logError(ERROR_IN_CONFIGURATION + configuration, exception);
+				}
+				builder.builtConfiguration();
+			}
+		};
+		final int capacity = threads * QUEUE_CAPACITY_PER_THREAD;
+
+		composeStage = new BuildStage<>("Compose", threads, capacity, new StageTask<BuilderConfiguration>() {
+
+			@Override
+			public void process(BuilderConfiguration configuration) throws Exception {
+				compose(configuration);
+			}
+		}, failureHandler);
+
+		if (!builder.createNewProjects && hasJavaNature()) {
+			final boolean runTests = builder.runTests && Generator.JUNIT_INSTALLED;
+			// compilers can be used by the compile stage, wait in front of the test stage, or be used by the test stage
+			final int compilerCount = runTests ? (2 * threads) + capacity : threads;
+			compilers = new ArrayBlockingQueue<>(compilerCount);
+			for (int i = 0; i < compilerCount; i++) {
+				compilers.add(new JavaCompiler(i, builder));
+			}
+			compileStage = new BuildStage<>("Compile", threads, capacity, new StageTask<BuilderConfiguration>() {
+
+				@Override
+				public void process(BuilderConfiguration configuration) throws Exception {
+					compile(configuration);
+				}
+			}, failureHandler);
+			if (runTests) {
+				testStage = new BuildStage<>("Test", threads, capacity, new StageTask<CompiledConfiguration>() {
+
+					@Override
+					public void process(CompiledConfiguration compiled) throws Exception {
+						test(compiled);
+					}
+				}, new FailureHandler<CompiledConfiguration>() {
+
+					@Override
+					public void failed(CompiledConfiguration compiled, Exception exception) {
+						compilers.add(compiled.compiler);
+						failureHandler.failed(compiled.configuration, exception);
+					}
+				});
+			} else {
+				testStage = null;
+			}
+		} else {
+			compilers = null;
+			compileStage = null;
+			testStage = null;
+		}
+	}
+
+	private boolean hasJavaNature() {
+		try {
+			return builder.featureProject.getProject().hasNature(Generator.JAVA_NATURE);
+		} catch (final CoreException e) {
+			UIPlugin.getDefault().logError(e);
+			return false;
+		}
+	}
+
+	/**
+	 * Hands the given configuration to the first stage. Waits at most the given time if the pipeline is full.
+	 *
+	 * @param configuration The configuration to build
+	 * @param timeout The maximal time to wait in milliseconds
+	 * @return <code>true</code> if the configuration was accepted
+	 * @throws InterruptedException if the calling thread was interrupted while waiting
+	 */
+	public boolean submit(BuilderConfiguration configuration, long timeout) throws InterruptedException {
+		return composeStage.offer(configuration, timeout);
+	}
+
+	private void compose(BuilderConfiguration configuration) throws Exception {
+		generator.generate(configuration);
+		if (compileStage != null) {
+			compileStage.submit(configuration);
+		} else {
+			builder.builtConfiguration();
+		}
+	}
+
+	private void compile(BuilderConfiguration configuration) throws Exception {
+		final JavaCompiler compiler = compilers.take();
+		try {
+			compiler.compile(configuration);
+		} catch (final Exception e) {
+			compilers.add(compiler);
+			throw e;
+		}
+		if (testStage != null) {
+			testStage.submit(new CompiledConfiguration(configuration, compiler));
+		} else {
+			compilers.add(compiler);
+			builder.builtConfiguration();
+		}
+	}
+
+	private void test(CompiledConfiguration compiled) {
+		compiled.compiler.testRunner.runTests(compiled.configuration);
+		compilers.add(compiled.compiler);
+		builder.builtConfiguration();
+	}
+
+	/**
+	 * Waits until all submitted configurations passed all stages. The stages are finished in order, so that a stage only stops after its predecessor can no
+	 * longer hand over configurations.
+	 *
+	 * @param timeout The maximal time in milliseconds to wait for the current stage
+	 * @return <code>true</code> if all stages are finished
+	 * @throws InterruptedException if the calling thread was interrupted while waiting
+	 */
+	public boolean finish(long timeout) throws InterruptedException {
+		for (final BuildStage<?> stage : getStages()) {
+			if (!stage.finish(timeout)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Stops all stages and discards the remaining configurations.
+	 */
+	public void cancel() {
+		for (final BuildStage<?> stage : getStages()) {
+			stage.cancel();
+		}
+	}
+
+	/**
+	 * @return The number of configurations that are currently processed or waiting in the pipeline.
+	 */
+	public long getPending() {
+		long pending = 0;
+		for (final BuildStage<?> stage : getStages()) {
+			pending += stage.getPending();
+		}
+		return pending;
+	}
+
+	public List<BuildStage<?>> getStages() {
+		final List<BuildStage<?>> stages = new ArrayList<>(3);
+		stages.add(composeStage);
+		if (compileStage != null) {
+			stages.add(compileStage);
+		}
+		if (testStage != null) {
+			stages.add(testStage);
+		}
+		return stages;
+	}
+
+	/**
+	 * @return Throughput and latency of all stages.
+	 */
+	public String getStatistics() {
+		final StringBuilder sb = new StringBuilder();
+		for (final BuildStage<?> stage : getStages()) {
+			sb.append(stage).append('\n');
+		}
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,255 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One stage of the {@link BuildPipeline}.<br> Each stage owns a fixed number of worker threads and a bounded queue. {@link #submit(Object)} blocks while
+ * the queue is full, which propagates back-pressure to the previous stage.
+ *
+ * @param <T> the type of the processed elements
+ */
+public class BuildStage<T> {
+
+	/**
+	 * The work that is done by a stage for a single element.
+	 */
+	public interface StageTask<T> {
+
+		void process(T element) throws Exception;
+	}
+
+	/**
+	 * Handles elements whose processing failed.
+	 */
+	public interface FailureHandler<T> {
+
+		void failed(T element, Exception exception);
+	}
+
+	private final String name;
+	private final StageTask<T> task;
+	private final FailureHandler<T> failureHandler;
+	private final ThreadPoolExecutor executor;
+
+	/**
+	 * Permits for running and queued elements. Acquired on submission and released after processing.<br> The queue of the executor is not bounded itself,
+	 * because a permit is released before the worker thread is ready for the next element.
+	 */
+	private final Semaphore slots;
+
+	private final AtomicLong submitted = new AtomicLong();
+	private final AtomicLong completed = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong processingTime = new AtomicLong();
+	private final AtomicLong waitingTime = new AtomicLong();
+	private final AtomicLong blockedTime = new AtomicLong();
+
+	private volatile long firstStart = -1;
+	private volatile long lastEnd = -1;
+
+	/**
+	 * @param name The name of the stage, used for the worker threads and the statistics
+	 * @param threads The number of worker threads
+	 * @param capacity The number of elements that can wait in addition to the running ones
+	 * @param task The work to do for every element
+	 * @param failureHandler Is called if the task throws an exception
+	 */
+	public BuildStage(final String name, int threads, int capacity, StageTask<T> task, FailureHandler<T> failureHandler) {
+		this.name = name;
+		this.task = task;
+		this.failureHandler = failureHandler;
+		threads = Math.max(1, threads);
+		capacity = Math.max(1, capacity);
+		slots = new Semaphore(threads + capacity);
+		executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+
+			private final AtomicInteger count = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable r) {
+				final Thread thread = new Thread(r, name + "-" + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Hands the given element to this stage. Blocks until there is space in the queue of the stage.
+	 *
+	 * @param element The element to process
+	 * @throws InterruptedException if the calling thread was interrupted while waiting
+	 */
+	public void submit(T element) throws InterruptedException {
+		final long submitTime = System.nanoTime();
+		slots.acquire();
+		execute(element, submitTime);
+	}
+
+	/**
+	 * Hands the given element to this stage. Waits at most the given time for space in the queue of the stage.
+	 *
+	 * @param element The element to process
+	 * @param timeout The maximal time to wait in milliseconds
+	 * @return <code>true</code> if the element was accepted
+	 * @throws InterruptedException if the calling thread was interrupted while waiting
+	 */
+	public boolean offer(T element, long timeout) throws InterruptedException {
+		final long submitTime = System.nanoTime();
+		if (!slots.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+			blockedTime.addAndGet(System.nanoTime() - submitTime);
+			return false;
+		}
+		execute(element, submitTime);
+		return true;
+	}
+
+	private void execute(final T element, long submitTime) {
+		final long enqueueTime = System.nanoTime();
+		blockedTime.addAndGet(enqueueTime - submitTime);
+		submitted.incrementAndGet();
+		try {
+			executor.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					final long startTime = System.nanoTime();
+					if (firstStart < 0) {
+						firstStart = startTime;
+					}
+					waitingTime.addAndGet(startTime - enqueueTime);
+					try {
+						task.process(element);
+						completed.incrementAndGet();
+					} catch (final Exception e) {
+						failed.incrementAndGet();
+						failureHandler.failed(element, e);
+					} finally {
+						final long endTime = System.nanoTime();
+						processingTime.addAndGet(endTime - startTime);
+						lastEnd = endTime;
+						slots.release();
+					}
+				}
+			});
+		} catch (final RuntimeException e) {
+			// the stage was already shut down
+			slots.release();
+			submitted.decrementAndGet();
+			throw e;
+		}
+	}
+
+	/**
+	 * Stops accepting new elements and waits until all queued elements are processed.
+	 *
+	 * @param timeout The maximal time to wait in milliseconds
+	 * @return <code>true</code> if all elements were processed
+	 * @throws InterruptedException if the calling thread was interrupted while waiting
+	 */
+	public boolean finish(long timeout) throws InterruptedException {
+		executor.shutdown();
+		return executor.awaitTermination(timeout, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Discards all queued elements and interrupts the running ones.
+	 */
+	public void cancel() {
+		executor.shutdownNow();
+	}
+
+	public boolean isTerminated() {
+		return executor.isTerminated();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return The number of elements that are currently queued or processed.
+	 */
+	public long getPending() {
+		return submitted.get() - completed.get() - failed.get();
+	}
+
+	public long getCompleted() {
+		return completed.get();
+	}
+
+	public long getFailed() {
+		return failed.get();
+	}
+
+	/**
+	 * @return The processed elements per second since the first element was started.
+	 */
+	public double getThroughput() {
+		final long start = firstStart;
+		final long end = lastEnd;
+		if ((start < 0) || (end <= start)) {
+			return 0;
+		}
+		return ((completed.get() + failed.get()) * 1_000_000_000.0) / (end - start);
+	}
+
+	/**
+	 * @return The average processing time of an element in milliseconds.
+	 */
+	public double getAverageLatency() {
+		return average(processingTime.get());
+	}
+
+	/**
+	 * @return The average time in milliseconds an element waited in the queue of this stage.
+	 */
+	public double getAverageWaitingTime() {
+		return average(waitingTime.get());
+	}
+
+	/**
+	 * @return The average time in milliseconds the previous stage was blocked because this stage was full.
+	 */
+	public double getAverageBlockedTime() {
+		return average(blockedTime.get());
+	}
+
+	private double average(long nanos) {
+		final long count = completed.get() + failed.get();
+		return count == 0 ? 0 : (nanos / 1_000_000.0) / count;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s: %d built, %d failed, %.2f/s, latency %.1f ms, queued %.1f ms, blocked %.1f ms", name, completed.get(), failed.get(),
+				getThroughput(), getAverageLatency(), getAverageWaitingTime(), getAverageBlockedTime());
+	}
+
+}
@@ -0,0 +1,414 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.annotation.CheckForNull;
+
+/**
+ * Shares compiled class files between the variants of one {@link ConfigurationBuilder} run.<br> The class files of a source file are stored under a key
+ * that consists of the content hash of the file and the content hashes of all files it (transitively) refers to. A variant that contains the same file
+ * with the same dependencies can reuse the class files instead of compiling the file again.
+ */
+public class CompilationCache {
+
+	private static final Pattern PACKAGE_PATTERN = Pattern.compile("^\\s*package\\s+([\\w.]+)\\s*;", Pattern.MULTILINE);
+	private static final Pattern TYPE_PATTERN = Pattern.compile("\\b(?:class|interface|enum)\\s+([\\w$]+)");
+	private static final Pattern IDENTIFIER_PATTERN = Pattern.compile("[A-Za-z_$][\\w$]*");
+
+	private static final String CLASS_EXTENSION = ".class";
+
+	/**
+	 * The file of an entry that holds the compiler warnings of the source file.
+	 */
+	private static final String PROBLEMS_FILE = "problems.txt";
+
+	/**
+	 * A compiler message for a source file, which is restored together with its class files.
+	 */
+	public static class Problem {
+
+		private final int line;
+		private final boolean warning;
+		private final String message;
+
+		public Problem(int line, boolean warning, String message) {
+			this.line = line;
+			this.warning = warning;
+			this.message = message;
+		}
+
+		public int getLine() {
+			return line;
+		}
+
+		public boolean isWarning() {
+			return warning;
+		}
+
+		public String getMessage() {
+			return message;
+		}
+
+		private String write() {
+			return line + "\t" + (warning ? "W" : "E") + "\t" + message.replace('\n', ' ');
+		}
+
+		private static Problem read(String line) {
+			final String[] parts = line.split("\t", 3);
+			return new Problem(Integer.parseInt(parts[0]), "W".equals(parts[1]), parts[2]);
+		}
+	}
+
+	/**
+	 * A composed source file of a variant.
+	 */
+	public static class SourceFile {
+
+		private final Path path;
+		private final String packagePath;
+		private final Set<String> typeNames = new HashSet<>();
+		private final Set<String> identifiers = new HashSet<>();
+		private final String contentHash;
+		private final List<SourceFile> dependencies = new ArrayList<>();
+		private String key;
+
+		private SourceFile(Path path, String relativePath, String content) {
+			this.path = path;
+			final Matcher packageMatcher = PACKAGE_PATTERN.matcher(content);
+			packagePath = packageMatcher.find() ? packageMatcher.group(1).replace('.', '/') : "";
+			final String code = removeNestedCode(content);
+			final Matcher typeMatcher = TYPE_PATTERN.matcher(code);
+			while (typeMatcher.find()) {
+				typeNames.add(typeMatcher.group(1));
+			}
+			final Matcher identifierMatcher = IDENTIFIER_PATTERN.matcher(content);
+			while (identifierMatcher.find()) {
+				identifiers.add(identifierMatcher.group());
+			}
+			contentHash = hash(relativePath + '\n' + content);
+		}
+
+		/**
+		 * Removes comments, literals, and everything inside braces, so that only top-level declarations remain.
+		 */
+		private static String removeNestedCode(String content) {
+			final StringBuilder sb = new StringBuilder(content.length());
+			int depth = 0;
+			for (int i = 0; i < content.length(); i++) {
+				final char c = content.charAt(i);
+				final char next = (i + 1) < content.length() ? content.charAt(i + 1) : 0;
+				if ((c == '/') && (next == '/')) {
+					i = content.indexOf('\n', i);
+					if (i < 0) {
+						break;
+					}
+				} else if ((c == '/') && (next == '*')) {
+					i = content.indexOf("*/", i + 2);
+					if (i < 0) {
+						break;
+					}
+					i++;
+				} else if ((c == '"') || (c == '\'')) {
+					for (i++; (i < content.length()) && (content.charAt(i) != c); i++) {
+						if (content.charAt(i) == '\\') {
+							i++;
+						}
+					}
+				} else if (c == '{') {
+					depth++;
+				} else if (c == '}') {
+					depth--;
+				} else if (depth == 0) {
+					sb.append(c);
+					continue;
+				}
+				sb.append(' ');
+			}
+			return sb.toString();
+		}
+
+		public Path getPath() {
+			return path;
+		}
+
+		/**
+		 * @return The key of the file in the cache. Equal keys imply equal content and equal dependencies.
+		 */
+		public String getKey() {
+			return key;
+		}
+
+		private boolean isClassFileOf(String fileName) {
+			if (!fileName.endsWith(CLASS_EXTENSION)) {
+				return false;
+			}
+			final String className = fileName.substring(0, fileName.length() - CLASS_EXTENSION.length());
+			final int innerIndex = className.indexOf('$');
+			return typeNames.contains(innerIndex < 0 ? className : className.substring(0, innerIndex));
+		}
+
+	}
+
+	private final Path cacheFolder;
+
+	private final AtomicLong reused = new AtomicLong();
+	private final AtomicLong compiled = new AtomicLong();
+
+	/**
+	 * @param cacheFolder The local folder that holds the cached class files
+	 */
+	public CompilationCache(Path cacheFolder) {
+		this.cacheFolder = cacheFolder;
+	}
+
+	/**
+	 * Reads the given source files of one variant and computes their keys.
+	 *
+	 * @param sourceFolder The source folder of the variant
+	 * @param files The java files of the variant
+	 * @return One {@link SourceFile} per given file in the same order
+	 * @throws IOException if a file cannot be read
+	 */
+	public List<SourceFile> analyze(Path sourceFolder, Collection<Path> files) throws IOException {
+		final List<SourceFile> sourceFiles = new ArrayList<>(files.size());
+		final Map<String, List<SourceFile>> typeIndex = new HashMap<>();
+		for (final Path file : files) {
+			final String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+			final SourceFile sourceFile = new SourceFile(file, sourceFolder.relativize(file).toString().replace('\\', '/'), content);
+			sourceFiles.add(sourceFile);
+			for (final String typeName : sourceFile.typeNames) {
+				List<SourceFile> declaringFiles = typeIndex.get(typeName);
+				if (declaringFiles == null) {
+					declaringFiles = new ArrayList<>(1);
+					typeIndex.put(typeName, declaringFiles);
+				}
+				declaringFiles.add(sourceFile);
+			}
+		}
+		// a file depends on every other file that declares a type it mentions
+		for (final SourceFile sourceFile : sourceFiles) {
+			final Set<SourceFile> dependencies = new HashSet<>();
+			for (final String identifier : sourceFile.identifiers) {
+				final List<SourceFile> declaringFiles = typeIndex.get(identifier);
+				if (declaringFiles != null) {
+					dependencies.addAll(declaringFiles);
+				}
+			}
+			dependencies.remove(sourceFile);
+			sourceFile.dependencies.addAll(dependencies);
+		}
+		for (final SourceFile sourceFile : sourceFiles) {
+			sourceFile.key = computeKey(sourceFile);
+		}
+		return sourceFiles;
+	}
+
+	private String computeKey(SourceFile sourceFile) {
+		// the hashes are sorted to get the same key independent of the traversal order
+		final TreeSet<String> closure = new TreeSet<>();
+		final Deque<SourceFile> stack = new ArrayDeque<>();
+		final Set<SourceFile> visited = new HashSet<>();
+		stack.push(sourceFile);
+		visited.add(sourceFile);
+		while (!stack.isEmpty()) {
+			final SourceFile current = stack.pop();
+			closure.add(current.contentHash);
+			for (final SourceFile dependency : current.dependencies) {
+				if (visited.add(dependency)) {
+					stack.push(dependency);
+				}
+			}
+		}
+		final StringBuilder sb = new StringBuilder(sourceFile.contentHash);
+		for (final String hash : closure) {
+			sb.append(';').append(hash);
+		}
+		return hash(sb.toString());
+	}
+
+	/**
+	 * Copies the cached class files of the given source file into the output folder.
+	 *
+	 * @param sourceFile The source file
+	 * @param outputFolder The binary folder of the variant
+	 * @return The compiler warnings of the source file or <code>null</code> if no class files were found for the source file
+	 * @throws IOException if the class files cannot be copied
+	 */
+	@CheckForNull
+	public List<Problem> restore(SourceFile sourceFile, Path outputFolder) throws IOException {
+		final Path entry = cacheFolder.resolve(sourceFile.key);
+		if (!Files.isDirectory(entry)) {
+			return null;
+		}
+		final List<Problem> problems = new ArrayList<>();
+		final Path targetFolder = outputFolder.resolve(sourceFile.packagePath);
+		Files.createDirectories(targetFolder);
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(entry)) {
+			for (final Path file : files) {
+				final String fileName = file.getFileName().toString();
+				if (PROBLEMS_FILE.equals(fileName)) {
+					for (final String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+						if (!line.isEmpty()) {
+							problems.add(Problem.read(line));
+						}
+					}
+				} else {
+					Files.copy(file, targetFolder.resolve(fileName), StandardCopyOption.REPLACE_EXISTING);
+				}
+			}
+		}
+		reused.incrementAndGet();
+		return problems;
+	}
+
+	/**
+	 * Stores the class files of the given source file from the output folder.
+	 *
+	 * @param sourceFile The compiled source file
+	 * @param outputFolder The binary folder of the variant
+	 * @param problems The compiler warnings of the source file, which are returned when the class files are restored
+	 * @throws IOException if the class files cannot be copied
+	 */
+	public void store(SourceFile sourceFile, Path outputFolder, List<Problem> problems) throws IOException {
+		compiled.incrementAndGet();
+		final Path entry = cacheFolder.resolve(sourceFile.key);
+		final Path classFolder = outputFolder.resolve(sourceFile.packagePath);
+		if (Files.isDirectory(entry) || !Files.isDirectory(classFolder)) {
+			return;
+		}
+		// other compilers may store the same entry concurrently, so the entry is written to a temporary folder first
+		Files.createDirectories(cacheFolder);
+		final Path tempEntry = Files.createTempDirectory(cacheFolder, sourceFile.key);
+		boolean empty = true;
+		try (DirectoryStream<Path> classFiles = Files.newDirectoryStream(classFolder)) {
+			for (final Path classFile : classFiles) {
+				if (sourceFile.isClassFileOf(classFile.getFileName().toString())) {
+					Files.copy(classFile, tempEntry.resolve(classFile.getFileName().toString()));
+					empty = false;
+				}
+			}
+		}
+		try {
+			if (!empty) {
+				if (!problems.isEmpty()) {
+					final List<String> lines = new ArrayList<>(problems.size());
+					for (final Problem problem : problems) {
+						lines.add(problem.write());
+					}
+					Files.write(tempEntry.resolve(PROBLEMS_FILE), lines, StandardCharsets.UTF_8);
+				}
+				Files.move(tempEntry, entry, StandardCopyOption.ATOMIC_MOVE);
+				return;
+			}
+		} catch (FileAlreadyExistsException | DirectoryNotEmptyException | AtomicMoveNotSupportedException e) {
+			// keep the existing entry
+		}
+		delete(tempEntry);
+	}
+
+	private static void delete(Path folder) throws IOException {
+		clear(folder);
+		Files.delete(folder);
+	}
+
+	/**
+	 * Deletes all files and folders inside the given folder on the file system.<br> Unlike deleting the members of a workspace folder, this also deletes
+	 * files that were written without the workspace, such as restored class files.
+	 *
+	 * @param folder The folder to clear
+	 * @throws IOException if a file cannot be deleted
+	 */
+	public static void clear(Path folder) throws IOException {
+		if (!Files.isDirectory(folder)) {
+			return;
+		}
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(folder)) {
+			for (final Path file : files) {
+				if (Files.isDirectory(file, LinkOption.NOFOLLOW_LINKS)) {
+					delete(file);
+				} else {
+					Files.delete(file);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return The number of source files whose class files were reused.
+	 */
+	public long getReusedCount() {
+		return reused.get();
+	}
+
+	/**
+	 * @return The number of source files that were compiled.
+	 */
+	public long getCompiledCount() {
+		return compiled.get();
+	}
+
+	private static String hash(String content) {
+		try {
+			final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			final byte[] hash = digest.digest(content.getBytes(StandardCharsets.UTF_8));
+			final StringBuilder sb = new StringBuilder(hash.length * 2);
+			for (final byte b : hash) {
+				sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+				sb.append(Character.forDigit(b & 0xF, 16));
+			}
+			return sb.toString();
+		} catch (final NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "Compilation cache: " + reused.get() + " files reused, " + compiled.get() + " files compiled";
+	}
+
+}
@@ -29,8 +29,7 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.OF;
 import static de.ovgu.featureide.fm.core.localization.StringTable.RESTRICTION;
 import static de.ovgu.featureide.fm.core.localization.StringTable.YASA;
 
-import java.security.KeyStore.Builder;
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.List;
 
 import javax.annotation.CheckForNull;
@@ -53,11 +52,12 @@ import org.eclipse.jdt.internal.core.JavaProject;
 import de.ovgu.featureide.core.IFeatureProject;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
-import de.ovgu.featureide.fm.core.job.IJob.JobStatus;
+import de.ovgu.featureide.fm.core.job.IJob;
 import de.ovgu.featureide.fm.core.job.IRunner;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 import de.ovgu.featureide.fm.core.job.monitor.ProgressMonitor;
+import de.ovgu.featureide.fm.core.job.util.JobFinishListener;
 import de.ovgu.featureide.fm.core.localization.StringTable;
 import de.ovgu.featureide.ui.UIPlugin;
 import de.ovgu.featureide.ui.actions.generator.configuration.AConfigurationGenerator;
@@ -112,6 +112,18 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	 */
 	IFolder tmp;
 
+	/**
+	 * Shares the class files of equal source files between the variants, or <code>null</code> if new projects are created.
+	 */
+	@CheckForNull
+	CompilationCache compilationCache;
+
+	/**
+	 * Stores equal files of different variants only once.
+	 */
+	@CheckForNull
+	VariantFileStore fileStore;
+
 	/**
 	 * This flag indicates if a new project should be created for each configuration.
 	 */
@@ -125,7 +137,7 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	/**
 	 * This flag indicates that all jobs should be aborted.
 	 */
-	boolean cancelGeneratorJobs = false;
+	volatile boolean cancelGeneratorJobs = false;
 
 	/**
 	 * Saves the time of start.
@@ -133,9 +145,9 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	protected long time;
 
 	/**
-	 * This flag indicates that no more configurations will be added and the {@link Generator} jobs can finish.
+	 * This flag indicates that no more configurations will be added and the {@link BuildPipeline} can finish.
 	 */
-	boolean finish = false;
+	volatile boolean finish = false;
 
 	/**
 	 * <code>true</code>: all valid configurations should be built.<br> <code>false</code>: all configurations at the configurations folder should be built.
@@ -143,9 +155,20 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	BuildType buildType;
 
 	/**
-	 * This list contains all {@link Generator} jobs.
+	 * The maximal number of configurations that are buffered before the configuration generator is blocked. Only used if the configurations do not need to
+	 * be sorted.
+	 */
+	private static final int BUFFER_CAPACITY = 256;
+
+	/**
+	 * The time in milliseconds after which a waiting thread checks the progress monitor for cancellation.
 	 */
-	final List<Generator> generatorJobs = new ArrayList<>();
+	private static final long CANCEL_CHECK_INTERVAL = 150;
+
+	/**
+	 * Composes, compiles, and tests the configurations.
+	 */
+	private BuildPipeline pipeline;
 
 	public AbstractConfigurationSorter sorter;
 
@@ -156,22 +179,63 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	private AConfigurationGenerator configurationGenerator;
 
 	/**
-	 * Gets the first entry of configurations or <code>null</code> if there is none.
+	 * Takes the first entry of configurations. Waits until a configuration is available.
 	 *
-	 * @return The first entry
+	 * @param monitor The monitor of the build job
+	 * @return The first entry or <code>null</code> if no more configurations will be added or the build was canceled
+	 * @throws InterruptedException if the calling thread was interrupted while waiting
 	 */
 	@CheckForNull
-	public synchronized BuilderConfiguration getConfiguration() {
-		return sorter.getConfiguration();
+	private synchronized BuilderConfiguration takeConfiguration(IProgressMonitor monitor) throws InterruptedException {
+		while (!cancelGeneratorJobs && !monitor.isCanceled()) {
+			final BuilderConfiguration configuration = sorter.getConfiguration();
+			if (configuration != null) {
+				// wake up a blocked configuration generator
+				notifyAll();
+				return configuration;
+			}
+			if (finish) {
+				return null;
+			}
+			wait(CANCEL_CHECK_INTERVAL);
+		}
+		return null;
 	}
 
 	/**
-	 * Adds the given configuration to configurations.
+	 * Waits until no more configurations will be added.
+	 *
+	 * @param monitor The monitor of the build job
+	 * @return <code>false</code> if the build was canceled
+	 * @throws InterruptedException if the calling thread was interrupted while waiting
+	 */
+	private synchronized boolean waitForGeneration(IProgressMonitor monitor) throws InterruptedException {
+		while (!finish) {
+			if (cancelGeneratorJobs || monitor.isCanceled()) {
+				return false;
+			}
+			monitor.setTaskName(getTaskName());
+			wait(CANCEL_CHECK_INTERVAL);
+		}
+		return true;
+	}
+
+	/**
+	 * Adds the given configuration to configurations. Blocks while the buffer is full, unless the configurations need to be sorted before they are built.
 	 *
 	 * @param configuration to add
 	 */
 	public synchronized void addConfiguration(BuilderConfiguration configuration) {
+		while (sorter.isSorted() && (sorter.getBufferSize() >= BUFFER_CAPACITY) && !cancelGeneratorJobs) {
+			try {
+				wait();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
 		sorter.addConfiguration(configuration);
+		notifyAll();
 	}
 
 	// TODO revise long parameter list
@@ -304,22 +368,25 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 
 					time = System.currentTimeMillis();
 
+					final int threads;
 					if (featureProject.getComposer().canGeneratInParallelJobs()) {
-						if (buildType != BuildType.ALL_CURRENT) {
-							newgeneratorJobs(Runtime.getRuntime().availableProcessors() * 2);
-						} else {
-							int contJobs = Runtime.getRuntime().availableProcessors() * 2;
-							if (configurationNumber < contJobs) {
-								contJobs = (int) configurationNumber;
-							}
-							newgeneratorJobs(contJobs);
-						}
+						final int processors = Runtime.getRuntime().availableProcessors();
+						threads = (buildType != BuildType.ALL_CURRENT) ? processors : (int) Math.min(processors, configurationNumber);
 					} else {
-						newgeneratorJobs(1);
+						threads = 1;
 					}
+					pipeline = new BuildPipeline(ConfigurationBuilder.this, Math.max(1, threads));
+
 					configurationBuilderJob = LongRunningWrapper.getRunner(configurationGenerator, "Create Configurations " + id++);
+					configurationBuilderJob.addJobFinishedListener(new JobFinishListener<List<LiteralSet>>() {
+
+						@Override
+						public void jobFinished(IJob<List<LiteralSet>> finishedJob) {
+							finish();
+						}
+					});
 					configurationBuilderJob.schedule();
-					showStatistics(monitor);
+					build(monitor);
 					if (!createNewProjects) {
 						try {
 							folder.refreshLocal(IResource.DEPTH_INFINITE, null);
@@ -327,86 +394,67 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 							LOGGER.logError(e);
 						}
 					}
+				} catch (final InterruptedException e) {
+					LOGGER.logError(e);
 				} finally {
-					configurationBuilderJob.cancel();
+					if (configurationBuilderJob != null) {
+						configurationBuilderJob.cancel();
+					}
 					cancelGenerationJobs();
-					for (final Thread g : generatorJobs) {
-						g.interrupt();
+					if (fileStore != null) {
+						try {
+							fileStore.clear();
+						} catch (final IOException e) {
+							LOGGER.logError(e);
+						}
 					}
 					monitor.done();
 				}
 				return Status.OK_STATUS;
 			}
 
-			private void showStatistics(IProgressMonitor monitor) {
-				try {
-					while (configurationBuilderJob.getStatus() == JobStatus.NOT_STARTED) {
-						try {
-							Thread.sleep(150);
-						} catch (final InterruptedException e) {
-							LOGGER.logError(e);
-						}
+			private void build(IProgressMonitor monitor) throws InterruptedException {
+				if (!sorter.isSorted()) {
+					if (!waitForGeneration(monitor)) {
+						return;
 					}
-					while (configurationBuilderJob.getStatus() == JobStatus.RUNNING) {
-						monitor.setTaskName(getTaskName());
+					final IMonitor<?> workMonitor = new ProgressMonitor<>(getTaskName(), monitor);
+					configurationNumber = Math.min(configurationNumber, sorter.sortConfigurations(workMonitor));
+				}
+
+				// hand the configurations to the pipeline as soon as they are generated
+				BuilderConfiguration configuration;
+				while ((configuration = takeConfiguration(monitor)) != null) {
+					while (!pipeline.submit(configuration, CANCEL_CHECK_INTERVAL)) {
 						if (monitor.isCanceled()) {
-							cancelGenerationJobs();
-							configurationBuilderJob.cancel();
 							return;
 						}
-						try {
-							Thread.sleep(150);
-						} catch (final InterruptedException e) {
-							LOGGER.logError(e);
-						}
-					}
-					System.err.println(configurationBuilderJob.getStatus());
-
-					if (!sorter.isSorted()) {
-						final IMonitor<?> workMonitor = new ProgressMonitor<>(getTaskName(), monitor);
-						configurationNumber = Math.min(configurationNumber, sorter.sortConfigurations(workMonitor));
+						monitor.setTaskName(getTaskName());
 					}
-					finish();
+				}
+				if (monitor.isCanceled()) {
+					return;
+				}
 
-					((SubMonitor) monitor).setWorkRemaining((int) configurationNumber - built);
-					while (!generatorJobs.isEmpty()) {
-						try {
-							if (monitor.isCanceled()) {
-								cancelGenerationJobs();
-								break;
-							}
-							final Generator generator = generatorJobs.get(0);
-							if (generator == null) {
-								// generator can never be null, however see #416
-								generatorJobs.remove(0);
-							} else if (generator.getState() == Thread.State.TERMINATED) {
-								generatorJobs.remove(generator);
-								if (sorter.getBufferSize() != 0) {
-									createNewGenerator(generator.nr);
-								}
-							}
-							monitor.setTaskName(getTaskName());
-							Thread.sleep(150);
-						} catch (final InterruptedException e) {
-							LOGGER.logError(e);
-						} catch (final IndexOutOfBoundsException e) {
-							// nothing here
-						}
+				((SubMonitor) monitor).setWorkRemaining((int) configurationNumber - built);
+				while (!pipeline.finish(CANCEL_CHECK_INTERVAL)) {
+					if (monitor.isCanceled()) {
+						return;
 					}
+					monitor.setTaskName(getTaskName());
+				}
 
-					final long duration = System.currentTimeMillis() - time;
-					final long s = (duration / 1000) % 60;
-					final long min = (duration / (60 * 1000)) % 60;
-					final long h = duration / (60 * 60 * 1000);
-					final String t = h + "h " + (min < 10 ? "0" + min : min) + "min " + (s < 10 ? "0" + s : s) + "s.";
+				final long duration = System.currentTimeMillis() - time;
+				final long s = (duration / 1000) % 60;
+				final long min = (duration / (60 * 1000)) % 60;
+				final long h = duration / (60 * 60 * 1000);
+				final String t = h + "h " + (min < 10 ? "0" + min : min) + "min " + (s < 10 ? "0" + s : s) + "s.";
 
-					if (built > configurationNumber) {
-						built = (int) configurationNumber;
-					}
-					LOGGER.logInfo(built + (configurationNumber != 0 ? OF + configurationNumber : "") + " configurations built in " + t);
-				} finally {
-					generatorJobs.clear();
+				if (built > configurationNumber) {
+					built = (int) configurationNumber;
 				}
+				LOGGER.logInfo(built + (configurationNumber != 0 ? OF + configurationNumber : "") + " configurations built in " + t + "\n"
+					+ pipeline.getStatistics() + (compilationCache != null ? compilationCache + "\n" : "") + (fileStore != null ? fileStore : ""));
 			}
 
 		};
@@ -425,6 +473,13 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 		// method is called to initialize composer extension if not yet
 		// initialized; so only delete if sure
 		featureProject.getComposer();
+		fileStore = new VariantFileStore(UIPlugin.getDefault().getStateLocation().append(VARIANT_STORE_FOLDER).append(featureProject.getProjectName()).toFile().toPath());
+		try {
+			fileStore.clear();
+		} catch (final IOException e) {
+			LOGGER.logError(e);
+			fileStore = null;
+		}
 		if (!createNewProjects) {
 			folder = featureProject.getProject().getFolder(FOLDER_NAME);
 			if (!folder.exists()) {
@@ -451,6 +506,7 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 					LOGGER.logError(e);
 				}
 			}
+			compilationCache = new CompilationCache(tmp.getRawLocation().append(CLASS_CACHE_FOLDER).toFile().toPath());
 		} else {
 			try {
 				String identifier;
@@ -518,48 +574,22 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	}
 
 	/**
-	 * Creates new {@link Generator}s
-	 *
-	 * @param count The amount of Generators that will be created.
+	 * This is called if the main job is canceled and the {@link BuildPipeline} should stop.
 	 */
-	private void newgeneratorJobs(int count) {
-		if (count < 1) {
-			return;
-		}
-
-		if (count == 1) {
-			createNewGenerator(0);
-			return;
-		}
-
-		for (; count > 0; count--) {
-			createNewGenerator(count);
-		}
-	}
-
-	/**
-	 * Created a new {@link Generator} with the given number
-	 *
-	 * @param nr
-	 */
-	void createNewGenerator(int nr) {
-		final Generator g = new Generator(nr, this);
-		generatorJobs.add(g);
-		g.start();
-	}
-
-	/**
-	 * This is called if the main job is canceled and all {@link Builder} and {@link JavaCompiler} should finish.
-	 */
-	public void cancelGenerationJobs() {
+	public synchronized void cancelGenerationJobs() {
 		cancelGeneratorJobs = true;
+		if (pipeline != null) {
+			pipeline.cancel();
+		}
+		notifyAll();
 	}
 
 	/**
-	 * This is called if the main job has finished and no more configurations will be added.
+	 * This is called if the configuration generator has finished and no more configurations will be added.
 	 */
-	public void finish() {
+	public synchronized void finish() {
 		finish = true;
+		notifyAll();
 	}
 
 	/**
@@ -575,7 +605,7 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 			final long h = duration / (60 * 60 * 1000);
 			t = " " + h + "h " + (min < 10 ? "0" + min : min) + "min " + (s < 10 ? "0" + s : s) + "s.";
 		}
-		final long buffer = sorter.getBufferSize();
+		final long buffer = sorter.getBufferSize() + (pipeline != null ? pipeline.getPending() : 0);
 		return "Built configurations: " + built + "/" + (configurationNumber == Integer.MAX_VALUE ? COUNTING___ : configurationNumber) + "(" + buffer
 			+ " buffered)" + " Expected time: " + t;
 	}
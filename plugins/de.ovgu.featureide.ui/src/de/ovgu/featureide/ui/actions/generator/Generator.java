@@ -20,16 +20,12 @@
  */
 package de.ovgu.featureide.ui.actions.generator;
 
-import static de.ovgu.featureide.fm.core.localization.StringTable.ERROR_IN_CONFIGURATION;
 import static de.ovgu.featureide.fm.core.localization.StringTable.RESTRICTION;
-import static de.ovgu.featureide.fm.core.localization.StringTable.THE_GENERATOR_NR_;
-import static de.ovgu.featureide.fm.core.localization.StringTable.WILL_BE_RESTARTED_;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import javax.annotation.CheckForNull;
-
 import org.eclipse.core.internal.resources.Workspace;
 import org.eclipse.core.resources.ICommand;
 import org.eclipse.core.resources.IContainer;
@@ -42,7 +38,6 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Platform;
-import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.core.IClasspathEntry;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.internal.core.ClasspathEntry;
@@ -56,144 +51,64 @@ import de.ovgu.featureide.fm.core.configuration.Configuration;
 import de.ovgu.featureide.ui.UIPlugin;
 
 /**
- * This {@link Job} builds all configurations of the corresponding {@link ConfigurationBuilder}
+ * Composes the configurations of the corresponding {@link ConfigurationBuilder}.<br> Used by the compose stage of the {@link BuildPipeline}.
  *
  * @author Jens Meinicke
  */
 @SuppressWarnings(RESTRICTION)
-public class Generator extends Thread implements IConfigurationBuilderBasics {
+public class Generator implements IConfigurationBuilderBasics {
 
 	protected static final String JAVA_NATURE = "org.eclipse.jdt.core.javanature";
 
-	/**
-	 * A counter that shows how many configurations are built by this job
-	 */
-	int generated = 0;
+	static final boolean JUNIT_INSTALLED = Platform.getBundle("org.junit") != null;
 
 	/**
-	 * The builder containing this job
+	 * The builder containing this generator
 	 */
-	ConfigurationBuilder builder;
-
-	/**
-	 * The number of this job.
-	 */
-	public int nr;
-
-	@CheckForNull
-	private JavaCompiler compiler;
-
-	private TestRunner testRunner;
-
-	private BuilderConfiguration configuration;
-
-	private static boolean JUNIT_INSTALLED = Platform.getBundle("org.junit") != null;
+	final ConfigurationBuilder builder;
 
 	/**
 	 *
-	 * @param nr The number of the job
 	 * @param builder The {@link ConfigurationBuilder} containing the {@link Generator}
 	 */
-	public Generator(int nr, ConfigurationBuilder builder) {
-		this.nr = nr;
+	public Generator(ConfigurationBuilder builder) {
 		this.builder = builder;
-		if (!builder.createNewProjects) {
-			try {
-				if (builder.featureProject.getProject().hasNature(JAVA_NATURE)) {
-					compiler = new JavaCompiler(nr, this);
-					if (JUNIT_INSTALLED) {
-						testRunner = new TestRunner(compiler.tmp, builder.testResults, builder);
-					}
-				}
-			} catch (final CoreException e) {
-				UIPlugin.getDefault().logError(e);
-			} catch (final Exception e2) {
-				System.out.println(e2);
-			} catch (final Error e3) {
-				System.out.println(e3);
-			}
-		}
 	}
 
 	/**
-	 * Generates the configurations of CongfigurationBuilder.configurations
+	 * Composes the given configuration, either into a new project or into the products folder of the builder.
+	 *
+	 * @param configuration The configuration to build
 	 */
-	@Override
-	public void run() {
-		try {
-			while (true) {
-				synchronized (this) {
-					if (builder.cancelGeneratorJobs) {
-						builder.generatorJobs.remove(this);
-						return;
-					}
-					if (builder.sorter.getBufferSize() == 0) {
-						while ((builder.sorter.getBufferSize() == 0) || !builder.sorter.isSorted()) {
-							/** the job waits for a new configuration to build **/
-							try {
-								Thread.sleep(1000);
-								if (((builder.sorter.getBufferSize() == 0) && builder.finish) || builder.cancelGeneratorJobs) {
-									return;
-								}
-							} catch (final InterruptedException e) {
-								UIPlugin.getDefault().logError(e);
-							}
-						}
-					}
-				}
-				configuration = builder.getConfiguration();
-				if (configuration == null) {
-					continue;
-				}
-				final String name = configuration.getName();
-				if (builder.createNewProjects) {
-					final String separator;
-					switch (builder.buildType) {
-					case ALL_CURRENT:
-						separator = SEPARATOR_CONFIGURATION;
-						break;
-					case ALL_VALID:
-						separator = SEPARATOR_VARIANT;
-						break;
-					case INTEGRATION:
-						separator = SEPARATOR_INTEGRATION;
-						break;
-					case RANDOM:
-						separator = SEPARATOR_RANDOM;
-						break;
-					case T_WISE:
-						separator = SEPARATOR_T_WISE;
-						break;
-					default:
-						throw new RuntimeException(builder.buildType + " not supported");
-					}
-					buildConfiguration(builder.featureProject.getProjectName() + separator + name, configuration);
-				} else {
-					builder.featureProject.getComposer().buildConfiguration(builder.folder.getFolder(name), configuration, name);
-				}
-
-				if (compiler != null) {
-					compiler.compile(configuration);
-					if (builder.runTests) {
-						if (JUNIT_INSTALLED) {
-							testRunner.runTests(configuration);
-						}
-					}
-				}
-
-				builder.builtConfiguration();
+	public void generate(BuilderConfiguration configuration) {
+		final String name = configuration.getName();
+		if (builder.createNewProjects) {
+			final String separator;
+			switch (builder.buildType) {
+			case ALL_CURRENT:
+				separator = SEPARATOR_CONFIGURATION;
+				break;
+			case ALL_VALID:
+				separator = SEPARATOR_VARIANT;
+				break;
+			case INTEGRATION:
+				separator = SEPARATOR_INTEGRATION;
+				break;
+			case RANDOM:
+				separator = SEPARATOR_RANDOM;
+				break;
+			case T_WISE:
+				separator = SEPARATOR_T_WISE;
+				break;
+			default:
+				throw new RuntimeException(builder.buildType + " not supported");
 			}
-		} catch (final Exception e) {
-			UIPlugin.getDefault().logError(ERROR_IN_CONFIGURATION + configuration, e);
-			/**
-			 * If there is any build error the configuration will be built again. And because this job is terminated a new one will be created.
-			 */
-			UIPlugin.getDefault().logWarning(THE_GENERATOR_NR_ + nr + WILL_BE_RESTARTED_);
-			builder.createNewGenerator(nr);
-		} finally {
-			builder.generatorJobs.remove(this);
+			buildConfiguration(builder.featureProject.getProjectName() + separator + name, configuration);
+		} else {
+			final IFolder variantFolder = builder.folder.getFolder(name);
+			builder.featureProject.getComposer().buildConfiguration(variantFolder, configuration, name);
+			deduplicate(variantFolder);
 		}
-		return;
 	}
 
 	/**
@@ -234,12 +149,13 @@ public class Generator extends Thread implements IConfigurationBuilderBasics {
 				if (composer instanceof PPComposerExtensionClass) {
 					((PPComposerExtensionClass) composer).postProcess(sourceFolder);
 				}
+				deduplicate(sourceFolder);
 			} else {
 				// copy files of further source folder
 				final IFolder srcFolder = builder.featureProject.getProject().getFolder(src);
 				final IFolder dstFolder = project.getFolder(src);
 				try {
-					srcFolder.copy(dstFolder.getFullPath(), true, null);
+					copy(srcFolder, dstFolder);
 				} catch (final CoreException e) {
 					UIPlugin.getDefault().logError(e);
 				}
@@ -248,7 +164,7 @@ public class Generator extends Thread implements IConfigurationBuilderBasics {
 		}
 		try {
 			final IFile modelFile = builder.featureProject.getModelFile();
-			modelFile.copy(project.getFile(modelFile.getName()).getFullPath(), true, null);
+			copy(modelFile, project.getFile(modelFile.getName()));
 			project.refreshLocal(IResource.DEPTH_INFINITE, null);
 		} catch (final CoreException e) {
 			UIPlugin.getDefault().logError(e);
@@ -294,7 +210,7 @@ public class Generator extends Thread implements IConfigurationBuilderBasics {
 					createLibFolder(p.getFile(path).getParent());
 					final IFile destination = p.getFile(e.getPath().removeFirstSegments(1));
 					if (!destination.exists()) {
-						file.copy(destination.getFullPath(), true, null);
+						copy(file, destination);
 					}
 					entries[i] = new ClasspathEntry(e.getContentKind(), e.getEntryKind(), e.getPath().removeFirstSegments(1), e.getInclusionPatterns(),
 							e.getExclusionPatterns(), e.getSourceAttachmentPath(), e.getSourceAttachmentRootPath(), null, e.isExported(), e.getAccessRules(),
@@ -310,6 +226,44 @@ public class Generator extends Thread implements IConfigurationBuilderBasics {
 		return sourcePaths;
 	}
 
+	/**
+	 * Copies the given file or folder into a variant. Uses the {@link VariantFileStore} of the builder if possible, so that equal files are stored only once.
+	 *
+	 * @param source The file or folder to copy
+	 * @param destination The file or folder in the variant
+	 * @throws CoreException if the resource cannot be copied
+	 */
+	private void copy(IResource source, IResource destination) throws CoreException {
+		final VariantFileStore fileStore = builder.fileStore;
+		if ((fileStore != null) && (source.getLocation() != null) && (destination.getLocation() != null)) {
+			try {
+				fileStore.copy(source.getLocation().toFile().toPath(), destination.getLocation().toFile().toPath());
+				destination.refreshLocal(IResource.DEPTH_INFINITE, null);
+				return;
+			} catch (final IOException e) {
+				UIPlugin.getDefault().logError(e);
+			}
+		}
+		source.copy(destination.getFullPath(), true, null);
+	}
+
+	/**
+	 * Replaces the composed files in the given folder by links to the {@link VariantFileStore} of the builder.
+	 *
+	 * @param folder The folder containing the composed files of a variant
+	 */
+	private void deduplicate(IFolder folder) {
+		final VariantFileStore fileStore = builder.fileStore;
+		if ((fileStore != null) && (folder.getLocation() != null)) {
+			try {
+				fileStore.deduplicate(folder.getLocation().toFile().toPath());
+				folder.refreshLocal(IResource.DEPTH_INFINITE, null);
+			} catch (final IOException | CoreException e) {
+				UIPlugin.getDefault().logError(e);
+			}
+		}
+	}
+
 	/**
 	 * Creates all parent folders of the parent folder
 	 *
@@ -89,6 +89,8 @@ public interface IConfigurationBuilderBasics {
 	String FOLDER_NAME = PRODUCTS;
 	String FOLDER_NAME_CURRENT = "currentproducts";
 	String TEMPORARY_BIN_FOLDER = ".tmpBin";
+	String CLASS_CACHE_FOLDER = ".classCache";
+	String VARIANT_STORE_FOLDER = "variantStore";
 
 	String PROBLEM_MARKER = CorePlugin.PLUGIN_ID + ".variantMarker";
 	String ERROR_IGNOR_RAW_TYPE = "raw type";
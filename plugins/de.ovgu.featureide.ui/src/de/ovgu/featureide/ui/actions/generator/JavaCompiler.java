@@ -24,49 +24,68 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.CANNOT_FIND_SY
 import static de.ovgu.featureide.fm.core.localization.StringTable.COMPILER;
 import static de.ovgu.featureide.fm.core.localization.StringTable.SYMBOL;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.file.Path;
 import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Scanner;
 import java.util.TreeMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import javax.annotation.CheckForNull;
+
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
-import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.core.compiler.batch.BatchCompiler;
 
 import de.ovgu.featureide.ui.UIPlugin;
+import de.ovgu.featureide.ui.actions.generator.CompilationCache.Problem;
+import de.ovgu.featureide.ui.actions.generator.CompilationCache.SourceFile;
 
 /**
- * This {@link Job} compiles all configurations of the corresponding {@link Generator}
+ * Compiles the configurations of the corresponding {@link ConfigurationBuilder}.<br> Every compiler owns a temporary folder for the binary files, which
+ * are used by its {@link TestRunner}.
  *
  * @author Jens Meinicke
  */
 public class JavaCompiler implements IConfigurationBuilderBasics {
 
-	private final Generator generator;
+	private final ConfigurationBuilder builder;
 
 	/**
 	 * The parent folder of the generated variants
 	 */
 	final IFolder tmp;
 
+	/**
+	 * Runs the tests of the binary files in {@link #tmp}, or <code>null</code> if no tests should be run.
+	 */
+	@CheckForNull
+	final TestRunner testRunner;
+
 	/**
 	 *
 	 * @param nr The number of the compiler
-	 * @param generator The generator holding this compiler
+	 * @param builder The builder holding this compiler
 	 */
-	public JavaCompiler(int nr, Generator generator) {
-		this.generator = generator;
+	public JavaCompiler(int nr, ConfigurationBuilder builder) {
+		this.builder = builder;
 
-		tmp = generator.builder.tmp.getFolder(COMPILER + nr);
+		tmp = builder.tmp.getFolder(COMPILER + nr);
 		if (!tmp.exists()) {
 			try {
 				tmp.create(true, true, null);
@@ -74,7 +93,7 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 				UIPlugin.getDefault().logError(e);
 			}
 		}
-
+		testRunner = (builder.runTests && Generator.JUNIT_INSTALLED) ? new TestRunner(tmp, builder.testResults, builder) : null;
 	}
 
 	/**
@@ -85,13 +104,17 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 	 */
 	protected void compile(BuilderConfiguration configuration) throws CoreException {
 		try {
-			generator.builder.folder.getFolder(configuration.getName()).refreshLocal(IResource.DEPTH_INFINITE, null);
+			builder.folder.getFolder(configuration.getName()).refreshLocal(IResource.DEPTH_INFINITE, null);
 		} catch (final CoreException e) {
 			UIPlugin.getDefault().logError(e);
 		}
-		for (final IResource file : tmp.members()) {
-			file.delete(true, null);
+		// restored class files are written without the workspace, so the folder is cleared on the file system
+		try {
+			CompilationCache.clear(tmp.getRawLocation().toFile().toPath());
+		} catch (final IOException e) {
+			UIPlugin.getDefault().logError(e);
 		}
+		tmp.refreshLocal(IResource.DEPTH_INFINITE, null);
 		compile(configuration.getName());
 	}
 
@@ -101,9 +124,49 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 	 * @param confName
 	 */
 	private void compile(String confName) {
-		final LinkedList<IFile> files = getJavaFiles(generator.builder.folder.getFolder(confName));
+		final IFolder variantFolder = builder.folder.getFolder(confName);
+		final LinkedList<IFile> files = getJavaFiles(variantFolder);
+		final Path outputFolder = tmp.getRawLocation().toFile().toPath();
+
+		// reuse the class files of all files that were already compiled with the same dependencies
+		final LinkedList<IFile> changedFiles = new LinkedList<>();
+		final Map<IFile, SourceFile> changedSources = new HashMap<>();
+		final CompilationCache cache = builder.compilationCache;
+		if (cache != null) {
+			try {
+				final List<Path> paths = new ArrayList<>(files.size());
+				for (final IFile file : files) {
+					paths.add(file.getRawLocation().toFile().toPath());
+				}
+				final List<SourceFile> sourceFiles = cache.analyze(variantFolder.getRawLocation().toFile().toPath(), paths);
+				final Iterator<IFile> fileIterator = files.iterator();
+				for (final SourceFile sourceFile : sourceFiles) {
+					final IFile file = fileIterator.next();
+					final List<Problem> problems = cache.restore(sourceFile, outputFolder);
+					if (problems == null) {
+						changedFiles.add(file);
+						changedSources.put(file, sourceFile);
+					} else {
+						for (final Problem problem : problems) {
+							createMarker(file, problem, confName);
+						}
+					}
+				}
+			} catch (final IOException e) {
+				UIPlugin.getDefault().logError(e);
+				changedFiles.clear();
+				changedFiles.addAll(files);
+				changedSources.clear();
+			}
+		} else {
+			changedFiles.addAll(files);
+		}
+		if (changedFiles.isEmpty()) {
+			return;
+		}
+
 		final LinkedList<String> options = new LinkedList<>();
-		for (final IFile file : files) {
+		for (final IFile file : changedFiles) {
 			options.add(setupPath(file));
 		}
 		options.add("-g");
@@ -111,17 +174,46 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 		options.add("-source");
 		options.add("1.7");
 		options.add("-d");
-		options.add(setupPath(tmp.getRawLocation().toOSString()));
+		options.add(setupPath(outputFolder.toString()));
 		options.add("-classpath");
-		options.add(generator.builder.classpath);
+		// the reused class files are part of the class path
+		options.add(builder.classpath.isEmpty() ? setupPath(outputFolder.toString())
+			: builder.classpath + File.pathSeparator + setupPath(outputFolder.toString()));
 
 		final String output = process(options);
-		final LinkedList<IFile> errorFiles = parseJavacOutput(output, files, confName);
+		final Map<IFile, List<Problem>> problems = new HashMap<>();
+		final LinkedList<IFile> errorFiles = parseJavacOutput(output, changedFiles, confName, problems);
 		for (final IFile file : errorFiles) {
-			generator.builder.featureProject.getComposer().postCompile(null, file);
+			builder.featureProject.getComposer().postCompile(null, file);
+		}
+
+		// files with errors are compiled again for every variant, warnings are restored together with the class files
+		if (cache != null) {
+			for (final Entry<IFile, SourceFile> entry : changedSources.entrySet()) {
+				final List<Problem> fileProblems = problems.get(entry.getKey());
+				if (fileProblems != null) {
+					if (hasError(fileProblems)) {
+						continue;
+					}
+				}
+				try {
+					cache.store(entry.getValue(), outputFolder, fileProblems == null ? Collections.<Problem> emptyList() : fileProblems);
+				} catch (final IOException e) {
+					UIPlugin.getDefault().logError(e);
+				}
+			}
 		}
 	}
 
+	private static boolean hasError(List<Problem> problems) {
+		for (final Problem problem : problems) {
+			if (!problem.isWarning()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Adds quotation marks to the path name if it contains white spaces.
 	 */
@@ -164,6 +256,19 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 	 * @return list of files
 	 */
 	public LinkedList<IFile> parseJavacOutput(String output, LinkedList<IFile> files, String configurationName) {
+		return parseJavacOutput(output, files, configurationName, new HashMap<IFile, List<Problem>>());
+	}
+
+	/**
+	 * Generates the problem markers from the given compiler output.
+	 *
+	 * @param output The output from the compiler
+	 * @param files The compiled files
+	 * @param configurationName Name of the actual configuration
+	 * @param problems Receives the problems of every file that got a marker
+	 * @return list of files
+	 */
+	private LinkedList<IFile> parseJavacOutput(String output, LinkedList<IFile> files, String configurationName, Map<IFile, List<Problem>> problems) {
 		final LinkedList<IFile> errorFiles = new LinkedList<IFile>();
 		if (output.isEmpty()) {
 			return errorFiles;
@@ -218,21 +323,33 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 				if (!errorFiles.contains(currentFile)) {
 					errorFiles.add(currentFile);
 				}
-				IMarker newMarker;
-				newMarker = currentFile.createMarker(PROBLEM_MARKER);
-				if (newMarker.exists()) {
-					newMarker.setAttribute(IMarker.LINE_NUMBER, line);
-					newMarker.setAttribute(IMarker.MESSAGE, configurationName + " " + errorMessage);
-					newMarker.setAttribute(IMarker.SEVERITY, warning ? IMarker.SEVERITY_WARNING : IMarker.SEVERITY_ERROR);
+				final Problem problem = new Problem(line, warning, errorMessage);
+				List<Problem> fileProblems = problems.get(currentFile);
+				if (fileProblems == null) {
+					fileProblems = new ArrayList<>();
+					problems.put(currentFile, fileProblems);
 				}
+				fileProblems.add(problem);
+				createMarker(currentFile, problem, configurationName);
 			}
-		} catch (final CoreException e) {
-			UIPlugin.getDefault().logError(e);
 		}
 
 		return errorFiles;
 	}
 
+	private void createMarker(IFile file, Problem problem, String configurationName) {
+		try {
+			final IMarker newMarker = file.createMarker(PROBLEM_MARKER);
+			if (newMarker.exists()) {
+				newMarker.setAttribute(IMarker.LINE_NUMBER, problem.getLine());
+				newMarker.setAttribute(IMarker.MESSAGE, configurationName + " " + problem.getMessage());
+				newMarker.setAttribute(IMarker.SEVERITY, problem.isWarning() ? IMarker.SEVERITY_WARNING : IMarker.SEVERITY_ERROR);
+			}
+		} catch (final CoreException e) {
+			UIPlugin.getDefault().logError(e);
+		}
+	}
+
 	@SuppressWarnings("unused")
 	private String parseCannotFindSymbolMessage(Scanner scanner) {
 		while (scanner.hasNextLine()) {
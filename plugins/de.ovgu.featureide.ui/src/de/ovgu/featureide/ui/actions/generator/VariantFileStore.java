@@ -0,0 +1,264 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Content-addressed store for the files of generated variants.<br> Every distinct file content is stored once during a run. The files of a variant are
+ * hard links to the stored files, so the disk usage of a run grows with the number of distinct files instead of the number of variants. If a hard link
+ * cannot be created (e.g., because the variant is located on another file system), the stored file is copied instead.<br><br> All variants that contain
+ * the same file share the file until the store is cleared. Thus, {@link #clear()} must be called at the end of every run. It replaces every link by a
+ * copy of the stored file, so that a variant that is changed later (e.g., by the user or by building it again) does not change any other variant.
+ */
+public class VariantFileStore {
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final Path storeFolder;
+
+	private final AtomicLong storedFiles = new AtomicLong();
+	private final AtomicLong linkedFiles = new AtomicLong();
+	private final AtomicLong copiedFiles = new AtomicLong();
+
+	/**
+	 * The files of variants that are linked to a stored file, each together with the stored file.
+	 */
+	private final Queue<Path[]> links = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * @param storeFolder The folder that holds the stored files
+	 */
+	public VariantFileStore(Path storeFolder) {
+		this.storeFolder = storeFolder;
+	}
+
+	/**
+	 * Replaces the links of all variants by copies of the stored files and removes all stored files. Must be called after every run.
+	 *
+	 * @throws IOException if a file cannot be copied or deleted
+	 */
+	public void clear() throws IOException {
+		for (Path[] link = links.poll(); link != null; link = links.poll()) {
+			unlink(link[0], link[1]);
+		}
+		if (Files.exists(storeFolder)) {
+			Files.walkFileTree(storeFolder, new SimpleFileVisitor<Path>() {
+
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+					Files.delete(file);
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+					Files.delete(dir);
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		}
+	}
+
+	/**
+	 * Copies the given file or folder into a variant. Every file is taken from the store.
+	 *
+	 * @param source The file or folder to copy
+	 * @param target The location in the variant
+	 * @throws IOException if a file cannot be read or written
+	 */
+	public void copy(final Path source, final Path target) throws IOException {
+		Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+				Files.createDirectories(target.resolve(source.relativize(dir).toString()));
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				final Path targetFile = target.resolve(source.relativize(file).toString());
+				if (Files.isDirectory(targetFile)) {
+					return FileVisitResult.CONTINUE;
+				}
+				Files.createDirectories(targetFile.getParent());
+				final Path entry = getEntry(hash(file));
+				if (!Files.exists(entry)) {
+					insert(file, entry);
+				}
+				link(entry, targetFile);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	/**
+	 * Replaces all files in the given folder of a variant by links to the store. Files whose content is not yet stored are moved into the store without
+	 * copying them.
+	 *
+	 * @param folder The folder of the variant
+	 * @throws IOException if a file cannot be read or written
+	 */
+	public void deduplicate(Path folder) throws IOException {
+		if (!Files.isDirectory(folder)) {
+			return;
+		}
+		Files.walkFileTree(folder, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				if (attrs.isRegularFile()) {
+					deduplicateFile(file);
+				}
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	private void deduplicateFile(Path file) throws IOException {
+		final Path entry = getEntry(hash(file));
+		if (!Files.exists(entry)) {
+			try {
+				// the file itself becomes the stored file
+				Files.createDirectories(entry.getParent());
+				Files.createLink(entry, file);
+				addLink(file, entry);
+				storedFiles.incrementAndGet();
+				return;
+			} catch (final FileAlreadyExistsException e) {
+				// stored concurrently by another variant
+			} catch (final UnsupportedOperationException | IOException e) {
+				// no hard links on this file system, keep the file
+				return;
+			}
+		}
+		if (Files.isSameFile(file, entry)) {
+			return;
+		}
+		final Path tempFile = file.resolveSibling(file.getFileName() + ".link");
+		try {
+			Files.createLink(tempFile, entry);
+		} catch (final UnsupportedOperationException | IOException e) {
+			return;
+		}
+		Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		addLink(file, entry);
+		linkedFiles.incrementAndGet();
+	}
+
+	private void insert(Path file, Path entry) throws IOException {
+		Files.createDirectories(entry.getParent());
+		final Path tempFile = entry.resolveSibling(entry.getFileName() + "." + Thread.currentThread().getId() + ".tmp");
+		try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ);
+				FileChannel out = FileChannel.open(tempFile, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			final long size = in.size();
+			long position = 0;
+			while (position < size) {
+				position += in.transferTo(position, size - position, out);
+			}
+		}
+		try {
+			Files.move(tempFile, entry, StandardCopyOption.ATOMIC_MOVE);
+			storedFiles.incrementAndGet();
+		} catch (FileAlreadyExistsException | AtomicMoveNotSupportedException e) {
+			Files.deleteIfExists(tempFile);
+			if (!Files.exists(entry)) {
+				throw e;
+			}
+		}
+	}
+
+	private void link(Path entry, Path target) throws IOException {
+		Files.deleteIfExists(target);
+		try {
+			Files.createLink(target, entry);
+			addLink(target, entry);
+			linkedFiles.incrementAndGet();
+		} catch (final UnsupportedOperationException | IOException e) {
+			Files.copy(entry, target);
+			copiedFiles.incrementAndGet();
+		}
+	}
+
+	private void addLink(Path file, Path entry) {
+		links.add(new Path[] { file, entry });
+	}
+
+	/**
+	 * Replaces the given file by a copy of the stored file, if it is still linked to the stored file.
+	 */
+	private static void unlink(Path file, Path entry) throws IOException {
+		if (!Files.exists(file) || !Files.exists(entry) || !Files.isSameFile(file, entry)) {
+			return;
+		}
+		final Path tempFile = file.resolveSibling(file.getFileName() + ".copy");
+		Files.copy(entry, tempFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+		Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private Path getEntry(String hash) {
+		return storeFolder.resolve(hash.substring(0, 2)).resolve(hash);
+	}
+
+	private static String hash(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+			while (channel.read(buffer) >= 0) {
+				buffer.flip();
+				digest.update(buffer);
+				buffer.clear();
+			}
+			final byte[] hash = digest.digest();
+			final StringBuilder sb = new StringBuilder(hash.length * 2);
+			for (final byte b : hash) {
+				sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+				sb.append(Character.forDigit(b & 0xF, 16));
+			}
+			return sb.toString();
+		} catch (final NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "Variant store: " + storedFiles.get() + " distinct files, " + linkedFiles.get() + " links, " + copiedFiles.get() + " copies";
+	}
+
+}
@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.ui.views.collaboration.editparts;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -142,7 +143,8 @@ public class ModelEditPart extends AbstractGraphicalEditPart implements GUIDefau
 		}
 	}
 
-	private void addClasses(final List<FSTClass> classes, final List<Object> list) {
+	private void addClasses(final List<FSTClass> modelClasses, final List<Object> list) {
+		final List<FSTClass> classes = new ArrayList<>(modelClasses);
 		Collections.sort(classes, CLASS_COMPARATOR);
 		for (final FSTClass c : classes) {
 			if (CollaborationModelBuilder.showClass(c)) {
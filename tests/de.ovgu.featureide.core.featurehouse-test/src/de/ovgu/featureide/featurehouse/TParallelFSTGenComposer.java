@@ -0,0 +1,156 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.featurehouse;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import composer.CmdLineInterpreter;
+import composer.FSTGenComposer;
+
+/**
+ * Tests for {@link ParallelFSTGenComposer}.
+ */
+public class TParallelFSTGenComposer {
+
+	private static final String[] FEATURES = { "Base", "Logging", "Counter" };
+
+	private Path root;
+	private ThreadPoolExecutor executor;
+
+	@Before
+	public void setUp() throws IOException {
+		root = Files.createTempDirectory("parallelComposer");
+		executor = new ThreadPoolExecutor(4, 4, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+
+		write("features/Base/pkg/Main.java", "package pkg;\n\npublic class Main {\n\tint value;\n\n\tpublic void run() {\n\t\tvalue = 1;\n\t}\n}\n");
+		write("features/Base/pkg/Util.java", "package pkg;\n\npublic class Util {\n\tpublic static int twice(int i) {\n\t\treturn 2 * i;\n\t}\n}\n");
+		write("features/Base/Start.java", "public class Start {\n\tpublic static void main(String[] args) {\n\t\tnew pkg.Main().run();\n\t}\n}\n");
+		write("features/Logging/pkg/Main.java",
+				"package pkg;\n\npublic class Main {\n\tpublic void run() {\n\t\tSystem.out.println(\"start\");\n\t\toriginal();\n\t}\n}\n");
+		write("features/Logging/pkg/Logger.java", "package pkg;\n\npublic class Logger {\n\tpublic void log(String s) {\n\t\tSystem.out.println(s);\n\t}\n}\n");
+		write("features/Counter/pkg/Main.java",
+				"package pkg;\n\npublic class Main {\n\tint count;\n\n\tpublic void run() {\n\t\toriginal();\n\t\tcount++;\n\t}\n}\n");
+		write("features/Counter/pkg/Util.java",
+				"package pkg;\n\npublic class Util {\n\tpublic static int thrice(int i) {\n\t\treturn 3 * i;\n\t}\n}\n");
+		write("product.config", String.join("\n", FEATURES) + "\n");
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		executor.shutdownNow();
+		Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				Files.delete(file);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+				Files.delete(dir);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	private void write(String file, String content) throws IOException {
+		final Path path = root.resolve(file);
+		Files.createDirectories(path.getParent());
+		Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private String[] getArguments(String output) {
+		return new String[] { CmdLineInterpreter.INPUT_OPTION_EQUATIONFILE, root.resolve("product.config").toString(),
+			CmdLineInterpreter.INPUT_OPTION_BASE_DIRECTORY, root.resolve("features").toString(), CmdLineInterpreter.INPUT_OPTION_OUTPUT_DIRECTORY,
+			root.resolve(output).toString() + "/", CmdLineInterpreter.INPUT_OPTION_NO_CONFIG_OUTPUT_DIR };
+	}
+
+	private Map<String, String> readOutput(String output) throws IOException {
+		final Path folder = root.resolve(output);
+		final Map<String, String> files = new TreeMap<>();
+		Files.walkFileTree(folder, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				files.put(folder.relativize(file).toString(), new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+				return FileVisitResult.CONTINUE;
+			}
+		});
+		return files;
+	}
+
+	@Test
+	public void testSameResultAsSequentialComposition() throws IOException {
+		new FSTGenComposer(false).run(getArguments("sequential"));
+		new ParallelFSTGenComposer(executor).run(getArguments("parallel"));
+
+		final Map<String, String> sequential = readOutput("sequential");
+		final Map<String, String> parallel = readOutput("parallel");
+		assertEquals(sequential, parallel);
+		assertTrue(parallel.containsKey("pkg/Logger.java".replace('/', File.separatorChar)));
+		// Main is refined by Logging and Counter, Util by Counter
+		assertEquals(3, executor.getTaskCount());
+	}
+
+	@Test
+	public void testClassesOfAllFeaturesComposed() throws IOException {
+		new ParallelFSTGenComposer(executor).run(getArguments("parallel"));
+
+		final Map<String, String> parallel = readOutput("parallel");
+		final String main = parallel.get("pkg/Main.java".replace('/', File.separatorChar));
+		assertTrue(main.contains("value"));
+		assertTrue(main.contains("count"));
+		assertTrue(main.contains("System.out.println(\"start\")"));
+		final String util = parallel.get("pkg/Util.java".replace('/', File.separatorChar));
+		assertTrue(util.contains("twice"));
+		assertTrue(util.contains("thrice"));
+	}
+
+	@Test
+	public void testRepeatedCompositionIsDeterministic() throws IOException {
+		final ParallelFSTGenComposer composer = new ParallelFSTGenComposer(executor);
+		composer.run(getArguments("first"));
+		new ParallelFSTGenComposer(executor).run(getArguments("second"));
+
+		assertEquals(readOutput("first"), readOutput("second"));
+	}
+
+}
@@ -0,0 +1,204 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.featurehouse.meta;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import composer.CmdLineInterpreter;
+import composer.FSTGenComposerExtension;
+import composer.rules.meta.MinimalFeatureModelInfo;
+import de.ovgu.cide.fstgen.ast.FSTNode;
+import de.ovgu.featureide.featurehouse.model.FHNodeTypes;
+
+/**
+ * Tests for {@link MetaProductCache}.
+ */
+public class TMetaProductCache implements FHNodeTypes {
+
+	private static final String KEY = "key";
+	private static final String[] COMPOSED_FEATURES = { "Base", "Logging", "Counter" };
+	/**
+	 * Dead features are <code>null</code> entries at the end of the feature array of the composer.
+	 */
+	private static final String[] FEATURES = { "Base", "Logging", "Counter", null };
+
+	private Path root;
+	private Path source;
+	private final MetaProductCache cache = new MetaProductCache();
+
+	@Before
+	public void setUp() throws IOException {
+		root = Files.createTempDirectory("metaProductCache");
+		source = root.resolve("features");
+		write("Base/pkg/Main.java", "package pkg;\n\npublic class Main {\n\tpublic void run() {\n\t\tSystem.out.println(\"run\");\n\t}\n}\n");
+		write("Base/pkg/Util.java", "package pkg;\n\npublic class Util {\n\tpublic static int twice(int i) {\n\t\treturn 2 * i;\n\t}\n}\n");
+		write("Logging/pkg/Main.java", "package pkg;\n\npublic class Main {\n\tpublic void run() {\n\t\tSystem.out.println(\"log\");\n\t\toriginal();\n\t}\n}\n");
+		write("Counter/pkg/Util.java", "package pkg;\n\npublic class Util {\n\tpublic static int thrice(int i) {\n\t\treturn 3 * i;\n\t}\n}\n");
+		write("Counter/pkg/Counter.java", "package pkg;\n\npublic class Counter {\n\tint count;\n}\n");
+		Files.write(root.resolve("product.config"), "Base\nLogging\nCounter\n".getBytes(StandardCharsets.UTF_8));
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		MetaProductCache.delete(root);
+	}
+
+	private void write(String file, String content) throws IOException {
+		final Path path = source.resolve(file);
+		Files.createDirectories(path.getParent());
+		Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private ArrayList<FSTNode> compose(Path sourcePath, Path outputPath) {
+		FSTGenComposerExtension.key = false;
+		final FSTGenComposerExtension composer = new FSTGenComposerExtension();
+		composer.setModelInfo(new MinimalFeatureModelInfo());
+		composer.buildMetaProduct(new String[] { CmdLineInterpreter.INPUT_OPTION_EQUATIONFILE, root.resolve("product.config").toString(),
+			CmdLineInterpreter.INPUT_OPTION_BASE_DIRECTORY, sourcePath.toString(), CmdLineInterpreter.INPUT_OPTION_OUTPUT_DIRECTORY, outputPath.toString() + "/",
+			CmdLineInterpreter.INPUT_OPTION_NO_CONFIG_OUTPUT_DIR }, COMPOSED_FEATURES);
+		// the nodes are collected in a static list of FeatureHouse
+		final ArrayList<FSTNode> nodes = new ArrayList<>(composer.getFstnodes());
+		composer.getFstnodes().clear();
+		return nodes;
+	}
+
+	/**
+	 * Composes all changed classes like the FeatureHouse composer, i.e., from the original source folder if no class is cached and from a copy of the
+	 * changed classes otherwise.
+	 */
+	private List<String> build(Path outputPath) throws IOException {
+		final List<String> changedClasses = cache.getChangedClasses(KEY, source, FEATURES);
+		if (!cache.hasCachedClasses()) {
+			cache.update(changedClasses, source, source, outputPath, compose(source, outputPath));
+		} else if (!changedClasses.isEmpty()) {
+			final Path copy = root.resolve("copy");
+			MetaProductCache.copyClasses(changedClasses, source, copy, FEATURES);
+			cache.update(changedClasses, source, copy, outputPath, compose(copy, outputPath));
+			MetaProductCache.delete(copy);
+		}
+		cache.restore(outputPath);
+		return changedClasses;
+	}
+
+	private static Map<String, String> read(final Path folder) throws IOException {
+		final Map<String, String> files = new TreeMap<>();
+		Files.walkFileTree(folder, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				files.put(folder.relativize(file).toString(), new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+				return FileVisitResult.CONTINUE;
+			}
+		});
+		return files;
+	}
+
+	private static List<String> getClassFiles(List<FSTNode> nodes) {
+		final List<String> files = new ArrayList<>();
+		for (final FSTNode node : nodes) {
+			if (NODE_TYPE_CLASS.equals(node.getType())) {
+				files.add(node.getName());
+			}
+		}
+		Collections.sort(files);
+		return files;
+	}
+
+	@Test
+	public void testAllClassesChangedInitially() throws IOException {
+		assertEquals(Arrays.asList("pkg/Counter.java", "pkg/Main.java", "pkg/Util.java"), cache.getChangedClasses(KEY, source, FEATURES));
+		assertFalse(cache.hasCachedClasses());
+	}
+
+	@Test
+	public void testUnchangedClassesRestored() throws IOException {
+		build(root.resolve("out1"));
+
+		assertTrue(build(root.resolve("out2")).isEmpty());
+		assertEquals(read(root.resolve("out1")), read(root.resolve("out2")));
+	}
+
+	@Test
+	public void testOnlyChangedClassComposed() throws IOException {
+		build(root.resolve("out1"));
+
+		write("Counter/pkg/Util.java", "package pkg;\n\npublic class Util {\n\tpublic static int square(int i) {\n\t\treturn i * i;\n\t}\n}\n");
+		assertEquals(Arrays.asList("pkg/Util.java"), build(root.resolve("out2")));
+
+		final Map<String, String> incremental = read(root.resolve("out2"));
+		assertTrue(incremental.get("pkg/Util.java").contains("square"));
+		assertEquals(read(root.resolve("out1")).keySet(), incremental.keySet());
+
+		compose(source, root.resolve("full"));
+		assertEquals(read(root.resolve("full")), incremental);
+	}
+
+	@Test
+	public void testNodesReferToOriginalFiles() throws IOException {
+		final ArrayList<FSTNode> fullNodes = compose(source, root.resolve("full"));
+		build(root.resolve("out1"));
+		write("Logging/pkg/Main.java", "package pkg;\n\npublic class Main {\n\tpublic void run() {\n\t\toriginal();\n\t}\n}\n");
+		build(root.resolve("out2"));
+
+		final ArrayList<FSTNode> nodes = cache.getFSTNodes(FEATURES);
+		assertEquals(getClassFiles(fullNodes), getClassFiles(nodes));
+		assertEquals(NODE_TYPE_FEATURE, nodes.get(0).getType());
+		assertEquals("Base", nodes.get(0).getName());
+	}
+
+	@Test
+	public void testKeyChangeInvalidatesCache() throws IOException {
+		build(root.resolve("out1"));
+
+		assertEquals(3, cache.getChangedClasses("otherKey", source, FEATURES).size());
+		assertFalse(cache.hasCachedClasses());
+	}
+
+	@Test
+	public void testRemovedClassDropped() throws IOException {
+		build(root.resolve("out1"));
+
+		Files.delete(source.resolve("Counter/pkg/Counter.java"));
+		assertTrue(build(root.resolve("out2")).isEmpty());
+		assertFalse(read(root.resolve("out2")).containsKey("pkg/Counter.java"));
+	}
+
+}
@@ -0,0 +1,182 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.featurehouse.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.ovgu.cide.fstgen.ast.FSTNode;
+import de.ovgu.cide.fstgen.ast.FSTNonTerminal;
+
+/**
+ * Tests for {@link FeatureNodeCache}.
+ */
+public class TFeatureNodeCache implements FHNodeTypes {
+
+	private static final String KEY = "key";
+
+	private Path source;
+	private FeatureNodeCache cache;
+	private final List<String> featureOrder = new ArrayList<>(Arrays.asList("Base", "Feature1", "Feature2"));
+
+	@Before
+	public void setUp() throws IOException {
+		source = Files.createTempDirectory("featureNodeCache");
+		for (final String feature : featureOrder) {
+			write(feature + "/Main.java", "class Main {}");
+		}
+		cache = new FeatureNodeCache();
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				Files.delete(file);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+				Files.delete(dir);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	private void write(String file, String content) throws IOException {
+		final Path path = source.resolve(file);
+		Files.createDirectories(path.getParent());
+		Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private List<String> getChangedFeatures() {
+		return Arrays.asList(cache.getChangedFeatures(KEY, source.toString(), featureOrder));
+	}
+
+	/**
+	 * Creates the parser output for the given features: one feature node followed by one class node per feature.
+	 */
+	private static List<FSTNode> parse(String... features) {
+		final List<FSTNode> nodes = new ArrayList<>();
+		for (final String feature : features) {
+			nodes.add(new FSTNonTerminal(NODE_TYPE_FEATURE, feature));
+			nodes.add(new FSTNonTerminal("Java-File", feature + "Main.java"));
+		}
+		return nodes;
+	}
+
+	private static List<String> getNames(List<FSTNode> nodes) {
+		final List<String> names = new ArrayList<>();
+		for (final FSTNode node : nodes) {
+			names.add(node.getName());
+		}
+		return names;
+	}
+
+	@Test
+	public void testAllFeaturesChangedInitially() {
+		assertEquals(featureOrder, getChangedFeatures());
+	}
+
+	@Test
+	public void testNoFeatureChangedAfterUpdate() {
+		final String[] changed = cache.getChangedFeatures(KEY, source.toString(), featureOrder);
+		cache.update(parse(changed), changed, true);
+
+		assertTrue(getChangedFeatures().isEmpty());
+	}
+
+	@Test
+	public void testOnlyModifiedFeatureChanged() throws IOException {
+		final String[] changed = cache.getChangedFeatures(KEY, source.toString(), featureOrder);
+		cache.update(parse(changed), changed, true);
+
+		write("Feature1/Main.java", "class Main { int i; }");
+		assertEquals(Arrays.asList("Feature1"), getChangedFeatures());
+
+		write("Feature2/Other.java", "class Other {}");
+		assertEquals(Arrays.asList("Feature1", "Feature2"), getChangedFeatures());
+	}
+
+	@Test
+	public void testUnsuccessfulParseIsRepeated() {
+		final String[] changed = cache.getChangedFeatures(KEY, source.toString(), featureOrder);
+		cache.update(parse(changed), changed, false);
+
+		assertEquals(featureOrder, getChangedFeatures());
+	}
+
+	@Test
+	public void testKeyChangeInvalidatesCache() {
+		final String[] changed = cache.getChangedFeatures(KEY, source.toString(), featureOrder);
+		cache.update(parse(changed), changed, true);
+
+		assertEquals(featureOrder, Arrays.asList(cache.getChangedFeatures("otherKey", source.toString(), featureOrder)));
+		assertTrue(cache.getNodes(featureOrder).isEmpty());
+	}
+
+	@Test
+	public void testNodesReusedInFeatureOrder() throws IOException {
+		final String[] changed = cache.getChangedFeatures(KEY, source.toString(), featureOrder);
+		cache.update(parse(changed), changed, true);
+
+		write("Base/Main.java", "class Main { int j; }");
+		final String[] reparsed = cache.getChangedFeatures(KEY, source.toString(), featureOrder);
+		cache.update(parse(reparsed), reparsed, true);
+
+		assertEquals(Arrays.asList("Base", "BaseMain.java", "Feature1", "Feature1Main.java", "Feature2", "Feature2Main.java"),
+				getNames(cache.getNodes(featureOrder)));
+
+		featureOrder.add(0, featureOrder.remove(2));
+		assertEquals(Arrays.asList("Feature2", "Feature2Main.java", "Base", "BaseMain.java", "Feature1", "Feature1Main.java"),
+				getNames(cache.getNodes(featureOrder)));
+	}
+
+	@Test
+	public void testRemovedFeatureDropped() {
+		final String[] changed = cache.getChangedFeatures(KEY, source.toString(), featureOrder);
+		cache.update(parse(changed), changed, true);
+
+		featureOrder.remove("Feature1");
+		assertTrue(getChangedFeatures().isEmpty());
+		featureOrder.add("Feature1");
+		assertEquals(Arrays.asList("Feature1"), getChangedFeatures());
+	}
+
+}
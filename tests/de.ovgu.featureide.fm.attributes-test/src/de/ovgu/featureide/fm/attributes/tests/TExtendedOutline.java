@@ -24,6 +24,9 @@ import static org.junit.Assert.assertTrue;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Not;
 
 import de.ovgu.featureide.fm.attributes.FMAttributesLibrary;
 import de.ovgu.featureide.fm.attributes.base.IFeatureAttribute;
@@ -33,6 +36,8 @@ import de.ovgu.featureide.fm.attributes.outlineentry.AttributeMaximumEntry;
 import de.ovgu.featureide.fm.attributes.outlineentry.AttributeMinimumEntry;
 import de.ovgu.featureide.fm.attributes.outlineentry.CountAttributeComputation;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.base.IFeatureModelFactory;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
 import de.ovgu.featureide.fm.core.configuration.SelectableFeature;
 import de.ovgu.featureide.fm.core.configuration.Selection;
@@ -139,4 +144,66 @@ public class TExtendedOutline {
 		int value = (int) valueObject;
 		assertTrue(value == 19);
 	}
+
+	@Test
+	public void testMaximumComputationConsidersConstraints() {
+		ExtendedFeatureModel model = Commons.getSandwitchModel();
+		IFeatureModelFactory factory = FMFactoryManager.getInstance().getFactory(model);
+		model.addConstraint(factory.createConstraint(model, new Implies(new Literal("Salami "), new Not(new Literal("Ham")))));
+		Configuration congf = new Configuration(new FeatureModelFormula(model));
+
+		for (final SelectableFeature f : congf.getFeatures()) {
+			if (f.getFeature().getName().equals("Full Grain ")) {
+				congf.setManual(f, Selection.SELECTED);
+			}
+		}
+
+		IFeatureAttribute attributePrice = getAttribute(model, "Price");
+		assertTrue(attributePrice != null);
+
+		// the estimation ignores that Salami and Ham exclude each other
+		AttributeMaximumEntry max = new AttributeMaximumEntry(congf, attributePrice);
+		Object valueObject = max.getResult();
+
+		assertTrue(valueObject instanceof Double);
+		double value = (double) valueObject;
+		assertTrue(value == 7.71d);
+		assertTrue(max.getLabel().endsWith("7.71"));
+	}
+
+	@Test
+	public void testMinimumComputationConsidersConstraints() {
+		ExtendedFeatureModel model = Commons.getSandwitchModel();
+		IFeatureModelFactory factory = FMFactoryManager.getInstance().getFactory(model);
+		model.addConstraint(factory.createConstraint(model, new Implies(new Literal("Full Grain "), new Literal("Cheddar"))));
+		Configuration congf = new Configuration(new FeatureModelFormula(model));
+
+		for (final SelectableFeature f : congf.getFeatures()) {
+			if (f.getFeature().getName().equals("Full Grain ")) {
+				congf.setManual(f, Selection.SELECTED);
+			}
+		}
+
+		IFeatureAttribute attributePrice = getAttribute(model, "Price");
+		assertTrue(attributePrice != null);
+
+		// the estimation ignores that Full Grain requires Cheddar
+		AttributeMinimumEntry min = new AttributeMinimumEntry(congf, attributePrice);
+		Object valueObject = min.getResult();
+
+		assertTrue(valueObject instanceof Double);
+		double value = (double) valueObject;
+		assertTrue(value == 2.68d);
+		assertTrue(min.getLabel().endsWith("2.68"));
+	}
+
+	private IFeatureAttribute getAttribute(ExtendedFeatureModel model, String name) {
+		ExtendedFeature feature = (ExtendedFeature) model.getStructure().getRoot().getFeature();
+		for (IFeatureAttribute att : feature.getAttributes()) {
+			if (att.getName().equals(name)) {
+				return att;
+			}
+		}
+		return null;
+	}
 }
@@ -21,10 +21,17 @@
 package de.ovgu.featureide.fm.core;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.List;
 
 import org.junit.Test;
 import org.prop4j.Implies;
@@ -36,7 +43,14 @@ import de.ovgu.featureide.fm.core.base.IConstraint;
 import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.base.IFeatureModelFactory;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent.EventType;
+import de.ovgu.featureide.fm.core.base.event.IEventListener;
 import de.ovgu.featureide.fm.core.base.impl.DefaultFeatureModelFactory;
+import de.ovgu.featureide.fm.core.init.FMCoreLibrary;
+import de.ovgu.featureide.fm.core.init.LibraryManager;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+import de.ovgu.featureide.fm.core.job.SliceFeatureModel;
 
 /**
  * Tests for the {@link IFeatureModel}.
@@ -125,4 +139,80 @@ public class TFeatureModel {
 		}
 	}
 
+	@Test
+	public void bulkEditCoalescesEvents() {
+		final IFeatureModel fm = factory.create();
+		final List<FeatureIDEEvent> events = new ArrayList<>();
+		fm.addListener(new IEventListener() {
+
+			@Override
+			public void propertyChange(FeatureIDEEvent event) {
+				events.add(event);
+			}
+		});
+
+		fm.beginBulkEdit();
+		fm.beginBulkEdit();
+		fm.handleModelDataChanged();
+		fm.endBulkEdit();
+		fm.fireEvent(new FeatureIDEEvent(fm, EventType.STRUCTURE_CHANGED));
+		assertTrue(fm.isInBulkEdit());
+		assertTrue(events.isEmpty());
+		fm.endBulkEdit();
+
+		assertFalse(fm.isInBulkEdit());
+		assertEquals(1, events.size());
+		assertEquals(EventType.MODEL_DATA_CHANGED, events.get(0).getEventType());
+		assertEquals(2, ((List<?>) events.get(0).getNewValue()).size());
+
+		fm.handleModelDataChanged();
+		assertEquals(2, events.size());
+	}
+
+	@Test
+	public void sliceFeatureModelEndsBulkEdit() {
+		LibraryManager.registerLibrary(FMCoreLibrary.getInstance());
+		final IFeatureModel fm = factory.create();
+		final IFeature root = factory.createFeature(fm, "Root");
+		fm.addFeature(root);
+		fm.getStructure().setRoot(root.getStructure());
+		for (final String name : new String[] { "A", "B", "C" }) {
+			final IFeature feature = factory.createFeature(fm, name);
+			fm.addFeature(feature);
+			root.getStructure().addChild(feature.getStructure());
+		}
+		fm.addConstraint(factory.createConstraint(fm, new Implies(new Literal("A"), new Literal("B"))));
+
+		final IFeatureModel slice = LongRunningWrapper.runMethod(new SliceFeatureModel(fm, Arrays.asList("Root", "A", "B"), true));
+
+		assertFalse(slice.isInBulkEdit());
+		assertNotNull(slice.getFeature("A"));
+		assertNotNull(slice.getFeature("B"));
+		assertNull(slice.getFeature("C"));
+
+		final List<FeatureIDEEvent> events = new ArrayList<>();
+		slice.addListener(events::add);
+		slice.handleModelDataChanged();
+		assertEquals(1, events.size());
+	}
+
+	@Test
+	public void getConstraintIndexTest() {
+		final IFeatureModel fm = factory.create();
+		final IConstraint c1 = factory.createConstraint(fm, new Literal("A"));
+		final IConstraint c2 = factory.createConstraint(fm, new Literal("B"));
+		final IConstraint c3 = factory.createConstraint(fm, new Literal("C"));
+		fm.addConstraint(c1);
+		fm.addConstraint(c2);
+		assertEquals(1, fm.getConstraintIndex(c2));
+		fm.addConstraint(c3);
+		assertEquals(2, fm.getConstraintIndex(c3));
+		fm.removeConstraint(c1);
+		assertEquals(-1, fm.getConstraintIndex(c1));
+		assertEquals(0, fm.getConstraintIndex(c2));
+		fm.addConstraint(c1, 0);
+		assertEquals(0, fm.getConstraintIndex(c1));
+		assertEquals(2, fm.getConstraintIndex(c3));
+	}
+
 }
@@ -0,0 +1,256 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+import org.prop4j.Implies;
+import org.prop4j.Not;
+import org.prop4j.Or;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.ConstraintProperties;
+import de.ovgu.featureide.fm.core.analysis.ConstraintProperties.ConstraintStatus;
+import de.ovgu.featureide.fm.core.analysis.FeatureModelProperties.FeatureModelStatus;
+import de.ovgu.featureide.fm.core.analysis.FeatureProperties;
+import de.ovgu.featureide.fm.core.analysis.FeatureProperties.FeatureStatus;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelFactory;
+import de.ovgu.featureide.fm.core.base.impl.DefaultFeatureModelFactory;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.base.impl.FeatureModelProperty;
+import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
+import de.ovgu.featureide.fm.core.job.IRunner;
+import de.ovgu.featureide.fm.core.job.JobExecutor;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link LazyAnomalyAnalyzer}.
+ */
+public class TLazyAnomalyAnalyzer {
+
+	private static final File MODEL_FILE_FOLDER = Commons.getRemoteOrLocalFolder("analyzefeaturemodels/");
+
+	private static final FeatureStatus[] FEATURE_STATUS = { FeatureStatus.DEAD, FeatureStatus.FALSE_OPTIONAL, FeatureStatus.INDETERMINATE_HIDDEN };
+
+	private static FeatureModelAnalyzer analyze(IFeatureModel featureModel, LazyAnomalyAnalyzer lazyAnalyzer) {
+		final FeatureModelAnalyzer analyzer = new FeatureModelAnalyzer(new FeatureModelFormula(featureModel));
+		analyzer.setLazyAnalyzer(lazyAnalyzer);
+		analyzer.analyzeFeatureModel(null);
+		return analyzer;
+	}
+
+	private static void requestAll(FeatureModelAnalyzer analyzer, IFeatureModel featureModel) throws InterruptedException {
+		for (final IFeature feature : featureModel.getFeatures()) {
+			analyzer.getFeatureProperties(feature);
+		}
+		for (final IConstraint constraint : featureModel.getConstraints()) {
+			analyzer.getConstraintProperties(constraint);
+		}
+		analyzer.getLazyAnalyzer().join();
+	}
+
+	private static void assertSameResults(IFeatureModel featureModel, FeatureModelAnalyzer eagerAnalyzer, FeatureModelAnalyzer lazyAnalyzer) {
+		final boolean voidModel = eagerAnalyzer.getFeatureModelProperties().hasStatus(FeatureModelStatus.VOID);
+		assertEquals(voidModel, lazyAnalyzer.getFeatureModelProperties().hasStatus(FeatureModelStatus.VOID));
+		for (final IFeature feature : featureModel.getFeatures()) {
+			assertTrue(feature.getName(), lazyAnalyzer.getLazyAnalyzer().isComputed(feature));
+			final FeatureProperties eagerProperties = eagerAnalyzer.getFeatureProperties(feature);
+			final FeatureProperties lazyProperties = lazyAnalyzer.getFeatureProperties(feature);
+			for (final FeatureStatus status : FEATURE_STATUS) {
+				assertEquals(feature.getName() + " " + status, eagerProperties.hasStatus(status), lazyProperties.hasStatus(status));
+			}
+		}
+		if (!voidModel) {
+			for (final IConstraint constraint : featureModel.getConstraints()) {
+				assertTrue(constraint.toString(), lazyAnalyzer.getLazyAnalyzer().isComputed(constraint));
+				final ConstraintProperties eagerProperties = eagerAnalyzer.getConstraintProperties(constraint);
+				final ConstraintProperties lazyProperties = lazyAnalyzer.getConstraintProperties(constraint);
+				assertEquals(constraint.toString(), eagerProperties.hasStatus(ConstraintStatus.REDUNDANT), lazyProperties.hasStatus(ConstraintStatus.REDUNDANT));
+				assertEquals(constraint.toString(), eagerProperties.hasStatus(ConstraintStatus.TAUTOLOGY), lazyProperties.hasStatus(ConstraintStatus.TAUTOLOGY));
+				// the eager analysis reports an anomaly for every later constraint as well, the lazy analysis only for the first constraint that causes it
+				assertTrue(constraint.toString(), eagerProperties.getDeadFeatures().containsAll(lazyProperties.getDeadFeatures()));
+				assertTrue(constraint.toString(), eagerProperties.getFalseOptionalFeatures().containsAll(lazyProperties.getFalseOptionalFeatures()));
+			}
+		}
+	}
+
+	@Test
+	public void testSameResultsAsEagerAnalysis() throws InterruptedException {
+		for (int i = 1; i <= 8; i++) {
+			final IFeatureModel featureModel = FeatureModelManager.load(new File(MODEL_FILE_FOLDER, "test_" + i + ".xml").toPath());
+			final FeatureModelAnalyzer eagerAnalyzer = analyze(featureModel, null);
+			final FeatureModelAnalyzer lazyAnalyzer = analyze(featureModel, new LazyAnomalyAnalyzer());
+			requestAll(lazyAnalyzer, featureModel);
+			assertSameResults(featureModel, eagerAnalyzer, lazyAnalyzer);
+		}
+	}
+
+	@Test
+	public void testComputesOnDemand() throws InterruptedException {
+		final IFeatureModel featureModel = Commons.loadBenchmarkFeatureModelFromFile("200-100.xml");
+		final LazyAnomalyAnalyzer lazyAnalyzer = new LazyAnomalyAnalyzer();
+		final FeatureModelAnalyzer analyzer = analyze(featureModel, lazyAnalyzer);
+		lazyAnalyzer.join();
+		for (final IFeature feature : featureModel.getFeatures()) {
+			assertFalse(feature.getName(), lazyAnalyzer.isComputed(feature));
+		}
+
+		final IFeature feature = featureModel.getFeatures().iterator().next();
+		analyzer.getFeatureProperties(feature);
+		lazyAnalyzer.join();
+		assertTrue(lazyAnalyzer.isComputed(feature));
+	}
+
+	@Test
+	public void testKeepsUnaffectedResults() throws InterruptedException {
+		final IFeatureModel featureModel = Commons.loadBenchmarkFeatureModelFromFile("200-100.xml");
+		final LazyAnomalyAnalyzer lazyAnalyzer = new LazyAnomalyAnalyzer();
+		requestAll(analyze(featureModel, lazyAnalyzer), featureModel);
+
+		// make a leaf feature dead
+		final FeatureModelAnalyzer eagerAnalyzer = analyze(featureModel, null);
+		IFeature deadFeature = null;
+		for (final IFeature feature : featureModel.getFeatures()) {
+			if (!feature.getStructure().hasChildren() && !eagerAnalyzer.getFeatureProperties(feature).hasStatus(FeatureStatus.DEAD)) {
+				deadFeature = feature;
+				break;
+			}
+		}
+		final IFeatureModel editedFeatureModel = featureModel.clone();
+		final IFeatureModelFactory factory = FMFactoryManager.getInstance().getFactory(editedFeatureModel);
+		editedFeatureModel.addConstraint(factory.createConstraint(editedFeatureModel, new Not(deadFeature.getName())));
+
+		final FeatureModelAnalyzer analyzer = analyze(editedFeatureModel, lazyAnalyzer);
+		assertFalse(lazyAnalyzer.isComputed(editedFeatureModel.getFeature(deadFeature.getName())));
+		int keptResults = 0;
+		for (final IFeature feature : editedFeatureModel.getFeatures()) {
+			if (lazyAnalyzer.isComputed(feature)) {
+				keptResults++;
+			}
+		}
+		assertTrue(keptResults > 0);
+		assertTrue(keptResults < editedFeatureModel.getNumberOfFeatures());
+
+		requestAll(analyzer, editedFeatureModel);
+		assertTrue(analyzer.getFeatureProperties(editedFeatureModel.getFeature(deadFeature.getName())).hasStatus(FeatureStatus.DEAD));
+		assertSameResults(editedFeatureModel, analyze(editedFeatureModel, null), analyzer);
+	}
+
+	@Test
+	public void testConstraintsCausingAnomalies() throws InterruptedException {
+		final IFeatureModel featureModel = FeatureModelManager.load(new File(MODEL_FILE_FOLDER, "test_6.xml").toPath());
+		final FeatureModelAnalyzer analyzer = analyze(featureModel, new LazyAnomalyAnalyzer());
+		requestAll(analyzer, featureModel);
+
+		// -F2 & F1
+		final ConstraintProperties first = analyzer.getConstraintProperties(featureModel.getConstraints().get(0));
+		assertEquals(Arrays.asList(featureModel.getFeature("F2")), new ArrayList<>(first.getDeadFeatures()));
+		assertEquals(Arrays.asList(featureModel.getFeature("F1")), first.getFalseOptionalFeatures());
+		// -F2 & NewLayer1
+		final ConstraintProperties second = analyzer.getConstraintProperties(featureModel.getConstraints().get(1));
+		assertTrue(second.getDeadFeatures().isEmpty());
+		assertEquals(Arrays.asList(featureModel.getFeature("NewLayer1")), second.getFalseOptionalFeatures());
+		assertTrue(analyzer.getFeatureModelProperties().hasStatus(FeatureModelStatus.ANOMALIES));
+	}
+
+	@Test
+	public void testEquivalentConstraints() throws InterruptedException {
+		final IFeatureModelFactory factory = DefaultFeatureModelFactory.getInstance();
+		final IFeatureModel featureModel = factory.create();
+		final IFeature root = factory.createFeature(featureModel, "Root");
+		featureModel.addFeature(root);
+		featureModel.getStructure().setRoot(root.getStructure());
+		for (final String name : Arrays.asList("A", "B")) {
+			final IFeature feature = factory.createFeature(featureModel, name);
+			featureModel.addFeature(feature);
+			root.getStructure().addChild(feature.getStructure());
+		}
+		featureModel.addConstraint(factory.createConstraint(featureModel, new Implies("A", "B")));
+		featureModel.addConstraint(factory.createConstraint(featureModel, new Or(new Not("A"), "B")));
+		featureModel.addConstraint(factory.createConstraint(featureModel, new Implies("A", "B")));
+
+		final FeatureModelAnalyzer analyzer = analyze(featureModel, new LazyAnomalyAnalyzer());
+		// only request the last constraint, so the earlier constraints are checked on demand
+		analyzer.getConstraintProperties(featureModel.getConstraints().get(2));
+		requestAll(analyzer, featureModel);
+
+		// each constraint is redundant because of the later ones, except for the last constraint
+		assertTrue(analyzer.getConstraintProperties(featureModel.getConstraints().get(0)).hasStatus(ConstraintStatus.REDUNDANT));
+		assertTrue(analyzer.getConstraintProperties(featureModel.getConstraints().get(1)).hasStatus(ConstraintStatus.REDUNDANT));
+		assertTrue(analyzer.getConstraintProperties(featureModel.getConstraints().get(2)).hasStatus(ConstraintStatus.NECESSARY));
+		assertSameResults(featureModel, analyze(featureModel, null), analyzer);
+	}
+
+	@Test(timeout = 60000)
+	public void testCancelBeforeStart() throws InterruptedException {
+		final IFeatureModel featureModel = Commons.loadBenchmarkFeatureModelFromFile("200-100.xml");
+		final LazyAnomalyAnalyzer lazyAnalyzer = new LazyAnomalyAnalyzer();
+		final FeatureModelAnalyzer analyzer = analyze(featureModel, lazyAnalyzer);
+		final IFeature feature = featureModel.getFeatures().iterator().next();
+
+		// keep all workers busy, so the worker of the analyzer is not started
+		final CountDownLatch release = new CountDownLatch(1);
+		final int workers = Math.max(1, Integer.getInteger(JobExecutor.THREADS_PROPERTY, Runtime.getRuntime().availableProcessors()));
+		for (int i = 0; i < workers; i++) {
+			final IRunner<Void> blocker = LongRunningWrapper.getRunner(monitor -> {
+				release.await();
+				return null;
+			});
+			blocker.setPriority(JobExecutor.INTERACTIVE);
+			blocker.schedule();
+		}
+		try {
+			analyzer.getFeatureProperties(feature);
+			lazyAnalyzer.cancel();
+			lazyAnalyzer.join();
+			assertFalse(lazyAnalyzer.isComputed(feature));
+		} finally {
+			release.countDown();
+		}
+
+		analyzer.getFeatureProperties(feature);
+		lazyAnalyzer.join();
+		assertTrue(lazyAnalyzer.isComputed(feature));
+	}
+
+	@Test
+	public void testCalculateOnDemandProperty() {
+		final IFeatureModel featureModel = FeatureModelManager.load(new File(MODEL_FILE_FOLDER, "test_6.xml").toPath());
+		assertTrue(featureModel.getNumberOfFeatures() < FeatureModelProperty.BIG_MODEL_LIMIT);
+		assertFalse(FeatureModelProperty.isCalculateOnDemand(featureModel));
+		featureModel.getProperty().set(FeatureModelProperty.PROPERTY_CALCULATIONS_ON_DEMAND, FeatureModelProperty.TYPE_CALCULATIONS,
+				FeatureModelProperty.VALUE_BOOLEAN_TRUE);
+		assertTrue(FeatureModelProperty.isCalculateOnDemand(featureModel));
+	}
+
+}
@@ -0,0 +1,168 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Not;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.AtomicSetAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CoreDeadAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CountSolutionsAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.manipulator.remove.CNFSlicer;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelFactory;
+import de.ovgu.featureide.fm.core.base.impl.DefaultFeatureModelFactory;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Tests that analyses on {@link CNFComponents} compute the same results as on the complete {@link CNF}.
+ */
+public class TCNFComponents {
+
+	private static final IFeatureModelFactory factory = DefaultFeatureModelFactory.getInstance();
+
+	private static CNF createCNF() {
+		final IFeatureModel fm = factory.create();
+		final IFeature root = addFeature(fm, null, "Root");
+		final IFeature a = addFeature(fm, root, "A");
+		addFeature(fm, a, "A1");
+		addFeature(fm, a, "A2");
+		final IFeature b = addFeature(fm, root, "B");
+		addFeature(fm, b, "B1");
+		addFeature(fm, b, "B2");
+		final IFeature c = addFeature(fm, root, "C");
+		addFeature(fm, c, "C1");
+		addFeature(fm, root, "D");
+		addFeature(fm, root, "E");
+		a.getStructure().setOr();
+		b.getStructure().setAlternative();
+		b.getStructure().setMandatory(true);
+		c.getStructure().getChildren().get(0).setMandatory(true);
+		fm.addConstraint(factory.createConstraint(fm, new Implies(new Literal("A1"), new Literal("A2"))));
+		fm.addConstraint(factory.createConstraint(fm, new Implies(new Literal("D"), new Not(new Literal("B")))));
+		return new FeatureModelFormula(fm).getCNF();
+	}
+
+	private static IFeature addFeature(IFeatureModel fm, IFeature parent, String name) {
+		final IFeature feature = factory.createFeature(fm, name);
+		fm.addFeature(feature);
+		if (parent == null) {
+			fm.getStructure().setRoot(feature.getStructure());
+		} else {
+			FeatureUtils.addChild(parent, feature);
+		}
+		return feature;
+	}
+
+	@Test
+	public void decomposition() {
+		final CNFComponents components = CNFComponents.decompose(createCNF());
+		assertTrue(components.getComponents().size() > 1);
+	}
+
+	@Test
+	public void coreDead() {
+		final CNF cnf = createCNF();
+		final LiteralSet expected = LongRunningWrapper.runMethod(new CoreDeadAnalysis(cnf));
+		final LiteralSet actual = CNFComponents.decompose(cnf).getCoreDead(new NullMonitor<>());
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	public void atomicSets() {
+		final CNF cnf = createCNF();
+		final List<LiteralSet> expected = LongRunningWrapper.runMethod(new AtomicSetAnalysis(cnf));
+		final List<LiteralSet> actual = CNFComponents.decompose(cnf).getAtomicSets(new NullMonitor<>());
+		assertEquals(expected.get(0), actual.get(0));
+		assertEquals(toVariableSets(expected.subList(1, expected.size())), toVariableSets(actual.subList(1, actual.size())));
+	}
+
+	@Test
+	public void countSolutions() {
+		final CNF cnf = createCNF();
+		final CountSolutionsAnalysis analysis = new CountSolutionsAnalysis(cnf);
+		analysis.setDecompose(false);
+		final Long expected = LongRunningWrapper.runMethod(analysis);
+		assertEquals(expected.longValue(), CNFComponents.decompose(cnf).countSolutions(10_000, new NullMonitor<>()));
+		assertEquals(expected, LongRunningWrapper.runMethod(new CountSolutionsAnalysis(cnf)));
+	}
+
+	@Test
+	public void countSolutionsWithAssumptions() {
+		final CNF cnf = createCNF();
+		final LiteralSet assumptions = new LiteralSet(cnf.getVariables().getVariable("A1", true), cnf.getVariables().getVariable("E", false));
+		final CountSolutionsAnalysis expectedAnalysis = new CountSolutionsAnalysis(cnf);
+		expectedAnalysis.setDecompose(false);
+		expectedAnalysis.setAssumptions(assumptions);
+		final CountSolutionsAnalysis analysis = new CountSolutionsAnalysis(cnf);
+		analysis.setAssumptions(assumptions);
+		assertEquals(LongRunningWrapper.runMethod(expectedAnalysis), LongRunningWrapper.runMethod(analysis));
+	}
+
+	@Test
+	public void countSolutionsOfSlicedCNF() {
+		final CNF cnf = LongRunningWrapper.runMethod(new CNFSlicer(createCNF(), Arrays.asList("A", "C1", "E")));
+		final CountSolutionsAnalysis analysis = new CountSolutionsAnalysis(cnf);
+		analysis.setDecompose(false);
+		final Long expected = LongRunningWrapper.runMethod(analysis);
+		assertEquals(expected.longValue(), CNFComponents.decompose(cnf).countSolutions(10_000, new NullMonitor<>()));
+	}
+
+	@Test(expected = MethodCancelException.class)
+	public void canceledAnalysisStops() {
+		final NullMonitor<LiteralSet> monitor = new NullMonitor<>();
+		monitor.cancel();
+		CNFComponents.decompose(createCNF()).getCoreDead(monitor);
+	}
+
+	private static Set<LiteralSet> toVariableSets(List<LiteralSet> literalSets) {
+		final Set<LiteralSet> variableSets = new HashSet<>();
+		for (final LiteralSet literalSet : literalSets) {
+			variableSets.add(literalSet.getVariables());
+		}
+		return variableSets;
+	}
+
+	@Test
+	public void contradiction() {
+		final CNF cnf = new CNF(new Variables(Arrays.asList("X", "Y")), Arrays.asList(new LiteralSet(1), new LiteralSet(-1, 2), new LiteralSet(-2)));
+		final CNFComponents components = CNFComponents.decompose(cnf);
+		assertTrue(components.isContradiction());
+		assertNull(components.getCoreDead(new NullMonitor<>()));
+	}
+
+}
@@ -0,0 +1,152 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.SolutionList;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link TWiseConfigurationGenerator}.
+ */
+public class TTWiseConfigurationGenerator {
+
+	private static final int VARIABLES = 30;
+
+	private static List<String> createNames(int count) {
+		final List<String> names = new ArrayList<>();
+		for (int i = 1; i <= count; i++) {
+			names.add("v" + i);
+		}
+		return names;
+	}
+
+	private static List<LiteralSet> createRandomClauses(Random random, int clauseCount) {
+		final List<LiteralSet> clauses = new ArrayList<>();
+		for (int i = 0; i < clauseCount; i++) {
+			final int v1 = random.nextInt(VARIABLES) + 1;
+			int v2;
+			do {
+				v2 = random.nextInt(VARIABLES) + 1;
+			} while (v2 == v1);
+			clauses.add(new LiteralSet(random.nextBoolean() ? v1 : -v1, random.nextBoolean() ? v2 : -v2));
+		}
+		return clauses;
+	}
+
+	private static List<LiteralSet> generate(CNF cnf, SolutionList previousSample, TWiseConfigurationGenerator[] generatorHolder) {
+		final TWiseConfigurationGenerator generator = new TWiseConfigurationGenerator(cnf, 2);
+		generator.setPreviousSample(previousSample);
+		generatorHolder[0] = generator;
+		return new ArrayList<>(LongRunningWrapper.runMethod(generator));
+	}
+
+	private static void assertCompleteCoverage(CNF cnf, List<LiteralSet> sample) {
+		final TWiseConfigurationTester tester = new TWiseConfigurationTester(cnf);
+		tester.setNodes(TWiseCombiner.convertLiterals(cnf.getVariables().getLiterals()));
+		tester.setT(2);
+		tester.setSample(sample);
+		assertFalse(tester.hasInvalidSolutions());
+		assertFalse(tester.hasUncoveredConditions());
+	}
+
+	@Test
+	public void testCompleteCoverage() {
+		final CNF cnf = new CNF(new Variables(createNames(VARIABLES)), createRandomClauses(new Random(3), 20));
+		final List<LiteralSet> sample = generate(cnf, null, new TWiseConfigurationGenerator[1]);
+		assertFalse(sample.isEmpty());
+		assertCompleteCoverage(cnf, sample);
+	}
+
+	@Test
+	public void testPreviousSampleOfSameFormula() {
+		final CNF cnf = new CNF(new Variables(createNames(VARIABLES)), createRandomClauses(new Random(4), 20));
+		final List<LiteralSet> sample = generate(cnf, null, new TWiseConfigurationGenerator[1]);
+
+		final TWiseConfigurationGenerator[] generator = new TWiseConfigurationGenerator[1];
+		final List<LiteralSet> newSample = generate(cnf, new SolutionList(cnf.getVariables(), sample), generator);
+		assertEquals(sample, newSample);
+
+		final SampleStability stability = generator[0].getStability();
+		assertNotNull(stability);
+		assertEquals(sample.size(), stability.getNumberOfUnchangedConfigurations());
+		assertEquals(0, stability.getNumberOfNewConfigurations());
+		assertEquals(0, stability.getNumberOfUncoveredConditions());
+		assertEquals(1, stability.getStability(), 0);
+	}
+
+	@Test
+	public void testPreviousSampleOfEvolvedFormula() {
+		final Random random = new Random(5);
+		final List<LiteralSet> clauses = createRandomClauses(random, 20);
+		final CNF cnf = new CNF(new Variables(createNames(VARIABLES)), clauses);
+		final List<LiteralSet> sample = generate(cnf, null, new TWiseConfigurationGenerator[1]);
+
+		// add a new variable that requires v1 and additional constraints
+		final List<LiteralSet> newClauses = new ArrayList<>(clauses);
+		newClauses.add(new LiteralSet(-(VARIABLES + 1), 1));
+		newClauses.addAll(createRandomClauses(random, 5));
+		final CNF newCnf = new CNF(new Variables(createNames(VARIABLES + 1)), newClauses);
+
+		final TWiseConfigurationGenerator[] generator = new TWiseConfigurationGenerator[1];
+		final List<LiteralSet> newSample = generate(newCnf, new SolutionList(cnf.getVariables(), sample), generator);
+		assertCompleteCoverage(newCnf, newSample);
+
+		final SampleStability stability = generator[0].getStability();
+		assertEquals(sample.size(), stability.getNumberOfPreviousConfigurations());
+		assertEquals(VARIABLES, stability.getNumberOfCommonVariables());
+		assertTrue(stability.getNumberOfRepairedConfigurations() > 0);
+		assertEquals(sample.size() + stability.getNumberOfNewConfigurations(), newSample.size());
+
+		int unchanged = 0;
+		long changedLiterals = 0;
+		for (int i = 0; i < sample.size(); i++) {
+			final int[] previousLiterals = sample.get(i).getLiterals();
+			final int[] newLiterals = newSample.get(i).getLiterals();
+			int changed = 0;
+			for (int j = 0; j < VARIABLES; j++) {
+				if (previousLiterals[j] != newLiterals[j]) {
+					changed++;
+				}
+			}
+			if (changed == 0) {
+				unchanged++;
+			}
+			changedLiterals += changed;
+		}
+		assertEquals(unchanged, stability.getNumberOfUnchangedConfigurations());
+		assertEquals(changedLiterals, stability.getNumberOfChangedLiterals());
+	}
+
+}
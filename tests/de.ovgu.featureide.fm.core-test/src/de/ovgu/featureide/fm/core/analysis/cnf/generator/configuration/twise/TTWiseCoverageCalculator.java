@@ -0,0 +1,175 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.ClauseList;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.iterator.ICombinationIterator;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.iterator.LexicographicIterator;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
+
+/**
+ * Tests for {@link TWiseCoverageCalculator}.
+ */
+public class TTWiseCoverageCalculator {
+
+	private static final int VARIABLES = 30;
+
+	private static CNF createRandomCNF(Random random, int clauseCount) {
+		final List<String> names = new ArrayList<>();
+		for (int i = 1; i <= VARIABLES; i++) {
+			names.add("v" + i);
+		}
+		final List<LiteralSet> clauses = new ArrayList<>();
+		for (int i = 0; i < clauseCount; i++) {
+			final int v1 = random.nextInt(VARIABLES) + 1;
+			int v2;
+			do {
+				v2 = random.nextInt(VARIABLES) + 1;
+			} while (v2 == v1);
+			clauses.add(new LiteralSet(random.nextBoolean() ? v1 : -v1, random.nextBoolean() ? v2 : -v2));
+		}
+		return new CNF(new Variables(names), clauses);
+	}
+
+	private static TWiseConfigurationUtil createUtil(CNF cnf) {
+		final TWiseConfigurationUtil util = new TWiseConfigurationUtil(cnf, new AdvancedSatSolver(cnf));
+		util.computeRandomSample();
+		util.computeMIG();
+		return util;
+	}
+
+	/**
+	 * @return The number of covered, uncovered, and invalid combinations computed by checking each combination separately.
+	 */
+	private static long[] countCombinations(TWiseConfigurationUtil util, int t, List<LiteralSet> sample, List<List<PresenceCondition>> groups) {
+		final long[] counts = new long[3];
+		final TWiseCombiner combiner = new TWiseCombiner(util.getCnf().getVariables().size());
+		for (final List<PresenceCondition> expressions : groups) {
+			for (final ICombinationIterator iterator = new LexicographicIterator(t, expressions); iterator.hasNext();) {
+				final ClauseList combinedCondition = new ClauseList();
+				combiner.combineConditions(iterator.next(), combinedCondition);
+				if (TWiseConfigurationUtil.isCovered(combinedCondition, sample)) {
+					counts[0]++;
+				} else if (util.isCombinationValid(combinedCondition)) {
+					counts[1]++;
+				} else {
+					counts[2]++;
+				}
+			}
+		}
+		return counts;
+	}
+
+	@Test
+	public void testSameCountsAsSeparateChecks() {
+		final Random random = new Random(1);
+		final CNF cnf = createRandomCNF(random, 25);
+		final TWiseConfigurationUtil util = createUtil(cnf);
+		final List<List<PresenceCondition>> groups =
+			new PresenceConditionManager(util, TWiseCombiner.convertLiterals(cnf.getVariables().getLiterals())).getGroupedPresenceConditions();
+		final List<LiteralSet> sample = util.getRandomSample().subList(0, 5);
+
+		for (int t = 1; t <= 3; t++) {
+			final long[] expected = countCombinations(util, t, sample, groups);
+			assertTrue(expected[1] > 0);
+			assertTrue((t == 1) || (expected[2] > 0));
+			for (final int threads : new int[] { 1, 4 }) {
+				final TWiseCoverageCalculator calculator = new TWiseCoverageCalculator(util, t, threads);
+				calculator.calculate(sample, groups);
+				assertEquals(expected[0], calculator.getNumberOfCoveredConditions());
+				assertEquals(expected[1], calculator.getNumberOfUncoveredConditions());
+				assertEquals(expected[2], calculator.getNumberOfInvalidConditions());
+				assertEquals(expected[0] + expected[1], calculator.getNumberOfValidConditions());
+			}
+		}
+	}
+
+	@Test
+	public void testCoverage() {
+		final CNF cnf = createRandomCNF(new Random(2), 20);
+		final TWiseConfigurationTester tester = new TWiseConfigurationTester(cnf);
+		tester.setNodes(TWiseCombiner.convertLiterals(cnf.getVariables().getLiterals()));
+		tester.setT(2);
+
+		tester.setSample(new ArrayList<LiteralSet>());
+		TWiseConfigurationStatistic statistic = tester.getCoverage();
+		assertEquals(0, statistic.getNumberOfCoveredConditions());
+		assertEquals(0, statistic.getValidCoverage(), 0);
+
+		final List<LiteralSet> sample = createUtil(cnf).getRandomSample().subList(0, 5);
+		tester.setSample(sample);
+		statistic = tester.getCoverage();
+		assertTrue(statistic.getNumberOfCoveredConditions() > 0);
+		assertEquals((double) statistic.getNumberOfCoveredConditions() / statistic.getNumberOfValidConditions(), statistic.getValidCoverage(), 1e-9);
+		assertEquals((double) statistic.getNumberOfCoveredConditions()
+			/ (statistic.getNumberOfValidConditions() + statistic.getNumberOfInvalidConditions()), statistic.getCoverage(), 1e-9);
+		assertEquals(tester.getUncoveredConditions().size(), statistic.getNumberOfUncoveredConditions());
+	}
+
+	@Test
+	public void testCoverageWithoutValidityChecks() {
+		final Random random = new Random(3);
+		final CNF cnf = createRandomCNF(random, 25);
+		final TWiseConfigurationUtil util = createUtil(cnf);
+		final List<List<PresenceCondition>> groups =
+			new PresenceConditionManager(util, TWiseCombiner.convertLiterals(cnf.getVariables().getLiterals())).getGroupedPresenceConditions();
+		final List<LiteralSet> sample = util.getRandomSample().subList(0, 5);
+		final int t = 2;
+		final long[] expected = countCombinations(util, t, sample, groups);
+		final long all = expected[0] + expected[1] + expected[2];
+		assertTrue(expected[2] > 0);
+
+		final TWiseCoverageCalculator calculator = new TWiseCoverageCalculator(util, t);
+		calculator.setCountValid(false);
+		calculator.calculate(sample, groups);
+		assertEquals(expected[0], calculator.getNumberOfCoveredConditions());
+		assertEquals(expected[1] + expected[2], calculator.getNumberOfUncoveredConditions());
+		assertEquals(0, calculator.getNumberOfInvalidConditions());
+		assertEquals(all, calculator.getNumberOfValidConditions());
+
+		// all ways to compute the statistic treat every combination as valid
+		for (int mode = 0; mode < 3; mode++) {
+			final TWiseConfigurationStatistic statistic = new TWiseConfigurationStatistic();
+			statistic.setT(t);
+			statistic.setCountValid(false);
+			statistic.setOnlyCoverage(mode == 0);
+			statistic.setFastCalc(mode == 1);
+			statistic.calculate(util, sample, groups);
+			assertEquals(expected[0], statistic.getNumberOfCoveredConditions());
+			assertEquals(all, statistic.getNumberOfValidConditions());
+			assertEquals((double) expected[0] / all, statistic.getValidCoverage(), 1e-9);
+			assertEquals(statistic.getCoverage(), statistic.getValidCoverage(), 1e-9);
+		}
+	}
+
+}
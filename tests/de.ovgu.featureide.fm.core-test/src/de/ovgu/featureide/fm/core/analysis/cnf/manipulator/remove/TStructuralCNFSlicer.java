@@ -0,0 +1,152 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.manipulator.remove;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Not;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureSlicedCNFCreator;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelFactory;
+import de.ovgu.featureide.fm.core.base.impl.DefaultFeatureModelFactory;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Tests that {@link StructuralCNFSlicer} computes the same formula as {@link CNFSlicer}.
+ */
+public class TStructuralCNFSlicer {
+
+	private static final IFeatureModelFactory factory = DefaultFeatureModelFactory.getInstance();
+
+	@Test
+	public void sameSolutionsAsCNFSlicer() {
+		final IFeatureModel fm = factory.create();
+		final IFeature root = addFeature(fm, null, "Root");
+		final IFeature a = addFeature(fm, root, "A");
+		addFeature(fm, a, "A1");
+		addFeature(fm, a, "A2");
+		final IFeature b = addFeature(fm, root, "B");
+		addFeature(fm, b, "B1");
+		addFeature(fm, b, "B2");
+		addFeature(fm, b, "B3");
+		final IFeature c = addFeature(fm, root, "C");
+		addFeature(fm, c, "C1");
+		addFeature(fm, root, "D");
+		a.getStructure().setOr();
+		a.getStructure().setMandatory(true);
+		b.getStructure().setAlternative();
+		fm.addConstraint(factory.createConstraint(fm, new Implies(new Literal("A1"), new Literal("B1"))));
+		fm.addConstraint(factory.createConstraint(fm, new Implies(new Literal("D"), new Not(new Literal("B2")))));
+
+		final CNF cnf = new FeatureModelFormula(fm).getCNF();
+		final List<String> removeFeatures = Arrays.asList("A2", "B", "B3", "C", "C1");
+		final CNF expected = LongRunningWrapper.runMethod(new CNFSlicer(cnf, removeFeatures));
+		final CNF actual = LongRunningWrapper.runMethod(new StructuralCNFSlicer(fm, cnf, removeFeatures));
+
+		assertEquals(expected.getVariables().size(), actual.getVariables().size());
+		for (final String name : removeFeatures) {
+			assertFalse(actual.getVariables().getVariable(name) > 0);
+		}
+
+		final int[] keptVariables = new int[] { cnf.getVariables().getVariable("Root"), cnf.getVariables().getVariable("A"),
+			cnf.getVariables().getVariable("A1"), cnf.getVariables().getVariable("B1"), cnf.getVariables().getVariable("B2"),
+			cnf.getVariables().getVariable("D") };
+		final boolean[] assignment = new boolean[cnf.getVariables().maxVariableID() + 1];
+		for (int i = 0; i < (1 << keptVariables.length); i++) {
+			for (int j = 0; j < keptVariables.length; j++) {
+				assignment[keptVariables[j]] = ((i >> j) & 1) == 1;
+			}
+			assertEquals(satisfies(expected, assignment), satisfies(actual, assignment));
+		}
+	}
+
+	@Test
+	public void canceledSliceIsNotCached() {
+		final IFeatureModel fm = factory.create();
+		final IFeature root = addFeature(fm, null, "Root");
+		addFeature(fm, root, "A");
+		addFeature(fm, root, "B");
+		fm.addConstraint(factory.createConstraint(fm, new Implies(new Literal("A"), new Literal("B"))));
+		final FeatureModelFormula formula = new FeatureModelFormula(fm);
+		final List<String> removeFeatures = Arrays.asList("B");
+
+		final NullMonitor<CNF> canceledMonitor = new NullMonitor<>();
+		canceledMonitor.cancel();
+		assertNull(formula.getElement(new FeatureSlicedCNFCreator(removeFeatures, canceledMonitor)));
+
+		final CNF slicedCNF = formula.getElement(new FeatureSlicedCNFCreator(removeFeatures, new NullMonitor<CNF>()));
+		assertNotNull(slicedCNF);
+		assertFalse(slicedCNF.getVariables().getVariable("B") > 0);
+		assertSame(slicedCNF, formula.getElement(new FeatureSlicedCNFCreator(removeFeatures)));
+	}
+
+	@Test(expected = MethodCancelException.class)
+	public void canceledStructuralSlicerStops() throws Exception {
+		final IFeatureModel fm = factory.create();
+		final IFeature root = addFeature(fm, null, "Root");
+		addFeature(fm, root, "A");
+		final NullMonitor<CNF> canceledMonitor = new NullMonitor<>();
+		canceledMonitor.cancel();
+		new StructuralCNFSlicer(fm, new FeatureModelFormula(fm).getCNF(), Arrays.asList("A")).execute(canceledMonitor);
+	}
+
+	private static IFeature addFeature(IFeatureModel fm, IFeature parent, String name) {
+		final IFeature feature = factory.createFeature(fm, name);
+		fm.addFeature(feature);
+		if (parent == null) {
+			fm.getStructure().setRoot(feature.getStructure());
+		} else {
+			FeatureUtils.addChild(parent, feature);
+		}
+		return feature;
+	}
+
+	private static boolean satisfies(CNF cnf, boolean[] assignment) {
+		clauseLoop: for (final LiteralSet clause : cnf.getClauses()) {
+			for (final int literal : clause.getLiterals()) {
+				if (assignment[Math.abs(literal)] == (literal > 0)) {
+					continue clauseLoop;
+				}
+			}
+			return false;
+		}
+		return true;
+	}
+
+}
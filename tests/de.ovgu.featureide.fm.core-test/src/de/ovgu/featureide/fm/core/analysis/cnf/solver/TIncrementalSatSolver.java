@@ -0,0 +1,138 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+
+/**
+ * Tests for {@link IncrementalSatSolver}.
+ */
+public class TIncrementalSatSolver {
+
+	private static final int VARIABLES = 30;
+
+	private static LiteralSet createRandomClause(Random random) {
+		final int v1 = random.nextInt(VARIABLES) + 1;
+		int v2;
+		do {
+			v2 = random.nextInt(VARIABLES) + 1;
+		} while (v2 == v1);
+		int v3;
+		do {
+			v3 = random.nextInt(VARIABLES) + 1;
+		} while ((v3 == v1) || (v3 == v2));
+		return new LiteralSet(random.nextBoolean() ? v1 : -v1, random.nextBoolean() ? v2 : -v2, random.nextBoolean() ? v3 : -v3);
+	}
+
+	private static CNF createRandomCNF(Random random, int clauseCount) {
+		final List<String> names = new ArrayList<>();
+		for (int i = 1; i <= VARIABLES; i++) {
+			names.add("v" + i);
+		}
+		final List<LiteralSet> clauses = new ArrayList<>();
+		for (int i = 0; i < clauseCount; i++) {
+			clauses.add(createRandomClause(random));
+		}
+		return new CNF(new Variables(names), clauses);
+	}
+
+	private static void assertModel(List<LiteralSet> clauses, int[] solution) {
+		assertNotNull(solution);
+		assertEquals(VARIABLES, solution.length);
+		for (final LiteralSet clause : clauses) {
+			boolean satisfied = false;
+			for (final int literal : clause.getLiterals()) {
+				satisfied |= solution[Math.abs(literal) - 1] == literal;
+			}
+			assertTrue(clause.toString(), satisfied);
+		}
+	}
+
+	@Test
+	public void testAddAndRemoveClauses() {
+		final Random random = new Random(1);
+		final CNF cnf = createRandomCNF(random, 70);
+		final IncrementalSatSolver solver = new IncrementalSatSolver(cnf);
+		for (int i = 0; i < 30; i++) {
+			final List<LiteralSet> addedClauses = new ArrayList<>();
+			for (int j = 0; j < 40; j++) {
+				addedClauses.add(createRandomClause(random));
+			}
+			final CNF extendedCNF = cnf.clone();
+			extendedCNF.addClauses(addedClauses);
+			final SatResult expected = new AdvancedSatSolver(extendedCNF).hasSolution();
+
+			solver.addClauses(addedClauses);
+			assertEquals(expected, solver.hasSolution());
+			if (expected == SatResult.TRUE) {
+				assertModel(extendedCNF.getClauses(), solver.getSolution());
+			}
+
+			solver.removeAddedClauses();
+			assertEquals(SatResult.TRUE, solver.hasSolution());
+			assertModel(cnf.getClauses(), solver.getSolution());
+		}
+		assertEquals(30 * 40, solver.getInactiveClauseCount());
+	}
+
+	@Test
+	public void testRemoveSingleClause() {
+		final Random random = new Random(2);
+		final CNF cnf = createRandomCNF(random, 60);
+		final IncrementalSatSolver solver = new IncrementalSatSolver(cnf);
+		assertEquals(SatResult.TRUE, solver.hasSolution());
+		final int[] solution = solver.getSolution();
+
+		final LiteralSet blockingClause = new LiteralSet(solution.clone()).negate();
+		final LiteralSet unitClause = new LiteralSet(solution[0]);
+		solver.addClause(unitClause);
+		solver.addClause(blockingClause);
+		final SatResult result = solver.hasSolution();
+		if (result == SatResult.TRUE) {
+			assertEquals(solution[0], solver.getSolution()[0]);
+		}
+
+		solver.removeClause(solver.addClause(new LiteralSet(-solution[0])));
+		assertEquals(result, solver.hasSolution());
+		assertEquals(SatResult.FALSE, solver.hasSolution(-solution[0]));
+		for (final int literal : solver.getContradictoryAssignment()) {
+			assertTrue(Math.abs(literal) <= VARIABLES);
+		}
+
+		solver.removeLastClauses(3);
+		assertEquals(SatResult.TRUE, solver.hasSolution(-solution[0]));
+		assertEquals(SatResult.TRUE, solver.hasSolution(solution));
+	}
+
+}
@@ -0,0 +1,193 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.solver;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.PortfolioSatSolver.Configuration;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+import de.ovgu.featureide.fm.core.job.metrics.ExecutionRecord.Counter;
+import de.ovgu.featureide.fm.core.job.metrics.JobMetrics;
+import de.ovgu.featureide.fm.core.job.metrics.MetricsRegistry;
+import de.ovgu.featureide.fm.core.job.metrics.MetricsRegistry.MethodStatistics;
+
+/**
+ * Tests for {@link PortfolioSatSolver}.
+ */
+public class TPortfolioSatSolver {
+
+	private static final int VARIABLES = 30;
+
+	private static CNF createRandomCNF(Random random, int clauseCount) {
+		final List<String> names = new ArrayList<>();
+		for (int i = 1; i <= VARIABLES; i++) {
+			names.add("v" + i);
+		}
+		final List<LiteralSet> clauses = new ArrayList<>();
+		for (int i = 0; i < clauseCount; i++) {
+			final int v1 = random.nextInt(VARIABLES) + 1;
+			int v2;
+			do {
+				v2 = random.nextInt(VARIABLES) + 1;
+			} while (v2 == v1);
+			int v3;
+			do {
+				v3 = random.nextInt(VARIABLES) + 1;
+			} while ((v3 == v1) || (v3 == v2));
+			clauses.add(new LiteralSet(random.nextBoolean() ? v1 : -v1, random.nextBoolean() ? v2 : -v2, random.nextBoolean() ? v3 : -v3));
+		}
+		return new CNF(new Variables(names), clauses);
+	}
+
+	private static void assertModel(CNF cnf, int[] solution) {
+		assertNotNull(solution);
+		for (final LiteralSet clause : cnf.getClauses()) {
+			boolean satisfied = false;
+			for (final int literal : clause.getLiterals()) {
+				satisfied |= solution[Math.abs(literal) - 1] == literal;
+			}
+			assertTrue(clause.toString(), satisfied);
+		}
+	}
+
+	private static AdvancedSatSolver createSolver(CNF cnf, boolean portfolio) {
+		try {
+			return portfolio ? new PortfolioSatSolver(cnf) : new AdvancedSatSolver(cnf);
+		} catch (final RuntimeContradictionException e) {
+			return null;
+		}
+	}
+
+	@Test
+	public void testAgreesWithAdvancedSatSolver() {
+		final Random random = new Random(1);
+		for (int i = 0; i < 40; i++) {
+			final CNF cnf = createRandomCNF(random, 100 + (2 * i));
+			final AdvancedSatSolver reference = createSolver(cnf, false);
+			final AdvancedSatSolver portfolio = createSolver(cnf, true);
+			if (reference == null) {
+				continue;
+			}
+			final SatResult result = reference.hasSolution();
+			assertEquals(result, portfolio.hasSolution());
+			if (result == SatResult.TRUE) {
+				assertModel(cnf, portfolio.getSolution());
+			}
+		}
+	}
+
+	@Test
+	public void testAssumptionsAndAssignment() {
+		final Random random = new Random(2);
+		final CNF cnf = createRandomCNF(random, 90);
+		final AdvancedSatSolver reference = createSolver(cnf, false);
+		final PortfolioSatSolver portfolio = (PortfolioSatSolver) createSolver(cnf, true);
+		for (int var = 1; var <= VARIABLES; var++) {
+			final int literal = random.nextBoolean() ? var : -var;
+			final SatResult result = reference.hasSolution(literal);
+			assertEquals(result, portfolio.hasSolution(literal));
+			if (result == SatResult.TRUE) {
+				assertModel(cnf, portfolio.getSolution());
+				assertEquals(literal, portfolio.getSolution()[var - 1]);
+
+				reference.assignmentPush(literal);
+				portfolio.assignmentPush(literal);
+				assertArrayEquals(reference.getAssignmentArray(), portfolio.getAssignmentArray());
+				final SatResult assignmentResult = reference.hasSolution();
+				assertEquals(assignmentResult, portfolio.hasSolution());
+				if (assignmentResult == SatResult.TRUE) {
+					assertModel(cnf, portfolio.getSolution());
+					assertEquals(literal, portfolio.getSolution()[var - 1]);
+				} else {
+					reference.assignmentPop();
+					portfolio.assignmentPop();
+				}
+				for (final Configuration configuration : Configuration.values()) {
+					assertTrue(portfolio.getWins(configuration) >= 0);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testSingleConfiguration() {
+		final CNF cnf = createRandomCNF(new Random(3), 60);
+		final PortfolioSatSolver portfolio = new PortfolioSatSolver(cnf, Configuration.LUBY_NEGATIVE);
+		assertEquals(SatResult.TRUE, portfolio.hasSolution());
+		assertEquals(Configuration.LUBY_NEGATIVE, portfolio.getLastWinner());
+		assertModel(cnf, portfolio.getSolution());
+	}
+
+	@Test
+	public void testMetricsCountConflictsOfAllConfigurations() {
+		final CNF cnf = createRandomCNF(new Random(4), 150);
+		final SatResult expected = new AdvancedSatSolver(cnf).hasSolution();
+		// let a configuration other than the one of the portfolio itself win
+		assertEquals(expected, new PortfolioSatSolver(cnf, Configuration.LUBY_NEGATIVE).hasSolution());
+
+		final MetricsRegistry registry = new MetricsRegistry();
+		JobMetrics.setRegistry(registry);
+		try {
+			final PortfolioSatSolver portfolio = new PortfolioSatSolver(cnf);
+			// the best configuration answers before the others are started
+			portfolio.setRaceDelay(60000);
+			final long conflicts = LongRunningWrapper.runMethod(monitor -> {
+				assertEquals(expected, portfolio.hasSolution());
+				assertEquals(Configuration.LUBY_NEGATIVE, portfolio.getLastWinner());
+				return portfolio.countConflicts();
+			});
+			assertTrue(conflicts > 0);
+			final List<MethodStatistics> statistics = registry.getStatistics();
+			assertEquals(1, statistics.size());
+			assertEquals(1, statistics.get(0).getCounter(Counter.SOLVER_CALLS));
+			assertEquals(conflicts, statistics.get(0).getCounter(Counter.SOLVER_CONFLICTS));
+		} finally {
+			JobMetrics.setRegistry(null);
+		}
+	}
+
+	@Test
+	public void testStoppedConfigurationsAnswerLaterQueries() {
+		final Random random = new Random(5);
+		final CNF cnf = createRandomCNF(random, 110);
+		final AdvancedSatSolver reference = createSolver(cnf, false);
+		final PortfolioSatSolver portfolio = new PortfolioSatSolver(cnf);
+		for (int i = 0; i < 50; i++) {
+			final int literal = (random.nextInt(VARIABLES) + 1) * (random.nextBoolean() ? 1 : -1);
+			final int other = (random.nextInt(VARIABLES) + 1) * (random.nextBoolean() ? 1 : -1);
+			assertEquals(reference.hasSolution(literal, other), portfolio.hasSolution(literal, other));
+		}
+	}
+
+}
@@ -0,0 +1,190 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.init.FMCoreLibrary;
+import de.ovgu.featureide.fm.core.init.LibraryManager;
+
+/**
+ * Tests for {@link ConfigurationIndex}.
+ */
+public class TConfigurationIndex extends AbstractConfigurationTest {
+
+	private static final List<String> FEATURES = Arrays.asList("S", "A", "B", "C");
+
+	private Path folder;
+
+	@Override
+	IFeatureModel loadModel() {
+		return loadGUIDSL("S : [A] [B] C :: _S;");
+	}
+
+	@BeforeClass
+	public static void registerLibrary() {
+		LibraryManager.registerLibrary(FMCoreLibrary.getInstance());
+	}
+
+	@Before
+	public void createFolder() throws IOException {
+		folder = Files.createTempDirectory("configurations");
+	}
+
+	@After
+	public void deleteFolder() throws IOException {
+		for (final Path file : Files.newDirectoryStream(folder)) {
+			Files.delete(file);
+		}
+		Files.delete(folder);
+	}
+
+	private Path write(String name, String... selectedFeatures) throws IOException {
+		return Files.write(folder.resolve(name + ".config"), Arrays.asList(selectedFeatures), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testConstantFeatures() throws IOException {
+		final ConfigurationIndex index = new ConfigurationIndex(formula);
+		assertTrue(index.getUnusedFeatures(FEATURES).isEmpty());
+
+		index.refresh(Arrays.asList(write("c1", "S", "A", "C"), write("c2", "S", "C")));
+
+		assertEquals(2, index.size());
+		assertEquals(Arrays.asList("B"), index.getUnusedFeatures(FEATURES));
+		assertEquals(Arrays.asList("S", "C"), index.getAlwaysSelectedFeatures(FEATURES));
+	}
+
+	@Test
+	public void testRefreshReadsChangedAndRemovesDeletedFiles() throws IOException {
+		final ConfigurationIndex index = new ConfigurationIndex(formula);
+		final Path c1 = write("c1", "S", "C");
+		final Path c2 = write("c2", "S", "C");
+		index.refresh(Arrays.asList(c1, c2));
+		assertEquals(Arrays.asList("A", "B"), index.getUnusedFeatures(FEATURES));
+
+		write("c2", "S", "A", "B", "C");
+		Files.setLastModifiedTime(c2, FileTime.fromMillis(Files.getLastModifiedTime(c2).toMillis() + 2000));
+		index.refresh(Arrays.asList(c1, c2));
+		assertEquals(2, index.size());
+		assertTrue(index.getUnusedFeatures(FEATURES).isEmpty());
+
+		index.refresh(Collections.singletonList(c1));
+		assertEquals(1, index.size());
+		assertEquals(Arrays.asList("A", "B"), index.getUnusedFeatures(FEATURES));
+
+		index.remove(c1);
+		assertEquals(0, index.size());
+	}
+
+	@Test
+	public void testRefreshReadsReplacedFiles() throws IOException {
+		final ConfigurationIndex index = new ConfigurationIndex(formula);
+		final Path c1 = write("c1", "S", "A", "C");
+		index.refresh(Collections.singletonList(c1));
+		assertEquals(Arrays.asList("B"), index.getUnusedFeatures(FEATURES));
+
+		// same size and modification time, but a different file
+		final Path replacement = write("replacement", "S", "B", "C");
+		Files.setLastModifiedTime(replacement, Files.getLastModifiedTime(c1));
+		Files.move(replacement, c1, StandardCopyOption.REPLACE_EXISTING);
+		index.refresh(Collections.singletonList(c1));
+		assertEquals(Arrays.asList("A"), index.getUnusedFeatures(FEATURES));
+	}
+
+	@Test
+	public void testPairwiseCoverage() throws IOException {
+		final ConfigurationIndex index = new ConfigurationIndex(formula);
+		index.refresh(Arrays.asList(write("c1", "S", "A", "C"), write("c2", "S", "B", "C")));
+
+		assertTrue(index.isCovered("A", true, "B", false));
+		assertTrue(index.isCovered("A", false, "B", true));
+		assertFalse(index.isCovered("A", true, "B", true));
+		assertFalse(index.isCovered("A", false, "B", false));
+		assertEquals(0.5, index.getPairwiseCoverage(Arrays.asList("A", "B")), 0);
+		assertEquals(1, index.getPairwiseCoverage(Collections.singletonList("A")), 0);
+	}
+
+	@Test
+	public void testRecommendationValues() throws IOException {
+		final ConfigurationIndex index = new ConfigurationIndex(formula);
+		final Path own = write("own", "S", "C");
+		index.refresh(Arrays.asList(own));
+		final Configuration configuration = new Configuration(formula);
+		configuration.setManual("S", Selection.SELECTED);
+		configuration.setManual("C", Selection.SELECTED);
+		assertNull(index.getRecommendationValues(configuration, own));
+
+		index.refresh(Arrays.asList(own, write("other", "S", "A", "C")));
+		final double[] values = index.getRecommendationValues(configuration, own);
+		assertNotNull(values);
+		int i = 0;
+		for (final SelectableFeature feature : configuration.getFeatures()) {
+			final double value = values[i++];
+			// the only other configuration selects A in contrast to the current configuration
+			assertEquals(feature.getName(), "A".equals(feature.getName()) ? 1 : 0, value, 0);
+		}
+	}
+
+	@Test
+	public void testRecommendationValuesWithoutCommonSelections() throws IOException {
+		final ConfigurationIndex index = new ConfigurationIndex(formula);
+		final Path own = write("own", "S", "C");
+		index.refresh(Arrays.asList(own, write("other", "A", "B")));
+		final Configuration configuration = new Configuration(formula);
+		configuration.setManual("S", Selection.SELECTED);
+		configuration.setManual("C", Selection.SELECTED);
+		configuration.setManual("A", Selection.UNSELECTED);
+		configuration.setManual("B", Selection.UNSELECTED);
+		for (final double value : index.getRecommendationValues(configuration, own)) {
+			assertEquals(0, value, 0);
+		}
+	}
+
+	@Test
+	public void testInstanceIsCachedPerFolder() throws IOException {
+		final ConfigurationIndex index = ConfigurationIndex.getInstance(formula, folder);
+		assertSame(index, ConfigurationIndex.getInstance(formula, folder));
+		assertFalse(index == ConfigurationIndex.getInstance(formula, folder.resolve("other")));
+	}
+
+}
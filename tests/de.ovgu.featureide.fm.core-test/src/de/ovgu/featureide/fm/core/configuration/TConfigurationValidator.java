@@ -0,0 +1,150 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.configuration.ConfigurationValidator.Result;
+import de.ovgu.featureide.fm.core.init.FMCoreLibrary;
+import de.ovgu.featureide.fm.core.init.LibraryManager;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Tests for {@link ConfigurationValidator}.
+ */
+public class TConfigurationValidator extends AbstractConfigurationTest {
+
+	private Path folder;
+
+	@Override
+	IFeatureModel loadModel() {
+		return loadGUIDSL("S : [A] [B] C :: _S; %% not B;");
+	}
+
+	@BeforeClass
+	public static void registerLibrary() {
+		LibraryManager.registerLibrary(FMCoreLibrary.getInstance());
+	}
+
+	@Before
+	public void createFolder() throws IOException {
+		folder = Files.createTempDirectory("configurations");
+	}
+
+	@After
+	public void deleteFolder() throws IOException {
+		for (final Path file : Files.newDirectoryStream(folder)) {
+			Files.delete(file);
+		}
+		Files.delete(folder);
+	}
+
+	private Path write(String name, String... selectedFeatures) throws IOException {
+		return Files.write(folder.resolve(name + ".config"), Arrays.asList(selectedFeatures), StandardCharsets.UTF_8);
+	}
+
+	private static Map<String, Result> validate(ConfigurationValidator validator, FeatureModelFormula formula, Path... files) throws Exception {
+		final List<Result> results = validator.validate(formula, Arrays.asList(files), new NullMonitor<>());
+		final Map<String, Result> resultMap = new HashMap<>();
+		for (final Result result : results) {
+			resultMap.put(result.getFile().getFileName().toString(), result);
+		}
+		return resultMap;
+	}
+
+	@Test
+	public void testValidity() throws Exception {
+		final Path complete = write("complete", "S", "C");
+		final Path partial = write("partial", "A");
+		final Path empty = write("empty");
+		final Path invalid = write("invalid", "S", "B", "C");
+
+		for (final int threads : new int[] { 1, 4 }) {
+			final Map<String, Result> results = validate(new ConfigurationValidator(threads), formula, complete, partial, empty, invalid);
+			assertEquals(4, results.size());
+			assertTrue(results.get("complete.config").isValid());
+			// the mandatory feature C is implied by the root
+			assertTrue(results.get("partial.config").isValid());
+			assertTrue(results.get("empty.config").isValid());
+			assertFalse(results.get("invalid.config").isValid());
+		}
+	}
+
+	@Test
+	public void testReportsProblems() throws Exception {
+		final Path file = write("unknown", "S", "C", "X");
+		final Map<String, Result> results = validate(new ConfigurationValidator(1), formula, file);
+		assertFalse(results.get("unknown.config").getProblems().isEmpty());
+	}
+
+	@Test
+	public void testReusesResultsOfUnchangedFiles() throws Exception {
+		final ConfigurationValidator validator = new ConfigurationValidator(2);
+		final Path first = write("first", "S", "C");
+		final Path second = write("second", "S", "C");
+		final Map<String, Result> initialResults = validate(validator, formula, first, second);
+		assertEquals(2, initialResults.size());
+		Map<String, Result> results = validate(validator, formula, first, second);
+		assertEquals(2, results.size());
+		assertSame(initialResults.get("first.config"), results.get("first.config"));
+		assertSame(initialResults.get("second.config"), results.get("second.config"));
+
+		write("second", "S", "B", "C");
+		results = validate(validator, formula, first, second);
+		assertSame(initialResults.get("first.config"), results.get("first.config"));
+		assertFalse(results.get("second.config").isValid());
+
+		// a new formula invalidates all previous results
+		results = validate(validator, new FeatureModelFormula(fm), first, second);
+		assertNotSame(initialResults.get("first.config"), results.get("first.config"));
+
+		validator.clear();
+		assertNotSame(results.get("first.config"), validate(validator, formula, first, second).get("first.config"));
+	}
+
+	@Test
+	public void testReportsUnreadableFiles() throws Exception {
+		final Map<String, Result> results = validate(new ConfigurationValidator(1), formula, folder.resolve("missing.config"));
+		assertFalse(results.get("missing.config").isValid());
+		assertFalse(results.get("missing.config").getProblems().isEmpty());
+	}
+
+}
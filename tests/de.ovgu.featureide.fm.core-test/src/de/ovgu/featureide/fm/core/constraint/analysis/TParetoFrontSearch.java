@@ -0,0 +1,107 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.constraint.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.constraint.RelationOperator;
+import de.ovgu.featureide.fm.core.constraint.analysis.ParetoFrontSearch.ParetoSolution;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Tests for {@link ParetoFrontSearch}.
+ */
+public class TParetoFrontSearch {
+
+	private static BigInteger[] values(int... values) {
+		final BigInteger[] bigValues = new BigInteger[values.length];
+		for (int i = 0; i < values.length; i++) {
+			bigValues[i] = BigInteger.valueOf(values[i]);
+		}
+		return bigValues;
+	}
+
+	private static boolean isSelected(int[] model, int id) {
+		for (final int literal : model) {
+			if (literal == id) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Exactly one of the variables 1, 2, 3 is selected, variable 4 is free and increases both objectives.
+	 */
+	private static ParetoFrontSearch createSearch() {
+		final List<DeRestriction> restrictions = Arrays.asList(
+				new DeRestriction(Arrays.asList(new Term(1, 1, true), new Term(2, 1, true), new Term(3, 1, true)), RelationOperator.EQUAL, 1),
+				new DeRestriction(Arrays.asList(new Term(4, 1, true)), RelationOperator.GREATER_EQUAL, 0));
+		final int[] ids = { 1, 2, 3, 4 };
+		return new ParetoFrontSearch(restrictions, Arrays.asList(ids, ids), Arrays.asList(values(1, 2, 3, 1), values(3, 2, 1, 1)));
+	}
+
+	@Test
+	public void testFindsCompleteFront() throws Exception {
+		final ParetoFrontSearch search = createSearch();
+		final List<ParetoSolution> front = search.execute(new NullMonitor<List<ParetoSolution>>());
+
+		assertTrue(search.isComplete());
+		assertEquals(3, front.size());
+		final Set<List<BigInteger>> frontValues = new HashSet<>();
+		for (final ParetoSolution solution : front) {
+			frontValues.add(Arrays.asList(solution.getValues()));
+			// variable 4 only makes a solution worse
+			assertFalse(isSelected(solution.getModel(), 4));
+		}
+		assertTrue(frontValues.contains(Arrays.asList(values(1, 3))));
+		assertTrue(frontValues.contains(Arrays.asList(values(2, 2))));
+		assertTrue(frontValues.contains(Arrays.asList(values(3, 1))));
+	}
+
+	@Test
+	public void testFrontIsIndependentOfThreads() throws Exception {
+		final ParetoFrontSearch search = createSearch();
+		search.setThreads(1);
+		assertEquals(3, search.execute(new NullMonitor<List<ParetoSolution>>()).size());
+	}
+
+	@Test
+	public void testSolutionsDoNotDominateEachOther() throws Exception {
+		final List<ParetoSolution> front = createSearch().execute(new NullMonitor<List<ParetoSolution>>());
+		for (final ParetoSolution solution : front) {
+			for (final ParetoSolution other : front) {
+				assertFalse(solution.dominates(other));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,86 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.constraint.analysis;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.constraint.RelationOperator;
+
+/**
+ * Tests for {@link SAT4JPBSolver#minimize(int[], BigInteger[], int[], int[])}.
+ */
+public class TSAT4JPBSolver {
+
+	private static final int[] IDS = { 1, 2, 3 };
+	private static final BigInteger[] COSTS = { BigInteger.valueOf(3), BigInteger.valueOf(2), BigInteger.valueOf(5) };
+	private static final BigInteger[] NEGATED_COSTS = { BigInteger.valueOf(-3), BigInteger.valueOf(-2), BigInteger.valueOf(-5) };
+
+	/**
+	 * @return A solver for "at least one of 1, 2, 3" and "not 1 and 2 together".
+	 */
+	private static SAT4JPBSolver createSolver() {
+		final SAT4JPBSolver solver = new SAT4JPBSolver();
+		solver.addRestriction(new DeRestriction(Arrays.asList(new Term(1, 1, true), new Term(2, 1, true), new Term(3, 1, true)),
+				RelationOperator.GREATER_EQUAL, 1));
+		solver.addRestriction(new DeRestriction(Arrays.asList(new Term(1, 1, true), new Term(2, 1, true)), RelationOperator.LESS_EQUAL, 1));
+		return solver;
+	}
+
+	private static int[] selected(int[] model) {
+		return new int[] { model[0] > 0 ? 1 : 0, model[1] > 0 ? 1 : 0, model[2] > 0 ? 1 : 0 };
+	}
+
+	@Test
+	public void testMinimize() {
+		final SAT4JPBSolver solver = createSolver();
+		assertArrayEquals(new int[] { 0, 1, 0 }, selected(solver.minimize(IDS, COSTS, new int[0], null)));
+		assertArrayEquals(new int[] { 1, 0, 0 }, selected(solver.minimize(IDS, COSTS, new int[] { -2 }, null)));
+		assertArrayEquals(new int[] { 1, 0, 1 }, selected(solver.minimize(IDS, NEGATED_COSTS, new int[0], null)));
+		assertNull(solver.minimize(IDS, COSTS, new int[] { 1, 2 }, null));
+	}
+
+	@Test
+	public void testBoundsDoNotRestrictLaterCalls() {
+		final SAT4JPBSolver solver = createSolver();
+		final int[] minimum = solver.minimize(IDS, COSTS, new int[0], null);
+		assertArrayEquals(new int[] { 1, 0, 1 }, selected(solver.minimize(IDS, NEGATED_COSTS, new int[0], minimum)));
+		assertTrue(solver.isSatisfiable(new int[] { 1, 3 }));
+	}
+
+	@Test
+	public void testSolverDoesNotGrow() {
+		final SAT4JPBSolver solver = createSolver();
+		for (int i = 0; i < (3 * SAT4JPBSolver.MAX_RETIRED_SELECTORS); i++) {
+			final boolean maximize = (i % 2) == 0;
+			final int[] model = solver.minimize(IDS, maximize ? NEGATED_COSTS : COSTS, new int[0], null);
+			assertArrayEquals(maximize ? new int[] { 1, 0, 1 } : new int[] { 0, 1, 0 }, selected(model));
+			assertTrue(solver.solver.nVars() <= (IDS.length + SAT4JPBSolver.MAX_RETIRED_SELECTORS));
+		}
+	}
+
+}
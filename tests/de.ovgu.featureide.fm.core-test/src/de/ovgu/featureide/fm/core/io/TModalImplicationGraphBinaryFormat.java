@@ -0,0 +1,109 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.mig.ModalImplicationGraph;
+import de.ovgu.featureide.fm.core.analysis.mig.Vertex;
+
+/**
+ * Tests for {@link ModalImplicationGraphBinaryFormat}.
+ */
+public class TModalImplicationGraphBinaryFormat {
+
+	private static ModalImplicationGraph createMIG() {
+		final CNF cnf = new CNF(new Variables(Arrays.asList("A", "B", "C", "D", "E")));
+		cnf.addClause(new LiteralSet(1));
+		cnf.addClause(new LiteralSet(-2, 1));
+		cnf.addClause(new LiteralSet(-3, 1));
+		cnf.addClause(new LiteralSet(-4, 3));
+		cnf.addClause(new LiteralSet(-1, 2, 3));
+		cnf.addClause(new LiteralSet(-5, 2, 4));
+		return ModalImplicationGraph.build(cnf, true);
+	}
+
+	private static void assertSameGraph(ModalImplicationGraph expected, ModalImplicationGraph actual) {
+		assertEquals(expected.getAdjList().size(), actual.getAdjList().size());
+		for (int i = 0; i < expected.getAdjList().size(); i++) {
+			final Vertex expectedVertex = expected.getAdjList().get(i);
+			final Vertex actualVertex = actual.getAdjList().get(i);
+			assertEquals(expectedVertex.getVar(), actualVertex.getVar());
+			assertEquals(expectedVertex.getId(), actualVertex.getId());
+			assertEquals(expectedVertex.isCore(), actualVertex.isCore());
+			assertEquals(expectedVertex.isDead(), actualVertex.isDead());
+			assertArrayEquals(sorted(expectedVertex.getStrongEdges()), actualVertex.getStrongEdges());
+			assertArrayEquals(sorted(expectedVertex.getComplexClauses()), actualVertex.getComplexClauses());
+		}
+		assertEquals(expected.getComplexClauses(), actual.getComplexClauses());
+	}
+
+	private static int[] sorted(int[] array) {
+		final int[] sortedArray = Arrays.copyOf(array, array.length);
+		Arrays.sort(sortedArray);
+		return sortedArray;
+	}
+
+	@Test
+	public void fileRoundTrip() throws IOException {
+		final ModalImplicationGraph mig = createMIG();
+		final ModalImplicationGraphBinaryFormat format = new ModalImplicationGraphBinaryFormat();
+		final Path file = Files.createTempFile("mig", "." + ModalImplicationGraphBinaryFormat.FILE_EXTENSION);
+		try {
+			format.write(mig, file);
+			assertSameGraph(mig, format.read(file));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	public void detectCorruption() {
+		final ModalImplicationGraphBinaryFormat format = new ModalImplicationGraphBinaryFormat();
+		final byte[] bytes = format.toBytes(createMIG());
+		for (final int index : new int[] { 4, bytes.length / 2, bytes.length - 1 }) {
+			final byte[] corruptedBytes = Arrays.copyOf(bytes, bytes.length);
+			corruptedBytes[index] ^= 0x10;
+			try {
+				format.read(ByteBuffer.wrap(corruptedBytes));
+				fail();
+			} catch (final IOException e) {}
+		}
+		try {
+			format.read(ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length - 3)));
+			fail();
+		} catch (final IOException e) {}
+	}
+
+}
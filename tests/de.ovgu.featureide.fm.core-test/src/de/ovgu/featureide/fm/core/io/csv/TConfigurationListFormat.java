@@ -0,0 +1,181 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.csv;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.Set;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+import de.ovgu.featureide.fm.core.analysis.cnf.SolutionList;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.io.ProblemList;
+import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
+
+/**
+ * Tests reading and writing of {@link ConfigurationListFormat} via strings, files, and channels.
+ */
+public class TConfigurationListFormat {
+
+	private static SolutionList createSolutionList() {
+		final SolutionList solutionList = new SolutionList();
+		solutionList.setVariables(new Variables(Arrays.asList("A", "B", "C")));
+		solutionList.addSolution(new LiteralSet(new int[] { 1, -2, 3 }, Order.INDEX, false));
+		solutionList.addSolution(new LiteralSet(new int[] { -1, -2, -3 }, Order.INDEX, false));
+		return solutionList;
+	}
+
+	@Test
+	public void stringRoundTrip() {
+		final ConfigurationListFormat format = new ConfigurationListFormat();
+		final SolutionList solutionList = createSolutionList();
+		final String content = SimpleFileHandler.saveToString(solutionList, format);
+		assertEquals("Configuration;A;B;C\n0;1;0;1\n1;0;0;0\n", content);
+
+		final SolutionList readList = new SolutionList();
+		assertFalse(SimpleFileHandler.loadFromString(content + "\n\n", readList, format).containsError());
+		assertEquals(solutionList.getSolutions(), readList.getSolutions());
+	}
+
+	@Test
+	public void fileRoundTrip() throws IOException {
+		final ConfigurationListFormat format = new ConfigurationListFormat();
+		final SolutionList solutionList = createSolutionList();
+		final Path file = Files.createTempFile("configurations", ".csv");
+		try {
+			assertFalse(SimpleFileHandler.save(file, solutionList, format).containsError());
+			final SolutionList readList = new SolutionList();
+			assertFalse(SimpleFileHandler.load(file, readList, format).containsError());
+			assertEquals(solutionList.getSolutions(), readList.getSolutions());
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	public void failedWriteKeepsFile() throws IOException {
+		final SolutionList solutionList = createSolutionList();
+		final Path directory = Files.createTempDirectory("configurations");
+		final Path file = directory.resolve("configurations.csv");
+		try {
+			assertFalse(SimpleFileHandler.save(file, solutionList, new ConfigurationListFormat()).containsError());
+			final byte[] content = Files.readAllBytes(file);
+
+			assertTrue(SimpleFileHandler.save(file, solutionList, new FailingFormat()).containsError());
+			assertEquals(new String(content, SimpleFileHandler.DEFAULT_CHARSET), new String(Files.readAllBytes(file), SimpleFileHandler.DEFAULT_CHARSET));
+			try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+				for (final Path otherFile : files) {
+					assertEquals(file, otherFile);
+				}
+			}
+		} finally {
+			Files.deleteIfExists(file);
+			Files.deleteIfExists(directory);
+		}
+	}
+
+	@Test
+	public void writeKeepsPermissionsAndLinks() throws IOException {
+		final SolutionList solutionList = createSolutionList();
+		final Path directory = Files.createTempDirectory("configurations");
+		final Path file = directory.resolve("configurations.csv");
+		final Path link = directory.resolve("link.csv");
+		try {
+			assertFalse(SimpleFileHandler.save(file, solutionList, new ConfigurationListFormat()).containsError());
+			final boolean posix = Files.getFileAttributeView(file, PosixFileAttributeView.class) != null;
+			final Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-rw-r--");
+			if (posix) {
+				Files.setPosixFilePermissions(file, permissions);
+			}
+			Files.createSymbolicLink(link, file.getFileName());
+
+			assertFalse(SimpleFileHandler.save(link, solutionList, new ConfigurationListFormat()).containsError());
+			assertTrue(Files.isSymbolicLink(link));
+			assertTrue(Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS));
+			if (posix) {
+				assertEquals(permissions, Files.getPosixFilePermissions(file));
+			}
+		} catch (final UnsupportedOperationException e) {
+			// symbolic links are not supported by the file system
+		} finally {
+			Files.deleteIfExists(link);
+			Files.deleteIfExists(file);
+			Files.deleteIfExists(directory);
+		}
+	}
+
+	@Test
+	public void channelRoundTrip() {
+		final ConfigurationListFormat format = new ConfigurationListFormat();
+		final SolutionList solutionList = createSolutionList();
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertFalse(SimpleFileHandler.save(Channels.newChannel(out), solutionList, format).containsError());
+
+		final SolutionList readList = new SolutionList();
+		final ProblemList problems = SimpleFileHandler.load(Channels.newChannel(new ByteArrayInputStream(out.toByteArray())), readList, format);
+		assertFalse(problems.containsError());
+		assertEquals(solutionList.getSolutions(), readList.getSolutions());
+	}
+
+	@Test
+	public void emptySource() {
+		final ProblemList problems = SimpleFileHandler.loadFromString("", new SolutionList(), new ConfigurationListFormat());
+		assertTrue(problems.containsError());
+	}
+
+	/**
+	 * Fails after the header was written.
+	 */
+	private static class FailingFormat extends ConfigurationListFormat {
+
+		@Override
+		public void write(SolutionList configurationList, Writer target) throws IOException {
+			target.write("Configuration");
+			target.flush();
+			throw new IOException("Disk full");
+		}
+
+		@Override
+		public ConfigurationListFormat getInstance() {
+			return this;
+		}
+
+	}
+
+}
@@ -0,0 +1,210 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.manager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent.EventType;
+import de.ovgu.featureide.fm.core.base.impl.DefaultFeatureModelFactory;
+import de.ovgu.featureide.fm.core.init.FMCoreLibrary;
+import de.ovgu.featureide.fm.core.init.LibraryManager;
+import de.ovgu.featureide.fm.core.io.ProblemList;
+import de.ovgu.featureide.fm.core.io.xml.XmlFeatureModelFormat;
+
+/**
+ * Tests the snapshots of the {@link FeatureModelManager}.
+ */
+public class TFeatureModelManager {
+
+	private Path file;
+	private FeatureModelManager manager;
+
+	@Before
+	public void createManager() throws IOException {
+		LibraryManager.registerLibrary(FMCoreLibrary.getInstance());
+		file = Files.createTempFile("model", ".xml");
+		final DefaultFeatureModelFactory factory = DefaultFeatureModelFactory.getInstance();
+		final IFeatureModel featureModel = factory.create();
+		featureModel.addFeature(factory.createFeature(featureModel, "Root"));
+		featureModel.getStructure().setRoot(featureModel.getFeature("Root").getStructure());
+		FeatureModelManager.save(featureModel, file, new XmlFeatureModelFormat());
+		manager = FeatureModelManager.getInstance(file);
+		assertNotNull(manager);
+	}
+
+	@After
+	public void removeManager() throws IOException {
+		AFileManager.removeInstance(file, FeatureModelManager.class);
+		Files.delete(file);
+	}
+
+	@Test
+	public void testSnapshotIsReplacedAfterChanges() {
+		final IFeatureModel snapshot = manager.getSnapshot();
+		assertSame(snapshot, manager.getSnapshot());
+
+		manager.editObject(featureModel -> {}, FeatureModelManager.CHANGE_NOTHING);
+		assertSame(snapshot, manager.getSnapshot());
+
+		manager.editObject(featureModel -> {}, FeatureModelManager.CHANGE_ALL);
+		assertNotSame(snapshot, manager.getSnapshot());
+	}
+
+	@Test
+	public void testSnapshotIsKeptAfterPropertyChanges() {
+		final IFeatureModel snapshot = manager.getSnapshot();
+		final FeatureModelFormula formula = manager.getVariableFormula();
+
+		manager.editObject(featureModel -> featureModel.getProperty().set("key", "type", "value"), FeatureModelManager.CHANGE_MODEL_PROPERTY);
+		assertSame(snapshot, manager.getSnapshot());
+		assertSame(formula, manager.getVariableFormula());
+		assertEquals("value", snapshot.getProperty().get("key", "type", null));
+	}
+
+	@Test
+	public void testVariableFormulaIsReplacedAfterChanges() {
+		final FeatureModelFormula formula = manager.getVariableFormula();
+		assertSame(formula, manager.getVariableFormula());
+		assertSame(manager.getSnapshot(), formula.getFeatureModel());
+
+		manager.editObject(featureModel -> {}, FeatureModelManager.CHANGE_NOTHING);
+		assertSame(formula, manager.getVariableFormula());
+
+		manager.editObject(featureModel -> {}, FeatureModelManager.CHANGE_DEPENDENCIES);
+		assertNotSame(formula, manager.getVariableFormula());
+	}
+
+	@Test
+	public void testConcurrentReadersShareOneSnapshot() throws Exception {
+		final int threads = 8;
+		final CyclicBarrier barrier = new CyclicBarrier(threads);
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			final List<Future<IFeatureModel>> snapshots = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				snapshots.add(executor.submit(new Callable<IFeatureModel>() {
+
+					@Override
+					public IFeatureModel call() throws Exception {
+						barrier.await();
+						return manager.getSnapshot();
+					}
+				}));
+			}
+			final IFeatureModel snapshot = snapshots.get(0).get();
+			for (final Future<IFeatureModel> other : snapshots) {
+				assertSame(snapshot, other.get());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testValidSnapshotIsReadDuringEdit() throws Exception {
+		final IFeatureModel snapshot = manager.getSnapshot();
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		manager.getFileOperationLock().lock();
+		try {
+			final Future<IFeatureModel> reader = executor.submit(new Callable<IFeatureModel>() {
+
+				@Override
+				public IFeatureModel call() throws Exception {
+					return manager.getSnapshot();
+				}
+			});
+			assertSame(snapshot, reader.get(10, TimeUnit.SECONDS));
+		} finally {
+			manager.getFileOperationLock().unlock();
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testReadingCoalescesEvents() throws IOException {
+		final Path importFile = Files.createTempFile("import", ".xml");
+		try {
+			Files.copy(file, importFile, StandardCopyOption.REPLACE_EXISTING);
+			final FeatureModelManager importManager =
+				AFileManager.getOrCreateInstance(importFile, FeatureModelManager.class, new EventFiringFormat());
+			assertNotNull(importManager);
+			final List<FeatureIDEEvent> events = new ArrayList<>();
+			importManager.addListener(events::add);
+
+			importManager.overwrite();
+
+			assertFalse(importManager.getVarObject().isInBulkEdit());
+			assertEquals(2, events.size());
+			assertEquals(EventType.MODEL_DATA_CHANGED, events.get(0).getEventType());
+			assertEquals(3, ((List<?>) events.get(0).getNewValue()).size());
+			assertEquals(EventType.MODEL_DATA_OVERWRITTEN, events.get(1).getEventType());
+		} finally {
+			AFileManager.removeInstance(importFile, FeatureModelManager.class);
+			Files.delete(importFile);
+		}
+	}
+
+	/**
+	 * Fires one event per read feature, as importers building a model element by element do.
+	 */
+	private static class EventFiringFormat extends XmlFeatureModelFormat {
+
+		@Override
+		public ProblemList read(IFeatureModel object, CharSequence source) {
+			final ProblemList problems = super.read(object, source);
+			object.fireEvent(new FeatureIDEEvent(object, EventType.FEATURE_ADD));
+			object.fireEvent(new FeatureIDEEvent(object, EventType.FEATURE_ADD));
+			object.fireEvent(new FeatureIDEEvent(object, EventType.STRUCTURE_CHANGED));
+			return problems;
+		}
+
+		@Override
+		public XmlFeatureModelFormat getInstance() {
+			return new EventFiringFormat();
+		}
+
+	}
+
+}
@@ -0,0 +1,133 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.job;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.job.IJob.JobStatus;
+
+/**
+ * Tests for {@link JobExecutor}, {@link LongRunningThread}, and {@link JobSynchronizer}.
+ */
+public class TJobExecutor {
+
+	@Test(timeout = 10_000)
+	public void testPriorityOrder() {
+		final JobExecutor.PrioritizedTask build = JobExecutor.submit(() -> {}, JobExecutor.BUILD);
+		final JobExecutor.PrioritizedTask interactive1 = JobExecutor.submit(() -> {}, JobExecutor.INTERACTIVE);
+		final JobExecutor.PrioritizedTask interactive2 = JobExecutor.submit(() -> {}, JobExecutor.INTERACTIVE);
+		final JobExecutor.PrioritizedTask analysis = JobExecutor.submit(() -> {}, JobExecutor.LONG);
+		assertTrue(interactive1.compareTo(interactive2) < 0);
+		assertTrue(interactive2.compareTo(analysis) < 0);
+		assertTrue(analysis.compareTo(build) < 0);
+	}
+
+	@Test(timeout = 10_000)
+	public void testNestedJoin() throws InterruptedException {
+		final AtomicInteger count = new AtomicInteger();
+		final List<IRunner<Void>> runners = new ArrayList<>();
+		for (int i = 0; i < (4 * Runtime.getRuntime().availableProcessors()); i++) {
+			final IRunner<Void> runner = LongRunningWrapper.getThread(monitor -> {
+				final IRunner<Void> child = LongRunningWrapper.getThread(childMonitor -> {
+					count.incrementAndGet();
+					return null;
+				});
+				child.schedule();
+				child.join();
+				return null;
+			});
+			runner.schedule();
+			runners.add(runner);
+		}
+		for (final IRunner<Void> runner : runners) {
+			runner.join();
+			assertEquals(JobStatus.OK, runner.getStatus());
+		}
+		assertEquals(runners.size(), count.get());
+	}
+
+	@Test(timeout = 10_000)
+	public void testCancelBeforeStart() throws InterruptedException {
+		final AtomicInteger count = new AtomicInteger();
+		final IRunner<Void> runner = LongRunningWrapper.getThread(monitor -> {
+			count.incrementAndGet();
+			return null;
+		});
+		assertTrue(runner.cancel());
+		runner.schedule();
+		runner.join();
+		assertEquals(0, count.get());
+		assertEquals(JobStatus.FAILED, runner.getStatus());
+	}
+
+	@Test(timeout = 10_000)
+	public void testCoalescing() throws InterruptedException {
+		final JobToken token = LongRunningWrapper.createToken(JobStartingStrategy.CANCEL_WAIT);
+		final CountDownLatch firstStarted = new CountDownLatch(1);
+		final CountDownLatch lastFinished = new CountDownLatch(1);
+		final AtomicInteger superseded = new AtomicInteger();
+
+		final IRunner<Void> first = LongRunningWrapper.getThread(monitor -> {
+			firstStarted.countDown();
+			while (true) {
+				monitor.checkCancel();
+				Thread.sleep(1);
+			}
+		});
+		LongRunningWrapper.startJob(token, first);
+		assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+
+		final List<IRunner<Void>> runners = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			final IRunner<Void> runner = LongRunningWrapper.getThread(monitor -> {
+				superseded.incrementAndGet();
+				return null;
+			});
+			runners.add(runner);
+			LongRunningWrapper.startJob(token, runner);
+		}
+		final IRunner<Void> last = LongRunningWrapper.getThread(monitor -> {
+			lastFinished.countDown();
+			return null;
+		});
+		LongRunningWrapper.startJob(token, last);
+
+		assertTrue(lastFinished.await(5, TimeUnit.SECONDS));
+		first.join();
+		assertEquals(JobStatus.FAILED, first.getStatus());
+		assertEquals(0, superseded.get());
+		for (final IRunner<Void> runner : runners) {
+			assertFalse(runner.getStatus() == JobStatus.OK);
+		}
+		LongRunningWrapper.removeToken(token);
+	}
+
+}
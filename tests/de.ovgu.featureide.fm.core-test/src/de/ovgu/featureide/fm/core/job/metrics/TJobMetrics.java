@@ -0,0 +1,135 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.job.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.SimpleSatSolver;
+import de.ovgu.featureide.fm.core.job.LongRunningMethod;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+import de.ovgu.featureide.fm.core.job.metrics.ExecutionRecord.Counter;
+import de.ovgu.featureide.fm.core.job.metrics.MetricsRegistry.MethodStatistics;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
+
+/**
+ * Tests for {@link JobMetrics}.
+ */
+public class TJobMetrics {
+
+	private static class SolverMethod implements LongRunningMethod<Boolean> {
+
+		@Override
+		public Boolean execute(IMonitor<Boolean> monitor) throws Exception {
+			final CNF cnf = new CNF(new Variables(Arrays.asList("A", "B")));
+			cnf.addClause(new LiteralSet(-1, 2));
+			final SimpleSatSolver solver = new SimpleSatSolver(cnf);
+			return (solver.hasSolution(1) == SatResult.TRUE) && (solver.hasSolution(1, -2) == SatResult.FALSE);
+		}
+	}
+
+	private static class CanceledMethod implements LongRunningMethod<Void> {
+
+		@Override
+		public Void execute(IMonitor<Void> monitor) throws Exception {
+			throw new MethodCancelException();
+		}
+	}
+
+	private MetricsRegistry registry;
+
+	@Before
+	public void setUp() {
+		registry = new MetricsRegistry();
+		JobMetrics.setRegistry(registry);
+	}
+
+	@After
+	public void tearDown() {
+		JobMetrics.setRegistry(null);
+	}
+
+	@Test
+	public void testSolverCounters() {
+		assertEquals(Boolean.TRUE, LongRunningWrapper.runMethod(new SolverMethod()));
+		assertEquals(Boolean.TRUE, LongRunningWrapper.runMethod(new SolverMethod()));
+
+		final List<MethodStatistics> statistics = registry.getStatistics();
+		assertEquals(1, statistics.size());
+		final MethodStatistics method = statistics.get(0);
+		assertEquals(SolverMethod.class.getName(), method.getName());
+		assertEquals(2, method.getExecutions());
+		assertEquals(4, method.getCounter(Counter.SOLVER_CALLS));
+		assertEquals(0, method.getCounter(Counter.SOLVER_TIMEOUTS));
+		assertTrue(method.getWallTime() > 0);
+	}
+
+	@Test
+	public void testNestedAndCanceled() {
+		LongRunningWrapper.runMethod(monitor -> {
+			LongRunningWrapper.runMethod(new SolverMethod());
+			return LongRunningWrapper.runMethod(new CanceledMethod(), null);
+		});
+
+		assertEquals(3, registry.getStatistics().size());
+		for (final MethodStatistics method : registry.getStatistics()) {
+			assertEquals(1, method.getExecutions());
+			if (method.getName().equals(SolverMethod.class.getName())) {
+				assertEquals(2, method.getCounter(Counter.SOLVER_CALLS));
+			} else {
+				assertEquals(0, method.getCounter(Counter.SOLVER_CALLS));
+			}
+			assertEquals(method.getName().equals(CanceledMethod.class.getName()) ? 1 : 0, method.getCanceled());
+		}
+	}
+
+	@Test
+	public void testExport() throws IOException {
+		LongRunningWrapper.runMethod(new SolverMethod());
+
+		final StringWriter csv = new StringWriter();
+		MetricsExporter.writeCSV(registry.getStatistics(), csv);
+		final String[] lines = csv.toString().split("\n");
+		assertEquals(2, lines.length);
+		assertTrue(lines[0].endsWith("solverCalls;solverConflicts;solverTimeouts"));
+		assertTrue(lines[1].startsWith(SolverMethod.class.getName() + ";1;0;0;"));
+
+		final StringWriter json = new StringWriter();
+		MetricsExporter.writeJSON(registry.getStatistics(), json);
+		assertTrue(json.toString().contains("\"method\": \"" + SolverMethod.class.getName() + "\""));
+		assertTrue(json.toString().contains("\"solverCalls\": 2"));
+	}
+
+}
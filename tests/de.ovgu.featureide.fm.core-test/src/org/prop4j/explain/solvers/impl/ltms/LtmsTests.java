@@ -0,0 +1,106 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.explain.solvers.impl.ltms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+
+/**
+ * Tests for {@link Ltms}.
+ */
+public class LtmsTests {
+
+	@Test
+	public void testExplanation() {
+		final Ltms ltms = new Ltms();
+		ltms.addFormula(new And("A", new Or(new Not("A"), "B"), "C", new Or("C", new Not("D")), new Not("B")));
+		final Set<Node> expected = new HashSet<>();
+		expected.add(new Or("A"));
+		expected.add(new Or(new Literal("A", false), "B"));
+		expected.add(new Or(new Literal("B", false)));
+		final Set<Node> actual = new HashSet<>();
+		for (final int index : ltms.getMinimalUnsatisfiableSubsetIndexes()) {
+			actual.add(ltms.getClause(index));
+		}
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	public void testExplanationWithPremises() {
+		final Ltms ltms = new Ltms();
+		ltms.addFormula(new And(new Or(new Not("A"), "B"), new Or(new Not("B"), "C"), new Or(new Not("C"), new Not("A")), new Or("D", "E")));
+		ltms.addAssumption("A", true);
+		assertEquals(new TreeSet<>(Arrays.asList(0, 1, 2)), ltms.getMinimalUnsatisfiableSubsetIndexes());
+		assertEquals(Boolean.TRUE, ltms.getModel().get("A"));
+	}
+
+	@Test
+	public void testPremiseContradiction() {
+		final Ltms ltms = new Ltms();
+		ltms.addFormula(new And(new Or("A", "B"), new Not("C")));
+		ltms.addAssumption("C", true);
+		final List<Set<Integer>> explanations = ltms.getAllMinimalUnsatisfiableSubsetIndexes();
+		assertEquals(1, explanations.size());
+		assertEquals(new TreeSet<>(Arrays.asList(1)), explanations.get(0));
+	}
+
+	@Test
+	public void testDuplicateLiterals() {
+		final Ltms ltms = new Ltms();
+		ltms.addFormula(new And("A", new Or(new Not("A"), new Not("A"), "B"), new Not("B")));
+		assertEquals(new TreeSet<>(Arrays.asList(0, 1, 2)), ltms.getMinimalUnsatisfiableSubsetIndexes());
+	}
+
+	@Test
+	public void testNoContradiction() {
+		final Ltms ltms = new Ltms();
+		ltms.addFormula(new And(new Or(new Not("A"), "B"), new Or("B", "C")));
+		ltms.addAssumption("A", true);
+		assertTrue(ltms.getAllMinimalUnsatisfiableSubsetIndexes().isEmpty());
+		assertEquals(Boolean.TRUE, ltms.getModel().get("B"));
+	}
+
+	@Test
+	public void testPushPop() {
+		final Ltms ltms = new Ltms();
+		ltms.addFormula(new Or(new Not("A"), "B"));
+		ltms.addAssumption("A", true);
+		ltms.push();
+		ltms.addFormula(new Not("B"));
+		assertEquals(new TreeSet<>(Arrays.asList(0, 1)), ltms.getMinimalUnsatisfiableSubsetIndexes());
+		ltms.pop();
+		assertEquals(1, ltms.getClauseCount());
+		assertTrue(ltms.getAllMinimalUnsatisfiableSubsetIndexes().isEmpty());
+	}
+}
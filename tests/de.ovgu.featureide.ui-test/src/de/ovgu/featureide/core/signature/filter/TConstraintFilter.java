@@ -0,0 +1,111 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.core.signature.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+
+import de.ovgu.featureide.core.signature.base.IConstrainedObject;
+
+/**
+ * Tests for {@link ConstraintFilter}.
+ */
+public class TConstraintFilter {
+
+	private static final Node[] CONSTRAINTS = { new Implies(new Literal("A"), new Literal("B")), new Not(new Literal("C")), new Literal("D") };
+
+	private static IConstrainedObject object(final Node constraint) {
+		return new IConstrainedObject() {
+
+			@Override
+			public Node getConstraint() {
+				return constraint;
+			}
+		};
+	}
+
+	@Test
+	public void testLiterals() {
+		final ConstraintFilter filter = new ConstraintFilter(CONSTRAINTS);
+		assertTrue(filter.test(object(new Not(new Literal("C")))));
+		assertTrue(filter.test(object(new Literal("D"))));
+		assertFalse(filter.test(object(new Literal("C"))));
+		assertFalse(filter.test(object(new Literal("A"))));
+		// a variable that does not occur in the constraints can have any value
+		assertFalse(filter.test(object(new Literal("X"))));
+	}
+
+	@Test
+	public void testComposedConstraints() {
+		final ConstraintFilter filter = new ConstraintFilter(CONSTRAINTS);
+		assertTrue(filter.test(object(new Or(new Literal("A"), new Literal("D")))));
+		assertTrue(filter.test(object(new And(new Literal("B"), new Literal("D")))));
+		assertFalse(filter.test(object(new And(new Literal("A"), new Literal("C")))));
+		assertFalse(filter.test(object(new Or(new Literal("A"), new Literal("B")))));
+	}
+
+	@Test
+	public void testNullConstraint() {
+		assertTrue(new ConstraintFilter(CONSTRAINTS).test(object(null)));
+		assertFalse(new ConstraintFilter(false, CONSTRAINTS).test(object(null)));
+	}
+
+	@Test
+	public void testContradictoryConstraints() {
+		final ConstraintFilter filter = new ConstraintFilter(new Literal("D"), new Not(new Literal("D")));
+		assertTrue(filter.test(object(new Literal("A"))));
+		assertTrue(filter.test(object(new Not(new Literal("D")))));
+	}
+
+	@Test
+	public void testParallelFilterKeepsOrder() {
+		final List<IConstrainedObject> objects = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			objects.add(object(new Literal((i % 2) == 0 ? "D" : "C")));
+			objects.add(object(new Or(new Literal("A"), new Literal("D"))));
+		}
+		final ConstraintFilter filter = new ConstraintFilter(CONSTRAINTS);
+		final List<IConstrainedObject> expected = new ArrayList<>();
+		for (final IConstrainedObject object : objects) {
+			if (new ConstraintFilter(CONSTRAINTS).test(object)) {
+				expected.add(object);
+			}
+		}
+		final List<IConstrainedObject> filtered = filter.filter(objects);
+		assertEquals(300, filtered.size());
+		assertEquals(expected, filtered);
+		assertEquals(filtered, filter.filter(Arrays.asList(objects.toArray(new IConstrainedObject[0]))));
+	}
+
+}
@@ -0,0 +1,144 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.ui.actions.generator.BuildStage.FailureHandler;
+import de.ovgu.featureide.ui.actions.generator.BuildStage.StageTask;
+
+/**
+ * Tests for {@link BuildStage}.
+ */
+public class TBuildStage {
+
+	private static final FailureHandler<Integer> NO_FAILURES = new FailureHandler<Integer>() {
+
+		@Override
+		public void failed(Integer element, Exception exception) {
+			throw new AssertionError(exception);
+		}
+	};
+
+	@Test
+	public void testProcessesAllElements() throws InterruptedException {
+		final List<Integer> processed = Collections.synchronizedList(new ArrayList<Integer>());
+		final BuildStage<Integer> stage = new BuildStage<>("Test", 3, 2, new StageTask<Integer>() {
+
+			@Override
+			public void process(Integer element) {
+				processed.add(element);
+			}
+		}, NO_FAILURES);
+
+		for (int i = 0; i < 100; i++) {
+			stage.submit(i);
+		}
+		assertTrue(stage.finish(10_000));
+		assertEquals(100, processed.size());
+		assertEquals(100, stage.getCompleted());
+		assertEquals(0, stage.getPending());
+		Collections.sort(processed);
+		for (int i = 0; i < 100; i++) {
+			assertEquals(i, processed.get(i).intValue());
+		}
+	}
+
+	@Test
+	public void testFullStageRejectsElements() throws InterruptedException {
+		final CountDownLatch release = new CountDownLatch(1);
+		final BuildStage<Integer> stage = new BuildStage<>("Test", 1, 1, new StageTask<Integer>() {
+
+			@Override
+			public void process(Integer element) throws InterruptedException {
+				release.await();
+			}
+		}, NO_FAILURES);
+
+		// one running and one queued element
+		assertTrue(stage.offer(1, 1000));
+		assertTrue(stage.offer(2, 1000));
+		assertFalse(stage.offer(3, 100));
+		assertEquals(2, stage.getPending());
+
+		release.countDown();
+		assertTrue(stage.offer(3, 10_000));
+		assertTrue(stage.finish(10_000));
+		assertEquals(3, stage.getCompleted());
+	}
+
+	@Test
+	public void testReportsFailures() throws InterruptedException {
+		final Exception exception = new Exception();
+		final List<Integer> failedElements = Collections.synchronizedList(new ArrayList<Integer>());
+		final List<Exception> exceptions = Collections.synchronizedList(new ArrayList<Exception>());
+		final BuildStage<Integer> stage = new BuildStage<>("Test", 2, 2, new StageTask<Integer>() {
+
+			@Override
+			public void process(Integer element) throws Exception {
+				if ((element % 2) == 0) {
+					throw exception;
+				}
+			}
+		}, new FailureHandler<Integer>() {
+
+			@Override
+			public void failed(Integer element, Exception e) {
+				failedElements.add(element);
+				exceptions.add(e);
+			}
+		});
+
+		for (int i = 0; i < 10; i++) {
+			stage.submit(i);
+		}
+		assertTrue(stage.finish(10_000));
+		assertEquals(5, stage.getCompleted());
+		assertEquals(5, stage.getFailed());
+		assertEquals(5, failedElements.size());
+		for (final Integer element : failedElements) {
+			assertEquals(0, element % 2);
+		}
+		assertSame(exception, exceptions.get(0));
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void testCanceledStageRejectsElements() throws InterruptedException {
+		final BuildStage<Integer> stage = new BuildStage<>("Test", 1, 1, new StageTask<Integer>() {
+
+			@Override
+			public void process(Integer element) {}
+		}, NO_FAILURES);
+		stage.cancel();
+		stage.submit(1);
+	}
+
+}
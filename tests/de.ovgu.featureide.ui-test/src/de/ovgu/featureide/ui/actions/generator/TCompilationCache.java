@@ -0,0 +1,145 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.ovgu.featureide.ui.actions.generator.CompilationCache.Problem;
+import de.ovgu.featureide.ui.actions.generator.CompilationCache.SourceFile;
+
+/**
+ * Tests for {@link CompilationCache}.
+ */
+public class TCompilationCache {
+
+	private Path root;
+	private Path sourceFolder;
+	private Path outputFolder;
+	private CompilationCache cache;
+
+	@Before
+	public void setUp() throws IOException {
+		root = Files.createTempDirectory("compilationCache");
+		sourceFolder = Files.createDirectories(root.resolve("src"));
+		outputFolder = Files.createDirectories(root.resolve("bin"));
+		cache = new CompilationCache(root.resolve("cache"));
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		CompilationCache.clear(root);
+		Files.delete(root);
+	}
+
+	private Path writeSource(String name, String content) throws IOException {
+		return Files.write(sourceFolder.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private Path writeClass(String name) throws IOException {
+		final Path classFile = outputFolder.resolve("p").resolve(name);
+		Files.createDirectories(classFile.getParent());
+		return Files.write(classFile, name.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private List<SourceFile> analyze(Path... files) throws IOException {
+		return cache.analyze(sourceFolder, Arrays.asList(files));
+	}
+
+	@Test
+	public void testKeyDependsOnDependencies() throws IOException {
+		final Path a = writeSource("A.java", "package p; class A { B b; }");
+		final Path b = writeSource("B.java", "package p; class B { }");
+		final Path c = writeSource("C.java", "package p; class C { }");
+		final List<SourceFile> before = analyze(a, b, c);
+
+		writeSource("B.java", "package p; class B { int x; }");
+		final List<SourceFile> after = analyze(a, b, c);
+
+		assertFalse(before.get(0).getKey().equals(after.get(0).getKey()));
+		assertFalse(before.get(1).getKey().equals(after.get(1).getKey()));
+		assertEquals(before.get(2).getKey(), after.get(2).getKey());
+	}
+
+	@Test
+	public void testRestoresStoredClassFiles() throws IOException {
+		final Path a = writeSource("A.java", "package p; class A { class Inner { } }");
+		final Path b = writeSource("B.java", "package p; class B { }");
+		final List<SourceFile> sourceFiles = analyze(a, b);
+		assertNull(cache.restore(sourceFiles.get(0), outputFolder));
+
+		writeClass("A.class");
+		writeClass("A$Inner.class");
+		writeClass("B.class");
+		cache.store(sourceFiles.get(0), outputFolder, Collections.<Problem> emptyList());
+		CompilationCache.clear(outputFolder);
+
+		final List<Problem> problems = cache.restore(analyze(a, b).get(0), outputFolder);
+		assertNotNull(problems);
+		assertTrue(problems.isEmpty());
+		assertTrue(Files.exists(outputFolder.resolve("p/A.class")));
+		assertTrue(Files.exists(outputFolder.resolve("p/A$Inner.class")));
+		assertFalse(Files.exists(outputFolder.resolve("p/B.class")));
+		assertEquals(1, cache.getReusedCount());
+		assertEquals(1, cache.getCompiledCount());
+	}
+
+	@Test
+	public void testRestoresWarnings() throws IOException {
+		final Path a = writeSource("A.java", "package p; class A { }");
+		writeClass("A.class");
+		cache.store(analyze(a).get(0), outputFolder, Arrays.asList(new Problem(3, true, "The value of the field A.x is not used")));
+		CompilationCache.clear(outputFolder);
+
+		final List<Problem> problems = cache.restore(analyze(a).get(0), outputFolder);
+		assertEquals(1, problems.size());
+		assertEquals(3, problems.get(0).getLine());
+		assertTrue(problems.get(0).isWarning());
+		assertEquals("The value of the field A.x is not used", problems.get(0).getMessage());
+		assertFalse(Files.exists(outputFolder.resolve("p/problems.txt")));
+	}
+
+	@Test
+	public void testClearDeletesNestedFiles() throws IOException {
+		writeClass("A.class");
+		writeClass("B.class");
+		CompilationCache.clear(outputFolder);
+
+		assertTrue(Files.isDirectory(outputFolder));
+		assertFalse(Files.exists(outputFolder.resolve("p")));
+	}
+
+}
@@ -0,0 +1,156 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link VariantFileStore}.
+ */
+public class TVariantFileStore {
+
+	private Path root;
+	private Path storeFolder;
+	private VariantFileStore store;
+
+	@Before
+	public void setUp() throws IOException {
+		root = Files.createTempDirectory("variantFileStore");
+		storeFolder = root.resolve("store");
+		store = new VariantFileStore(storeFolder);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		CompilationCache.clear(root);
+		Files.delete(root);
+	}
+
+	private static Path write(Path file, String content) throws IOException {
+		Files.createDirectories(file.getParent());
+		return Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String read(Path file) throws IOException {
+		return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testCopiedFilesStayWritable() throws IOException {
+		final Path source = root.resolve("lib");
+		write(source.resolve("a.txt"), "a");
+		write(source.resolve("sub/b.txt"), "b");
+
+		store.copy(source, root.resolve("variant1/lib"));
+		store.copy(source, root.resolve("variant2/lib"));
+
+		for (final String variant : new String[] { "variant1", "variant2" }) {
+			final Path a = root.resolve(variant + "/lib/a.txt");
+			final Path b = root.resolve(variant + "/lib/sub/b.txt");
+			assertEquals("a", read(a));
+			assertEquals("b", read(b));
+			assertTrue(Files.isWritable(a));
+			assertTrue(Files.isWritable(b));
+		}
+		assertTrue(Files.isWritable(source.resolve("a.txt")));
+	}
+
+	@Test
+	public void testDeduplicatedFilesStayWritable() throws IOException {
+		final Path file1 = write(root.resolve("variant1/src/A.java"), "class A { }");
+		final Path file2 = write(root.resolve("variant2/src/A.java"), "class A { }");
+		final Path file3 = write(root.resolve("variant2/src/B.java"), "class B { }");
+
+		store.deduplicate(root.resolve("variant1"));
+		store.deduplicate(root.resolve("variant2"));
+
+		assertEquals("class A { }", read(file1));
+		assertEquals("class A { }", read(file2));
+		assertEquals("class B { }", read(file3));
+		assertTrue(Files.isWritable(file1));
+		assertTrue(Files.isWritable(file2));
+		assertTrue(Files.isWritable(file3));
+	}
+
+	@Test
+	public void testClearKeepsVariants() throws IOException {
+		final Path source = write(root.resolve("lib/a.txt"), "a");
+		final Path file = write(root.resolve("variant1/src/A.java"), "class A { }");
+		store.copy(source, root.resolve("variant2/a.txt"));
+		store.deduplicate(root.resolve("variant1"));
+		assertTrue(Files.isDirectory(storeFolder));
+
+		store.clear();
+
+		assertFalse(Files.exists(storeFolder));
+		assertEquals("a", read(root.resolve("variant2/a.txt")));
+		assertEquals("class A { }", read(file));
+		write(file, "class A { int x; }");
+		assertEquals("class A { int x; }", read(file));
+	}
+
+	@Test
+	public void testClearSeparatesVariants() throws IOException {
+		final Path source = write(root.resolve("lib/a.txt"), "a");
+		final Path file1 = write(root.resolve("variant1/src/A.java"), "class A { }");
+		final Path file2 = write(root.resolve("variant2/src/A.java"), "class A { }");
+		store.copy(source, root.resolve("variant1/a.txt"));
+		store.copy(source, root.resolve("variant2/a.txt"));
+		store.deduplicate(root.resolve("variant1"));
+		store.deduplicate(root.resolve("variant2"));
+
+		store.clear();
+
+		assertFalse(Files.isSameFile(root.resolve("variant1/a.txt"), root.resolve("variant2/a.txt")));
+		assertFalse(Files.isSameFile(file1, file2));
+		write(root.resolve("variant1/a.txt"), "changed");
+		write(file1, "class A { int x; }");
+		assertEquals("a", read(root.resolve("variant2/a.txt")));
+		assertEquals("class A { }", read(file2));
+		assertEquals("a", read(source));
+	}
+
+	@Test
+	public void testChangedVariantDoesNotChangeNextRun() throws IOException {
+		final Path source = write(root.resolve("lib/a.txt"), "a");
+		final Path variant1 = root.resolve("variant1/a.txt");
+		store.copy(source, variant1);
+		store.clear();
+		write(variant1, "changed");
+
+		final Path variant2 = root.resolve("variant2/a.txt");
+		store.copy(source, variant2);
+		assertEquals("a", read(variant2));
+		assertEquals("a", read(source));
+	}
+
+}